@@ -61,6 +61,11 @@ public class A2AError extends RuntimeException {
      */
     public static final int AUTHORIZATION_ERROR = 1005;
 
+    /**
+     * Server overloaded error code, the agent has no execution capacity left
+     */
+    public static final int SERVER_OVERLOADED = -32050;
+
     private int code;
 
     private Object data;
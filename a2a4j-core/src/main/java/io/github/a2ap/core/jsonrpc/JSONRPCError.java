@@ -39,6 +39,7 @@ import java.util.Objects;
  * - TASK_NOT_FOUND (-32000): Requested task does not exist
  * - AUTHENTICATION_FAILED (-32001): Authentication credentials are invalid
  * - PUSH_NOTIFICATION_NOT_SUPPORTED (-32002): Push notifications are not supported
+ * - SERVER_OVERLOADED (-32050): The agent has no execution capacity left, retry later
  * 
  * The error object may include additional data to provide more context about
  * the specific error condition.
@@ -84,6 +85,8 @@ public class JSONRPCError {
 
     public static final int PUSH_NOTIFICATION_NOT_SUPPORTED = -32002;
 
+    public static final int SERVER_OVERLOADED = -32050;
+
     public JSONRPCError() {
     }
 
@@ -16,6 +16,7 @@
 
 package io.github.a2ap.core.jsonrpc;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -74,6 +75,13 @@ public class JSONRPCResponse {
     @JsonProperty("id")
     private String id;
 
+    /**
+     * The sequence number of the streamed event carried by this response, sent as the id
+     * of its server-sent event rather than in the JSON-RPC payload.
+     */
+    @JsonIgnore
+    private Long eventId;
+
     /**
      * Default constructor
      */
@@ -176,6 +184,24 @@ public class JSONRPCResponse {
         this.id = id;
     }
 
+    /**
+     * Returns the id of the server-sent event carrying this response.
+     *
+     * @return The event id, null if the response is not resumable
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Sets the id of the server-sent event carrying this response.
+     *
+     * @param eventId The event id to set
+     */
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
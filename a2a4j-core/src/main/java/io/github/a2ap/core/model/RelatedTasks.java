@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.model;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-only list of the tasks related to a request, loaded only when they are read.
+ * <p>
+ * The list is built from task IDs, which are cheap to find. The tasks themselves are
+ * loaded on the first call of a {@link List} method, e.g. {@link #size()} or an
+ * iteration, and kept afterwards; tasks no longer stored are left out. Agents reading
+ * only part of the tasks should use {@link #getTaskIds()} or {@link #page(int, int)},
+ * which load nothing or only the requested tasks.
+ * <p>
+ * The {@link List} methods and {@link #page(int, int)} block the calling thread while the
+ * tasks are loaded, and throw an {@link IllegalStateException} when they would wait on a
+ * non-blocking Reactor thread. Agents running on such a thread should use
+ * {@link #pageAsync(int, int)} instead.
+ */
+public class RelatedTasks extends AbstractList<Task> {
+
+    private final List<String> taskIds;
+
+    private final Function<String, Mono<Task>> loader;
+
+    private volatile List<Task> tasks;
+
+    /**
+     * Creates a lazy list of related tasks.
+     *
+     * @param taskIds The IDs of the related tasks.
+     * @param loader  Loads a task by ID, returning null if it is not stored.
+     */
+    public RelatedTasks(List<String> taskIds, Function<String, Task> loader) {
+        this(loader == null ? null : id -> Mono.fromCallable(() -> loader.apply(id)), taskIds);
+    }
+
+    private RelatedTasks(Function<String, Mono<Task>> loader, List<String> taskIds) {
+        this.taskIds = List.copyOf(taskIds);
+        this.loader = loader;
+    }
+
+    /**
+     * Creates a lazy list of related tasks loaded without blocking.
+     *
+     * @param taskIds The IDs of the related tasks.
+     * @param loader  Loads a task by ID, completing empty if it is not stored.
+     * @return the related tasks
+     */
+    public static RelatedTasks ofAsync(List<String> taskIds, Function<String, Mono<Task>> loader) {
+        return new RelatedTasks(loader, taskIds);
+    }
+
+    /**
+     * Returns the IDs of the related tasks, without loading them.
+     *
+     * @return the task IDs
+     */
+    public List<String> getTaskIds() {
+        return taskIds;
+    }
+
+    /**
+     * Loads a page of the related tasks, without loading the others. Blocks the calling
+     * thread until the tasks of the page are loaded.
+     *
+     * @param offset The index of the first task ID of the page.
+     * @param limit  The maximum number of task IDs of the page.
+     * @return the tasks of the page still stored, in task ID order
+     * @throws IllegalStateException if it would wait on a non-blocking Reactor thread
+     */
+    public List<Task> page(int offset, int limit) {
+        return pageAsync(offset, limit).collectList().block();
+    }
+
+    /**
+     * Loads a page of the related tasks without blocking, and without loading the others.
+     *
+     * @param offset The index of the first task ID of the page.
+     * @param limit  The maximum number of task IDs of the page.
+     * @return Flux of the tasks of the page still stored, in task ID order
+     */
+    public Flux<Task> pageAsync(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        List<String> pageIds = offset >= taskIds.size() ? List.of()
+            : taskIds.subList(offset, (int) Math.min(taskIds.size(), (long) offset + limit));
+        return Flux.fromIterable(pageIds).concatMap(loader);
+    }
+
+    /**
+     * Returns whether the tasks have been loaded.
+     *
+     * @return true once a {@link List} method has loaded the tasks
+     */
+    public boolean isLoaded() {
+        return tasks != null;
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks().get(index);
+    }
+
+    @Override
+    public int size() {
+        return tasks().size();
+    }
+
+    /**
+     * Describes the list by its task IDs, so that logging a request context does not load
+     * the tasks.
+     */
+    @Override
+    public String toString() {
+        return "RelatedTasks{taskIds=" + taskIds + '}';
+    }
+
+    private List<Task> tasks() {
+        List<Task> loaded = tasks;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = tasks;
+                if (loaded == null) {
+                    loaded = List.copyOf(page(0, taskIds.size()));
+                    tasks = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+}
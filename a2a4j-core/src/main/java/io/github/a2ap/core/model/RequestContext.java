@@ -69,7 +69,9 @@ public class RequestContext {
     private Task task;
 
     /**
-     * A list of other tasks related to the current request (e.g., for tool use).
+     * A list of other tasks related to the current request (e.g., for tool use). The task
+     * manager provides the other tasks of the context as {@link RelatedTasks}, loaded only
+     * when they are read.
      */
     private List<Task> relatedTasks;
 
@@ -138,12 +140,20 @@ public class RequestContext {
         RequestContext that = (RequestContext) o;
         return Objects.equals(taskId, that.taskId) && Objects.equals(contextId, that.contextId)
                 && Objects.equals(request, that.request) && Objects.equals(task, that.task)
-                && Objects.equals(relatedTasks, that.relatedTasks);
+                && Objects.equals(relatedTasksKey(relatedTasks), relatedTasksKey(that.relatedTasks));
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(taskId, contextId, request, task, relatedTasks);
+        return Objects.hash(taskId, contextId, request, task, relatedTasksKey(relatedTasks));
+    }
+
+    /**
+     * Compares lazy related tasks by their task IDs, so that comparing or hashing a context
+     * does not load them.
+     */
+    private static Object relatedTasksKey(List<Task> relatedTasks) {
+        return relatedTasks instanceof RelatedTasks lazy ? lazy.getTaskIds() : relatedTasks;
     }
 
     @Override
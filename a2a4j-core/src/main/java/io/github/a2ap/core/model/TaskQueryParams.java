@@ -16,16 +16,23 @@
 
 package io.github.a2ap.core.model;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.Objects;
 
 /**
  * Parameters for querying tasks.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TaskQueryParams {
 
     /**
-     * The ID of the task.
+     * The ID of the task, sent as {@code id} as defined by the protocol.
      */
+    @JsonProperty("id")
+    @JsonAlias("taskId")
     private String taskId;
 
     /**
@@ -33,6 +40,12 @@ public class TaskQueryParams {
      */
     private String sessionId;
 
+    /**
+     * The number of most recent history messages to return with the task, all of them if
+     * not set.
+     */
+    private Integer historyLength;
+
     // Add other query parameters as needed based on A2A protocol
 
     /**
@@ -51,7 +64,7 @@ public class TaskQueryParams {
     }
 
     /**
-     * Constructor with all fields
+     * Constructor with taskId and sessionId
      *
      * @param taskId    The task ID
      * @param sessionId The session ID
@@ -61,6 +74,19 @@ public class TaskQueryParams {
         this.sessionId = sessionId;
     }
 
+    /**
+     * Constructor with all fields
+     *
+     * @param taskId        The task ID
+     * @param sessionId     The session ID
+     * @param historyLength The number of most recent history messages to return
+     */
+    public TaskQueryParams(String taskId, String sessionId, Integer historyLength) {
+        this.taskId = taskId;
+        this.sessionId = sessionId;
+        this.historyLength = historyLength;
+    }
+
     /**
      * Gets the task ID
      *
@@ -97,6 +123,24 @@ public class TaskQueryParams {
         this.sessionId = sessionId;
     }
 
+    /**
+     * Gets the number of most recent history messages to return
+     *
+     * @return The history length, null for the whole history
+     */
+    public Integer getHistoryLength() {
+        return historyLength;
+    }
+
+    /**
+     * Sets the number of most recent history messages to return
+     *
+     * @param historyLength The history length, null for the whole history
+     */
+    public void setHistoryLength(Integer historyLength) {
+        this.historyLength = historyLength;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -104,17 +148,19 @@ public class TaskQueryParams {
         if (o == null || getClass() != o.getClass())
             return false;
         TaskQueryParams that = (TaskQueryParams) o;
-        return Objects.equals(taskId, that.taskId) && Objects.equals(sessionId, that.sessionId);
+        return Objects.equals(taskId, that.taskId) && Objects.equals(sessionId, that.sessionId)
+                && Objects.equals(historyLength, that.historyLength);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(taskId, sessionId);
+        return Objects.hash(taskId, sessionId, historyLength);
     }
 
     @Override
     public String toString() {
-        return "TaskQueryParams{" + "taskId='" + taskId + '\'' + ", sessionId='" + sessionId + '\'' + '}';
+        return "TaskQueryParams{" + "taskId='" + taskId + '\'' + ", sessionId='" + sessionId + '\''
+                + ", historyLength=" + historyLength + '}';
     }
 
     /**
@@ -135,6 +181,8 @@ public class TaskQueryParams {
 
         private String sessionId;
 
+        private Integer historyLength;
+
         /**
          * Default constructor
          */
@@ -163,13 +211,24 @@ public class TaskQueryParams {
             return this;
         }
 
+        /**
+         * Sets the number of most recent history messages to return
+         *
+         * @param historyLength The history length
+         * @return This builder for chaining
+         */
+        public Builder historyLength(Integer historyLength) {
+            this.historyLength = historyLength;
+            return this;
+        }
+
         /**
          * Builds a new TaskQueryParams instance
          *
          * @return The built instance
          */
         public TaskQueryParams build() {
-            return new TaskQueryParams(taskId, sessionId);
+            return new TaskQueryParams(taskId, sessionId, historyLength);
         }
 
     }
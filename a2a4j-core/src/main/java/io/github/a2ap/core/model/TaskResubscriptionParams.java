@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parameters of a tasks/resubscribe request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskResubscriptionParams {
+
+    /**
+     * The ID of the task.
+     */
+    @JsonProperty("id")
+    private String id;
+
+    /**
+     * The id of the last server-sent event received, to resume the stream right after it.
+     * Same as the {@code Last-Event-ID} header of the reconnecting request.
+     */
+    @JsonProperty("lastEventId")
+    private Long lastEventId;
+
+    /**
+     * request metadata
+     */
+    @JsonProperty("metadata")
+    private Map<String, Object> metadata;
+
+    /**
+     * Default constructor
+     */
+    public TaskResubscriptionParams() {
+    }
+
+    /**
+     * Constructor with id
+     *
+     * @param id The task ID
+     */
+    public TaskResubscriptionParams(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Constructor with all fields
+     *
+     * @param id          The task ID
+     * @param lastEventId The id of the last event received
+     * @param metadata    The metadata
+     */
+    public TaskResubscriptionParams(String id, Long lastEventId, Map<String, Object> metadata) {
+        this.id = id;
+        this.lastEventId = lastEventId;
+        this.metadata = metadata;
+    }
+
+    /**
+     * Gets the task ID
+     *
+     * @return The task ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the task ID
+     *
+     * @param id The task ID to set
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the id of the last event received
+     *
+     * @return The last event id, null to subscribe from the replay window
+     */
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Sets the id of the last event received
+     *
+     * @param lastEventId The last event id to set
+     */
+    public void setLastEventId(Long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    /**
+     * Gets the metadata
+     *
+     * @return The metadata
+     */
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Sets the metadata
+     *
+     * @param metadata The metadata to set
+     */
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        TaskResubscriptionParams that = (TaskResubscriptionParams) o;
+        return Objects.equals(id, that.id) && Objects.equals(lastEventId, that.lastEventId)
+            && Objects.equals(metadata, that.metadata);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, lastEventId, metadata);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskResubscriptionParams{" + "id='" + id + '\'' + ", lastEventId=" + lastEventId + ", metadata="
+            + metadata + '}';
+    }
+
+    /**
+     * Returns a builder for TaskResubscriptionParams
+     *
+     * @return A new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder class for TaskResubscriptionParams
+     */
+    public static class Builder {
+
+        private String id;
+
+        private Long lastEventId;
+
+        private Map<String, Object> metadata;
+
+        /**
+         * Default constructor
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the task ID
+         *
+         * @param id The task ID
+         * @return This builder for chaining
+         */
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Sets the id of the last event received
+         *
+         * @param lastEventId The last event id
+         * @return This builder for chaining
+         */
+        public Builder lastEventId(Long lastEventId) {
+            this.lastEventId = lastEventId;
+            return this;
+        }
+
+        /**
+         * Sets the metadata
+         *
+         * @param metadata The metadata
+         * @return This builder for chaining
+         */
+        public Builder metadata(Map<String, Object> metadata) {
+            this.metadata = metadata;
+            return this;
+        }
+
+        /**
+         * Builds a new TaskResubscriptionParams instance
+         *
+         * @return The built instance
+         */
+        public TaskResubscriptionParams build() {
+            return new TaskResubscriptionParams(id, lastEventId, metadata);
+        }
+
+    }
+
+}
@@ -90,6 +90,24 @@ public enum TaskState {
         return value;
     }
 
+    /**
+     * Whether the state is terminal, i.e. the task will not be processed any further.
+     *
+     * @return true for COMPLETED, FAILED, CANCELED and REJECTED
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == CANCELED || this == REJECTED;
+    }
+
+    /**
+     * Whether the task is paused until the client sends more input or credentials.
+     *
+     * @return true for INPUT_REQUIRED and AUTH_REQUIRED
+     */
+    public boolean isInterrupted() {
+        return this == INPUT_REQUIRED || this == AUTH_REQUIRED;
+    }
+
     public static TaskState fromValue(String value) {
         for (TaskState state : TaskState.values()) {
             if (state.value.equals(value)) {
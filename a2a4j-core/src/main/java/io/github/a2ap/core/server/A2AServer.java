@@ -21,8 +21,11 @@ import io.github.a2ap.core.model.SendMessageResponse;
 import io.github.a2ap.core.model.SendStreamingMessageResponse;
 import io.github.a2ap.core.model.Task;
 import io.github.a2ap.core.model.TaskPushNotificationConfig;
+import io.github.a2ap.core.model.TaskQueryParams;
+import io.github.a2ap.core.model.TaskResubscriptionParams;
 import io.github.a2ap.core.model.MessageSendParams;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface defining the core functionality of an A2A server.
@@ -38,6 +41,18 @@ public interface A2AServer {
      */
     SendMessageResponse handleMessage(MessageSendParams params);
 
+    /**
+     * Handle send message task without blocking the calling thread.
+     * <p>
+     * The returned Mono completes once the agent has produced a final result for the
+     * request, so callers such as WebFlux handlers can release their thread while the
+     * agent is running.
+     *
+     * @param params The task params to send
+     * @return Mono of the SendMessageResponse, either the Task or a Message
+     */
+    Mono<SendMessageResponse> handleMessageAsync(MessageSendParams params);
+
     /**
      * Handle send task streaming.
      *
@@ -46,6 +61,20 @@ public interface A2AServer {
      */
     Flux<SendStreamingMessageResponse> handleMessageStream(MessageSendParams params);
 
+    /**
+     * Handle send task streaming, along with the sequence number of every event.
+     * <p>
+     * The sequence numbers are sent as the ids of the server-sent events, so a client can
+     * resume the stream with tasks/resubscribe if it loses it. The default implementation
+     * returns the events without sequence numbers.
+     *
+     * @param params The task params to send
+     * @return Streaming events with their sequence numbers
+     */
+    default Flux<SequencedEvent> handleSequencedMessageStream(MessageSendParams params) {
+        return handleMessageStream(params).map(SequencedEvent::of);
+    }
+
     /**
      * Gets a task by its ID.
      *
@@ -54,6 +83,33 @@ public interface A2AServer {
      */
     Task getTask(String taskId);
 
+    /**
+     * Gets a task by the query params of a tasks/get request.
+     * <p>
+     * Implementations should limit the returned history to the last
+     * {@code historyLength} messages when it is set. The default implementation returns
+     * the task as is.
+     *
+     * @param params The query params of the task
+     * @return The Task object or null if not found
+     */
+    default Task getTask(TaskQueryParams params) {
+        return getTask(params.getTaskId());
+    }
+
+    /**
+     * Gets a task by the query params of a tasks/get request without blocking the calling
+     * thread.
+     * <p>
+     * The default implementation calls {@link #getTask(TaskQueryParams)} on subscription.
+     *
+     * @param params The query params of the task
+     * @return Mono of the Task object, empty if not found
+     */
+    default Mono<Task> getTaskAsync(TaskQueryParams params) {
+        return Mono.fromCallable(() -> getTask(params));
+    }
+
     /**
      * Cancels a task.
      *
@@ -63,6 +119,18 @@ public interface A2AServer {
      */
     Task cancelTask(String taskId);
 
+    /**
+     * Cancels a task without blocking the calling thread.
+     * <p>
+     * The default implementation calls {@link #cancelTask(String)} on subscription.
+     *
+     * @param taskId The ID of the task to cancel
+     * @return Mono of the updated Task object
+     */
+    default Mono<Task> cancelTaskAsync(String taskId) {
+        return Mono.fromCallable(() -> cancelTask(taskId));
+    }
+
     /**
      * Sets or updates the push notification configuration for a task.
      *
@@ -103,4 +171,19 @@ public interface A2AServer {
      * @return A Flux of Task objects representing updates
      */
     Flux<SendStreamingMessageResponse> subscribeToTaskUpdates(String taskId);
+
+    /**
+     * Subscribes to updates for a specific task, along with the sequence number of every
+     * event.
+     * <p>
+     * Implementations should resume the stream right after the {@code lastEventId} of the
+     * params when it is set. The default implementation ignores it and returns the events
+     * without sequence numbers.
+     *
+     * @param params The params of the tasks/resubscribe request
+     * @return A Flux of the updates with their sequence numbers
+     */
+    default Flux<SequencedEvent> subscribeToSequencedTaskUpdates(TaskResubscriptionParams params) {
+        return subscribeToTaskUpdates(params.getId()).map(SequencedEvent::of);
+    }
 }
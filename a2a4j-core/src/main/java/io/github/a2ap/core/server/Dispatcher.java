@@ -19,6 +19,7 @@ package io.github.a2ap.core.server;
 import io.github.a2ap.core.jsonrpc.JSONRPCRequest;
 import io.github.a2ap.core.jsonrpc.JSONRPCResponse;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface for dispatching JSON-RPC requests to appropriate handlers.
@@ -35,6 +36,16 @@ public interface Dispatcher {
      */
     JSONRPCResponse dispatch(JSONRPCRequest request);
 
+    /**
+     * Dispatches a JSON-RPC request for non-blocking processing.
+     * This method produces the same response as {@link #dispatch(JSONRPCRequest)}, but
+     * never blocks the calling thread while the request is being handled.
+     *
+     * @param request The JSON-RPC request to be processed
+     * @return A Mono of the JSON-RPC response containing the result or error
+     */
+    Mono<JSONRPCResponse> dispatchAsync(JSONRPCRequest request);
+
     /**
      * Dispatches a JSON-RPC request for streaming/asynchronous processing.
      * This method is used for operations that return multiple responses over time,
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A batch of events of a task published through an {@link EventBroker}.
+ * <p>
+ * Events are relayed in batches, so that a streaming agent does not cost one broker
+ * round trip per token. The last batch of a task tells the subscribers that the event
+ * queue of the task was closed.
+ */
+public final class EventBatch {
+
+    private final List<SequencedEvent> events;
+
+    private final boolean last;
+
+    /**
+     * Constructs a new EventBatch.
+     *
+     * @param events The events, in sequence order.
+     * @param last   Whether the event queue of the task was closed after these events.
+     */
+    public EventBatch(List<SequencedEvent> events, boolean last) {
+        this.events = List.copyOf(Objects.requireNonNull(events, "events must not be null"));
+        this.last = last;
+    }
+
+    /**
+     * Returns the events of the batch.
+     *
+     * @return the events, in sequence order
+     */
+    public List<SequencedEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns whether the event queue of the task was closed after this batch.
+     *
+     * @return true if no batch follows
+     */
+    public boolean isLast() {
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        return "EventBatch{" + "events=" + events.size() + ", last=" + last + '}';
+    }
+
+}
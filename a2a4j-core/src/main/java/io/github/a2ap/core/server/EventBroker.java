@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publish/subscribe channel that relays the events of tasks between the nodes of a
+ * cluster, so that a client can follow a task from any node.
+ * <p>
+ * Implementations adapt a message broker such as Redis, Kafka or NATS. They buffer a
+ * bounded number of recent batches per task, so that a node subscribing after a task
+ * started still receives its recent events.
+ *
+ * @see io.github.a2ap.core.server.impl.BrokeredQueueManager
+ */
+public interface EventBroker {
+
+    /**
+     * Publishes a batch of events of a task to its subscribers on all nodes.
+     *
+     * @param taskId The ID of the task.
+     * @param batch  The batch of events.
+     * @return A Mono that completes once the batch is published.
+     */
+    Mono<Void> publish(String taskId, EventBatch batch);
+
+    /**
+     * Subscribes to the events of a task, starting with the batches still buffered.
+     *
+     * @param taskId The ID of the task.
+     * @return A Flux of batches that completes after the last batch of the task, or right
+     * away if no node is publishing events for the task.
+     */
+    Flux<EventBatch> subscribe(String taskId);
+
+}
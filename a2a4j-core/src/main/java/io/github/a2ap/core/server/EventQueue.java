@@ -16,58 +16,214 @@
 
 package io.github.a2ap.core.server;
 
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
 import io.github.a2ap.core.model.SendStreamingMessageResponse;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TaskStatusUpdateEvent;
+import io.github.a2ap.core.util.SizeEstimator;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
+import reactor.core.publisher.Operators;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Event queue for A2A responses from agent.
  * Acts as a buffer between the agent's asynchronous execution and the
  * server's response handling (e.g., streaming via SSE). Supports tapping
  * to create child queues that receive the same events.
- * This is the Java equivalent of Python's EventQueue using Reactor's Sinks.Many.
+ * Events may be enqueued from any thread, including several threads at once; emissions
+ * are serialized so that none of them is dropped.
+ * <p>
+ * Events are kept in a preallocated ring buffer of fixed capacity until every subscriber
+ * has received them, so a slow or stalled subscriber cannot grow the heap. Events
+ * enqueued before the first subscriber attaches are buffered and delivered to it. When
+ * the buffer is full, the {@link OverflowPolicy} of the queue decides what happens to
+ * the new event. Final events, i.e. messages and updates flagged as final, are never
+ * dropped, and one slot beyond the capacity is reserved for them: a final event is
+ * accepted even while intermediate events no longer fit.
+ * <p>
+ * Only the subscribers of the queue itself, the consumers the producer publishes to, hold
+ * producers back. When the overflow policy cannot make room, a subscriber of a tapped queue
+ * still holding the oldest buffered event is cut off instead: it completes, and may resume
+ * the stream after the last event it received with {@link #asSequencedFlux(long)}. A tapped
+ * queue nobody has subscribed to yet gives the event up the same way. A producer waiting
+ * for the subscribers of the queue never waits longer than the offer timeout of the queue,
+ * the event is rejected with an {@link IllegalStateException} once it has elapsed, so a
+ * stalled subscriber cannot hold a thread forever.
+ * <p>
+ * A queue may keep a replay window of its most recent events, bounded by a number of
+ * events and an estimated size in bytes. Subscribers attaching later, e.g. through
+ * tasks/resubscribe, first receive the events of the window and then the live stream.
+ * The window only holds on to buffer slots: it shrinks when the buffer is full instead of
+ * holding back producers.
+ * <p>
+ * Tapped queues share the buffer of the queue they were tapped from, each subscriber
+ * reads it from its own position. Delivering an event to many subscribers therefore
+ * neither copies nor allocates anything per subscriber, and subscribers attach and
+ * detach in constant time.
+ * <p>
+ * Every event gets a sequence number, increasing along the buffer, see
+ * {@link #asSequencedFlux(long)} to resume a stream after the last event received.
  */
 public class EventQueue {
 
+    /**
+     * The capacity of queues created without an explicit one.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The maximum time a producer waits for room in a full queue created without an
+     * explicit one.
+     */
+    public static final Duration DEFAULT_OFFER_TIMEOUT = Duration.ofSeconds(30);
+
     private static final Logger log = LoggerFactory.getLogger(EventQueue.class);
 
-    private final Sinks.Many<SendStreamingMessageResponse> sink;
-    private final List<EventQueue> children = new CopyOnWriteArrayList<>();
+
+    private static final long NO_RESUME = -1;
+
+    private final Core core;
+
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
 
+    // The fields below are guarded by the core lock
+
+    // Position at which the subscribers of this queue complete, set when it is closed
+    private long closedAt = Long.MAX_VALUE;
+
+    // Holds the events of this queue until its first subscriber attaches
+    private QueueSubscription pin;
+
+    /**
+     * Creates a queue with the {@link #DEFAULT_CAPACITY} that coalesces events when full.
+     */
     public EventQueue() {
-        this.sink = Sinks.many().multicast().onBackpressureBuffer();
-        log.debug("EventQueue initialized.");
+        this(DEFAULT_CAPACITY, OverflowPolicy.COALESCE);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity       The maximum number of events buffered for the slowest subscriber.
+     * @param overflowPolicy What to do with new events when the buffer is full.
+     */
+    public EventQueue(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a queue with a replay window.
+     *
+     * @param capacity       The maximum number of events buffered for the slowest subscriber.
+     * @param overflowPolicy What to do with new events when the buffer is full.
+     * @param replayEvents   The maximum number of recent events replayed to new subscribers,
+     *                       0 to disable replay. Must not exceed the capacity.
+     * @param replayBytes    The maximum estimated size of the replayed events.
+     */
+    public EventQueue(int capacity, OverflowPolicy overflowPolicy, int replayEvents, long replayBytes) {
+        this(capacity, overflowPolicy, replayEvents, replayBytes, DEFAULT_OFFER_TIMEOUT);
+    }
+
+    /**
+     * Creates a queue with a replay window and an offer timeout.
+     *
+     * @param capacity       The maximum number of events buffered for the slowest subscriber.
+     * @param overflowPolicy What to do with new events when the buffer is full.
+     * @param replayEvents   The maximum number of recent events replayed to new subscribers,
+     *                       0 to disable replay. Must not exceed the capacity.
+     * @param replayBytes    The maximum estimated size of the replayed events.
+     * @param offerTimeout   The maximum time a producer waits for room in the full buffer.
+     */
+    public EventQueue(int capacity, OverflowPolicy overflowPolicy, int replayEvents, long replayBytes,
+                      Duration offerTimeout) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        if (replayEvents < 0 || replayEvents > capacity) {
+            throw new IllegalArgumentException("replayEvents must be between 0 and the capacity");
+        }
+        if (replayBytes <= 0) {
+            throw new IllegalArgumentException("replayBytes must be greater than 0");
+        }
+        if (offerTimeout == null || offerTimeout.isNegative()) {
+            throw new IllegalArgumentException("offerTimeout must not be negative");
+        }
+        this.core = new Core(this, capacity, Objects.requireNonNull(overflowPolicy, "overflowPolicy must not be null"),
+            replayEvents, replayBytes, offerTimeout.toNanos());
+        this.pin = core.attach(this, null, 0);
+        log.debug("EventQueue initialized with capacity {}, overflow policy {} and replay window of {} events.",
+            capacity, overflowPolicy, replayEvents);
+    }
+
+    private EventQueue(Core core) {
+        this.core = core;
+    }
+
+    /**
+     * Creates a new builder for EventQueue.
+     *
+     * @return A new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
-     * Enqueues an event to this queue and all its children.
+     * Enqueues an event to this queue and all its children. Queues tapped from one another
+     * share their buffer, the event is delivered to the subscribers of all of them.
      *
      * @param event The event object to enqueue.
+     * @throws IllegalStateException if the queue is full and its overflow policy is
+     *                               {@link OverflowPolicy#FAIL_FAST}, or its subscribers kept
+     *                               it full for the offer timeout
      */
     public void enqueueEvent(SendStreamingMessageResponse event) {
-        if (isClosed.get()) {
+        if (isClosed()) {
             log.warn("Queue is closed. Event will not be enqueued.");
             return;
         }
 
         log.debug("Enqueuing event of type: {}", event.getClass().getSimpleName());
+        core.enqueue(event, SequencedEvent.NO_SEQUENCE);
+    }
 
-        Sinks.EmitResult result = sink.tryEmitNext(event);
-        if (result.isFailure()) {
-            log.warn("Failed to enqueue event: {}", result);
+    /**
+     * Enqueues an event relayed from another queue, e.g. on another node, keeping its
+     * sequence number so that streams can be resumed with the same {@code Last-Event-ID}
+     * on both queues. Events without a sequence number are enqueued like
+     * {@link #enqueueEvent(SendStreamingMessageResponse)}, events whose sequence number is
+     * not greater than the last one are ignored as duplicates.
+     *
+     * @param event The sequenced event to enqueue.
+     * @throws IllegalStateException if the queue is full and its overflow policy is
+     *                               {@link OverflowPolicy#FAIL_FAST}, or its subscribers kept
+     *                               it full for the offer timeout
+     */
+    public void enqueueEvent(SequencedEvent event) {
+        if (isClosed()) {
+            log.warn("Queue is closed. Event will not be enqueued.");
+            return;
         }
 
-        // Propagate to children
-        for (EventQueue child : children) {
-            child.enqueueEvent(event);
-        }
+        log.debug("Enqueuing relayed event {} of type: {}", event.getSequence(),
+            event.getEvent().getClass().getSimpleName());
+        core.enqueue(event.getEvent(), event.getSequence());
     }
 
     /**
@@ -76,19 +232,56 @@ public class EventQueue {
      * @return A Flux of events from the queue.
      */
     public Flux<SendStreamingMessageResponse> asFlux() {
-        return sink.asFlux();
+        return asSequencedFlux().map(SequencedEvent::getEvent);
+    }
+
+    /**
+     * Returns a Flux that emits events from this queue along with their sequence numbers.
+     *
+     * @return A Flux of sequenced events from the queue.
+     */
+    public Flux<SequencedEvent> asSequencedFlux() {
+        Publisher<SequencedEvent> publisher = actual -> core.subscribe(this, actual, NO_RESUME);
+        return Flux.from(publisher);
+    }
+
+    /**
+     * Returns a Flux that resumes a stream of this queue after the given sequence number.
+     * <p>
+     * The events still buffered after {@code lastSequence} are emitted first, then the live
+     * stream. If some of the missed events are no longer buffered, the Flux starts with the
+     * oldest buffered event: the sequence number of its first event is then greater than
+     * {@code lastSequence + 1}.
+     *
+     * @param lastSequence The sequence number of the last event received, 0 to receive all
+     *                     buffered events.
+     * @return A Flux of sequenced events from the queue.
+     */
+    public Flux<SequencedEvent> asSequencedFlux(long lastSequence) {
+        if (lastSequence < 0) {
+            throw new IllegalArgumentException("lastSequence must not be negative");
+        }
+        Publisher<SequencedEvent> publisher = actual -> core.subscribe(this, actual, lastSequence);
+        return Flux.from(publisher);
     }
 
     /**
      * Taps the event queue to create a new child queue that receives all future events.
+     * The child reads the buffer of this queue, nothing is copied.
      *
-     * @return A new EventQueue instance that will receive all events enqueued
-     * to this parent queue from this point forward.
+     * @return A new EventQueue instance that will receive the events of the replay
+     * window, if any, and all events enqueued to this parent queue from this point forward.
      */
     public EventQueue tap() {
         log.debug("Tapping EventQueue to create a child queue.");
-        EventQueue childQueue = new EventQueue();
-        children.add(childQueue);
+        EventQueue childQueue = new EventQueue(core);
+        core.lock.lock();
+        try {
+            // The child holds the events from the replay window on until it is subscribed
+            childQueue.pin = core.attach(childQueue, null, Math.min(core.replayStart, core.tail));
+        } finally {
+            core.lock.unlock();
+        }
         return childQueue;
     }
 
@@ -100,21 +293,944 @@ public class EventQueue {
     public void close() {
         if (isClosed.compareAndSet(false, true)) {
             log.debug("Closing EventQueue.");
-            sink.tryEmitComplete();
-
-            // Close all child queues
-            for (EventQueue child : children) {
-                child.close();
-            }
+            core.close(this);
         }
     }
 
     /**
      * Checks if the queue is closed.
      *
-     * @return true if the queue is closed, false otherwise.
+     * @return true if the queue, or the queue it was tapped from, is closed.
      */
     public boolean isClosed() {
-        return isClosed.get();
+        return isClosed.get() || core.root.isClosed.get();
+    }
+
+    /**
+     * Returns the maximum number of events the queue buffers.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return core.capacity;
+    }
+
+    /**
+     * Returns the overflow policy of the queue.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return core.overflowPolicy;
+    }
+
+    /**
+     * Returns the maximum time a producer waits for room in the full buffer.
+     *
+     * @return the offer timeout
+     */
+    public Duration getOfferTimeout() {
+        return Duration.ofNanos(core.offerTimeoutNanos);
     }
+
+    /**
+     * Returns the number of events buffered, for the slowest subscriber or the replay
+     * window.
+     *
+     * @return the number of buffered events
+     */
+    public int getSize() {
+        core.lock.lock();
+        try {
+            return (int) (core.tail - core.head);
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the largest number of events buffered at once.
+     *
+     * @return the high-water mark
+     */
+    public int getHighWaterMark() {
+        core.lock.lock();
+        try {
+            return core.highWaterMark;
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events in the replay window.
+     *
+     * @return the number of replayable events
+     */
+    public int getReplayWindowSize() {
+        core.lock.lock();
+        try {
+            return (int) (core.tail - Math.min(core.replayStart, core.tail));
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the sequence number of the last event enqueued.
+     *
+     * @return the last sequence number, 0 if no event has been enqueued yet
+     */
+    public long getLastSequence() {
+        core.lock.lock();
+        try {
+            return core.nextSequence - 1;
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of subscribers reading the buffer, including the subscribers of
+     * tapped queues.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        core.lock.lock();
+        try {
+            return core.subscriberCount;
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of subscribers of tapped queues cut off because they held the
+     * oldest event of a full buffer.
+     *
+     * @return the number of cut off subscribers
+     */
+    public long getLaggedCount() {
+        core.lock.lock();
+        try {
+            return core.laggedCount;
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of intermediate status updates dropped by
+     * {@link OverflowPolicy#DROP_OLDEST}.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        core.lock.lock();
+        try {
+            return core.droppedCount;
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events merged into a buffered event by
+     * {@link OverflowPolicy#COALESCE}.
+     *
+     * @return the number of coalesced events
+     */
+    public long getCoalescedCount() {
+        core.lock.lock();
+        try {
+            return core.coalescedCount;
+        } finally {
+            core.lock.unlock();
+        }
+    }
+
+    private static SendStreamingMessageResponse merge(SendStreamingMessageResponse previous,
+                                                      SendStreamingMessageResponse event) {
+        if (previous instanceof TaskStatusUpdateEvent previousStatus
+            && event instanceof TaskStatusUpdateEvent status
+            && !Boolean.TRUE.equals(previousStatus.getIsFinal()) && !Boolean.TRUE.equals(status.getIsFinal())
+            && Objects.equals(previousStatus.getTaskId(), status.getTaskId())) {
+            return event;
+        }
+        if (previous instanceof TaskArtifactUpdateEvent previousChunk
+            && event instanceof TaskArtifactUpdateEvent chunk
+            && Boolean.TRUE.equals(chunk.getAppend())
+            && !Boolean.TRUE.equals(previousChunk.getIsFinal()) && !Boolean.TRUE.equals(chunk.getIsFinal())
+            && !Boolean.TRUE.equals(previousChunk.getLastChunk())
+            && Objects.equals(previousChunk.getTaskId(), chunk.getTaskId())
+            && previousChunk.getArtifact() != null && chunk.getArtifact() != null
+            && Objects.equals(previousChunk.getArtifact().getArtifactId(), chunk.getArtifact().getArtifactId())) {
+            Artifact previousArtifact = previousChunk.getArtifact();
+            List<Part> parts = new ArrayList<>();
+            if (previousArtifact.getParts() != null) {
+                parts.addAll(previousArtifact.getParts());
+            }
+            if (chunk.getArtifact().getParts() != null) {
+                parts.addAll(chunk.getArtifact().getParts());
+            }
+            return TaskArtifactUpdateEvent.builder()
+                .taskId(previousChunk.getTaskId())
+                .contextId(previousChunk.getContextId())
+                .artifact(Artifact.builder()
+                    .artifactId(previousArtifact.getArtifactId())
+                    .name(previousArtifact.getName())
+                    .description(previousArtifact.getDescription())
+                    .parts(parts)
+                    .metadata(previousArtifact.getMetadata())
+                    .build())
+                .append(previousChunk.getAppend())
+                .lastChunk(chunk.getLastChunk())
+                .metadata(previousChunk.getMetadata())
+                .build();
+        }
+        return null;
+    }
+
+    private static boolean isFinal(SendStreamingMessageResponse event) {
+        if (event instanceof Message) {
+            return true;
+        }
+        if (event instanceof TaskStatusUpdateEvent statusEvent) {
+            return Boolean.TRUE.equals(statusEvent.getIsFinal());
+        }
+        if (event instanceof TaskArtifactUpdateEvent artifactEvent) {
+            return Boolean.TRUE.equals(artifactEvent.getIsFinal());
+        }
+        return false;
+    }
+
+    /**
+     * Ring buffer shared by a queue and all queues tapped from it.
+     * <p>
+     * Positions are absolute, the slot of position p is p % (capacity + 1), the last slot being
+ * reserved for final events. Subscribers, and the
+     * pins holding the events of queues nobody has subscribed to yet, form a doubly linked
+     * list. The list is modified under the lock and walked without it to wake subscribers
+     * up: an unlinked node keeps its next pointer, so a walk standing on it goes on.
+     */
+    private static final class Core {
+
+        private final EventQueue root;
+
+        private final int capacity;
+
+        private final SequencedEvent[] buffer;
+
+        private final OverflowPolicy overflowPolicy;
+
+        private final int replayEvents;
+
+        private final long replayBytes;
+
+        private final long offerTimeoutNanos;
+
+        // Estimated size of the event of each slot, only tracked for a size bounded replay window
+        private final long[] sizes;
+
+        // ReentrantLock rather than synchronized so virtual threads are not pinned while emitting
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition notFull = lock.newCondition();
+
+        // The fields below are guarded by lock
+
+        // Subscribers cut off by the producer, completed once the lock is released
+        private final List<QueueSubscription> lagging = new ArrayList<>();
+
+        private long head;
+
+        private long tail;
+
+        // First position of the replay window, Long.MAX_VALUE if replay is disabled
+        private long replayStart;
+
+        private long replayWindowBytes;
+
+        private long nextSequence = 1;
+
+        private volatile QueueSubscription first;
+
+        private QueueSubscription last;
+
+        private int subscriberCount;
+
+        private int highWaterMark;
+
+        private long droppedCount;
+
+        private long coalescedCount;
+
+        private long laggedCount;
+
+        private Core(EventQueue root, int capacity, OverflowPolicy overflowPolicy, int replayEvents,
+                     long replayBytes, long offerTimeoutNanos) {
+            this.root = root;
+            this.offerTimeoutNanos = offerTimeoutNanos;
+            this.capacity = capacity;
+            this.buffer = new SequencedEvent[capacity + 1];
+            this.overflowPolicy = overflowPolicy;
+            this.replayEvents = replayEvents;
+            this.replayBytes = replayBytes;
+            this.sizes = replayEvents > 0 && replayBytes != Long.MAX_VALUE ? new long[capacity + 1] : null;
+            this.replayStart = replayEvents > 0 ? 0 : Long.MAX_VALUE;
+        }
+
+        private void enqueue(SendStreamingMessageResponse event, long sequence) {
+            boolean appended;
+            List<QueueSubscription> cutOff = null;
+            lock.lock();
+            try {
+                appended = offer(event, sequence);
+            } finally {
+                if (!lagging.isEmpty()) {
+                    cutOff = new ArrayList<>(lagging);
+                    lagging.clear();
+                }
+                lock.unlock();
+                // Subscribers cut off complete even if the event was rejected
+                if (cutOff != null) {
+                    for (QueueSubscription node : cutOff) {
+                        node.drain();
+                    }
+                }
+            }
+            if (appended) {
+                for (QueueSubscription node = first; node != null; node = node.next) {
+                    if (node.actual != null) {
+                        node.drain();
+                    }
+                }
+            }
+        }
+
+        private void close(EventQueue queue) {
+            lock.lock();
+            try {
+                queue.closedAt = tail;
+                if (queue != root && queue.pin != null) {
+                    // Nobody will read a tapped queue closed before it was subscribed
+                    detach(queue.pin);
+                    queue.pin = null;
+                }
+                if (queue == root) {
+                    notFull.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (QueueSubscription node = first; node != null; node = node.next) {
+                if (node.actual != null && (queue == root || node.queue == queue)) {
+                    node.drain();
+                }
+            }
+        }
+
+        private void subscribe(EventQueue queue, Subscriber<? super SequencedEvent> actual, long lastSequence) {
+            QueueSubscription subscription;
+            lock.lock();
+            try {
+                if (queue.pin != null) {
+                    // The first subscriber receives the events held for the queue
+                    subscription = queue.pin;
+                    subscription.actual = actual;
+                    queue.pin = null;
+                    subscriberCount++;
+                    if (lastSequence != NO_RESUME) {
+                        subscription.cursor = positionAfter(lastSequence);
+                        release(retainFrom());
+                    }
+                } else if (lastSequence != NO_RESUME) {
+                    subscription = attach(queue, actual, positionAfter(lastSequence));
+                } else {
+                    // Later subscribers start with the replay window
+                    subscription = attach(queue, actual, Math.min(replayStart, tail));
+                }
+            } finally {
+                lock.unlock();
+            }
+            actual.onSubscribe(subscription);
+            // Deliveries are held back until onSubscribe has returned
+            subscription.drainLoop();
+        }
+
+        /**
+         * Links a new node reading from the given position. Called with the lock held.
+         */
+        private QueueSubscription attach(EventQueue queue, Subscriber<? super SequencedEvent> actual,
+                                         long position) {
+            QueueSubscription node = new QueueSubscription(this, queue, actual);
+            node.cursor = position;
+            node.prev = last;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            if (actual != null) {
+                subscriberCount++;
+            }
+            return node;
+        }
+
+        /**
+         * Unlinks a node and frees the slots only it was holding. Called with the lock held.
+         */
+        private void detach(QueueSubscription node) {
+            if (node.detached) {
+                return;
+            }
+            node.detached = true;
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            if (node.actual != null) {
+                subscriberCount--;
+            }
+            release(retainFrom());
+        }
+
+        /**
+         * Appends the event to the buffer, applying the overflow policy and then cutting off
+         * lagging subscribers of tapped queues while it is full. Called with the lock held.
+         *
+         * @param sequence The sequence number the event keeps, {@link SequencedEvent#NO_SEQUENCE}
+         *                 to give it the next one.
+         * @return true if the event was appended and subscribers have to be woken up.
+         * @throws IllegalStateException if the buffer is full and the overflow policy is
+         *                               {@link OverflowPolicy#FAIL_FAST}, or the subscribers of
+         *                               the queue kept it full for the offer timeout
+         */
+        private boolean offer(SendStreamingMessageResponse event, long sequence) {
+            if (sequence != SequencedEvent.NO_SEQUENCE && sequence < nextSequence) {
+                log.debug("Ignoring relayed event {}, already at sequence {}.", sequence, nextSequence - 1);
+                return false;
+            }
+            boolean isFinal = isFinal(event);
+            long remainingNanos = offerTimeoutNanos;
+            while (tail - head >= capacity && !root.isClosed.get()) {
+                if (shrinkReplayWindow()) {
+                    continue;
+                }
+                if (overflowPolicy == OverflowPolicy.COALESCE && coalesce(event, sequence)) {
+                    coalescedCount++;
+                    return false;
+                }
+                if (overflowPolicy == OverflowPolicy.DROP_OLDEST && dropOldestIntermediateStatus()) {
+                    droppedCount++;
+                    continue;
+                }
+                if (cutOffLaggingTaps()) {
+                    continue;
+                }
+                if (isFinal && tail - head < buffer.length) {
+                    // Take the slot reserved for final events
+                    break;
+                }
+                if (overflowPolicy == OverflowPolicy.FAIL_FAST && !isFinal) {
+                    throw new IllegalStateException("Event queue is full, capacity: " + capacity);
+                }
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("Event queue is full, no room made within "
+                        + Duration.ofNanos(offerTimeoutNanos) + ", capacity: " + capacity);
+                }
+                try {
+                    remainingNanos = notFull.awaitNanos(remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while waiting for room in the queue. Event will not be enqueued.");
+                    return false;
+                }
+            }
+            if (root.isClosed.get()) {
+                log.warn("Queue is closed. Event will not be enqueued.");
+                return false;
+            }
+            buffer[index(tail)] = new SequencedEvent(assignSequence(sequence), event);
+            if (sizes != null) {
+                long size = SizeEstimator.estimate(event);
+                sizes[index(tail)] = size;
+                replayWindowBytes += size;
+            }
+            tail++;
+            highWaterMark = Math.max(highWaterMark, (int) (tail - head));
+            if (trimReplayWindow() || first == null) {
+                // Free the slots nobody will read anymore
+                release(retainFrom());
+            }
+            return first != null;
+        }
+
+        /**
+         * Moves the start of the replay window forward until the window fits its count and
+         * size limits. Called with the lock held.
+         *
+         * @return true if slots before the window may be freed.
+         */
+        private boolean trimReplayWindow() {
+            if (replayStart == Long.MAX_VALUE) {
+                return false;
+            }
+            advanceReplayStart(Math.max(replayStart, tail - replayEvents));
+            while (sizes != null && replayWindowBytes > replayBytes && replayStart < tail) {
+                advanceReplayStart(replayStart + 1);
+            }
+            return head < replayStart;
+        }
+
+        /**
+         * Gives up the oldest event of the replay window if it is the only thing holding a
+         * buffer slot. Called with the lock held while the buffer is full.
+         *
+         * @return true if a slot has been freed.
+         */
+        private boolean shrinkReplayWindow() {
+            long live = liveFrom();
+            if (replayStart > head || head >= live) {
+                return false;
+            }
+            advanceReplayStart(head + 1);
+            release(Math.min(live, replayStart));
+            return true;
+        }
+
+        /**
+         * Cuts off the subscribers of tapped queues holding the oldest buffered event, and
+         * lets the tapped queues nobody has subscribed to yet give it up, unless a subscriber
+         * of the queue itself holds it as well. Called with the lock held while the buffer is
+         * full.
+         *
+         * @return true if something was cut off, the replay window may give the slot up then.
+         */
+        private boolean cutOffLaggingTaps() {
+            for (QueueSubscription node = first; node != null; node = node.next) {
+                if (node.queue == root && node.cursor <= head) {
+                    return false;
+                }
+            }
+            boolean cut = false;
+            long oldest = head;
+            for (QueueSubscription node = first; node != null; node = node.next) {
+                if (node.cursor <= oldest) {
+                    cut = true;
+                    if (node.actual == null) {
+                        // Its first subscriber starts with the replay window instead
+                        node.queue.pin = null;
+                    } else {
+                        log.warn("Cutting off a subscriber of a tapped queue {} events behind.", tail - node.cursor);
+                        node.lagged = true;
+                        laggedCount++;
+                        lagging.add(node);
+                    }
+                    detach(node);
+                }
+            }
+            return cut;
+        }
+
+        private void advanceReplayStart(long position) {
+            if (sizes != null) {
+                for (long p = replayStart; p < position; p++) {
+                    replayWindowBytes -= sizes[index(p)];
+                }
+            }
+            replayStart = Math.max(replayStart, position);
+        }
+
+        /**
+         * Removes the oldest buffered intermediate status update. Older events are shifted
+         * into its slot, and the subscribers that have not read it yet skip it. Called with
+         * the lock held.
+         *
+         * @return true if an event was removed.
+         */
+        private boolean dropOldestIntermediateStatus() {
+            for (long position = head; position < tail; position++) {
+                if (buffer[index(position)].getEvent() instanceof TaskStatusUpdateEvent statusEvent
+                    && !Boolean.TRUE.equals(statusEvent.getIsFinal())) {
+                    if (sizes != null && position >= replayStart) {
+                        replayWindowBytes -= sizes[index(position)];
+                    }
+                    for (long p = position; p > head; p--) {
+                        buffer[index(p)] = buffer[index(p - 1)];
+                        if (sizes != null) {
+                            sizes[index(p)] = sizes[index(p - 1)];
+                        }
+                    }
+                    buffer[index(head)] = null;
+                    head++;
+                    if (replayStart <= position) {
+                        replayStart++;
+                    }
+                    for (QueueSubscription node = first; node != null; node = node.next) {
+                        if (node.cursor <= position) {
+                            node.cursor++;
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Merges the event into the newest buffered event if no subscriber has read it yet:
+         * an intermediate status update replaces the previous one, and an appended artifact
+         * chunk is concatenated with the previous chunk of the same artifact. Called with
+         * the lock held.
+         *
+         * @return true if the event was merged.
+         */
+        private boolean coalesce(SendStreamingMessageResponse event, long sequence) {
+            long lastPosition = tail - 1;
+            if (lastPosition < head) {
+                return false;
+            }
+            for (QueueSubscription node = first; node != null; node = node.next) {
+                if (node.cursor > lastPosition) {
+                    return false;
+                }
+            }
+            SendStreamingMessageResponse merged = merge(buffer[index(lastPosition)].getEvent(), event);
+            if (merged == null) {
+                return false;
+            }
+            // The merged event is newer than the event it replaces
+            buffer[index(lastPosition)] = new SequencedEvent(assignSequence(sequence), merged);
+            if (sizes != null) {
+                long size = SizeEstimator.estimate(merged);
+                if (lastPosition >= replayStart) {
+                    replayWindowBytes += size - sizes[index(lastPosition)];
+                }
+                sizes[index(lastPosition)] = size;
+                trimReplayWindow();
+            }
+            return true;
+        }
+
+        /**
+         * Returns the sequence number of a new buffered event: the relayed one if any, the
+         * next one otherwise. Called with the lock held.
+         */
+        private long assignSequence(long sequence) {
+            if (sequence == SequencedEvent.NO_SEQUENCE) {
+                return nextSequence++;
+            }
+            nextSequence = sequence + 1;
+            return sequence;
+        }
+
+        /**
+         * Returns the position of the slowest subscriber or pin, the tail if there is none.
+         * Called with the lock held.
+         */
+        private long liveFrom() {
+            long min = tail;
+            for (QueueSubscription node = first; node != null; node = node.next) {
+                min = Math.min(min, node.cursor);
+            }
+            return min;
+        }
+
+        /**
+         * Returns the first position still needed by a subscriber or the replay window.
+         * Called with the lock held.
+         */
+        private long retainFrom() {
+            return Math.min(liveFrom(), replayStart);
+        }
+
+        /**
+         * Frees the slots before the given position and wakes up waiting producers. Called
+         * with the lock held.
+         */
+        private void release(long position) {
+            if (position <= head) {
+                return;
+            }
+            for (long p = head; p < position; p++) {
+                buffer[index(p)] = null;
+            }
+            head = position;
+            notFull.signalAll();
+        }
+
+        /**
+         * Returns the position of the first buffered event with a sequence number greater
+         * than the given one, the head if some of the newer events are no longer buffered.
+         * Sequence numbers grow along the buffer. Called with the lock held.
+         */
+        private long positionAfter(long sequence) {
+            long low = head;
+            long high = tail;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (buffer[index(middle)].getSequence() <= sequence) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int index(long position) {
+            return (int) (position % buffer.length);
+        }
+
+    }
+
+    /**
+     * Subscription of a single subscriber, reading the shared buffer from its own cursor.
+     * Until a subscriber takes it over, it is the pin of a queue.
+     */
+    private static final class QueueSubscription implements Subscription {
+
+        private final Core core;
+
+        private final EventQueue queue;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger wip = new AtomicInteger(1);
+
+        private volatile Subscriber<? super SequencedEvent> actual;
+
+        private volatile QueueSubscription next;
+
+        private volatile boolean cancelled;
+
+        // The fields below are guarded by the core lock
+
+        private QueueSubscription prev;
+
+        // Position of the next event to deliver
+        private long cursor;
+
+        private boolean detached;
+
+        // Set when the producer cut the subscriber off, the events it missed are gone
+        private boolean lagged;
+
+        private QueueSubscription(Core core, EventQueue queue,
+                                  Subscriber<? super SequencedEvent> actual) {
+            this.core = core;
+            this.queue = queue;
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(current -> Operators.addCap(current, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                detach();
+            }
+        }
+
+        private void detach() {
+            core.lock.lock();
+            try {
+                core.detach(this);
+            } finally {
+                core.lock.unlock();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            Subscriber<? super SequencedEvent> subscriber = actual;
+            int missed = 1;
+            do {
+                long demand = requested.get();
+                long emitted = 0;
+                while (!cancelled) {
+                    SequencedEvent event = null;
+                    boolean done = false;
+                    core.lock.lock();
+                    try {
+                        long end = Math.min(queue.closedAt, core.root.closedAt);
+                        if (lagged) {
+                            done = true;
+                        } else if (cursor < core.tail && cursor < end) {
+                            if (emitted == demand) {
+                                break;
+                            }
+                            event = core.buffer[core.index(cursor)];
+                            long previous = cursor++;
+                            if (previous == core.head) {
+                                core.release(core.retainFrom());
+                            }
+                        } else {
+                            done = cursor >= end;
+                        }
+                    } finally {
+                        core.lock.unlock();
+                    }
+                    if (done) {
+                        cancelled = true;
+                        detach();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    subscriber.onNext(event);
+                    emitted++;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+    }
+
+    /**
+     * Builder for EventQueue.
+     */
+    public static final class Builder {
+
+        private int capacity = DEFAULT_CAPACITY;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.COALESCE;
+
+        private int replayEvents;
+
+        private long replayBytes = Long.MAX_VALUE;
+
+        private Duration offerTimeout = DEFAULT_OFFER_TIMEOUT;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of events buffered for the slowest subscriber.
+         *
+         * @param capacity The capacity
+         * @return This builder for chaining
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets what to do with new events when the buffer is full.
+         *
+         * @param overflowPolicy The overflow policy
+         * @return This builder for chaining
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of recent events replayed to new subscribers.
+         *
+         * @param replayEvents The replay window length, 0 to disable replay
+         * @return This builder for chaining
+         */
+        public Builder replayEvents(int replayEvents) {
+            this.replayEvents = replayEvents;
+            return this;
+        }
+
+        /**
+         * Sets the maximum estimated size of the events replayed to new subscribers.
+         *
+         * @param replayBytes The replay window size in bytes
+         * @return This builder for chaining
+         */
+        public Builder replayBytes(long replayBytes) {
+            this.replayBytes = replayBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a producer waits for room in the full buffer.
+         *
+         * @param offerTimeout The offer timeout
+         * @return This builder for chaining
+         */
+        public Builder offerTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+            return this;
+        }
+
+        /**
+         * Builds the EventQueue.
+         *
+         * @return A new EventQueue
+         */
+        public EventQueue build() {
+            return new EventQueue(capacity, overflowPolicy, replayEvents, replayBytes, offerTimeout);
+        }
+
+    }
+
+    /**
+     * What a queue does with a new event while its buffer is full, i.e. while its slowest
+     * subscriber is {@code capacity} events behind. Final events are never dropped, they
+     * take the slot reserved for them. If the policy cannot make room, lagging subscribers
+     * of tapped queues are cut off, and the producer waits for the subscribers of the queue
+     * itself, at most for the offer timeout of the queue.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drops the oldest buffered intermediate status update, waits for room if none is
+         * buffered.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Merges the event into the newest buffered event if nobody has read it yet: an
+         * intermediate status update replaces the previous one, and an appended artifact
+         * chunk is concatenated with the previous chunk. Waits for room otherwise.
+         */
+        COALESCE,
+
+        /**
+         * Rejects intermediate events with an {@link IllegalStateException}.
+         */
+        FAIL_FAST,
+
+        /**
+         * Blocks the producer until a subscriber of the queue makes room or the queue is
+         * closed, and rejects the event with an {@link IllegalStateException} if that takes longer than
+         * the offer timeout.
+         */
+        BLOCK
+
+    }
+
 }
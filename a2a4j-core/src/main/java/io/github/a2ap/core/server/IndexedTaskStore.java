@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import io.github.a2ap.core.model.TaskState;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Task store that can also find tasks by context, state and update time.
+ * <p>
+ * The indexes are updated by {@link #save(io.github.a2ap.core.model.Task)} and follow the
+ * tasks the store holds: a task evicted by the store is no longer found. Lookups return
+ * task IDs, to be loaded with {@link #load(String)}, so they stay cheap for stores keeping
+ * tasks out of memory.
+ */
+public interface IndexedTaskStore extends TaskStore {
+
+    /**
+     * Finds the tasks of a context.
+     *
+     * @param contextId The ID of the context.
+     * @return the IDs of the tasks saved with this context ID, empty if none
+     */
+    List<String> findTaskIdsByContextId(String contextId);
+
+    /**
+     * Finds at most {@code limit} tasks of a context. Stores should override this when
+     * they can stop their lookup at the limit; by default all the tasks of the context are
+     * found and the list is cut.
+     *
+     * @param contextId The ID of the context.
+     * @param limit     The maximum number of task IDs, 0 for no limit.
+     * @return the IDs of at most {@code limit} tasks saved with this context ID, empty if
+     * none
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    default List<String> findTaskIdsByContextId(String contextId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        List<String> taskIds = findTaskIdsByContextId(contextId);
+        return limit == 0 || taskIds.size() <= limit ? taskIds : taskIds.subList(0, limit);
+    }
+
+    /**
+     * Finds the tasks in a state.
+     *
+     * @param state The state of the tasks.
+     * @return the IDs of the tasks last saved in this state, empty if none
+     */
+    List<String> findTaskIdsByState(TaskState state);
+
+    /**
+     * Finds the tasks last saved within a time range.
+     *
+     * @param from The start of the range, inclusive.
+     * @param to   The end of the range, exclusive.
+     * @return the IDs of the tasks last saved within the range, least recently saved first
+     */
+    List<String> findTaskIdsUpdatedBetween(Instant from, Instant to);
+
+}
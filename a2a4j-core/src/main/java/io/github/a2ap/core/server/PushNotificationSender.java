@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskPushNotificationConfig;
+
+/**
+ * Delivers task updates to the push notification URL registered for the task.
+ */
+public interface PushNotificationSender {
+
+    /**
+     * Queues a notification of the current state of a task. The task is captured when the
+     * method is called, it is delivered later without blocking the caller.
+     *
+     * @param config The push notification config of the task.
+     * @param task   The updated task.
+     */
+    void send(TaskPushNotificationConfig config, Task task);
+
+}
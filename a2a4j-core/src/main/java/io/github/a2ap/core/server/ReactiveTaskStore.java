@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import io.github.a2ap.core.model.Task;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking interface for task storage providers, for stores backed by I/O such as a
+ * database or a remote service. Stores and retrieves both the task and its full message
+ * history together, like {@link TaskStore}.
+ * <p>
+ * The task manager composes the returned Monos without blocking, so a store whose driver
+ * is not reactive should run its calls on a scheduler meant for blocking work, e.g. by
+ * wrapping it in a {@link io.github.a2ap.core.server.impl.ReactiveTaskStoreAdapter} on
+ * {@code Schedulers.boundedElastic()}.
+ */
+public interface ReactiveTaskStore {
+
+    /**
+     * Saves a task and its associated message history. Overwrites existing data if the
+     * task ID exists.
+     *
+     * @param task The task context object to save.
+     * @return a Mono completing once the task is saved.
+     */
+    Mono<Void> save(Task task);
+
+    /**
+     * Loads a task and its history by task ID.
+     *
+     * @param taskId The ID of the task to load.
+     * @return a Mono of the Task and its history, empty if not found.
+     */
+    Mono<Task> load(String taskId);
+
+}
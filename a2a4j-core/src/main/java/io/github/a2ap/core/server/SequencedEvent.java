@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import io.github.a2ap.core.model.SendStreamingMessageResponse;
+
+import java.util.Objects;
+
+/**
+ * An event of a task together with its sequence number in the event queue of the task.
+ * <p>
+ * Sequence numbers start at 1 and grow with every event enqueued, they are sent as the
+ * id of server-sent events. A client that lost its stream resubscribes with the last id
+ * it received and gets only the events it missed.
+ */
+public final class SequencedEvent {
+
+    /**
+     * The sequence number of events that were not read from an event queue.
+     */
+    public static final long NO_SEQUENCE = 0;
+
+    private final long sequence;
+
+    private final SendStreamingMessageResponse event;
+
+    /**
+     * Constructs a new SequencedEvent.
+     *
+     * @param sequence The sequence number of the event, {@link #NO_SEQUENCE} if unknown.
+     * @param event    The event.
+     */
+    public SequencedEvent(long sequence, SendStreamingMessageResponse event) {
+        this.sequence = sequence;
+        this.event = Objects.requireNonNull(event, "event must not be null");
+    }
+
+    /**
+     * Wraps an event that was not read from an event queue.
+     *
+     * @param event The event.
+     * @return The event without a sequence number.
+     */
+    public static SequencedEvent of(SendStreamingMessageResponse event) {
+        return new SequencedEvent(NO_SEQUENCE, event);
+    }
+
+    /**
+     * Returns the sequence number of the event.
+     *
+     * @return the sequence number, {@link #NO_SEQUENCE} if unknown
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns whether the event has a sequence number.
+     *
+     * @return true if the event was read from an event queue
+     */
+    public boolean hasSequence() {
+        return sequence != NO_SEQUENCE;
+    }
+
+    /**
+     * Returns the event.
+     *
+     * @return the event
+     */
+    public SendStreamingMessageResponse getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns a copy of this event with the same sequence number and another payload.
+     *
+     * @param event The new payload.
+     * @return The new event.
+     */
+    public SequencedEvent withEvent(SendStreamingMessageResponse event) {
+        return event == this.event ? this : new SequencedEvent(sequence, event);
+    }
+
+    @Override
+    public String toString() {
+        return "SequencedEvent{" + "sequence=" + sequence + ", event=" + event + '}';
+    }
+
+}
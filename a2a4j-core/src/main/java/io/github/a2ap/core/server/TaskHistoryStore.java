@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import io.github.a2ap.core.model.Message;
+
+import java.util.List;
+
+/**
+ * Storage for the oldest messages of task histories, moved out of the tasks by the task
+ * manager to bound the memory held by each task.
+ */
+public interface TaskHistoryStore {
+
+    /**
+     * Appends messages to the stored history of a task.
+     *
+     * @param taskId   The ID of the task.
+     * @param messages The messages, oldest first, all newer than the messages already stored.
+     */
+    void append(String taskId, List<Message> messages);
+
+    /**
+     * Loads the most recent stored messages of a task.
+     *
+     * @param taskId The ID of the task.
+     * @param limit  The maximum number of messages, 0 for all of them.
+     * @return the messages, oldest first, empty if none
+     */
+    List<Message> load(String taskId, int limit);
+
+    /**
+     * Removes the stored history of a task, e.g. once the task has been evicted from the
+     * task store.
+     *
+     * @param taskId The ID of the task.
+     */
+    void remove(String taskId);
+
+}
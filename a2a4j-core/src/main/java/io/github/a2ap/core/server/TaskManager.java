@@ -16,6 +16,7 @@
 
 package io.github.a2ap.core.server;
 
+import io.github.a2ap.core.model.Message;
 import io.github.a2ap.core.model.MessageSendParams;
 import io.github.a2ap.core.model.RequestContext;
 import io.github.a2ap.core.model.Task;
@@ -41,6 +42,19 @@ public interface TaskManager {
      */
     RequestContext loadOrCreateContext(MessageSendParams params);
 
+    /**
+     * Load or create a new task without blocking the calling thread.
+     * <p>
+     * The default implementation calls {@link #loadOrCreateContext(MessageSendParams)} on
+     * subscription, implementations backed by a {@link ReactiveTaskStore} override it.
+     *
+     * @param params The task param to create
+     * @return Mono of the request context of the loaded or created task
+     */
+    default Mono<RequestContext> loadOrCreateContextAsync(MessageSendParams params) {
+        return Mono.fromCallable(() -> loadOrCreateContext(params));
+    }
+
     /**
      * Gets a task by its ID.
      *
@@ -49,6 +63,34 @@ public interface TaskManager {
      */
     Task getTask(String taskId);
 
+    /**
+     * Gets a task by its ID without blocking the calling thread.
+     * <p>
+     * The default implementation calls {@link #getTask(String)} on subscription,
+     * implementations backed by a {@link ReactiveTaskStore} override it.
+     *
+     * @param taskId The ID of the task
+     * @return Mono of the task with the specified ID, empty if not found
+     */
+    default Mono<Task> getTaskAsync(String taskId) {
+        return Mono.fromCallable(() -> getTask(taskId));
+    }
+
+    /**
+     * Gets the oldest messages of a task history, moved out of the task to bound its
+     * memory, for clients asking for a deeper history than the task holds.
+     * <p>
+     * The default implementation returns none, for task managers keeping the whole
+     * history in the task.
+     *
+     * @param taskId The ID of the task
+     * @param limit  The maximum number of messages, the most recent ones, 0 for all
+     * @return The messages moved out of the task, oldest first
+     */
+    default List<Message> getSpilledHistory(String taskId, int limit) {
+        return List.of();
+    }
+
     /**
      * apply take update for task
      *
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TextPart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assembles the artifacts of a task from streamed chunks.
+ * <p>
+ * Artifacts are found by ID through a map of their positions, and the parts of an
+ * artifact are appended in place to a list owned by the accumulator, so appending a chunk
+ * costs amortized constant time instead of copying every part received so far. The
+ * artifact list and a part list are each copied once, the first time the accumulator
+ * changes them, and artifacts of events are copied when they are added, so the events
+ * themselves are never changed.
+ * <p>
+ * An accumulator is bound to a task instance and its artifact list, see
+ * {@link #isFor(Task)}, and must only be used by one thread at a time, e.g. on the
+ * {@link TaskUpdateSequencer} of the task.
+ */
+final class ArtifactAccumulator {
+
+    private final Task task;
+
+    private final List<Artifact> artifacts;
+
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    // Part lists created by the accumulator, appended in place
+    private final Map<Artifact, List<Part>> ownedParts = new IdentityHashMap<>();
+
+    ArtifactAccumulator(Task task) {
+        List<Artifact> current = task.getArtifacts();
+        List<Artifact> indexed = current instanceof ArrayList<Artifact> list ? list
+            : current == null ? new ArrayList<>() : new ArrayList<>(current);
+        if (indexed != current) {
+            task.setArtifacts(indexed);
+        }
+        this.task = task;
+        this.artifacts = indexed;
+        for (int i = 0; i < indexed.size(); i++) {
+            String artifactId = indexed.get(i).getArtifactId();
+            if (artifactId != null) {
+                positions.putIfAbsent(artifactId, i);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the accumulator still indexes the artifacts of a task, i.e. the task
+     * is the same instance and its artifact list was not replaced.
+     *
+     * @param task The task being updated.
+     * @return true if the accumulator can be used for the task
+     */
+    boolean isFor(Task task) {
+        return this.task == task && task.getArtifacts() == artifacts;
+    }
+
+    /**
+     * Adds a copy of an artifact, or replaces the artifact with the same ID by it. The
+     * artifact of the event is not kept, since appending chunks to it would change the
+     * event while it is still replayed or serialized.
+     *
+     * @param event The artifact.
+     * @return true if an artifact was replaced
+     */
+    boolean put(Artifact event) {
+        Artifact artifact = TaskSnapshot.of(event);
+        if (artifact.getParts() != null) {
+            ownedParts.put(artifact, artifact.getParts());
+        }
+        Integer position = artifact.getArtifactId() == null ? null : positions.get(artifact.getArtifactId());
+        if (position != null) {
+            ownedParts.remove(artifacts.set(position, artifact));
+            return true;
+        }
+        if (artifact.getArtifactId() != null) {
+            positions.put(artifact.getArtifactId(), artifacts.size());
+        }
+        artifacts.add(artifact);
+        return false;
+    }
+
+    /**
+     * Appends the parts of a chunk to the artifact with the same ID.
+     *
+     * @param chunk The chunk.
+     * @return false if there is no artifact with the ID of the chunk
+     */
+    boolean append(Artifact chunk) {
+        Artifact artifact = find(chunk.getArtifactId());
+        if (artifact == null) {
+            return false;
+        }
+        if (artifact.getParts() != null && chunk.getParts() != null) {
+            parts(artifact).addAll(chunk.getParts());
+        }
+        return true;
+    }
+
+    /**
+     * Merges the adjacent text parts of an artifact with the same metadata into one part,
+     * e.g. once its last chunk has been received.
+     *
+     * @param artifactId The ID of the artifact.
+     */
+    void mergeTextParts(String artifactId) {
+        Artifact artifact = find(artifactId);
+        if (artifact == null || artifact.getParts() == null || artifact.getParts().size() < 2) {
+            return;
+        }
+        List<Part> merged = new ArrayList<>();
+        StringBuilder text = null;
+        TextPart first = null;
+        for (Part part : artifact.getParts()) {
+            if (part instanceof TextPart textPart && first != null
+                && Objects.equals(first.getMetadata(), textPart.getMetadata())) {
+                if (text == null) {
+                    text = new StringBuilder(Objects.toString(first.getText(), ""));
+                }
+                text.append(Objects.toString(textPart.getText(), ""));
+                continue;
+            }
+            flush(merged, first, text);
+            first = part instanceof TextPart textPart ? textPart : null;
+            text = null;
+            if (first == null) {
+                merged.add(part);
+            }
+        }
+        flush(merged, first, text);
+        if (merged.size() < artifact.getParts().size()) {
+            artifact.setParts(merged);
+            ownedParts.put(artifact, merged);
+        }
+    }
+
+    private static void flush(List<Part> merged, TextPart first, StringBuilder text) {
+        if (first == null) {
+            return;
+        }
+        if (text == null) {
+            merged.add(first);
+        } else {
+            TextPart part = new TextPart(text.toString());
+            part.setMetadata(first.getMetadata());
+            merged.add(part);
+        }
+    }
+
+    private Artifact find(String artifactId) {
+        Integer position = artifactId == null ? null : positions.get(artifactId);
+        return position == null ? null : artifacts.get(position);
+    }
+
+    private List<Part> parts(Artifact artifact) {
+        List<Part> owned = ownedParts.get(artifact);
+        if (owned == null || owned != artifact.getParts()) {
+            owned = new ArrayList<>(artifact.getParts());
+            artifact.setParts(owned);
+            ownedParts.put(artifact, owned);
+        }
+        return owned;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.server.ReactiveTaskStore;
+import io.github.a2ap.core.server.TaskStore;
+
+import java.time.Duration;
+
+/**
+ * Adapts a {@link ReactiveTaskStore} to the blocking {@link TaskStore} interface, for
+ * code that still calls the store synchronously, such as {@link WriteBehindTaskStore}.
+ * <p>
+ * Every call waits for the reactive store, at most {@code timeout}, so it must not be made
+ * on an event loop thread.
+ */
+public class BlockingTaskStoreAdapter implements TaskStore {
+
+    /**
+     * The default maximum time a call waits for the reactive store.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ReactiveTaskStore delegate;
+
+    private final Duration timeout;
+
+    /**
+     * Creates an adapter waiting at most {@link #DEFAULT_TIMEOUT} for each call.
+     *
+     * @param delegate The reactive store to adapt.
+     */
+    public BlockingTaskStoreAdapter(ReactiveTaskStore delegate) {
+        this(delegate, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates an adapter waiting at most the given time for each call.
+     *
+     * @param delegate The reactive store to adapt.
+     * @param timeout  The maximum time a call waits for the reactive store.
+     */
+    public BlockingTaskStoreAdapter(ReactiveTaskStore delegate, Duration timeout) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        this.delegate = delegate;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Saves a task, waiting for the reactive store.
+     *
+     * @param task The task to save.
+     * @throws IllegalStateException if the store does not complete within the timeout
+     */
+    @Override
+    public void save(Task task) {
+        delegate.save(task).block(timeout);
+    }
+
+    /**
+     * Loads a task, waiting for the reactive store.
+     *
+     * @param taskId The ID of the task to load.
+     * @return the task, or null if not found
+     * @throws IllegalStateException if the store does not complete within the timeout
+     */
+    @Override
+    public Task load(String taskId) {
+        return delegate.load(taskId).block(timeout);
+    }
+
+    /**
+     * Returns the adapted store.
+     *
+     * @return the reactive store
+     */
+    public ReactiveTaskStore getDelegate() {
+        return delegate;
+    }
+
+}
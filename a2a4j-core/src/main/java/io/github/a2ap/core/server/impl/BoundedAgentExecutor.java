@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.exception.A2AError;
+import io.github.a2ap.core.model.RequestContext;
+import io.github.a2ap.core.server.AgentExecutor;
+import io.github.a2ap.core.server.EventQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * AgentExecutor decorator that limits how many agent executions run at the same time.
+ * <p>
+ * At most {@code maxConcurrency} executions of the delegate run concurrently. Further
+ * executions wait in a FIFO queue of at most {@code queueCapacity} entries for up to
+ * {@code queueTimeout}. Executions that find the queue full, or that wait longer than the
+ * timeout, fail right away with an {@link A2AError} carrying
+ * {@link A2AError#SERVER_OVERLOADED}, so callers get an overload error instead of an
+ * ever growing latency.
+ * <p>
+ * Cancellation is not limited and is always forwarded to the delegate.
+ */
+public class BoundedAgentExecutor implements AgentExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedAgentExecutor.class);
+
+    private final AgentExecutor delegate;
+
+    private final int maxConcurrency;
+
+    private final int queueCapacity;
+
+    private final Duration queueTimeout;
+
+    private final Deque<Permit> waiting = new ArrayDeque<>();
+
+    private int running;
+
+    /**
+     * Constructs a new BoundedAgentExecutor.
+     *
+     * @param delegate       The AgentExecutor running the agent logic.
+     * @param maxConcurrency The maximum number of executions running at the same time.
+     * @param queueCapacity  The maximum number of executions waiting for a free slot.
+     * @param queueTimeout   The maximum time an execution waits for a free slot.
+     */
+    public BoundedAgentExecutor(AgentExecutor delegate, int maxConcurrency, int queueCapacity,
+                                Duration queueTimeout) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity must not be negative");
+        }
+        if (queueTimeout == null || queueTimeout.isNegative() || queueTimeout.isZero()) {
+            throw new IllegalArgumentException("queueTimeout must be positive");
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.queueTimeout = queueTimeout;
+    }
+
+    @Override
+    public Mono<Void> execute(RequestContext context, EventQueue eventQueue) {
+        return Mono.defer(() -> {
+            Permit permit = new Permit();
+            return acquire(permit, context.getTaskId())
+                .then(Mono.defer(() -> delegate.execute(context, eventQueue)))
+                .doFinally(signal -> release(permit));
+        });
+    }
+
+    @Override
+    public Mono<Void> cancel(String taskId) {
+        return delegate.cancel(taskId);
+    }
+
+    /**
+     * Returns the number of executions currently running.
+     *
+     * @return the number of running executions
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the number of executions waiting for a free slot.
+     *
+     * @return the number of waiting executions
+     */
+    public synchronized int getWaiting() {
+        return waiting.size();
+    }
+
+    private Mono<Void> acquire(Permit permit, String taskId) {
+        synchronized (this) {
+            if (running < maxConcurrency) {
+                running++;
+                permit.granted = true;
+                return Mono.empty();
+            }
+            if (waiting.size() < queueCapacity) {
+                waiting.addLast(permit);
+                return permit.sink.asMono()
+                    // leave the queue before the timeout error is propagated
+                    .doOnCancel(() -> release(permit))
+                    .timeout(queueTimeout)
+                    .onErrorMap(TimeoutException.class, e -> overloaded(taskId,
+                        "Timed out after " + queueTimeout.toMillis() + "ms waiting for an execution slot"));
+            }
+        }
+        return Mono.error(overloaded(taskId, "Execution queue is full"));
+    }
+
+    private void release(Permit permit) {
+        Permit next;
+        synchronized (this) {
+            if (!permit.granted) {
+                // rejected, timed out or cancelled while waiting
+                waiting.remove(permit);
+                return;
+            }
+            permit.granted = false;
+            next = waiting.pollFirst();
+            if (next == null) {
+                running--;
+                return;
+            }
+            // hand the slot over to the next waiting execution
+            next.granted = true;
+        }
+        next.sink.tryEmitEmpty();
+    }
+
+    private A2AError overloaded(String taskId, String reason) {
+        log.warn("Rejecting execution of task {}: {} (maxConcurrency={}, queueCapacity={}).", taskId, reason,
+            maxConcurrency, queueCapacity);
+        return A2AError.builder()
+            .message("Server overloaded")
+            .code(A2AError.SERVER_OVERLOADED)
+            .data(reason)
+            .taskId(taskId)
+            .build();
+    }
+
+    /**
+     * An execution slot requested by a single execution. Guarded by the executor lock.
+     */
+    private static final class Permit {
+
+        private final Sinks.One<Void> sink = Sinks.one();
+
+        private boolean granted;
+
+    }
+
+}
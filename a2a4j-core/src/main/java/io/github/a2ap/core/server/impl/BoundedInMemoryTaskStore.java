@@ -0,0 +1,418 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.server.IndexedTaskStore;
+import io.github.a2ap.core.server.TaskHistoryStore;
+import io.github.a2ap.core.util.SizeEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory TaskStore bounded by a number of tasks and an estimated size.
+ * <p>
+ * Only terminal tasks (completed, failed, canceled or rejected) are evicted, running and
+ * interrupted tasks are always kept. Terminal tasks are evicted least recently used first:
+ * <ul>
+ * <li>when the store holds more than {@code maxTasks} tasks</li>
+ * <li>when the estimated size of the stored tasks exceeds {@code maxBytes}</li>
+ * <li>when they have not been saved nor loaded for {@code terminalTtl}</li>
+ * </ul>
+ * Terminal tasks form a linked list in access order, so every operation runs in constant
+ * amortized time. Expired tasks are evicted by the operations themselves, there is no
+ * background thread.
+ * <p>
+ * The size of a task is estimated when it is first stored and again when it turns
+ * terminal, not on every save: the task manager saves the same task instance on every
+ * streamed event, and estimating its whole history and artifacts each time would make
+ * streaming a task quadratic. Running tasks, which are never evicted, are therefore
+ * accounted for with the size they had when stored.
+ * <p>
+ * The stored tasks are indexed by context ID, state and last save time, evicted tasks
+ * are removed from the indexes with the task. When a {@link TaskHistoryStore} is given,
+ * the moved out history of an evicted task is removed from it too, once the store lock
+ * has been released.
+ */
+public class BoundedInMemoryTaskStore implements IndexedTaskStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedInMemoryTaskStore.class);
+
+    private final int maxTasks;
+
+    private final long maxBytes;
+
+    private final long terminalTtlNanos;
+
+    private final TaskHistoryStore historyStore;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Entry> store = new HashMap<>();
+
+    private final TaskIndex index = new TaskIndex();
+
+    // Terminal tasks, least recently used first
+    private Entry first;
+
+    private Entry last;
+
+    // Evicted tasks whose history is still to be removed
+    private List<String> evictedIds = new ArrayList<>();
+
+    private long estimatedBytes;
+
+    private long evictedCount;
+
+    private long expiredCount;
+
+    private long overflowCount;
+
+    /**
+     * Constructs a new BoundedInMemoryTaskStore.
+     *
+     * @param maxTasks    The maximum number of tasks stored, 0 for no limit.
+     * @param maxBytes    The maximum estimated size of the stored tasks, 0 for no limit.
+     * @param terminalTtl How long a terminal task is kept after its last save or load, zero
+     *                    to keep it until it is evicted for room.
+     */
+    public BoundedInMemoryTaskStore(int maxTasks, long maxBytes, Duration terminalTtl) {
+        this(maxTasks, maxBytes, terminalTtl, null);
+    }
+
+    /**
+     * Constructs a new BoundedInMemoryTaskStore removing the histories of evicted tasks.
+     *
+     * @param maxTasks     The maximum number of tasks stored, 0 for no limit.
+     * @param maxBytes     The maximum estimated size of the stored tasks, 0 for no limit.
+     * @param terminalTtl  How long a terminal task is kept after its last save or load,
+     *                     zero to keep it until it is evicted for room.
+     * @param historyStore The store of the moved out task histories, null if none.
+     */
+    public BoundedInMemoryTaskStore(int maxTasks, long maxBytes, Duration terminalTtl,
+                                    TaskHistoryStore historyStore) {
+        if (maxTasks < 0) {
+            throw new IllegalArgumentException("maxTasks must not be negative");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        if (terminalTtl == null || terminalTtl.isNegative()) {
+            throw new IllegalArgumentException("terminalTtl must not be negative");
+        }
+        this.maxTasks = maxTasks;
+        this.maxBytes = maxBytes;
+        this.terminalTtlNanos = terminalTtl.toNanos();
+        this.historyStore = historyStore;
+    }
+
+    @Override
+    public void save(Task task) {
+        TaskState state = task.getStatus() == null ? null : task.getStatus().getState();
+        boolean terminal = state != null && state.isTerminal();
+        long now = System.nanoTime();
+        long size;
+        List<String> evicted;
+        lock.lock();
+        try {
+            Entry entry = store.get(task.getId());
+            // estimated again only for a new instance or once the task turns terminal
+            size = entry != null && entry.task == task && (!terminal || entry.terminal) ? entry.size
+                : SizeEstimator.estimate(task);
+            if (entry == null) {
+                entry = new Entry(task.getId());
+                store.put(task.getId(), entry);
+            } else {
+                estimatedBytes -= entry.size;
+                if (entry.terminal) {
+                    unlink(entry);
+                }
+            }
+            entry.task = task;
+            entry.size = size;
+            entry.terminal = terminal;
+            estimatedBytes += size;
+            index.update(task, System.currentTimeMillis());
+            if (terminal) {
+                entry.lastAccess = now;
+                linkLast(entry);
+            }
+            expire(now);
+            evict();
+            evicted = takeEvictedIds();
+        } finally {
+            lock.unlock();
+        }
+        removeHistories(evicted);
+    }
+
+    @Override
+    public Task load(String taskId) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return null;
+        }
+        long now = System.nanoTime();
+        Task task = null;
+        List<String> evicted;
+        lock.lock();
+        try {
+            expire(now);
+            Entry entry = store.get(taskId);
+            if (entry != null) {
+                if (entry.terminal) {
+                    entry.lastAccess = now;
+                    unlink(entry);
+                    linkLast(entry);
+                }
+                task = entry.task;
+            }
+            evicted = takeEvictedIds();
+        } finally {
+            lock.unlock();
+        }
+        removeHistories(evicted);
+        return task;
+    }
+
+    @Override
+    public List<String> findTaskIdsByContextId(String contextId) {
+        return index.findByContextId(contextId);
+    }
+
+    @Override
+    public List<String> findTaskIdsByContextId(String contextId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        return index.findByContextId(contextId, limit);
+    }
+
+    @Override
+    public List<String> findTaskIdsByState(TaskState state) {
+        return index.findByState(state);
+    }
+
+    @Override
+    public List<String> findTaskIdsUpdatedBetween(Instant from, Instant to) {
+        return index.findUpdatedBetween(from, to);
+    }
+
+    /**
+     * Returns the number of stored tasks.
+     *
+     * @return the number of tasks
+     */
+    public int getSize() {
+        lock.lock();
+        try {
+            return store.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated size of the stored tasks.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedBytes() {
+        lock.lock();
+        try {
+            return estimatedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of terminal tasks evicted to stay within the limits.
+     *
+     * @return the number of evicted tasks
+     */
+    public long getEvictedCount() {
+        lock.lock();
+        try {
+            return evictedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of terminal tasks evicted after their time to live.
+     *
+     * @return the number of expired tasks
+     */
+    public long getExpiredCount() {
+        lock.lock();
+        try {
+            return expiredCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many times the store stayed over its limits because only running tasks
+     * were left to evict.
+     *
+     * @return the number of saves that left the store over its limits
+     */
+    public long getOverflowCount() {
+        lock.lock();
+        try {
+            return overflowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts the terminal tasks past their time to live. Called with the lock held.
+     */
+    private void expire(long now) {
+        if (terminalTtlNanos == 0) {
+            return;
+        }
+        while (first != null && now - first.lastAccess >= terminalTtlNanos) {
+            remove(first);
+            expiredCount++;
+        }
+    }
+
+    /**
+     * Evicts the least recently used terminal tasks until the store is within its limits.
+     * Called with the lock held.
+     */
+    private void evict() {
+        while (isOverLimits()) {
+            if (first == null) {
+                if (overflowCount++ == 0) {
+                    log.warn("Task store over its limits with {} running tasks ({} estimated bytes).", store.size(),
+                        estimatedBytes);
+                }
+                return;
+            }
+            log.debug("Evicting task {}.", first.taskId);
+            remove(first);
+            evictedCount++;
+        }
+    }
+
+    private boolean isOverLimits() {
+        return (maxTasks > 0 && store.size() > maxTasks) || (maxBytes > 0 && estimatedBytes > maxBytes);
+    }
+
+    private void remove(Entry entry) {
+        unlink(entry);
+        store.remove(entry.taskId);
+        index.remove(entry.taskId);
+        estimatedBytes -= entry.size;
+        if (historyStore != null) {
+            evictedIds.add(entry.taskId);
+        }
+    }
+
+    /**
+     * Returns the tasks evicted since the last call. Called with the lock held.
+     */
+    private List<String> takeEvictedIds() {
+        if (evictedIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> taken = evictedIds;
+        evictedIds = new ArrayList<>();
+        return taken;
+    }
+
+    /**
+     * Removes the histories of evicted tasks, outside the lock since the history store may
+     * write to disk. A failure is only logged, the history is then left behind.
+     */
+    private void removeHistories(List<String> taskIds) {
+        for (String taskId : taskIds) {
+            try {
+                historyStore.remove(taskId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to remove the history of evicted task {}: {}", taskId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void linkLast(Entry entry) {
+        entry.prev = last;
+        entry.next = null;
+        if (last == null) {
+            first = entry;
+        } else {
+            last.next = entry;
+        }
+        last = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev == null) {
+            first = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next == null) {
+            last = entry.prev;
+        } else {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * A stored task. Guarded by the store lock.
+     */
+    private static final class Entry {
+
+        private final String taskId;
+
+        private Task task;
+
+        private long size;
+
+        private boolean terminal;
+
+        private long lastAccess;
+
+        private Entry prev;
+
+        private Entry next;
+
+        private Entry(String taskId) {
+            this.taskId = taskId;
+        }
+
+    }
+
+}
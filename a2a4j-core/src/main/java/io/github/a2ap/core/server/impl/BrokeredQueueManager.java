@@ -0,0 +1,292 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.server.EventBatch;
+import io.github.a2ap.core.server.EventBroker;
+import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.QueueManager;
+import io.github.a2ap.core.server.SequencedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * QueueManager that shares the event queues of tasks between the nodes of a cluster
+ * through an {@link EventBroker}.
+ * <p>
+ * Queues are kept by a node-local QueueManager. Every queue created on this node is
+ * forwarded to the broker: its events are published in batches of up to
+ * {@code maxBatchSize} events, at most {@code maxBatchDelay} after the first event of the
+ * batch, so a streaming agent does not cost one broker round trip per token. A tap of a
+ * task that has no queue on this node subscribes to the broker instead: the events of
+ * the task are relayed, with their sequence numbers, into a local mirror queue shared by
+ * all taps of the task on this node. The mirror is closed after the last batch of the
+ * task, or once no batch has been received for {@code mirrorIdleTimeout}: a tap of a task
+ * that is unknown or already finished, or whose node went down, never receives a last
+ * batch.
+ * <p>
+ * A queue created on this node for a task that is mirrored replaces the mirror.
+ */
+public class BrokeredQueueManager implements QueueManager, AutoCloseable {
+
+    /**
+     * The default maximum number of events published in one batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    /**
+     * The default maximum time an event waits for its batch to fill up.
+     */
+    public static final Duration DEFAULT_MAX_BATCH_DELAY = Duration.ofMillis(20);
+
+    /**
+     * The default time after which a mirror that received no batch is closed.
+     */
+    public static final Duration DEFAULT_MIRROR_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Logger log = LoggerFactory.getLogger(BrokeredQueueManager.class);
+
+    private final QueueManager local;
+
+    private final EventBroker broker;
+
+    private final int maxBatchSize;
+
+    private final Duration maxBatchDelay;
+
+    private final Duration mirrorIdleTimeout;
+
+    private final ConcurrentMap<String, Relay> forwarders = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Relay> mirrors = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new BrokeredQueueManager with the default batch size and delay.
+     *
+     * @param local  The QueueManager holding the queues of this node.
+     * @param broker The broker relaying events between the nodes.
+     */
+    public BrokeredQueueManager(QueueManager local, EventBroker broker) {
+        this(local, broker, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_DELAY);
+    }
+
+    /**
+     * Constructs a new BrokeredQueueManager.
+     *
+     * @param local         The QueueManager holding the queues of this node.
+     * @param broker        The broker relaying events between the nodes.
+     * @param maxBatchSize  The maximum number of events published in one batch.
+     * @param maxBatchDelay The maximum time an event waits for its batch to fill up.
+     */
+    public BrokeredQueueManager(QueueManager local, EventBroker broker, int maxBatchSize, Duration maxBatchDelay) {
+        this(local, broker, maxBatchSize, maxBatchDelay, DEFAULT_MIRROR_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Constructs a new BrokeredQueueManager.
+     *
+     * @param local             The QueueManager holding the queues of this node.
+     * @param broker            The broker relaying events between the nodes.
+     * @param maxBatchSize      The maximum number of events published in one batch.
+     * @param maxBatchDelay     The maximum time an event waits for its batch to fill up.
+     * @param mirrorIdleTimeout The time after which a mirror that received no batch is
+     *                          closed.
+     */
+    public BrokeredQueueManager(QueueManager local, EventBroker broker, int maxBatchSize, Duration maxBatchDelay,
+                                Duration mirrorIdleTimeout) {
+        if (local == null || broker == null) {
+            throw new IllegalArgumentException("local and broker must not be null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        if (maxBatchDelay == null || maxBatchDelay.isNegative() || maxBatchDelay.isZero()) {
+            throw new IllegalArgumentException("maxBatchDelay must be positive");
+        }
+        if (mirrorIdleTimeout == null || mirrorIdleTimeout.isNegative() || mirrorIdleTimeout.isZero()) {
+            throw new IllegalArgumentException("mirrorIdleTimeout must be positive");
+        }
+        this.local = local;
+        this.broker = broker;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelay = maxBatchDelay;
+        this.mirrorIdleTimeout = mirrorIdleTimeout;
+    }
+
+    @Override
+    public EventQueue create(String taskId) {
+        Relay mirror = mirrors.remove(taskId);
+        if (mirror != null) {
+            log.info("Task {} is now executed on this node, closing its mirror queue.", taskId);
+            mirror.dispose();
+        }
+
+        EventQueue queue = local.create(taskId);
+        Relay existing = forwarders.get(taskId);
+        if (existing != null && existing.queue == queue) {
+            return queue;
+        }
+        Relay forwarder = new Relay(queue);
+        boolean registered = existing == null ? forwarders.putIfAbsent(taskId, forwarder) == null
+            : forwarders.replace(taskId, existing, forwarder);
+        if (registered) {
+            forward(taskId, forwarder);
+        }
+        return queue;
+    }
+
+    @Override
+    public EventQueue tap(String taskId) {
+        EventQueue queue = local.tap(taskId);
+        if (queue != null) {
+            return queue;
+        }
+
+        log.debug("No local EventQueue for task {}, subscribing to the broker.", taskId);
+        Relay mirror = new Relay(local.create(taskId));
+        if (mirrors.putIfAbsent(taskId, mirror) != null) {
+            return local.tap(taskId);
+        }
+        // Tap before the relay starts, so the first tap receives all relayed events
+        EventQueue tappedQueue = mirror.queue.tap();
+        mirror(taskId, mirror);
+        return tappedQueue;
+    }
+
+    @Override
+    public EventQueue get(String taskId) {
+        return local.get(taskId);
+    }
+
+    @Override
+    public void remove(String taskId) {
+        // Closing the queue completes its forwarder, which publishes the last batch
+        local.remove(taskId);
+    }
+
+    /**
+     * Stops all forwarders and mirrors, and closes the local QueueManager if it is
+     * {@link AutoCloseable}.
+     *
+     * @throws Exception if the local QueueManager fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        forwarders.values().forEach(Relay::dispose);
+        mirrors.values().forEach(Relay::dispose);
+        if (local instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Returns the number of local queues whose events are published to the broker.
+     *
+     * @return the number of forwarded queues
+     */
+    public int getForwardedCount() {
+        return forwarders.size();
+    }
+
+    /**
+     * Returns the number of tasks of other nodes whose events are relayed to this node.
+     *
+     * @return the number of mirrored tasks
+     */
+    public int getMirroredCount() {
+        return mirrors.size();
+    }
+
+    /**
+     * Publishes the events of a local queue to the broker, in batches, until the queue is
+     * closed.
+     */
+    private void forward(String taskId, Relay forwarder) {
+        forwarder.subscription = forwarder.queue.tap()
+            .asSequencedFlux()
+            .bufferTimeout(maxBatchSize, maxBatchDelay, true)
+            .concatMap(events -> broker.publish(taskId, new EventBatch(events, false)))
+            .then(Mono.defer(() -> broker.publish(taskId, new EventBatch(List.of(), true))))
+            .doFinally(signal -> forwarders.remove(taskId, forwarder))
+            .subscribe(null, error -> log.error("Failed to publish the events of task {}: {}", taskId,
+                error.getMessage(), error));
+    }
+
+    /**
+     * Relays the events of a task from the broker to its local mirror queue, until the
+     * last batch of the task or until no batch was received for the idle timeout.
+     */
+    private void mirror(String taskId, Relay mirror) {
+        EventQueue queue = mirror.queue;
+        // Only the taps of the mirror are read, drain the mirror itself so it holds nothing back
+        queue.asFlux().subscribe();
+        mirror.subscription = broker.subscribe(taskId)
+            // Enqueueing may wait for slow subscribers, keep it off the broker threads
+            .publishOn(Schedulers.boundedElastic())
+            .takeUntil(EventBatch::isLast)
+            .timeout(mirrorIdleTimeout)
+            .onErrorResume(TimeoutException.class, e -> {
+                log.info("No events of task {} for {}, closing its mirror queue.", taskId, mirrorIdleTimeout);
+                return Mono.empty();
+            })
+            .doFinally(signal -> {
+                mirrors.remove(taskId, mirror);
+                queue.close();
+                if (local.get(taskId) == queue) {
+                    local.remove(taskId);
+                }
+                log.debug("Stopped relaying the events of task {}: {}", taskId, signal);
+            })
+            .subscribe(batch -> {
+                for (SequencedEvent event : batch.getEvents()) {
+                    queue.enqueueEvent(event);
+                }
+            }, error -> log.error("Failed to relay the events of task {}: {}", taskId, error.getMessage(), error));
+    }
+
+    /**
+     * A queue and its subscription to or from the broker.
+     */
+    private static final class Relay {
+
+        private final EventQueue queue;
+
+        private volatile Disposable subscription;
+
+        private Relay(EventQueue queue) {
+            this.queue = queue;
+        }
+
+        private void dispose() {
+            Disposable current = subscription;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+
+    }
+
+}
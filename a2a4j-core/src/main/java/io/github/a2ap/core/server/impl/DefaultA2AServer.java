@@ -17,27 +17,39 @@
 package io.github.a2ap.core.server.impl;
 
 import io.github.a2ap.core.model.AgentCard;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.MessageSendConfiguration;
 import io.github.a2ap.core.model.MessageSendParams;
+import io.github.a2ap.core.model.PushNotificationConfig;
 import io.github.a2ap.core.model.RequestContext;
 import io.github.a2ap.core.model.SendMessageResponse;
 import io.github.a2ap.core.model.SendStreamingMessageResponse;
 import io.github.a2ap.core.model.Task;
 import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
 import io.github.a2ap.core.model.TaskPushNotificationConfig;
+import io.github.a2ap.core.model.TaskQueryParams;
+import io.github.a2ap.core.model.TaskResubscriptionParams;
 import io.github.a2ap.core.model.TaskState;
 import io.github.a2ap.core.model.TaskStatus;
 import io.github.a2ap.core.model.TaskStatusUpdateEvent;
 import io.github.a2ap.core.server.A2AServer;
 import io.github.a2ap.core.server.AgentExecutor;
 import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.PushNotificationSender;
 import io.github.a2ap.core.server.QueueManager;
+import io.github.a2ap.core.server.SequencedEvent;
 import io.github.a2ap.core.server.TaskManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implementation of the A2AServer interface. This class provides the core functionality
@@ -55,6 +67,12 @@ public class DefaultA2AServer implements A2AServer {
 
     private final AgentCard a2aServerSelfCard;
 
+    private final Scheduler backgroundScheduler;
+
+    private final PushNotificationSender pushNotificationSender;
+
+    private final ExecutionRegistry executions = new ExecutionRegistry();
+
     /**
      * Constructs a new A2AServerImpl with the specified components.
      *
@@ -64,9 +82,43 @@ public class DefaultA2AServer implements A2AServer {
      */
     public DefaultA2AServer(TaskManager taskManager, AgentExecutor agentExecutor, QueueManager queueManager,
                             AgentCard a2aServerSelfCard) {
+        this(taskManager, agentExecutor, queueManager, a2aServerSelfCard, Schedulers.boundedElastic());
+    }
+
+    /**
+     * Constructs a new A2AServerImpl with the specified components.
+     *
+     * @param taskManager         The TaskManager to use for task management.
+     * @param agentExecutor       The AgentExecutor to use for agent execution.
+     * @param queueManager        The QueueManager to use for event queue management.
+     * @param a2aServerSelfCard   The AgentCard of this server.
+     * @param backgroundScheduler The Scheduler running agents of non-blocking message/send requests.
+     */
+    public DefaultA2AServer(TaskManager taskManager, AgentExecutor agentExecutor, QueueManager queueManager,
+                            AgentCard a2aServerSelfCard, Scheduler backgroundScheduler) {
+        this(taskManager, agentExecutor, queueManager, a2aServerSelfCard, backgroundScheduler, null);
+    }
+
+    /**
+     * Constructs a new A2AServerImpl with the specified components.
+     *
+     * @param taskManager            The TaskManager to use for task management.
+     * @param agentExecutor          The AgentExecutor to use for agent execution.
+     * @param queueManager           The QueueManager to use for event queue management.
+     * @param a2aServerSelfCard      The AgentCard of this server.
+     * @param backgroundScheduler    The Scheduler running agents of non-blocking message/send
+     *                               requests.
+     * @param pushNotificationSender The sender of the updates of tasks with a push
+     *                               notification config, null to send none.
+     */
+    public DefaultA2AServer(TaskManager taskManager, AgentExecutor agentExecutor, QueueManager queueManager,
+                            AgentCard a2aServerSelfCard, Scheduler backgroundScheduler,
+                            PushNotificationSender pushNotificationSender) {
         this.taskManager = taskManager;
         this.agentExecutor = agentExecutor;
         this.queueManager = queueManager;
+        this.backgroundScheduler = backgroundScheduler;
+        this.pushNotificationSender = pushNotificationSender;
         log.info("A2AServerImpl initialized with TaskManager: {}, AgentExecutor: {}, QueueManager: {}",
             taskManager.getClass().getSimpleName(), agentExecutor.getClass().getSimpleName(),
             queueManager.getClass().getSimpleName());
@@ -83,77 +135,154 @@ public class DefaultA2AServer implements A2AServer {
      */
     @Override
     public SendMessageResponse handleMessage(MessageSendParams params) {
-        log.info("Attempting to handle the message: {}", params);
-        if (params == null || params.getMessage() == null || params.getMessage().getParts() == null
-            || params.getMessage().getParts().isEmpty()) {
-            log.error("Task handle failed: Task params must have at least one message.");
-            throw new IllegalArgumentException("Task params must have at least one message");
-        }
-        RequestContext taskContext = taskManager.loadOrCreateContext(params);
-        Task currentTask = taskContext.getTask();
-        log.info("Task request context loaded: {}", taskContext.getTask());
-
-        // Create event queue for this task
-        final EventQueue eventQueue = queueManager.create(taskContext.getTaskId());
-
-        // Execute agent and collect final result
-        eventQueue.enqueueEvent(currentTask);
-        Mono<SendMessageResponse> resultMono = agentExecutor.execute(taskContext, eventQueue)
-            .then(eventQueue.asFlux().flatMap(event -> {
-                if (event instanceof TaskStatusUpdateEvent) {
-                    return taskManager.applyStatusUpdate(currentTask, (TaskStatusUpdateEvent) event);
-                } else if (event instanceof TaskArtifactUpdateEvent) {
-                    return taskManager.applyArtifactUpdate(currentTask, (TaskArtifactUpdateEvent) event);
-                } else {
-                    return Mono.just(event);
+        return handleMessageAsync(params).block();
+    }
+
+    /**
+     * Handle the task on the server without blocking the calling thread.
+     * <p>
+     * Events published by the agent are applied to the task in order. The returned Mono
+     * completes with the first {@link Message} the agent replies with, or with the
+     * updated task once a final status update has been received or the event queue has
+     * been closed.
+     * <p>
+     * When the request is sent with {@code configuration.blocking=false}, the Mono
+     * completes right away with the submitted task, and the agent keeps running on the
+     * background scheduler. Its updates are applied to the task store as they arrive.
+     * <p>
+     * When {@code configuration.historyLength} is set, the returned task only carries the
+     * last {@code historyLength} messages of its history.
+     *
+     * @param params The Task params object to handle.
+     * @return Mono of the Task or Message produced by the agent.
+     */
+    @Override
+    public Mono<SendMessageResponse> handleMessageAsync(MessageSendParams params) {
+        return Mono.defer(() -> {
+            log.info("Attempting to handle the message: {}", params);
+            if (params == null || params.getMessage() == null || params.getMessage().getParts() == null
+                || params.getMessage().getParts().isEmpty()) {
+                log.error("Task handle failed: Task params must have at least one message.");
+                return Mono.error(new IllegalArgumentException("Task params must have at least one message"));
+            }
+            Integer historyLength = historyLength(params.getConfiguration());
+            return taskManager.loadOrCreateContextAsync(params).flatMap(taskContext -> {
+                Task currentTask = taskContext.getTask();
+                log.info("Task request context loaded: {}", taskContext.getTask());
+                registerPushNotification(taskContext.getTaskId(), params.getConfiguration());
+
+                // Create event queue for this task
+                final EventQueue eventQueue = queueManager.create(taskContext.getTaskId());
+                eventQueue.enqueueEvent(currentTask);
+
+                if (params.getConfiguration() != null
+                    && Boolean.FALSE.equals(params.getConfiguration().getBlocking())) {
+                    // Answer with the submitted task and let the agent run in the background
+                    Task submittedTask = snapshot(currentTask, historyLength);
+                    executeInBackground(taskContext, eventQueue);
+                    log.info("Task {} accepted for non-blocking execution.", taskContext.getTaskId());
+                    return Mono.just(submittedTask);
                 }
-            }).filter(event -> !(event instanceof Task))
-                .cast(SendMessageResponse.class)
-                .next()
-                .doOnError(e -> log.error("Error in task {} updates stream via handleMessage: {}",
-                    taskContext.getTaskId(), e.getMessage(), e))
-                .doOnTerminate(() -> {
-                    log.debug("Agent execution completed for task: {}", taskContext.getTaskId());
-                    queueManager.remove(taskContext.getTaskId());
-                }));
-
-        SendMessageResponse response = resultMono.block();
-        response = response == null ? currentTask : response;
-        log.info("Handle message success: {}", response);
-        return response;
+
+                // Execute agent and collect final result
+                return executeAndApply(taskContext, eventQueue)
+                    .map(SequencedEvent::getEvent)
+                    .takeUntil(DefaultA2AServer::isFinalEvent)
+                    .filter(event -> event instanceof Message)
+                    .cast(SendMessageResponse.class)
+                    .next()
+                    .defaultIfEmpty(currentTask)
+                    .map(response -> response instanceof Task task ? projectHistory(task, historyLength) : response)
+                    .doOnNext(response -> log.info("Handle message success: {}", response))
+                    .doOnError(e -> log.error("Error in task {} updates stream via handleMessage: {}",
+                        taskContext.getTaskId(), e.getMessage(), e))
+                    .doFinally(signal -> {
+                        log.debug("Agent execution completed for task: {}", taskContext.getTaskId());
+                        queueManager.remove(taskContext.getTaskId());
+                    });
+            });
+        });
+    }
+
+    /**
+     * Runs the agent on the background scheduler, independently of any subscriber, and
+     * applies its events to the task until the final one. The event queue is removed
+     * afterwards.
+     *
+     * @param taskContext The request context of the task.
+     * @param eventQueue  The event queue the agent publishes to.
+     * @return A Mono that completes once the queue has been removed, or fails with the error
+     * of the execution. The execution runs whether it is subscribed or not.
+     */
+    private Mono<Void> executeInBackground(RequestContext taskContext, EventQueue eventQueue) {
+        // registered before the agent is scheduled, so that a cancel right after the
+        // submitted task was returned stops it
+        ExecutionRegistry.Execution execution = executions.register(taskContext.getTaskId());
+        Sinks.Empty<Void> done = Sinks.empty();
+        applyEvents(taskContext, eventQueue, execution)
+            .map(SequencedEvent::getEvent)
+            .takeUntil(DefaultA2AServer::isFinalEvent)
+            .then()
+            .doOnError(e -> log.error("Error in background execution of task {}: {}", taskContext.getTaskId(),
+                e.getMessage(), e))
+            .doOnTerminate(() -> {
+                log.debug("Background agent execution completed for task: {}", taskContext.getTaskId());
+                executions.unregister(execution);
+                queueManager.remove(taskContext.getTaskId());
+            })
+            .subscribeOn(backgroundScheduler)
+            .subscribe(null, done::tryEmitError, done::tryEmitEmpty);
+        return done.asMono();
     }
 
     @Override
     public Flux<SendStreamingMessageResponse> handleMessageStream(MessageSendParams params) {
+        return handleSequencedMessageStream(params).map(SequencedEvent::getEvent);
+    }
+
+    /**
+     * Handles a streaming message. The agent runs on the background scheduler and its events
+     * are applied to the task whether the stream is subscribed or not: a client that
+     * disconnects leaves the task running, and may resume the stream after the last event it
+     * received with tasks/resubscribe, as far as the event queue of the task still buffers
+     * the missed events in its replay window.
+     * <p>
+     * The stream completes once every event up to the final one has been applied to the
+     * task.
+     *
+     * @param params The params of the message/stream request.
+     * @return A Flux of the events published by the agent, with their sequence numbers.
+     */
+    @Override
+    public Flux<SequencedEvent> handleSequencedMessageStream(MessageSendParams params) {
         log.info("Attempting to handle the streaming message: {}", params);
         if (params == null || params.getMessage() == null || params.getMessage().getParts() == null
             || params.getMessage().getParts().isEmpty()) {
             log.error("Streaming handle failed: Task params must have at least one message.");
             throw new IllegalArgumentException("Task params must have at least one message");
         }
-
-        RequestContext taskContext = taskManager.loadOrCreateContext(params);
-        Task currentTask = taskContext.getTask();
-        log.info("Task request context loaded: {}", taskContext.getTask());
-
-        // Create event queue for this task
-        final EventQueue eventQueue = queueManager.create(taskContext.getTaskId());
-
-        // Execute agent and collect final result
-        return agentExecutor.execute(taskContext, eventQueue).thenMany(eventQueue.asFlux().doOnNext(event -> {
-            if (event instanceof TaskStatusUpdateEvent) {
-                taskManager.applyStatusUpdate(currentTask, (TaskStatusUpdateEvent) event).block();
-            } else if (event instanceof TaskArtifactUpdateEvent) {
-                taskManager.applyArtifactUpdate(currentTask, (TaskArtifactUpdateEvent) event).block();
-            }
-        }).doOnComplete(() -> log.debug("Task {} updates stream completed via handleMessageStream.",
-                taskContext.getTaskId()))
-            .doOnError(e -> log.error("Error in task {} updates stream via handleMessageStream: {}",
-                taskContext.getTaskId(), e.getMessage(), e))
-            .doOnTerminate(() -> {
-                log.debug("Agent execution completed for task: {}", taskContext.getTaskId());
-                queueManager.remove(taskContext.getTaskId());
-            }));
+        Integer historyLength = historyLength(params.getConfiguration());
+
+        return taskManager.loadOrCreateContextAsync(params).flatMapMany(taskContext -> {
+            log.info("Task request context loaded: {}", taskContext.getTask());
+            registerPushNotification(taskContext.getTaskId(), params.getConfiguration());
+
+            // Create event queue for this task, the client reads it from a tap taken before the
+            // agent starts so that it receives every event
+            final EventQueue eventQueue = queueManager.create(taskContext.getTaskId());
+            EventQueue clientQueue = eventQueue.tap();
+            Mono<Void> applied = executeInBackground(taskContext, eventQueue);
+
+            return Flux.merge(clientQueue.asSequencedFlux(), applied.then(Mono.<SequencedEvent>empty()))
+                .map(event -> event.getEvent() instanceof Task task
+                    ? event.withEvent(projectHistory(task, historyLength)) : event)
+                .doOnComplete(() -> log.debug("Task {} updates stream completed via handleMessageStream.",
+                    taskContext.getTaskId()))
+                .doOnError(e -> log.error("Error in task {} updates stream via handleMessageStream: {}",
+                    taskContext.getTaskId(), e.getMessage(), e))
+                .doOnCancel(() -> log.debug("Client of task {} disconnected, the agent keeps running.",
+                    taskContext.getTaskId()));
+        });
     }
 
     /**
@@ -165,7 +294,7 @@ public class DefaultA2AServer implements A2AServer {
     @Override
     public Task getTask(String taskId) {
         log.info("Getting task with ID: {}", taskId);
-        Task task = taskManager.getTask(taskId);
+        Task task = taskManager.getTaskAsync(taskId).block();
         if (task != null) {
             log.debug("Found task {}: {}", taskId, task);
         } else {
@@ -174,6 +303,73 @@ public class DefaultA2AServer implements A2AServer {
         return task;
     }
 
+    /**
+     * Retrieves a task by the query params of a tasks/get request, with its history limited
+     * to the last {@code historyLength} messages when set. When the task holds fewer
+     * messages than requested, the older messages moved out of it by the task manager are
+     * added in front of its history.
+     *
+     * @param params The query params of the task.
+     * @return The Task object if found, otherwise null.
+     */
+    @Override
+    public Task getTask(TaskQueryParams params) {
+        return getTaskAsync(params).block();
+    }
+
+    /**
+     * Retrieves a task by the query params of a tasks/get request without blocking the
+     * calling thread, see {@link #getTask(TaskQueryParams)}. The older messages are read
+     * from the history store on the bounded elastic scheduler, since it may read them from
+     * disk.
+     *
+     * @param params The query params of the task.
+     * @return Mono of the Task object, empty if not found.
+     */
+    @Override
+    public Mono<Task> getTaskAsync(TaskQueryParams params) {
+        if (params == null || params.getTaskId() == null) {
+            return Mono.error(new IllegalArgumentException("Task id must not be null"));
+        }
+        Integer historyLength = params.getHistoryLength();
+        if (historyLength != null && historyLength < 0) {
+            return Mono.error(new IllegalArgumentException("historyLength must not be negative"));
+        }
+        String taskId = params.getTaskId();
+        log.info("Getting task with ID: {}", taskId);
+        return taskManager.getTaskAsync(taskId)
+            .doOnNext(task -> log.debug("Found task {}: {}", taskId, task))
+            .switchIfEmpty(Mono.fromRunnable(() -> log.warn("Task with ID {} not found.", taskId)))
+            .flatMap(task -> {
+                int held = task.getHistory() == null ? 0 : task.getHistory().size();
+                if (historyLength == null || historyLength <= held) {
+                    return Mono.just(projectHistory(task, historyLength));
+                }
+                return Mono.fromCallable(() -> taskManager.getSpilledHistory(task.getId(), historyLength - held))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .map(spilled -> spilled.isEmpty() ? projectHistory(task, historyLength)
+                        : withHistory(task, spilled));
+            });
+    }
+
+    /**
+     * Copies a task with older messages in front of its history.
+     */
+    private static Task withHistory(Task task, List<Message> olderMessages) {
+        List<Message> history = new ArrayList<>(olderMessages);
+        if (task.getHistory() != null) {
+            history.addAll(task.getHistory());
+        }
+        return Task.builder()
+            .id(task.getId())
+            .contextId(task.getContextId())
+            .status(task.getStatus())
+            .artifacts(task.getArtifacts())
+            .history(history)
+            .metadata(task.getMetadata())
+            .build();
+    }
+
     /**
      * Cancels a task.
      *
@@ -182,39 +378,66 @@ public class DefaultA2AServer implements A2AServer {
      */
     @Override
     public Task cancelTask(String taskId) {
+        return cancelTaskAsync(taskId).block();
+    }
+
+    /**
+     * Cancels a task without blocking the calling thread. Running executions of the task
+     * are stopped first, then the agent is asked to cancel and the task is updated.
+     *
+     * @param taskId The ID of the task to cancel.
+     * @return Mono of the cancelled Task object.
+     */
+    @Override
+    public Mono<Task> cancelTaskAsync(String taskId) {
         if (taskId == null) {
-            throw new IllegalArgumentException("Cancel Task id must not be null");
+            return Mono.error(new IllegalArgumentException("Cancel Task id must not be null"));
         }
         log.info("Attempting to cancel task with ID: {}", taskId);
+        return taskManager.getTaskAsync(taskId)
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Task with ID {} not found for cancellation.", taskId);
+                return Mono.error(new IllegalArgumentException("Cancel Task id not found for cancellation."));
+            }))
+            .flatMap(cancelledTask -> cancel(cancelledTask));
+    }
 
-        Task cancelledTask = taskManager.getTask(taskId);
-
-        if (cancelledTask == null) {
-            log.warn("Task with ID {} not found for cancellation.", taskId);
-            throw new IllegalArgumentException("Cancel Task id not found for cancellation.");
-        }
-
-        // Get or create event queue for cancellation
-        EventQueue eventQueue = queueManager.get(taskId);
+    private Mono<Task> cancel(Task cancelledTask) {
+        String taskId = cancelledTask.getId();
         TaskStatus taskStatus = TaskStatus.builder()
             .state(TaskState.CANCELED)
             .timestamp(String.valueOf(Instant.now().toEpochMilli()))
             .build();
-        if (eventQueue != null) {
-            TaskStatusUpdateEvent event = TaskStatusUpdateEvent.builder()
-                .taskId(taskId)
-                .status(taskStatus)
-                .isFinal(true)
-                .build();
-            eventQueue.enqueueEvent(event);
-            eventQueue.close();
-        }
+        TaskStatusUpdateEvent event = TaskStatusUpdateEvent.builder()
+            .taskId(taskId)
+            .contextId(cancelledTask.getContextId())
+            .status(taskStatus)
+            .isFinal(true)
+            .build();
+
+        return Mono.defer(() -> {
+            // Stop running executions first, so no further agent update is applied to the task
+            List<ExecutionRegistry.Execution> stopped = executions.cancel(taskId);
+            // Notify tapped subscribers
+            EventQueue eventQueue = queueManager.get(taskId);
+            if (eventQueue != null) {
+                eventQueue.enqueueEvent(event);
+                eventQueue.close();
+                if (stopped.isEmpty()) {
+                    queueManager.remove(taskId);
+                }
+            }
 
-        // Execute cancellation
-        agentExecutor.cancel(taskId).block();
-        taskManager.applyTaskUpdate(cancelledTask, taskStatus).block();
-        log.info("Task {} cancelled successfully.", taskId);
-        return cancelledTask;
+            // Execute cancellation
+            return Mono.defer(() -> agentExecutor.cancel(taskId))
+                .then(taskManager.applyTaskUpdate(cancelledTask, taskStatus))
+                .doOnNext(this::sendPushNotification)
+                .thenReturn(cancelledTask)
+                .doOnSuccess(task -> log.info("Task {} cancelled successfully, {} running execution(s) stopped.",
+                    taskId, stopped.size()))
+                // Pass the final event to the subscribers of the stopped executions
+                .doFinally(signal -> stopped.forEach(execution -> execution.complete(event)));
+        });
     }
 
     /**
@@ -262,42 +485,260 @@ public class DefaultA2AServer implements A2AServer {
      */
     @Override
     public Flux<SendStreamingMessageResponse> subscribeToTaskUpdates(String taskId) {
-        log.info("Subscribing to task updates for ID: {}", taskId);
+        return subscribeToSequencedTaskUpdates(new TaskResubscriptionParams(taskId)).map(SequencedEvent::getEvent);
+    }
+
+    /**
+     * Subscribes to streaming updates for a task. If the params carry the id of the last
+     * event received, only the events after it are replayed, as far as they are still
+     * buffered by the event queue of the task.
+     *
+     * @param params The params of the tasks/resubscribe request.
+     * @return A Flux of the updates with their sequence numbers.
+     */
+    @Override
+    public Flux<SequencedEvent> subscribeToSequencedTaskUpdates(TaskResubscriptionParams params) {
+        if (params == null || params.getId() == null) {
+            throw new IllegalArgumentException("Task id must not be null");
+        }
+        Long lastEventId = params.getLastEventId();
+        if (lastEventId != null && lastEventId < 0) {
+            throw new IllegalArgumentException("lastEventId must not be negative");
+        }
+        String taskId = params.getId();
+        log.info("Subscribing to task updates for ID: {}, last event: {}", taskId, lastEventId);
 
         // check the task
-        Task task = taskManager.getTask(taskId);
-        if (task == null) {
-            log.warn("Task with ID {} not found for subscription.", taskId);
-            return Flux.error(new IllegalArgumentException("Task not found: " + taskId));
+        return taskManager.getTaskAsync(taskId)
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("Task with ID {} not found for subscription.", taskId);
+                return Mono.error(new IllegalArgumentException("Task not found: " + taskId));
+            }))
+            .flatMapMany(task -> {
+                // if the task is finish, return
+                TaskState state = task.getStatus().getState();
+                if (state.isTerminal()) {
+                    log.info("Task {} is in final state {}, returning final status.", taskId, state);
+                    TaskStatusUpdateEvent finalEvent = TaskStatusUpdateEvent.builder()
+                        .taskId(taskId)
+                        .status(task.getStatus())
+                        .isFinal(true)
+                        .build();
+                    return Flux.just(SequencedEvent.of(finalEvent));
+                }
+
+                // for the task is process, try tap the current event queue
+                EventQueue eventQueue = queueManager.tap(taskId);
+                if (eventQueue != null) {
+                    log.debug("Task {} is in progress, subscribing to updates via tapped queue.", taskId);
+                    Flux<SequencedEvent> events = lastEventId == null
+                        ? eventQueue.asSequencedFlux() : eventQueue.asSequencedFlux(lastEventId);
+                    return events
+                        .doOnSubscribe(s -> log.debug(
+                            "Subscriber attached to task {} updates via subscribeToTaskUpdates.", taskId))
+                        .doOnComplete(() -> log.debug(
+                            "Task {} updates stream completed via subscribeToTaskUpdates.", taskId))
+                        .doOnError(e -> log.error("Error in task {} updates stream via subscribeToTaskUpdates: {}",
+                            taskId, e.getMessage(), e));
+                } else {
+                    log.warn("No active event queue found for task {}.", taskId);
+                    return Flux.empty();
+                }
+            });
+    }
+
+    /**
+     * Subscribes to the event queue and runs the agent, applying every status and
+     * artifact update to the task before the event is passed downstream.
+     * <p>
+     * The queue is subscribed before the agent starts so events are consumed while the
+     * agent is still running, and each update is applied only after the previous one has
+     * completed. If the execution fails, the task is marked as failed before the error is
+     * passed downstream.
+     * <p>
+     * The execution is registered for the lifetime of the subscription. When the task is
+     * cancelled, the agent subscription is disposed right away and the Flux ends with the
+     * final cancellation event.
+     *
+     * @param taskContext The request context of the task.
+     * @param eventQueue  The event queue the agent publishes to.
+     * @return A Flux of the events published by the agent, with their sequence numbers.
+     */
+    private Flux<SequencedEvent> executeAndApply(RequestContext taskContext, EventQueue eventQueue) {
+        return Flux.using(() -> executions.register(taskContext.getTaskId()),
+            execution -> applyEvents(taskContext, eventQueue, execution),
+            executions::unregister);
+    }
+
+    /**
+     * Runs the agent and applies its events to the task until the execution is disposed.
+     */
+    private Flux<SequencedEvent> applyEvents(RequestContext taskContext, EventQueue eventQueue,
+                                             ExecutionRegistry.Execution execution) {
+        Task currentTask = taskContext.getTask();
+        // the agent is started once the queue is subscribed, so that its events are drained,
+        // and not at all if the task was cancelled before
+        return Flux.merge(eventQueue.asSequencedFlux(),
+                Mono.defer(() -> execution.isDisposed() ? Mono.empty() : agentExecutor.execute(taskContext, eventQueue))
+                    .then(Mono.<SequencedEvent>empty()))
+            .concatMap(event -> {
+                if (event.getEvent() instanceof TaskStatusUpdateEvent statusEvent) {
+                    return taskManager.applyStatusUpdate(currentTask, statusEvent)
+                        .doOnNext(this::sendPushNotification)
+                        .thenReturn(event);
+                } else if (event.getEvent() instanceof TaskArtifactUpdateEvent artifactEvent) {
+                    return taskManager.applyArtifactUpdate(currentTask, artifactEvent)
+                        .doOnNext(this::sendPushNotification)
+                        .thenReturn(event);
+                } else {
+                    return Mono.just(event);
+                }
+            })
+            .onErrorResume(e -> failTask(currentTask, e).then(Mono.error(e)))
+            .takeUntilOther(execution.onDispose())
+            .concatWith(execution.finalEvent().map(SequencedEvent::of));
+    }
+
+    /**
+     * Records a failed execution on the task, e.g. an agent error or an execution that was
+     * rejected because the server is overloaded.
+     *
+     * @param task  The task whose execution failed.
+     * @param error The error the execution failed with.
+     * @return A Mono that completes once the failed status has been applied.
+     */
+    private Mono<Void> failTask(Task task, Throwable error) {
+        TaskStatus failedStatus = TaskStatus.builder()
+            .state(TaskState.FAILED)
+            .timestamp(String.valueOf(Instant.now().toEpochMilli()))
+            .error(error.getMessage())
+            .build();
+        return taskManager.applyTaskUpdate(task, failedStatus)
+            .doOnNext(this::sendPushNotification)
+            .onErrorResume(e -> {
+                log.error("Failed to mark task {} as failed: {}", task.getId(), e.getMessage(), e);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Registers the push notification config sent along with the message, if any.
+     *
+     * @param taskId        The ID of the task.
+     * @param configuration The send configuration of the request.
+     */
+    private void registerPushNotification(String taskId, MessageSendConfiguration configuration) {
+        if (configuration == null || configuration.getPushNotificationConfig() == null) {
+            return;
         }
+        PushNotificationConfig pushConfig = configuration.getPushNotificationConfig();
+        taskManager.registerTaskNotification(
+            new TaskPushNotificationConfig(pushConfig.getUrl(), pushConfig.getAuthToken(), taskId));
+    }
 
-        // if the task is finish, return
-        TaskState state = task.getStatus().getState();
-        if (state == TaskState.COMPLETED || state == TaskState.FAILED || state == TaskState.CANCELED
-            || state == TaskState.REJECTED) {
-            log.info("Task {} is in final state {}, returning final status.", taskId, state);
-            TaskStatusUpdateEvent finalEvent = TaskStatusUpdateEvent.builder()
-                .taskId(taskId)
-                .status(task.getStatus())
-                .isFinal(true)
-                .build();
-            return Flux.just(finalEvent);
+    /**
+     * Sends the updated task to its push notification URL, if it has one. Failures are
+     * logged, they never fail the update.
+     *
+     * @param task The updated task.
+     */
+    private void sendPushNotification(Task task) {
+        if (pushNotificationSender == null) {
+            return;
         }
+        TaskPushNotificationConfig config = taskManager.getTaskNotification(task.getId());
+        if (config == null) {
+            return;
+        }
+        try {
+            pushNotificationSender.send(config, task);
+        } catch (RuntimeException e) {
+            log.error("Failed to send push notification of task {}: {}", task.getId(), e.getMessage(), e);
+        }
+    }
 
-        // for the task is process, try tap the current event queue
-        EventQueue eventQueue = queueManager.tap(taskId);
-        if (eventQueue != null) {
-            log.debug("Task {} is in progress, subscribing to updates via tapped queue.", taskId);
-            return eventQueue.asFlux()
-                .doOnSubscribe(
-                    s -> log.debug("Subscriber attached to task {} updates via subscribeToTaskUpdates.", taskId))
-                .doOnComplete(() -> log.debug("Task {} updates stream completed via subscribeToTaskUpdates.", taskId))
-                .doOnError(e -> log.error("Error in task {} updates stream via subscribeToTaskUpdates: {}", taskId,
-                    e.getMessage(), e));
-        } else {
-            log.warn("No active event queue found for task {}.", taskId);
-            return Flux.empty();
+    /**
+     * Returns the requested history length of the send configuration, if any.
+     *
+     * @param configuration The send configuration of the request.
+     * @return The history length, null if the whole history is requested.
+     * @throws IllegalArgumentException if the history length is negative
+     */
+    private static Integer historyLength(MessageSendConfiguration configuration) {
+        Integer historyLength = configuration == null ? null : configuration.getHistoryLength();
+        if (historyLength != null && historyLength < 0) {
+            throw new IllegalArgumentException("historyLength must not be negative");
+        }
+        return historyLength;
+    }
+
+    /**
+     * Creates a copy of the task that is not affected by updates applied to it later on.
+     *
+     * @param task          The task to copy.
+     * @param historyLength The number of most recent history messages to keep, null for all.
+     * @return A copy of the task.
+     */
+    private static Task snapshot(Task task, Integer historyLength) {
+        return Task.builder()
+            .id(task.getId())
+            .contextId(task.getContextId())
+            .status(task.getStatus())
+            .artifacts(task.getArtifacts() == null ? null : new ArrayList<>(task.getArtifacts()))
+            .history(task.getHistory() == null ? null : new ArrayList<>(lastMessages(task.getHistory(), historyLength)))
+            .metadata(task.getMetadata())
+            .build();
+    }
+
+    /**
+     * Limits the history of a task to its last {@code historyLength} messages.
+     * <p>
+     * The stored task is never modified: if its history has to be trimmed, a view of the
+     * task is returned that shares everything but the history with it, and only the kept
+     * message references are copied.
+     *
+     * @param task          The task to project.
+     * @param historyLength The number of most recent history messages to keep, null for all.
+     * @return The task itself if its history fits, otherwise a view of the task.
+     */
+    private static Task projectHistory(Task task, Integer historyLength) {
+        List<Message> history = task.getHistory();
+        if (historyLength == null || history == null || history.size() <= historyLength) {
+            return task;
+        }
+        return Task.builder()
+            .id(task.getId())
+            .contextId(task.getContextId())
+            .status(task.getStatus())
+            .artifacts(task.getArtifacts())
+            .history(new ArrayList<>(lastMessages(history, historyLength)))
+            .metadata(task.getMetadata())
+            .build();
+    }
+
+    private static List<Message> lastMessages(List<Message> history, Integer historyLength) {
+        if (historyLength == null || history.size() <= historyLength) {
+            return history;
+        }
+        return history.subList(history.size() - historyLength, history.size());
+    }
+
+    /**
+     * Whether the event ends the current request, i.e. the agent replied with a message or
+     * published a final status update.
+     *
+     * @param event The event published by the agent.
+     * @return true if no further events are expected for this request.
+     */
+    private static boolean isFinalEvent(SendStreamingMessageResponse event) {
+        if (event instanceof Message) {
+            return true;
+        }
+        if (event instanceof TaskStatusUpdateEvent statusEvent) {
+            return Boolean.TRUE.equals(statusEvent.getIsFinal());
         }
+        return false;
     }
 
     /**
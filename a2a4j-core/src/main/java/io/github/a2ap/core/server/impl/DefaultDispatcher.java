@@ -17,6 +17,7 @@
 package io.github.a2ap.core.server.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.a2ap.core.exception.A2AError;
 import io.github.a2ap.core.jsonrpc.JSONRPCError;
 import io.github.a2ap.core.jsonrpc.JSONRPCRequest;
 import io.github.a2ap.core.jsonrpc.JSONRPCResponse;
@@ -25,11 +26,15 @@ import io.github.a2ap.core.model.SendMessageResponse;
 import io.github.a2ap.core.model.Task;
 import io.github.a2ap.core.model.TaskIdParams;
 import io.github.a2ap.core.model.TaskPushNotificationConfig;
+import io.github.a2ap.core.model.TaskQueryParams;
+import io.github.a2ap.core.model.TaskResubscriptionParams;
 import io.github.a2ap.core.server.A2AServer;
 import io.github.a2ap.core.server.Dispatcher;
+import io.github.a2ap.core.server.SequencedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Default implementation of the Dispatcher interface.
@@ -88,8 +93,8 @@ public class DefaultDispatcher implements Dispatcher {
                     response.setResult(messageResponse);
                 }
                 case "tasks/get" -> {
-                    TaskIdParams taskIdParamsGet = objectMapper.convertValue(params, TaskIdParams.class);
-                    Task task = a2aServer.getTask(taskIdParamsGet.getId());
+                    TaskQueryParams taskQueryParams = objectMapper.convertValue(params, TaskQueryParams.class);
+                    Task task = a2aServer.getTask(taskQueryParams);
                     response.setResult(task);
                 }
                 case "tasks/cancel" -> {
@@ -115,15 +120,56 @@ public class DefaultDispatcher implements Dispatcher {
                             "Method '" + method + "' not supported"));
                 }
             }
-        } catch (IllegalArgumentException e) {
-            response.setError(new JSONRPCError(JSONRPCError.INVALID_PARAMS, "Invalid params", e.getMessage()));
         } catch (Exception e) {
-            response.setError(new JSONRPCError(JSONRPCError.INTERNAL_ERROR, "Internal error", e.getMessage()));
-            log.error("Internal error processing method {}.", method, e);
+            response.setError(toJsonRpcError(method, e));
         }
         return response;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * message/send, tasks/get and tasks/cancel are handled by the non-blocking methods of
+     * the server, e.g. {@link A2AServer#handleMessageAsync(MessageSendParams)}, so no
+     * thread is held while the agent is running or the task store is read. The push
+     * notification config methods only read and write memory and are delegated to
+     * {@link #dispatch(JSONRPCRequest)}.
+     */
+    @Override
+    public Mono<JSONRPCResponse> dispatchAsync(JSONRPCRequest request) {
+        String method = request.getMethod();
+        Object params = request.getParams();
+        return switch (method == null ? "" : method) {
+            case "message/send" -> respond(request, Mono.defer(() -> a2aServer.handleMessageAsync(
+                objectMapper.convertValue(params, MessageSendParams.class))));
+            case "tasks/get" -> respond(request, Mono.defer(() -> a2aServer.getTaskAsync(
+                objectMapper.convertValue(params, TaskQueryParams.class))));
+            case "tasks/cancel" -> respond(request, Mono.defer(() -> a2aServer.cancelTaskAsync(
+                objectMapper.convertValue(params, TaskIdParams.class).getId())));
+            default -> Mono.fromCallable(() -> dispatch(request));
+        };
+    }
+
+    /**
+     * Wraps the result of a non-blocking method in its JSON-RPC response, a null result if
+     * the Mono is empty and the JSON-RPC error if it fails.
+     *
+     * @param request The JSON-RPC request being processed
+     * @param result  The result of the method
+     * @return Mono of the JSON-RPC response to send
+     */
+    private Mono<JSONRPCResponse> respond(JSONRPCRequest request, Mono<?> result) {
+        JSONRPCResponse response = new JSONRPCResponse();
+        response.setId(request.getId());
+        return result.map(value -> {
+            response.setResult(value);
+            return response;
+        }).defaultIfEmpty(response).onErrorResume(e -> {
+            response.setError(toJsonRpcError(request.getMethod(), e));
+            return Mono.just(response);
+        });
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -142,18 +188,20 @@ public class DefaultDispatcher implements Dispatcher {
             switch (method) {
                 case "message/stream" -> {
                     MessageSendParams taskSendParams = objectMapper.convertValue(params, MessageSendParams.class);
-                    return a2aServer.handleMessageStream(taskSendParams).map(event -> {
-                        response.setResult(event);
-                        return response;
-                    });
+                    return a2aServer.handleSequencedMessageStream(taskSendParams)
+                            .map(event -> toStreamResponse(request, event))
+                            .onErrorResume(e -> {
+                                JSONRPCResponse errorResponse = new JSONRPCResponse();
+                                errorResponse.setId(request.getId());
+                                errorResponse.setError(toJsonRpcError(method, e));
+                                return Flux.just(errorResponse);
+                            });
                 }
                 case "tasks/resubscribe" -> {
-                    TaskIdParams taskIdParamsGet = objectMapper.convertValue(params, TaskIdParams.class);
-                    return a2aServer.subscribeToTaskUpdates(taskIdParamsGet.getId())
-                            .map(event -> {
-                                response.setResult(event);
-                                return response;
-                            });
+                    TaskResubscriptionParams resubscriptionParams =
+                        objectMapper.convertValue(params, TaskResubscriptionParams.class);
+                    return a2aServer.subscribeToSequencedTaskUpdates(resubscriptionParams)
+                            .map(event -> toStreamResponse(request, event));
                 }
                 default -> {
                     log.warn("Unsupported method: {}", method);
@@ -170,4 +218,39 @@ public class DefaultDispatcher implements Dispatcher {
         }
         return Flux.just(response);
     }
+
+    /**
+     * Wraps a streamed event in its own JSON-RPC response, along with the sequence number
+     * of the event to send as the id of the server-sent event.
+     *
+     * @param request The JSON-RPC request being streamed
+     * @param event   The streamed event
+     * @return The JSON-RPC response to send
+     */
+    private static JSONRPCResponse toStreamResponse(JSONRPCRequest request, SequencedEvent event) {
+        JSONRPCResponse response = new JSONRPCResponse(request.getId(), event.getEvent());
+        if (event.hasSequence()) {
+            response.setEventId(event.getSequence());
+        }
+        return response;
+    }
+
+    /**
+     * Maps an exception raised while handling a method to its JSON-RPC error.
+     *
+     * @param method The JSON-RPC method being processed
+     * @param e      The exception raised by the handler
+     * @return The JSON-RPC error to return to the client
+     */
+    private JSONRPCError toJsonRpcError(String method, Throwable e) {
+        if (e instanceof A2AError a2aError && a2aError.getCode() != 0) {
+            log.warn("A2A error {} processing method {}: {}", a2aError.getCode(), method, a2aError.getMessage());
+            return new JSONRPCError(a2aError.getCode(), a2aError.getMessage(), a2aError.getData());
+        }
+        if (e instanceof IllegalArgumentException) {
+            return new JSONRPCError(JSONRPCError.INVALID_PARAMS, "Invalid params", e.getMessage());
+        }
+        log.error("Internal error processing method {}.", method, e);
+        return new JSONRPCError(JSONRPCError.INTERNAL_ERROR, "Internal error", e.getMessage());
+    }
 }
@@ -0,0 +1,738 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.server.IndexedTaskStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * TaskStore that makes tasks durable in an append-only log of files, without an external
+ * database.
+ * <p>
+ * Tasks are served from memory. Every save appends what changed since the previous save
+ * of the task to the active segment file: the new status, the messages added to the
+ * history, the new artifacts and the parts appended to existing artifacts. The whole task
+ * is only written when it is saved for the first time, or when a change cannot be
+ * expressed as an append, e.g. a shortened history. Changes are detected by comparing the
+ * sizes of the lists of the task and the identity of their last elements with the
+ * previous save, so the cost of a save does not grow with the size of the task.
+ * <p>
+ * A segment is sealed once it reaches {@code segmentBytes}. Once {@code compactionSegments}
+ * segments are sealed, a background thread replays them on top of the latest snapshot,
+ * writes a new snapshot holding every task once, and deletes the replayed segments. On
+ * startup, the tasks are rebuilt from the latest snapshot and the segments written after
+ * it. A record torn by a crash ends the replay of its segment.
+ * <p>
+ * Records are written to the file channel without forcing them to the disk, segments are
+ * forced when they are sealed and when the store is closed: a process crash loses
+ * nothing, a power failure may lose the records of the active segment.
+ * <p>
+ * The tasks are indexed by context ID, state and last save time. Tasks rebuilt on startup
+ * are indexed with the time of the recovery.
+ * <p>
+ * Record format: {@code [int length][int crc32][length bytes of JSON]}.
+ */
+public class EventLogTaskStore implements IndexedTaskStore, AutoCloseable {
+
+    /**
+     * The default size at which a segment is sealed.
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The default number of sealed segments that triggers a compaction.
+     */
+    public static final int DEFAULT_COMPACTION_SEGMENTS = 4;
+
+    private static final Logger log = LoggerFactory.getLogger(EventLogTaskStore.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+
+    private final long segmentBytes;
+
+    private final int compactionSegments;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+
+    private final TaskIndex index = new TaskIndex();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // What was written of each task, guarded by the lock
+    private final Map<String, WrittenTask> written = new HashMap<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    private final Scheduler scheduler;
+
+    private final AtomicLong appends = new AtomicLong();
+
+    private final AtomicLong appendedBytes = new AtomicLong();
+
+    private final AtomicLong compactions = new AtomicLong();
+
+    private final int recoveredTasks;
+
+    private final Duration recoveryTime;
+
+    private FileChannel segment;
+
+    private long segmentNumber;
+
+    private long segmentSize;
+
+    // The last segment included in the latest snapshot, 0 if there is none
+    private volatile long snapshotNumber;
+
+    private boolean closed;
+
+    /**
+     * Opens the store in the given directory with the default segment size and compaction
+     * threshold, rebuilding the tasks it holds.
+     *
+     * @param directory The directory of the log, created if it does not exist.
+     * @throws UncheckedIOException if the log cannot be read or the directory is not writable
+     */
+    public EventLogTaskStore(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_COMPACTION_SEGMENTS);
+    }
+
+    /**
+     * Opens the store in the given directory, rebuilding the tasks it holds.
+     *
+     * @param directory          The directory of the log, created if it does not exist.
+     * @param segmentBytes       The size at which a segment is sealed.
+     * @param compactionSegments The number of sealed segments that triggers a compaction.
+     * @throws UncheckedIOException if the log cannot be read or the directory is not writable
+     */
+    public EventLogTaskStore(Path directory, long segmentBytes, int compactionSegments) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("segmentBytes must be greater than 0");
+        }
+        if (compactionSegments <= 0) {
+            throw new IllegalArgumentException("compactionSegments must be greater than 0");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.compactionSegments = compactionSegments;
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            recover();
+            openSegment(segmentNumber + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the task log in " + directory, e);
+        }
+        this.recoveredTasks = tasks.size();
+        this.recoveryTime = Duration.ofNanos(System.nanoTime() - start);
+        this.scheduler = Schedulers.newSingle("a2a-task-store-compaction", true);
+        log.info("Recovered {} tasks from {} in {} ms.", recoveredTasks, directory, recoveryTime.toMillis());
+    }
+
+    /**
+     * Saves a task and appends its changes to the log.
+     *
+     * @param task The task to save.
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    @Override
+    public void save(Task task) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Task store is closed");
+            }
+            WrittenTask previous = written.get(task.getId());
+            WrittenTask.Changes changes = previous == null ? WrittenTask.Changes.FULL : previous.diff(task);
+            if (changes != null) {
+                append(changes.isFull() ? LogRecord.full(task) : LogRecord.of(task, changes));
+            }
+            written.put(task.getId(), new WrittenTask(task));
+            tasks.put(task.getId(), task);
+            index.update(task, System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append task " + task.getId() + " to the log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task load(String taskId) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return null;
+        }
+        return tasks.get(taskId);
+    }
+
+    @Override
+    public List<String> findTaskIdsByContextId(String contextId) {
+        return index.findByContextId(contextId);
+    }
+
+    @Override
+    public List<String> findTaskIdsByContextId(String contextId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        return index.findByContextId(contextId, limit);
+    }
+
+    @Override
+    public List<String> findTaskIdsByState(TaskState state) {
+        return index.findByState(state);
+    }
+
+    @Override
+    public List<String> findTaskIdsUpdatedBetween(Instant from, Instant to) {
+        return index.findUpdatedBetween(from, to);
+    }
+
+    /**
+     * Seals the active segment and compacts all sealed segments into a new snapshot,
+     * waiting for a running compaction to finish first.
+     *
+     * @throws UncheckedIOException if the log cannot be written
+     */
+    public void compact() {
+        long upTo;
+        lock.lock();
+        try {
+            upTo = segmentNumber;
+            rollSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to seal segment " + segmentNumber, e);
+        } finally {
+            lock.unlock();
+        }
+        compactionLock.lock();
+        try {
+            compactUpTo(upTo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact the task log", e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the compaction thread and forces the active segment to the disk.
+     *
+     * @throws IOException if the active segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.dispose();
+        compactionLock.lock();
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                segment.force(false);
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of records appended since the store was opened.
+     *
+     * @return the number of appended records
+     */
+    public long getAppendCount() {
+        return appends.get();
+    }
+
+    /**
+     * Returns the number of bytes appended since the store was opened.
+     *
+     * @return the number of appended bytes
+     */
+    public long getAppendedBytes() {
+        return appendedBytes.get();
+    }
+
+    /**
+     * Returns the number of compactions since the store was opened.
+     *
+     * @return the number of compactions
+     */
+    public long getCompactionCount() {
+        return compactions.get();
+    }
+
+    /**
+     * Returns the number of tasks rebuilt from the log when the store was opened.
+     *
+     * @return the number of recovered tasks
+     */
+    public int getRecoveredTaskCount() {
+        return recoveredTasks;
+    }
+
+    /**
+     * Returns how long rebuilding the tasks took when the store was opened.
+     *
+     * @return the recovery time
+     */
+    public Duration getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    /**
+     * Rebuilds the tasks from the latest snapshot and the segments written after it.
+     */
+    private void recover() throws IOException {
+        TreeMap<Long, Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        TreeMap<Long, Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long snapshot = snapshots.isEmpty() ? 0 : snapshots.lastKey();
+        Map<String, Task> state = new HashMap<>();
+        if (snapshot > 0) {
+            replay(snapshots.get(snapshot), state);
+        }
+        for (Map.Entry<Long, Path> entry : segments.tailMap(snapshot, false).entrySet()) {
+            replay(entry.getValue(), state);
+        }
+        // Files left behind by a compaction interrupted before its cleanup
+        deleteUpTo(segments, snapshot);
+        deleteUpTo(snapshots.headMap(snapshot, false), Long.MAX_VALUE);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(".tmp"))::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        tasks.putAll(state);
+        long now = System.currentTimeMillis();
+        for (Task task : state.values()) {
+            index.update(task, now);
+        }
+        for (Task task : state.values()) {
+            written.put(task.getId(), new WrittenTask(task));
+        }
+        snapshotNumber = snapshot;
+        segmentNumber = Math.max(snapshot, segments.isEmpty() ? 0 : segments.lastKey());
+    }
+
+    /**
+     * Applies the records of a file to the given tasks, up to the first torn or corrupted
+     * record.
+     */
+    private void replay(Path file, Map<String, Task> state) throws IOException {
+        CRC32 checksum = new CRC32();
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int length;
+                int expected;
+                try {
+                    length = input.readInt();
+                    expected = input.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length <= 0) {
+                    log.warn("Invalid record length {} in {}, ignoring the rest of the file.", length, file);
+                    return;
+                }
+                byte[] payload = new byte[length];
+                try {
+                    input.readFully(payload);
+                } catch (EOFException e) {
+                    log.warn("Torn record at the end of {}, ignoring it.", file);
+                    return;
+                }
+                checksum.reset();
+                checksum.update(payload);
+                if ((int) checksum.getValue() != expected) {
+                    log.warn("Corrupted record in {}, ignoring the rest of the file.", file);
+                    return;
+                }
+                objectMapper.readValue(payload, LogRecord.class).applyTo(state);
+            }
+        }
+    }
+
+    /**
+     * Writes a record to the active segment and seals the segment once it is full. Called
+     * with the lock held.
+     */
+    private void append(LogRecord record) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(record);
+        crc.reset();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segmentSize += buffer.limit();
+        appends.incrementAndGet();
+        appendedBytes.addAndGet(buffer.limit());
+        if (segmentSize >= segmentBytes) {
+            rollSegment();
+            long upTo = segmentNumber - 1;
+            if (upTo - snapshotNumber >= compactionSegments) {
+                scheduler.schedule(() -> compactInBackground(upTo));
+            }
+        }
+    }
+
+    /**
+     * Seals the active segment and opens the next one. Called with the lock held.
+     */
+    private void rollSegment() throws IOException {
+        segment.force(false);
+        segment.close();
+        openSegment(segmentNumber + 1);
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = FileChannel.open(path(SEGMENT_PREFIX, number, SEGMENT_SUFFIX), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentNumber = number;
+        segmentSize = segment.size();
+    }
+
+    private void compactInBackground(long upTo) {
+        if (!compactionLock.tryLock()) {
+            // the running compaction is retried by the next sealed segment
+            return;
+        }
+        try {
+            compactUpTo(upTo);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to compact the task log in {}: {}", directory, e.getMessage(), e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the tasks as of the end of the given sealed segment, then
+     * deletes the files it replaces. Reads sealed files only, so it runs concurrently with
+     * saves. Called with the compaction lock held.
+     */
+    private void compactUpTo(long upTo) throws IOException {
+        long previous = snapshotNumber;
+        if (upTo <= previous) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, Task> state = new HashMap<>();
+        if (previous > 0) {
+            replay(path(SNAPSHOT_PREFIX, previous, SNAPSHOT_SUFFIX), state);
+        }
+        TreeMap<Long, Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (Path file : segments.subMap(previous, false, upTo, true).values()) {
+            replay(file, state);
+        }
+
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + upTo + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 checksum = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (Task task : state.values()) {
+                byte[] payload = objectMapper.writeValueAsBytes(LogRecord.full(task));
+                if (buffer.remaining() < HEADER_BYTES + payload.length) {
+                    buffer = flush(channel, buffer, HEADER_BYTES + payload.length);
+                }
+                checksum.reset();
+                checksum.update(payload);
+                buffer.putInt(payload.length).putInt((int) checksum.getValue()).put(payload);
+            }
+            flush(channel, buffer, 0);
+            channel.force(false);
+        }
+        Files.move(temporary, path(SNAPSHOT_PREFIX, upTo, SNAPSHOT_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        snapshotNumber = upTo;
+
+        deleteUpTo(segments, upTo);
+        if (previous > 0) {
+            Files.deleteIfExists(path(SNAPSHOT_PREFIX, previous, SNAPSHOT_SUFFIX));
+        }
+        compactions.incrementAndGet();
+        log.info("Compacted the task log up to segment {} into {} tasks in {} ms.", upTo, state.size(),
+            Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Writes the buffer to the channel and returns a buffer with room for the given size.
+     */
+    private static ByteBuffer flush(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return buffer.capacity() >= needed ? buffer : ByteBuffer.allocate(needed);
+    }
+
+    private void deleteUpTo(Map<Long, Path> files, long upTo) throws IOException {
+        for (Map.Entry<Long, Path> entry : files.entrySet()) {
+            if (entry.getKey() <= upTo) {
+                Files.deleteIfExists(entry.getValue());
+            }
+        }
+    }
+
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())),
+                            path);
+                    } catch (NumberFormatException e) {
+                        log.warn("Ignoring unexpected file {} in the task log.", path);
+                    }
+                }
+            });
+        }
+        return files;
+    }
+
+    private Path path(String prefix, long number, String suffix) {
+        return directory.resolve(String.format("%s%016d%s", prefix, number, suffix));
+    }
+
+    /**
+     * A record of the log: a whole task, or changes of a task. Positions are absolute, so
+     * replaying a record on a task that already contains it is harmless.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private static final class LogRecord {
+
+        @JsonProperty("id")
+        private String id;
+
+        @JsonProperty("task")
+        private Task task;
+
+        @JsonProperty("status")
+        private TaskStatus status;
+
+        @JsonProperty("historyFrom")
+        private Integer historyFrom;
+
+        @JsonProperty("messages")
+        private List<Message> messages;
+
+        @JsonProperty("artifacts")
+        private List<ArtifactRecord> artifacts;
+
+        private LogRecord() {
+        }
+
+        private LogRecord(String id) {
+            this.id = id;
+        }
+
+        private static LogRecord full(Task task) {
+            LogRecord record = new LogRecord(task.getId());
+            record.task = task;
+            return record;
+        }
+
+        private static LogRecord of(Task task, WrittenTask.Changes changes) {
+            LogRecord record = new LogRecord(task.getId());
+            if (changes.isStatusChanged()) {
+                record.status = task.getStatus();
+            }
+            if (changes.getHistoryFrom() >= 0) {
+                List<Message> history = task.getHistory();
+                record.historyFrom = changes.getHistoryFrom();
+                record.messages = new ArrayList<>(history.subList(changes.getHistoryFrom(), history.size()));
+            }
+            if (!changes.getArtifacts().isEmpty()) {
+                List<Artifact> artifacts = new ArrayList<>(task.getArtifacts());
+                record.artifacts = new ArrayList<>(changes.getArtifacts().size());
+                for (WrittenTask.ArtifactChange change : changes.getArtifacts()) {
+                    Artifact artifact = artifacts.get(change.getIndex());
+                    if (change.isReplaced()) {
+                        record.artifacts.add(ArtifactRecord.replace(change.getIndex(), artifact));
+                    } else {
+                        List<Part> parts = artifact.getParts();
+                        record.artifacts.add(ArtifactRecord.append(change.getIndex(), change.getPartsFrom(),
+                            new ArrayList<>(parts.subList(change.getPartsFrom(), parts.size()))));
+                    }
+                }
+            }
+            return record;
+        }
+
+        private void applyTo(Map<String, Task> state) {
+            if (task != null) {
+                state.put(id, task);
+                return;
+            }
+            Task current = state.get(id);
+            if (current == null) {
+                log.warn("Ignoring changes of unknown task {} in the task log.", id);
+                return;
+            }
+            if (status != null) {
+                current.setStatus(status);
+            }
+            if (messages != null) {
+                List<Message> history = current.getHistory() == null ? new ArrayList<>() : current.getHistory();
+                truncate(history, historyFrom);
+                history.addAll(messages);
+                current.setHistory(history);
+            }
+            if (artifacts != null) {
+                List<Artifact> currentArtifacts = current.getArtifacts() == null ? new ArrayList<>()
+                    : current.getArtifacts();
+                for (ArtifactRecord change : artifacts) {
+                    change.applyTo(currentArtifacts);
+                }
+                current.setArtifacts(currentArtifacts);
+            }
+        }
+
+    }
+
+    /**
+     * A new or replaced artifact, or parts appended to an artifact.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private static final class ArtifactRecord {
+
+        @JsonProperty("index")
+        private int index;
+
+        @JsonProperty("artifact")
+        private Artifact artifact;
+
+        @JsonProperty("partsFrom")
+        private Integer partsFrom;
+
+        @JsonProperty("parts")
+        private List<Part> parts;
+
+        private ArtifactRecord() {
+        }
+
+        private static ArtifactRecord replace(int index, Artifact artifact) {
+            ArtifactRecord change = new ArtifactRecord();
+            change.index = index;
+            change.artifact = artifact;
+            return change;
+        }
+
+        private static ArtifactRecord append(int index, int partsFrom, List<Part> parts) {
+            ArtifactRecord change = new ArtifactRecord();
+            change.index = index;
+            change.partsFrom = partsFrom;
+            change.parts = parts;
+            return change;
+        }
+
+        private void applyTo(List<Artifact> artifacts) {
+            if (artifact != null) {
+                if (index < artifacts.size()) {
+                    artifacts.set(index, artifact);
+                } else if (index == artifacts.size()) {
+                    artifacts.add(artifact);
+                } else {
+                    log.warn("Ignoring artifact {} logged past the end of its task.", index);
+                }
+                return;
+            }
+            if (index >= artifacts.size()) {
+                log.warn("Ignoring parts of missing artifact {} in the task log.", index);
+                return;
+            }
+            Artifact current = artifacts.get(index);
+            List<Part> currentParts = current.getParts() == null ? new ArrayList<>() : current.getParts();
+            truncate(currentParts, partsFrom);
+            currentParts.addAll(parts);
+            current.setParts(currentParts);
+        }
+
+    }
+
+    private static <T> void truncate(List<T> list, Integer size) {
+        if (size != null && size < list.size()) {
+            list.subList(size, list.size()).clear();
+        }
+    }
+
+}
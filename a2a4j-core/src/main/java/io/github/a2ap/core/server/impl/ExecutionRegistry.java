@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.SendStreamingMessageResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the agent executions currently running, keyed by task ID.
+ * <p>
+ * Every execution is registered while its event stream is subscribed. Cancelling a task
+ * disposes all of its executions: their event streams stop right away, which cancels the
+ * agent subscription and stops applying updates to the task. The streams then wait for
+ * the final event of the cancellation, see {@link Execution#complete}, so subscribers
+ * still receive it once the task has been updated.
+ */
+public class ExecutionRegistry {
+
+    private final Map<String, List<Execution>> executions = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a new execution of a task.
+     *
+     * @param taskId The ID of the task being executed.
+     * @return The registered execution.
+     */
+    public Execution register(String taskId) {
+        Execution execution = new Execution(taskId);
+        executions.compute(taskId, (id, running) -> {
+            List<Execution> next = running == null ? new ArrayList<>(1) : running;
+            next.add(execution);
+            return next;
+        });
+        return execution;
+    }
+
+    /**
+     * Removes an execution once its event stream has terminated.
+     *
+     * @param execution The execution to remove.
+     */
+    public void unregister(Execution execution) {
+        executions.computeIfPresent(execution.taskId, (id, running) -> {
+            running.remove(execution);
+            return running.isEmpty() ? null : running;
+        });
+    }
+
+    /**
+     * Disposes and removes all executions of a task.
+     *
+     * @param taskId The ID of the task to cancel.
+     * @return The disposed executions, empty if the task is not running.
+     */
+    public List<Execution> cancel(String taskId) {
+        List<Execution> running = executions.remove(taskId);
+        if (running == null) {
+            return List.of();
+        }
+        running.forEach(Execution::dispose);
+        return running;
+    }
+
+    /**
+     * Whether an execution of the task is running.
+     *
+     * @param taskId The ID of the task.
+     * @return true if the task has a registered execution.
+     */
+    public boolean isRunning(String taskId) {
+        return executions.containsKey(taskId);
+    }
+
+    /**
+     * Returns the number of tasks with a running execution.
+     *
+     * @return the number of running tasks
+     */
+    public int getRunningCount() {
+        return executions.size();
+    }
+
+    /**
+     * A single running execution of a task.
+     */
+    public static final class Execution implements Disposable {
+
+        private final String taskId;
+
+        private final Sinks.One<Boolean> disposed = Sinks.one();
+
+        private final Sinks.One<SendStreamingMessageResponse> finalEvent = Sinks.one();
+
+        private volatile boolean isDisposed;
+
+        private Execution(String taskId) {
+            this.taskId = taskId;
+        }
+
+        /**
+         * Returns the ID of the task being executed.
+         *
+         * @return the task ID
+         */
+        public String getTaskId() {
+            return taskId;
+        }
+
+        /**
+         * Stops the execution. The event stream of the execution is cancelled at once.
+         */
+        @Override
+        public void dispose() {
+            isDisposed = true;
+            disposed.tryEmitValue(Boolean.TRUE);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return isDisposed;
+        }
+
+        /**
+         * Completes a disposed execution with the final event passed to its subscriber.
+         *
+         * @param event The final event, or null to complete without one.
+         */
+        public void complete(SendStreamingMessageResponse event) {
+            if (event == null) {
+                finalEvent.tryEmitEmpty();
+            } else {
+                finalEvent.tryEmitValue(event);
+            }
+        }
+
+        /**
+         * Returns a Mono that emits once the execution is disposed.
+         *
+         * @return the disposal signal
+         */
+        public Mono<Boolean> onDispose() {
+            return disposed.asMono();
+        }
+
+        /**
+         * Returns the final event of a disposed execution, empty if it was not disposed.
+         *
+         * @return the final event
+         */
+        public Mono<SendStreamingMessageResponse> finalEvent() {
+            return Mono.defer(() -> isDisposed ? finalEvent.asMono() : Mono.empty());
+        }
+
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.server.TaskHistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * TaskHistoryStore appending the spilled messages of each task to its own file, one JSON
+ * message per line, holding nothing in memory.
+ * <p>
+ * Files are spread over 256 subdirectories by task ID, like {@link FileTaskStore}. A load
+ * reads the file of the task and keeps only the requested most recent messages. Appends
+ * of the same task must be serialized by the caller, which the task manager does.
+ */
+public class FileTaskHistoryStore implements TaskHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileTaskHistoryStore.class);
+
+    private static final String FILE_SUFFIX = ".jsonl";
+
+    private final Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Opens the store in the given directory.
+     *
+     * @param directory The directory of the history files, created if it does not exist.
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public FileTaskHistoryStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the history directory " + directory, e);
+        }
+    }
+
+    /**
+     * Appends messages to the history file of a task.
+     *
+     * @param taskId   The ID of the task.
+     * @param messages The messages, oldest first.
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    @Override
+    public void append(String taskId, List<Message> messages) {
+        Path file = file(taskId);
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+                for (Message message : messages) {
+                    out.write(objectMapper.writeValueAsBytes(message));
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append the history of task " + taskId + " to " + file, e);
+        }
+    }
+
+    /**
+     * Reads the most recent messages of a task from its history file.
+     *
+     * @param taskId The ID of the task.
+     * @param limit  The maximum number of messages, 0 for all of them.
+     * @return the messages, oldest first, empty if none
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    @Override
+    public List<Message> load(String taskId, int limit) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return List.of();
+        }
+        Path file = file(taskId);
+        Deque<String> lines = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (limit > 0 && lines.size() == limit) {
+                    lines.removeFirst();
+                }
+                lines.addLast(line);
+            }
+            List<Message> messages = new ArrayList<>(lines.size());
+            for (String json : lines) {
+                messages.add(objectMapper.readValue(json, Message.class));
+            }
+            return messages;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the history of task " + taskId + " from " + file, e);
+        }
+    }
+
+    /**
+     * Deletes the history file of a task.
+     *
+     * @param taskId The ID of the task.
+     * @throws UncheckedIOException if the file cannot be deleted
+     */
+    @Override
+    public void remove(String taskId) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return;
+        }
+        Path file = file(taskId);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete the history of task " + taskId + " in " + file, e);
+        }
+    }
+
+    private Path file(String taskId) {
+        String name = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(taskId.getBytes(StandardCharsets.UTF_8));
+        String bucket = String.format("%02x", taskId.hashCode() & 0xff);
+        return directory.resolve(bucket).resolve(name + FILE_SUFFIX);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.server.TaskStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TaskStore keeping each task in its own compressed file, holding nothing in memory.
+ * <p>
+ * A task is written as gzipped JSON to a temporary file which then replaces the file of
+ * the task, so a load never sees a partially written task. Files are spread over 256
+ * subdirectories by task ID. Meant as the cold tier of a {@link TieredTaskStore}: every
+ * load reads and decodes the file, and concurrent saves of the same task must be
+ * serialized by the caller.
+ */
+public class FileTaskStore implements TaskStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileTaskStore.class);
+
+    private static final String FILE_SUFFIX = ".json.gz";
+
+    private final Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Opens the store in the given directory.
+     *
+     * @param directory The directory of the task files, created if it does not exist.
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public FileTaskStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory must not be null");
+        }
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the task directory " + directory, e);
+        }
+    }
+
+    /**
+     * Writes a task to its file.
+     *
+     * @param task The task to save.
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    @Override
+    public void save(Task task) {
+        Path file = file(task.getId());
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "task-", ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                    objectMapper.writeValue(out, task);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write task " + task.getId() + " to " + file, e);
+        }
+    }
+
+    /**
+     * Reads a task from its file.
+     *
+     * @param taskId The ID of the task to load.
+     * @return the task, or null if not found
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    @Override
+    public Task load(String taskId) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return null;
+        }
+        Path file = file(taskId);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, Task.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read task " + taskId + " from " + file, e);
+        }
+    }
+
+    /**
+     * Returns the directory of the task files.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path file(String taskId) {
+        String name = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(taskId.getBytes(StandardCharsets.UTF_8));
+        String bucket = String.format("%02x", taskId.hashCode() & 0xff);
+        return directory.resolve(bucket).resolve(name + FILE_SUFFIX);
+    }
+
+}
@@ -0,0 +1,664 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskPushNotificationConfig;
+import io.github.a2ap.core.server.PushNotificationSender;
+import io.github.a2ap.core.util.JsonUtil;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PushNotificationSender posting the task as JSON to the URL of its push notification
+ * config, with the auth token of the config as bearer token.
+ * <p>
+ * At most {@code maxConcurrency} notifications are posted at the same time, and at most
+ * {@code maxConcurrencyPerHost} to the same host, so that a slow receiver cannot take all
+ * connections. A task has at most one notification in flight: updates sent meanwhile are
+ * coalesced, only the latest one is posted once the previous post completes, so the
+ * receiver always ends up with the final state of the task.
+ * <p>
+ * Posts failing with a connection error, a timeout, or a 408, 429 or 5xx response are
+ * retried after an exponential backoff with jitter, up to {@code maxAttempts} attempts. A
+ * retry posts the latest update of the task, which may be newer than the failed one.
+ * Notifications rejected with another status, or still failing after the last attempt,
+ * are dead-lettered: logged and kept, up to {@code maxDeadLetters} of them, see
+ * {@link #getDeadLetters()}.
+ */
+public class HttpPushNotificationSender implements PushNotificationSender, AutoCloseable {
+
+    /**
+     * The default maximum number of notifications posted at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+    /**
+     * The default maximum number of notifications posted to the same host at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_HOST = 4;
+
+    /**
+     * The default maximum number of attempts to post a notification.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * The default backoff before the first retry, doubled on every further retry.
+     */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+
+    /**
+     * The default maximum backoff between two attempts.
+     */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    /**
+     * The default maximum time to wait for the response of a receiver.
+     */
+    public static final Duration DEFAULT_RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The default maximum number of dead-lettered notifications kept.
+     */
+    public static final int DEFAULT_MAX_DEAD_LETTERS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(HttpPushNotificationSender.class);
+
+    private final HttpClient client;
+
+    private final int maxConcurrency;
+
+    private final int maxConcurrencyPerHost;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final int maxDeadLetters;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Deliveries with a notification pending or in flight by task ID, guarded by the lock
+    private final Map<String, Delivery> deliveries = new HashMap<>();
+
+    // Deliveries waiting for a free slot, oldest first, guarded by the lock
+    private final ArrayDeque<Delivery> ready = new ArrayDeque<>();
+
+    // Notifications in flight by host, guarded by the lock
+    private final Map<String, Integer> activeByHost = new HashMap<>();
+
+    // Most recent dead letters last, guarded by the lock
+    private final ArrayDeque<DeadLetter> deadLetters = new ArrayDeque<>();
+
+    // Emitted on close, cancels the posts and backoffs in progress
+    private final Sinks.Empty<Void> closing = Sinks.empty();
+
+    // Guarded by the lock
+    private int active;
+
+    // Guarded by the lock
+    private boolean closed;
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    /**
+     * Creates a sender with the default limits.
+     */
+    public HttpPushNotificationSender() {
+        this(HttpClient.create().responseTimeout(DEFAULT_RESPONSE_TIMEOUT), DEFAULT_MAX_CONCURRENCY,
+            DEFAULT_MAX_CONCURRENCY_PER_HOST, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF,
+            DEFAULT_MAX_DEAD_LETTERS);
+    }
+
+    /**
+     * Creates a sender.
+     *
+     * @param client                The client posting the notifications, configured with
+     *                              the response timeout.
+     * @param maxConcurrency        The maximum number of notifications posted at the same
+     *                              time.
+     * @param maxConcurrencyPerHost The maximum number of notifications posted to the same
+     *                              host at the same time.
+     * @param maxAttempts           The maximum number of attempts to post a notification.
+     * @param initialBackoff        The backoff before the first retry.
+     * @param maxBackoff            The maximum backoff between two attempts.
+     * @param maxDeadLetters        The maximum number of dead-lettered notifications kept,
+     *                              0 to only log them.
+     */
+    public HttpPushNotificationSender(HttpClient client, int maxConcurrency, int maxConcurrencyPerHost,
+                                      int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+                                      int maxDeadLetters) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        if (maxConcurrency <= 0 || maxConcurrencyPerHost <= 0) {
+            throw new IllegalArgumentException("maxConcurrency and maxConcurrencyPerHost must be greater than 0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be greater than 0");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative() || maxBackoff == null
+            || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("initialBackoff must not be negative nor greater than maxBackoff");
+        }
+        if (maxDeadLetters < 0) {
+            throw new IllegalArgumentException("maxDeadLetters must not be negative");
+        }
+        this.client = client;
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxDeadLetters = maxDeadLetters;
+    }
+
+    @Override
+    public void send(TaskPushNotificationConfig config, Task task) {
+        if (config == null || task == null || task.getId() == null) {
+            throw new IllegalArgumentException("config and task must not be null");
+        }
+        String body = JsonUtil.toJson(task);
+        if (body == null) {
+            // already logged
+            return;
+        }
+        Notification notification = new Notification(config, body);
+        String host = host(config.getUrl());
+        if (host == null) {
+            lock.lock();
+            try {
+                deadLetter(task.getId(), notification, 0, "invalid url");
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        List<Delivery> started;
+        lock.lock();
+        try {
+            if (closed) {
+                log.warn("Dropping push notification of task {}, the sender is closed", task.getId());
+                return;
+            }
+            Delivery delivery = deliveries.computeIfAbsent(task.getId(), Delivery::new);
+            if (delivery.pending != null) {
+                coalesced.incrementAndGet();
+            }
+            delivery.pending = notification;
+            delivery.pendingHost = host;
+            if (!delivery.busy && !delivery.queued) {
+                delivery.queued = true;
+                ready.add(delivery);
+            }
+            started = startReady();
+        } finally {
+            lock.unlock();
+        }
+        started.forEach(this::post);
+    }
+
+    /**
+     * Stops delivering notifications: posts in flight and pending retries are cancelled,
+     * and notifications not yet delivered are dropped.
+     */
+    @Override
+    public void close() {
+        int dropped;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ready.clear();
+            dropped = deliveries.size();
+            deliveries.clear();
+        } finally {
+            lock.unlock();
+        }
+        closing.tryEmitEmpty();
+        if (dropped > 0) {
+            log.warn("Push notification sender closed, {} task notification(s) not delivered", dropped);
+        }
+    }
+
+    /**
+     * Returns the dead-lettered notifications still kept.
+     *
+     * @return the dead letters, oldest first
+     */
+    public List<DeadLetter> getDeadLetters() {
+        lock.lock();
+        try {
+            return new ArrayList<>(deadLetters);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks with a notification pending, in flight or waiting for a
+     * retry.
+     *
+     * @return the number of pending tasks
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return deliveries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of notifications in flight.
+     *
+     * @return the number of active posts
+     */
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of notifications accepted by their receiver.
+     *
+     * @return the number of sent notifications
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * Returns the number of notifications replaced by a newer update of their task before
+     * being delivered.
+     *
+     * @return the number of coalesced notifications
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the number of retries scheduled after a failed post.
+     *
+     * @return the number of retries
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Returns the number of notifications dead-lettered, including those no longer kept.
+     *
+     * @return the number of dead letters
+     */
+    public long getDeadLetterCount() {
+        return deadLettered.get();
+    }
+
+    /**
+     * Takes the ready deliveries the global and per-host limits leave room for, skipping
+     * those whose host is busy. Called with the lock held.
+     *
+     * @return the deliveries to post, once the lock is released
+     */
+    private List<Delivery> startReady() {
+        List<Delivery> started = new ArrayList<>();
+        Iterator<Delivery> candidates = ready.iterator();
+        while (active < maxConcurrency && candidates.hasNext()) {
+            Delivery delivery = candidates.next();
+            int hostActive = activeByHost.getOrDefault(delivery.pendingHost, 0);
+            if (hostActive >= maxConcurrencyPerHost) {
+                continue;
+            }
+            candidates.remove();
+            delivery.queued = false;
+            delivery.busy = true;
+            delivery.current = delivery.pending;
+            delivery.currentHost = delivery.pendingHost;
+            delivery.pending = null;
+            delivery.pendingHost = null;
+            activeByHost.put(delivery.currentHost, hostActive + 1);
+            active++;
+            started.add(delivery);
+        }
+        return started;
+    }
+
+    private void post(Delivery delivery) {
+        Notification notification = delivery.current;
+        String authToken = notification.config.getAuthToken();
+        client
+            .headers(headers -> {
+                headers.add("Content-Type", "application/json");
+                if (authToken != null && !authToken.isEmpty()) {
+                    headers.add("Authorization", "Bearer " + authToken);
+                }
+            })
+            .post()
+            .uri(notification.config.getUrl())
+            .send(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(notification.body)))
+            .response()
+            .map(response -> response.status().code())
+            .takeUntilOther(closing.asMono())
+            .subscribe(status -> completed(delivery, notification, status, null),
+                error -> completed(delivery, notification, 0, error));
+    }
+
+    private void completed(Delivery delivery, Notification notification, int status, Throwable error) {
+        boolean success = error == null && status >= 200 && status < 300;
+        boolean retryable = !success && (error != null || status == 408 || status == 429 || status >= 500);
+        Duration backoff = null;
+        List<Delivery> started;
+        lock.lock();
+        try {
+            active--;
+            activeByHost.computeIfPresent(delivery.currentHost, (host, count) -> count > 1 ? count - 1 : null);
+            delivery.current = null;
+            if (closed) {
+                return;
+            }
+            if (success) {
+                sent.incrementAndGet();
+                delivery.attempts = 0;
+            } else if (retryable && delivery.attempts + 1 < maxAttempts) {
+                delivery.attempts++;
+                if (delivery.pending == null) {
+                    delivery.pending = notification;
+                    delivery.pendingHost = delivery.currentHost;
+                } else {
+                    coalesced.incrementAndGet();
+                }
+                backoff = backoff(delivery.attempts);
+                retries.incrementAndGet();
+            } else {
+                int attempts = delivery.attempts + 1;
+                delivery.attempts = 0;
+                if (delivery.pending == null) {
+                    deadLetter(delivery.taskId, notification, attempts,
+                        error != null ? String.valueOf(error.getMessage()) : "HTTP " + status);
+                } else {
+                    // superseded, the newer update is posted instead
+                    coalesced.incrementAndGet();
+                }
+            }
+            if (backoff == null) {
+                release(delivery);
+            }
+            started = startReady();
+        } finally {
+            lock.unlock();
+        }
+        if (backoff != null) {
+            log.debug("Push notification of task {} failed ({}), retrying in {}", delivery.taskId,
+                error != null ? error.getMessage() : "HTTP " + status, backoff);
+            Mono.delay(backoff)
+                .takeUntilOther(closing.asMono())
+                .subscribe(tick -> retry(delivery));
+        }
+        started.forEach(this::post);
+    }
+
+    private void retry(Delivery delivery) {
+        List<Delivery> started;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            release(delivery);
+            started = startReady();
+        } finally {
+            lock.unlock();
+        }
+        started.forEach(this::post);
+    }
+
+    /**
+     * Queues the pending notification of a delivery no longer busy, or forgets the
+     * delivery if there is none. Called with the lock held.
+     */
+    private void release(Delivery delivery) {
+        delivery.busy = false;
+        if (delivery.pending != null) {
+            delivery.queued = true;
+            ready.add(delivery);
+        } else {
+            deliveries.remove(delivery.taskId, delivery);
+        }
+    }
+
+    /**
+     * Records a notification that will not be delivered. Called with the lock held.
+     */
+    private void deadLetter(String taskId, Notification notification, int attempts, String reason) {
+        deadLettered.incrementAndGet();
+        log.warn("Push notification of task {} to {} dead-lettered after {} attempt(s): {}", taskId,
+            notification.config.getUrl(), attempts, reason);
+        if (maxDeadLetters == 0) {
+            return;
+        }
+        if (deadLetters.size() >= maxDeadLetters) {
+            deadLetters.removeFirst();
+        }
+        deadLetters.addLast(new DeadLetter(taskId, notification.config.getUrl(),
+            new String(notification.body, StandardCharsets.UTF_8), attempts, reason));
+    }
+
+    /**
+     * Returns the backoff before a retry: the initial backoff doubled on every attempt, up
+     * to the maximum backoff, of which a random half is taken off so that the retries of
+     * tasks failing together spread out.
+     */
+    private Duration backoff(int attempt) {
+        long initial = initialBackoff.toMillis();
+        long max = maxBackoff.toMillis();
+        int shift = Math.min(attempt - 1, 30);
+        long delay = initial > max >> shift ? max : initial << shift;
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+
+    /**
+     * Returns the key the per-host limit applies to, null if the URL is not absolute.
+     */
+    private static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return null;
+            }
+            return uri.getHost().toLowerCase(Locale.ROOT) + ":" + uri.getPort();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The notifications of a task. Guarded by the sender lock.
+     */
+    private static final class Delivery {
+
+        private final String taskId;
+
+        // The latest update not yet posted
+        private Notification pending;
+
+        private String pendingHost;
+
+        // The update being posted
+        private Notification current;
+
+        private String currentHost;
+
+        // Posting, or waiting for a retry
+        private boolean busy;
+
+        // In the ready queue
+        private boolean queued;
+
+        // Failed attempts since the last delivered or dead-lettered notification
+        private int attempts;
+
+        private Delivery(String taskId) {
+            this.taskId = taskId;
+        }
+
+    }
+
+    /**
+     * A task update to post, serialized when it was sent.
+     */
+    private static final class Notification {
+
+        private final TaskPushNotificationConfig config;
+
+        private final byte[] body;
+
+        private Notification(TaskPushNotificationConfig config, String body) {
+            this.config = config;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+    }
+
+    /**
+     * A notification that was not delivered.
+     */
+    public static final class DeadLetter {
+
+        private final String taskId;
+
+        private final String url;
+
+        private final String body;
+
+        private final int attempts;
+
+        private final String reason;
+
+        private final Instant timestamp = Instant.now();
+
+        private DeadLetter(String taskId, String url, String body, int attempts, String reason) {
+            this.taskId = taskId;
+            this.url = url;
+            this.body = body;
+            this.attempts = attempts;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns the ID of the task.
+         *
+         * @return the task ID
+         */
+        public String getTaskId() {
+            return taskId;
+        }
+
+        /**
+         * Returns the URL the notification was posted to.
+         *
+         * @return the URL
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Returns the JSON of the task that was posted.
+         *
+         * @return the request body
+         */
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * Returns the number of attempts made, 0 if the notification could not be posted.
+         *
+         * @return the number of attempts
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * Returns why the last attempt failed, e.g. the response status.
+         *
+         * @return the reason
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Returns when the notification was dead-lettered.
+         *
+         * @return the timestamp
+         */
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return "DeadLetter{taskId='" + taskId + "', url='" + url + "', attempts=" + attempts + ", reason='"
+                + reason + "'}";
+        }
+
+    }
+
+}
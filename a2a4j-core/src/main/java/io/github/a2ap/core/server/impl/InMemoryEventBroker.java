@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.server.EventBatch;
+import io.github.a2ap.core.server.EventBroker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory implementation of EventBroker.
+ * <p>
+ * Relays batches between the queue managers of a single JVM. Several
+ * {@link BrokeredQueueManager} instances sharing one broker behave like the nodes of a
+ * cluster, which makes it a stand-in for a real message broker in tests and
+ * single-instance deployments.
+ * <p>
+ * The most recent {@code bufferedBatches} batches of every task are replayed to new
+ * subscribers. A task is forgotten after its last batch.
+ */
+public class InMemoryEventBroker implements EventBroker {
+
+    /**
+     * The default number of batches buffered per task.
+     */
+    public static final int DEFAULT_BUFFERED_BATCHES = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryEventBroker.class);
+
+    private final ConcurrentMap<String, Sinks.Many<EventBatch>> topics = new ConcurrentHashMap<>();
+
+    private final int bufferedBatches;
+
+    private final AtomicLong publishedBatches = new AtomicLong();
+
+    private final AtomicLong publishedEvents = new AtomicLong();
+
+    /**
+     * Creates a broker that buffers {@link #DEFAULT_BUFFERED_BATCHES} batches per task.
+     */
+    public InMemoryEventBroker() {
+        this(DEFAULT_BUFFERED_BATCHES);
+    }
+
+    /**
+     * Creates a broker.
+     *
+     * @param bufferedBatches The number of recent batches replayed to new subscribers of a
+     *                        task.
+     */
+    public InMemoryEventBroker(int bufferedBatches) {
+        if (bufferedBatches <= 0) {
+            throw new IllegalArgumentException("bufferedBatches must be greater than 0");
+        }
+        this.bufferedBatches = bufferedBatches;
+    }
+
+    @Override
+    public Mono<Void> publish(String taskId, EventBatch batch) {
+        return Mono.fromRunnable(() -> {
+            Sinks.Many<EventBatch> topic = topics.computeIfAbsent(taskId,
+                id -> Sinks.many().replay().limit(bufferedBatches));
+            // Sinks reject concurrent emissions, batches of a task are published one at a time
+            synchronized (topic) {
+                Sinks.EmitResult result = topic.tryEmitNext(batch);
+                if (result.isFailure()) {
+                    log.warn("Dropping batch of task {} published after its last batch: {}", taskId, result);
+                    return;
+                }
+                if (batch.isLast()) {
+                    topic.tryEmitComplete();
+                }
+            }
+            if (batch.isLast()) {
+                topics.remove(taskId, topic);
+                log.debug("Last batch of task {} published.", taskId);
+            }
+            publishedBatches.incrementAndGet();
+            publishedEvents.addAndGet(batch.getEvents().size());
+        });
+    }
+
+    @Override
+    public Flux<EventBatch> subscribe(String taskId) {
+        Sinks.Many<EventBatch> topic = topics.get(taskId);
+        if (topic == null) {
+            log.debug("No events published for task {}.", taskId);
+            return Flux.empty();
+        }
+        return topic.asFlux();
+    }
+
+    /**
+     * Returns the number of tasks with events published and not finished yet.
+     *
+     * @return the number of tasks
+     */
+    public int getTopicCount() {
+        return topics.size();
+    }
+
+    /**
+     * Returns the number of batches published.
+     *
+     * @return the number of batches
+     */
+    public long getPublishedBatchCount() {
+        return publishedBatches.get();
+    }
+
+    /**
+     * Returns the number of events published, over all batches.
+     *
+     * @return the number of events
+     */
+    public long getPublishedEventCount() {
+        return publishedEvents.get();
+    }
+
+}
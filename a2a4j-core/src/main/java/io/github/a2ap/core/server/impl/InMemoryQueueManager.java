@@ -16,73 +16,229 @@
 
 package io.github.a2ap.core.server.impl;
 
+import io.github.a2ap.core.exception.A2AError;
 import io.github.a2ap.core.server.EventQueue;
 import io.github.a2ap.core.server.QueueManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * In-memory implementation of QueueManager for managing task event queues.
- * 
+ *
  * This implementation manages EventQueue instances for tasks using a thread-safe
  * ConcurrentHashMap. It provides the core functionality for creating, accessing,
  * and managing event queues that facilitate streaming communication between
  * agents and clients in the A2A protocol.
- * 
+ *
  * Key features:
  * - Thread-safe queue management using ConcurrentHashMap
  * - Support for queue creation and retrieval by task ID
  * - Queue tapping functionality for creating child queues
  * - Automatic cleanup when queues are removed
+ * - Optional reaping of idle and expired queues, and a cap on live queues
  * - Comprehensive logging for debugging and monitoring
- * 
+ *
  * Queue lifecycle:
- * 1. create() - Creates a new EventQueue for a task (idempotent)
+ * 1. create() - Returns the open EventQueue of a task, or creates it (idempotent)
  * 2. get() - Retrieves an existing queue without creating
  * 3. tap() - Creates a child queue that receives the same events
  * 4. remove() - Removes and closes the queue, cleaning up resources
- * 
+ *
+ * A queue that is never removed, e.g. because its executor never closed it or its
+ * pipeline failed before cleaning up, would otherwise keep its buffered events for the
+ * life of the JVM. When an idle timeout or a maximum age is configured, a background
+ * sweeper removes and closes:
+ * - closed queues without subscribers, once they have been idle for a sweep period
+ * - queues without subscribers, and without any new event or subscriber change for the
+ *   idle timeout
+ * - queues older than the maximum age
+ * Queues still open when they are reaped are counted as leaked.
+ *
  * This implementation is suitable for single-instance deployments and provides
  * the foundation for streaming task updates and real-time communication in
  * the A2A protocol. For distributed deployments, consider implementing
  * QueueManager with a distributed messaging system.
  */
-public class InMemoryQueueManager implements QueueManager {
+public class InMemoryQueueManager implements QueueManager, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(InMemoryQueueManager.class);
 
-    private final ConcurrentMap<String, EventQueue> queues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, QueueEntry> queues = new ConcurrentHashMap<>();
 
-    @Override
-    public EventQueue create(String taskId) {
-        log.debug("Creating EventQueue for task: {}", taskId);
+    private final int capacity;
+
+    private final EventQueue.OverflowPolicy overflowPolicy;
+
+    private final int replayEvents;
+
+    private final long replayBytes;
+
+    private final Duration offerTimeout;
+
+    private final long idleTimeoutNanos;
+
+    private final long maxAgeNanos;
 
-        EventQueue newQueue = new EventQueue();
-        EventQueue existingQueue = queues.putIfAbsent(taskId, newQueue);
+    private final int maxQueues;
+
+    private final long sweepPeriodNanos;
+
+    private final Scheduler scheduler;
+
+    private final Disposable sweepTimer;
+
+    private final AtomicInteger live = new AtomicInteger();
+
+    private final AtomicLong created = new AtomicLong();
+
+    private final AtomicLong reaped = new AtomicLong();
+
+    private final AtomicLong leaked = new AtomicLong();
+
+    /**
+     * Creates a queue manager whose queues have the default capacity and coalesce events
+     * when full.
+     */
+    public InMemoryQueueManager() {
+        this(EventQueue.DEFAULT_CAPACITY, EventQueue.OverflowPolicy.COALESCE);
+    }
+
+    /**
+     * Creates a queue manager.
+     *
+     * @param capacity       The maximum number of events buffered per task.
+     * @param overflowPolicy What queues do with new events while full.
+     */
+    public InMemoryQueueManager(int capacity, EventQueue.OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a queue manager whose queues replay their recent events to late subscribers.
+     *
+     * @param capacity       The maximum number of events buffered per task.
+     * @param overflowPolicy What queues do with new events while full.
+     * @param replayEvents   The maximum number of recent events replayed per task, 0 to
+     *                       disable replay.
+     * @param replayBytes    The maximum estimated size of the events replayed per task.
+     */
+    public InMemoryQueueManager(int capacity, EventQueue.OverflowPolicy overflowPolicy, int replayEvents,
+                                long replayBytes) {
+        this(capacity, overflowPolicy, replayEvents, replayBytes, EventQueue.DEFAULT_OFFER_TIMEOUT, Duration.ZERO,
+            Duration.ZERO, 0);
+    }
 
-        if (existingQueue != null) {
-            log.debug("EventQueue already exists for task: {}", taskId);
+    private InMemoryQueueManager(int capacity, EventQueue.OverflowPolicy overflowPolicy, int replayEvents,
+                                 long replayBytes, Duration offerTimeout, Duration idleTimeout, Duration maxAge,
+                                 int maxQueues) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        if (replayEvents < 0 || replayEvents > capacity) {
+            throw new IllegalArgumentException("replayEvents must be between 0 and the capacity");
+        }
+        if (offerTimeout == null || offerTimeout.isNegative()) {
+            throw new IllegalArgumentException("offerTimeout must not be negative");
+        }
+        if (idleTimeout == null || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("idleTimeout must not be negative");
+        }
+        if (maxAge == null || maxAge.isNegative()) {
+            throw new IllegalArgumentException("maxAge must not be negative");
+        }
+        if (maxQueues < 0) {
+            throw new IllegalArgumentException("maxQueues must not be negative");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.replayEvents = replayEvents;
+        this.replayBytes = replayBytes;
+        this.offerTimeout = offerTimeout;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+        this.maxQueues = maxQueues;
+
+        long shortest = Math.min(idleTimeoutNanos == 0 ? Long.MAX_VALUE : idleTimeoutNanos,
+            maxAgeNanos == 0 ? Long.MAX_VALUE : maxAgeNanos);
+        if (shortest == Long.MAX_VALUE) {
+            this.sweepPeriodNanos = 0;
+            this.scheduler = null;
+            this.sweepTimer = null;
         } else {
-            log.debug("EventQueue created successfully for task: {}", taskId);
+            long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(shortest) / 2);
+            this.sweepPeriodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+            this.scheduler = Schedulers.newSingle("a2a-queue-reaper", true);
+            this.sweepTimer = scheduler.schedulePeriodically(this::sweep, period, period, TimeUnit.MILLISECONDS);
         }
+    }
+
+    /**
+     * Returns a builder for InMemoryQueueManager.
+     *
+     * @return A new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the open queue of the task, or creates it. A closed queue left in place,
+     * e.g. by a cancellation, is replaced by a new one.
+     *
+     * @param taskId The ID of the task.
+     * @return The EventQueue for the task.
+     * @throws A2AError with code {@link A2AError#SERVER_OVERLOADED} if the maximum number
+     *                  of live queues is reached
+     */
+    @Override
+    public EventQueue create(String taskId) {
+        log.debug("Creating EventQueue for task: {}", taskId);
 
-        return newQueue;
+        QueueEntry entry = queues.compute(taskId, (id, existing) -> {
+            if (existing != null && !existing.queue.isClosed()) {
+                log.debug("EventQueue already exists for task: {}", id);
+                existing.touch();
+                return existing;
+            }
+            if (existing == null) {
+                reserve(id);
+            }
+            created.incrementAndGet();
+            log.debug("EventQueue created successfully for task: {}", id);
+            return new QueueEntry(EventQueue.builder()
+                .capacity(capacity)
+                .overflowPolicy(overflowPolicy)
+                .replayEvents(replayEvents)
+                .replayBytes(replayBytes)
+                .offerTimeout(offerTimeout)
+                .build());
+        });
+        return entry.queue;
     }
 
     @Override
     public EventQueue tap(String taskId) {
         log.debug("Tapping EventQueue for task: {}", taskId);
 
-        EventQueue mainQueue = queues.get(taskId);
-        if (mainQueue == null) {
+        QueueEntry entry = queues.get(taskId);
+        if (entry == null) {
             log.warn("No EventQueue found for task: {}", taskId);
             return null;
         }
 
-        EventQueue tappedQueue = mainQueue.tap();
+        entry.touch();
+        EventQueue tappedQueue = entry.queue.tap();
         log.debug("Successfully tapped EventQueue for task: {}", taskId);
         return tappedQueue;
     }
@@ -90,19 +246,291 @@ public class InMemoryQueueManager implements QueueManager {
     @Override
     public EventQueue get(String taskId) {
         log.debug("Getting EventQueue for task: {}", taskId);
-        return queues.get(taskId);
+        QueueEntry entry = queues.get(taskId);
+        return entry == null ? null : entry.queue;
     }
 
     @Override
     public void remove(String taskId) {
         log.debug("Removing EventQueue for task: {}", taskId);
 
-        EventQueue queue = queues.remove(taskId);
-        if (queue != null) {
-            queue.close();
+        QueueEntry entry = queues.remove(taskId);
+        if (entry != null) {
+            live.decrementAndGet();
+            entry.queue.close();
             log.debug("EventQueue removed and closed for task: {}", taskId);
         } else {
             log.warn("No EventQueue found to remove for task: {}", taskId);
         }
     }
+
+    /**
+     * Stops the background sweeper. The live queues are left as they are.
+     */
+    @Override
+    public void close() {
+        if (sweepTimer != null) {
+            sweepTimer.dispose();
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * Returns the number of queues currently managed.
+     *
+     * @return the number of live queues
+     */
+    public int getLiveCount() {
+        return live.get();
+    }
+
+    /**
+     * Returns the number of queues created since startup.
+     *
+     * @return the number of created queues
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Returns the number of queues removed by the background sweeper.
+     *
+     * @return the number of reaped queues
+     */
+    public long getReapedCount() {
+        return reaped.get();
+    }
+
+    /**
+     * Returns the number of reaped queues that were still open, i.e. that their executor
+     * never closed nor anybody removed.
+     *
+     * @return the number of leaked queues
+     */
+    public long getLeakedCount() {
+        return leaked.get();
+    }
+
+    /**
+     * Takes a live queue slot, called within the map compute of a new task id.
+     */
+    private void reserve(String taskId) {
+        int count;
+        do {
+            count = live.get();
+            if (maxQueues > 0 && count >= maxQueues) {
+                log.warn("Rejecting event queue of task {}: {} live queues (maxQueues={}).", taskId, count,
+                    maxQueues);
+                throw A2AError.builder()
+                    .message("Server overloaded")
+                    .code(A2AError.SERVER_OVERLOADED)
+                    .data("Too many event queues")
+                    .taskId(taskId)
+                    .build();
+            }
+        } while (!live.compareAndSet(count, count + 1));
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, QueueEntry> candidate : queues.entrySet()) {
+            QueueEntry entry = candidate.getValue();
+            EventQueue queue = entry.queue;
+            long idle = entry.observe(now);
+            boolean closed = queue.isClosed();
+            String reason;
+            if (closed && queue.getSubscriberCount() == 0 && idle >= sweepPeriodNanos) {
+                reason = "closed";
+            } else if (idleTimeoutNanos > 0 && queue.getSubscriberCount() == 0 && idle >= idleTimeoutNanos) {
+                reason = "idle";
+            } else if (maxAgeNanos > 0 && now - entry.createdAt >= maxAgeNanos) {
+                reason = "expired";
+            } else {
+                continue;
+            }
+            if (!queues.remove(candidate.getKey(), entry)) {
+                continue;
+            }
+            live.decrementAndGet();
+            reaped.incrementAndGet();
+            if (!closed) {
+                leaked.incrementAndGet();
+                log.warn("Reaping {} EventQueue of task {} that was never closed ({} subscribers, {} events).",
+                    reason, candidate.getKey(), queue.getSubscriberCount(), queue.getLastSequence());
+            } else {
+                log.debug("Reaping {} EventQueue of task {}.", reason, candidate.getKey());
+            }
+            queue.close();
+        }
+    }
+
+    /**
+     * A managed queue and the activity observed by the sweeper.
+     */
+    private static final class QueueEntry {
+
+        private final EventQueue queue;
+
+        private final long createdAt = System.nanoTime();
+
+        private volatile long lastActivity = createdAt;
+
+        private long lastSequence;
+
+        private int lastSubscribers;
+
+        private QueueEntry(EventQueue queue) {
+            this.queue = queue;
+        }
+
+        private void touch() {
+            lastActivity = System.nanoTime();
+        }
+
+        /**
+         * Records new events and subscriber changes as activity. Only called by the sweeper.
+         *
+         * @return how long the queue has been idle
+         */
+        private long observe(long now) {
+            long sequence = queue.getLastSequence();
+            int subscribers = queue.getSubscriberCount();
+            if (sequence != lastSequence || subscribers != lastSubscribers) {
+                lastSequence = sequence;
+                lastSubscribers = subscribers;
+                lastActivity = now;
+            }
+            return now - lastActivity;
+        }
+
+    }
+
+    /**
+     * Builder for InMemoryQueueManager.
+     */
+    public static final class Builder {
+
+        private int capacity = EventQueue.DEFAULT_CAPACITY;
+
+        private EventQueue.OverflowPolicy overflowPolicy = EventQueue.OverflowPolicy.COALESCE;
+
+        private int replayEvents;
+
+        private long replayBytes = Long.MAX_VALUE;
+
+        private Duration offerTimeout = EventQueue.DEFAULT_OFFER_TIMEOUT;
+
+        private Duration idleTimeout = Duration.ZERO;
+
+        private Duration maxAge = Duration.ZERO;
+
+        private int maxQueues;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of events buffered per task.
+         *
+         * @param capacity The capacity
+         * @return This builder for chaining
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets what queues do with new events while full.
+         *
+         * @param overflowPolicy The overflow policy
+         * @return This builder for chaining
+         */
+        public Builder overflowPolicy(EventQueue.OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of recent events replayed per task.
+         *
+         * @param replayEvents The replay window length, 0 to disable replay
+         * @return This builder for chaining
+         */
+        public Builder replayEvents(int replayEvents) {
+            this.replayEvents = replayEvents;
+            return this;
+        }
+
+        /**
+         * Sets the maximum estimated size of the events replayed per task.
+         *
+         * @param replayBytes The replay window size in bytes
+         * @return This builder for chaining
+         */
+        public Builder replayBytes(long replayBytes) {
+            this.replayBytes = replayBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a producer waits for room in a full queue before the event
+         * is rejected.
+         *
+         * @param offerTimeout The offer timeout
+         * @return This builder for chaining
+         */
+        public Builder offerTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long a queue without subscribers may go without a new event or
+         * subscriber change before it is reaped.
+         *
+         * @param idleTimeout The idle timeout, zero to never reap idle queues
+         * @return This builder for chaining
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long a queue may live before it is reaped, active or not.
+         *
+         * @param maxAge The maximum age, zero for no limit
+         * @return This builder for chaining
+         */
+        public Builder maxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of live queues. Creating a queue beyond it fails with a
+         * server overloaded error.
+         *
+         * @param maxQueues The maximum number of queues, 0 for no limit
+         * @return This builder for chaining
+         */
+        public Builder maxQueues(int maxQueues) {
+            this.maxQueues = maxQueues;
+            return this;
+        }
+
+        /**
+         * Builds the InMemoryQueueManager.
+         *
+         * @return A new InMemoryQueueManager
+         */
+        public InMemoryQueueManager build() {
+            return new InMemoryQueueManager(capacity, overflowPolicy, replayEvents, replayBytes, offerTimeout,
+                idleTimeout, maxAge, maxQueues);
+        }
+
+    }
+
 }
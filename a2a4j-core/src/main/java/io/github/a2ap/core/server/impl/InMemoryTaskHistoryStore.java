@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.server.TaskHistoryStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of the TaskHistoryStore interface, for development and
+ * testing purposes. It keeps the spilled messages on heap, so it bounds the size of the
+ * tasks but not the memory of the application. The history of a task is dropped when the
+ * task store evicts the task, see {@link BoundedInMemoryTaskStore}.
+ */
+public class InMemoryTaskHistoryStore implements TaskHistoryStore {
+
+    private final Map<String, List<Message>> store = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(String taskId, List<Message> messages) {
+        store.compute(taskId, (id, history) -> {
+            List<Message> next = history == null ? new ArrayList<>() : history;
+            next.addAll(messages);
+            return next;
+        });
+    }
+
+    @Override
+    public List<Message> load(String taskId, int limit) {
+        List<Message> result = new ArrayList<>();
+        store.computeIfPresent(taskId, (id, history) -> {
+            int from = limit <= 0 ? 0 : Math.max(0, history.size() - limit);
+            result.addAll(history.subList(from, history.size()));
+            return history;
+        });
+        return result;
+    }
+
+    @Override
+    public void remove(String taskId) {
+        store.remove(taskId);
+    }
+
+}
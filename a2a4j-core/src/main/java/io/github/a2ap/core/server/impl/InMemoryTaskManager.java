@@ -18,8 +18,8 @@ package io.github.a2ap.core.server.impl;
 
 import io.github.a2ap.core.model.Artifact;
 import io.github.a2ap.core.model.Message;
-import io.github.a2ap.core.model.Part;
 import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.RelatedTasks;
 import io.github.a2ap.core.model.RequestContext;
 import io.github.a2ap.core.model.TaskPushNotificationConfig;
 import io.github.a2ap.core.model.MessageSendParams;
@@ -28,11 +28,15 @@ import io.github.a2ap.core.model.TaskStatus;
 import io.github.a2ap.core.model.TaskStatusUpdateEvent;
 import io.github.a2ap.core.model.TaskUpdate;
 import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.server.IndexedTaskStore;
+import io.github.a2ap.core.server.ReactiveTaskStore;
+import io.github.a2ap.core.server.TaskHistoryStore;
 import io.github.a2ap.core.server.TaskManager;
 import io.github.a2ap.core.server.TaskStore;
 
 import java.time.Instant;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -40,103 +44,304 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * In-memory implementation of the TaskManager interface.
  * This implementation stores all tasks in memory and is suitable for testing
  * and demonstration purposes.
+ * <p>
+ * Task creation and all updates of a task are run through a {@link TaskUpdateSequencer},
+ * so concurrent writers of the same task (the agent event stream, a cancellation, another
+ * message for the same task) are applied one after the other, in order, while different
+ * tasks are updated in parallel.
+ * <p>
+ * Tasks are loaded and saved through a {@link ReactiveTaskStore}, and the next update of a
+ * task runs once the save of the previous one has completed, so a store doing I/O never
+ * blocks the reactive pipelines applying agent events. A blocking {@link TaskStore} is
+ * called on the thread applying the update.
+ * <p>
+ * The related tasks of a context are found with the indexes of the store when it is an
+ * {@link IndexedTaskStore}, also behind a {@link ReactiveTaskStoreAdapter} or a
+ * {@link WriteBehindTaskStore}, so they follow the tasks the store keeps. With other
+ * stores the task manager tracks the tasks of each context itself, until they reach a
+ * terminal state: the related tasks are then the other unfinished tasks of the context.
+ * Only their IDs are looked up per message, the tasks are loaded if the agent reads them.
+ * <p>
+ * Streamed artifacts are assembled by an {@link ArtifactAccumulator} per task, so an
+ * artifact chunk is appended in amortized constant time however many chunks preceded it.
  */
 public class InMemoryTaskManager implements TaskManager {
 
     private static final Logger log = LoggerFactory.getLogger(InMemoryTaskManager.class);
 
-    private final TaskStore taskStore;
+    private final ReactiveTaskStore taskStore;
+    private final IndexedTaskStore taskIndex;
+    private final int maxRelatedTasks;
+    private final boolean mergeTextParts;
+    private final int maxHistoryLength;
+    private final TaskHistoryStore historyStore;
     private final Map<String, TaskPushNotificationConfig> notificationConfigMap = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> contextTaskIdMap = new ConcurrentHashMap<>();
+    private final Map<String, ArtifactAccumulator> artifactAccumulators = new ConcurrentHashMap<>();
+    private final TaskUpdateSequencer sequencer = new TaskUpdateSequencer();
 
+    /**
+     * Creates a task manager calling a blocking task store on the thread applying each
+     * update, suitable for stores that only touch memory.
+     *
+     * @param taskStore The task store
+     */
     public InMemoryTaskManager(TaskStore taskStore) {
+        this(new ReactiveTaskStoreAdapter(taskStore));
+    }
+
+    /**
+     * Creates a task manager on a reactive task store.
+     *
+     * @param taskStore The task store
+     */
+    public InMemoryTaskManager(ReactiveTaskStore taskStore) {
+        this(taskStore, 0);
+    }
+
+    /**
+     * Creates a task manager on a reactive task store, giving agents at most
+     * {@code maxRelatedTasks} related tasks per request.
+     *
+     * @param taskStore       The task store
+     * @param maxRelatedTasks The maximum number of related tasks of a request, 0 for no limit
+     */
+    public InMemoryTaskManager(ReactiveTaskStore taskStore, int maxRelatedTasks) {
+        this(taskStore, maxRelatedTasks, false);
+    }
+
+    /**
+     * Creates a task manager on a reactive task store, giving agents at most
+     * {@code maxRelatedTasks} related tasks per request, and optionally merging the
+     * adjacent text parts of a streamed artifact into one part once its last chunk is
+     * received.
+     *
+     * @param taskStore       The task store
+     * @param maxRelatedTasks The maximum number of related tasks of a request, 0 for no limit
+     * @param mergeTextParts  Whether to merge the text parts of an artifact on its last chunk
+     */
+    public InMemoryTaskManager(ReactiveTaskStore taskStore, int maxRelatedTasks, boolean mergeTextParts) {
+        this(taskStore, maxRelatedTasks, mergeTextParts, 0, null);
+    }
+
+    /**
+     * Creates a task manager on a reactive task store, also keeping at most
+     * {@code maxHistoryLength} messages in the history of a task. Older messages are moved
+     * to the history store, a quarter of the limit at a time, and read back by
+     * {@link #getSpilledHistory(String, int)}.
+     *
+     * @param taskStore        The task store
+     * @param maxRelatedTasks  The maximum number of related tasks of a request, 0 for no limit
+     * @param mergeTextParts   Whether to merge the text parts of an artifact on its last chunk
+     * @param maxHistoryLength The maximum number of messages kept in a task, 0 for no limit
+     * @param historyStore     The store of the older messages, required if the history is
+     *                         limited
+     */
+    public InMemoryTaskManager(ReactiveTaskStore taskStore, int maxRelatedTasks, boolean mergeTextParts,
+            int maxHistoryLength, TaskHistoryStore historyStore) {
+        if (maxRelatedTasks < 0) {
+            throw new IllegalArgumentException("maxRelatedTasks must not be negative");
+        }
+        if (maxHistoryLength < 0) {
+            throw new IllegalArgumentException("maxHistoryLength must not be negative");
+        }
+        if (maxHistoryLength > 0 && historyStore == null) {
+            throw new IllegalArgumentException("historyStore must not be null when the history is limited");
+        }
         this.taskStore = taskStore;
+        this.maxRelatedTasks = maxRelatedTasks;
+        this.mergeTextParts = mergeTextParts;
+        this.maxHistoryLength = maxHistoryLength;
+        this.historyStore = historyStore;
+        this.taskIndex = findIndex(taskStore);
+    }
+
+    /**
+     * Finds the indexed store behind the adapters and decorators of this package.
+     *
+     * @param taskStore The task store
+     * @return The indexed store, null if there is none
+     */
+    private static IndexedTaskStore findIndex(Object taskStore) {
+        Object store = taskStore;
+        while (true) {
+            if (store instanceof IndexedTaskStore indexed) {
+                return indexed;
+            } else if (store instanceof ReactiveTaskStoreAdapter adapter) {
+                store = adapter.getDelegate();
+            } else if (store instanceof WriteBehindTaskStore writeBehind) {
+                store = writeBehind.getDelegate();
+            } else {
+                return null;
+            }
+        }
     }
 
     @Override
     public RequestContext loadOrCreateContext(MessageSendParams params) {
-        String taskId = params.getMessage().getTaskId();
-        taskId = taskId == null ? UUID.randomUUID().toString() : taskId;
-        String contextId = params.getMessage().getContextId();
-        contextId = contextId == null ? UUID.randomUUID().toString() : contextId;
-        RequestContext.Builder contextBuilder = RequestContext.builder()
-                .taskId(taskId).contextId(contextId).request(params);
-        Task currentTask = taskStore.load(taskId);
-        if (currentTask == null) {
-            // create the new one take
-            currentTask = Task.builder()
-                    .id(taskId)
-                    .contextId(contextId)
-                    .status(TaskStatus.builder()
-                            .state(TaskState.SUBMITTED)
-                            .timestamp(String.valueOf(Instant.now().toEpochMilli()))
-                            .build())
-                    .metadata(params.getMetadata())
-                    .artifacts(new LinkedList<>())
-                    .history(new LinkedList<>())
-                    .build();
-            log.info("Create new message task: {}", currentTask);
-        } else {
-            TaskState taskState = currentTask.getStatus().getState();
-            if (taskState == TaskState.COMPLETED || taskState == TaskState.FAILED || taskState == TaskState.CANCELED
-                    || taskState == TaskState.REJECTED) {
-                log.warn(
-                        "Received message for task {} already in final state {}. Handling as new submission (keeping history)",
-                        taskId, taskState);
-                TaskStatus taskStatusUpdate = TaskStatus.builder()
-                        .state(TaskState.SUBMITTED)
-                        .timestamp(String.valueOf(Instant.now().toEpochMilli()))
-                        .build();
-                applyTaskUpdate(currentTask, taskStatusUpdate).block();
-            } else if (taskState == TaskState.INPUT_REQUIRED || taskState == TaskState.AUTH_REQUIRED) {
-                log.info("Received message while {}, changing task {} state to 'working'", taskState, taskId);
-                TaskStatus taskStatusUpdate = TaskStatus.builder()
-                        .state(TaskState.WORKING)
-                        .timestamp(String.valueOf(Instant.now().toEpochMilli()))
-                        .build();
-                applyTaskUpdate(currentTask, taskStatusUpdate).block();
-            } else if (taskState == TaskState.WORKING) {
-                log.info("Received message while task {} already 'working'. Proceeding.", taskId);
-            } else {
-                log.info("receiving task {} another message might be odd, but proceed.", taskId);
+        return loadOrCreateContextAsync(params).block();
+    }
+
+    @Override
+    public Mono<RequestContext> loadOrCreateContextAsync(MessageSendParams params) {
+        return Mono.defer(() -> {
+            String taskId = params.getMessage().getTaskId();
+            taskId = taskId == null ? UUID.randomUUID().toString() : taskId;
+            String contextId = params.getMessage().getContextId();
+            contextId = contextId == null ? UUID.randomUUID().toString() : contextId;
+            RequestContext.Builder contextBuilder = RequestContext.builder()
+                    .taskId(taskId).contextId(contextId).request(params);
+            final String currentTaskId = taskId;
+            final String currentContextId = contextId;
+            return Mono.fromFuture(sequencer.submitAsync(taskId,
+                    () -> loadOrCreateTask(currentTaskId, currentContextId, params).toFuture()), true)
+                    .map(currentTask -> contextBuilder.task(currentTask)
+                            .relatedTasks(relatedTasks(currentContextId, currentTaskId))
+                            .build());
+        });
+    }
+
+    /**
+     * Returns the other tasks of a context as a lazy list, so they are only loaded if the
+     * agent reads them.
+     *
+     * @param contextId The ID of the context
+     * @param taskId    The ID of the task just loaded or created in the context
+     * @return The related tasks, at most {@code maxRelatedTasks} of them
+     */
+    private RelatedTasks relatedTasks(String contextId, String taskId) {
+        List<String> taskIds = new ArrayList<>();
+        for (String id : relatedTaskIds(contextId, taskId)) {
+            if (maxRelatedTasks > 0 && taskIds.size() == maxRelatedTasks) {
+                break;
+            }
+            if (!Objects.equals(id, taskId)) {
+                taskIds.add(id);
             }
         }
-        contextBuilder.task(currentTask);
-        Set<String> relatedTaskIds = contextTaskIdMap.computeIfAbsent(contextId, k -> new HashSet<>());
+        return RelatedTasks.ofAsync(taskIds, taskStore::load);
+    }
+
+    /**
+     * Returns the IDs of the tasks of a context, from the indexes of the store if it has
+     * some. An index lookup stops past {@code maxRelatedTasks}.
+     *
+     * @param contextId The ID of the context
+     * @param taskId    The ID of the task just loaded or created in the context
+     * @return The IDs of the tasks of the context
+     */
+    private Collection<String> relatedTaskIds(String contextId, String taskId) {
+        if (taskIndex != null) {
+            // one more than the limit, in case the task itself is among them
+            return taskIndex.findTaskIdsByContextId(contextId, maxRelatedTasks == 0 ? 0 : maxRelatedTasks + 1);
+        }
+        Set<String> relatedTaskIds = contextTaskIdMap.computeIfAbsent(contextId, k -> ConcurrentHashMap.newKeySet());
         relatedTaskIds.add(taskId);
-        final String currentTaskId = taskId;
-        List<Task> relatedTasksList = relatedTaskIds.stream().map(id -> {
-            if (Objects.equals(id, currentTaskId)) {
-                return null;
-            } else {
-                return taskStore.load(id);
-            }
-        }).filter(Objects::nonNull).toList();
-        contextBuilder.relatedTasks(relatedTasksList);
-        return contextBuilder.build();
+        return relatedTaskIds;
+    }
+
+    /**
+     * Loads the task of a message, creating it if it does not exist yet. Must run on the
+     * sequencer of the task.
+     *
+     * @param taskId    The ID of the task
+     * @param contextId The ID of the context of the task
+     * @param params    The message send params
+     * @return Mono of the loaded or created task, once it has been saved
+     */
+    private Mono<Task> loadOrCreateTask(String taskId, String contextId, MessageSendParams params) {
+        return taskStore.load(taskId)
+                .flatMap(this::resumeTask)
+                .switchIfEmpty(Mono.defer(() -> {
+                    // create the new one take
+                    Task currentTask = Task.builder()
+                            .id(taskId)
+                            .contextId(contextId)
+                            .status(TaskStatus.builder()
+                                    .state(TaskState.SUBMITTED)
+                                    .timestamp(String.valueOf(Instant.now().toEpochMilli()))
+                                    .build())
+                            .metadata(params.getMetadata())
+                            .artifacts(new ArrayList<>())
+                            .history(new LinkedList<>())
+                            .build();
+                    return taskStore.save(currentTask)
+                            .doOnSuccess(saved -> log.info("Create new message task: {}", currentTask))
+                            .thenReturn(currentTask);
+                }));
+    }
+
+    /**
+     * Prepares a loaded task for a new message, reopening it if it is terminal or
+     * interrupted.
+     *
+     * @param currentTask The loaded task
+     * @return Mono of the task, once the changed state has been saved
+     */
+    private Mono<Task> resumeTask(Task currentTask) {
+        String taskId = currentTask.getId();
+        TaskState taskState = currentTask.getStatus().getState();
+        if (taskState.isTerminal()) {
+            log.warn(
+                    "Received message for task {} already in final state {}. Handling as new submission (keeping history)",
+                    taskId, taskState);
+            TaskStatus taskStatusUpdate = TaskStatus.builder()
+                    .state(TaskState.SUBMITTED)
+                    .timestamp(String.valueOf(Instant.now().toEpochMilli()))
+                    .build();
+            return doApplyTaskUpdate(currentTask, List.of(taskStatusUpdate));
+        } else if (taskState.isInterrupted()) {
+            log.info("Received message while {}, changing task {} state to 'working'", taskState, taskId);
+            TaskStatus taskStatusUpdate = TaskStatus.builder()
+                    .state(TaskState.WORKING)
+                    .timestamp(String.valueOf(Instant.now().toEpochMilli()))
+                    .build();
+            return doApplyTaskUpdate(currentTask, List.of(taskStatusUpdate));
+        } else if (taskState == TaskState.WORKING) {
+            log.info("Received message while task {} already 'working'. Proceeding.", taskId);
+        } else {
+            log.info("receiving task {} another message might be odd, but proceed.", taskId);
+        }
+        return Mono.just(currentTask);
     }
 
     @Override
     public Task getTask(String taskId) {
+        return getTaskAsync(taskId).block();
+    }
+
+    @Override
+    public Mono<Task> getTaskAsync(String taskId) {
         return taskStore.load(taskId);
     }
 
+    @Override
+    public List<Message> getSpilledHistory(String taskId, int limit) {
+        return historyStore == null ? List.of() : historyStore.load(taskId, limit);
+    }
+
     @Override
     public Mono<Task> applyTaskUpdate(Task task, List<TaskUpdate> taskUpdates) {
         if (taskUpdates == null || taskUpdates.isEmpty()) {
             return Mono.just(task);
         }
+        return sequenced(task, () -> doApplyTaskUpdate(task, taskUpdates));
+    }
+
+    private Mono<Task> doApplyTaskUpdate(Task task, List<TaskUpdate> taskUpdates) {
         for (TaskUpdate taskUpdate : taskUpdates) {
             if (taskUpdate instanceof TaskStatus taskStatus) {
                 log.info("apply task {} updated with status {}", task.getId(), taskStatus);
@@ -150,43 +355,19 @@ public class InMemoryTaskManager implements TaskManager {
                 }
             } else if (taskUpdate instanceof Artifact artifact) {
                 log.info("apply task {} updated with artifact {}", task.getId(), artifact);
-                List<Artifact> artifacts = task.getArtifacts();
-
-                // Initialize artifacts list if it doesn't exist
-                if (artifacts == null) {
-                    artifacts = new LinkedList<>();
-                    task.setArtifacts(artifacts);
-                }
-
-                String artifactId = artifact.getArtifactId();
-
-                // Find existing artifact with the same ID
-                int existingArtifactIndex = -1;
-                for (int i = 0; i < artifacts.size(); i++) {
-                    Artifact art = artifacts.get(i);
-                    if (art.getArtifactId() != null && art.getArtifactId().equals(artifactId)) {
-                        existingArtifactIndex = i;
-                        break;
-                    }
-                }
-
                 // Since we don't have append information from the raw Artifact,
                 // we default to replacing/adding the artifact
-                if (existingArtifactIndex != -1) {
-                    // Replace the existing artifact entirely with the new data
-                    log.debug("Replacing artifact at id {} for task {}", artifactId, task.getId());
-                    artifacts.set(existingArtifactIndex, artifact);
+                if (accumulator(task).put(artifact)) {
+                    log.debug("Replacing artifact at id {} for task {}", artifact.getArtifactId(), task.getId());
                 } else {
-                    // Add the new artifact since no artifact with this ID exists yet
-                    log.debug("Adding new artifact with id {} for task {}", artifactId, task.getId());
-                    artifacts.add(artifact);
+                    log.debug("Adding new artifact with id {} for task {}", artifact.getArtifactId(), task.getId());
                 }
             } else {
                 log.error("Received taskUpdate {} but not a TaskUpdate {}", taskUpdate, taskUpdate.getClass());
             }
         }
-        taskStore.save(task);
-        return Mono.just(task);
+        releaseTerminal(task);
+        return spillHistory(task).then(taskStore.save(task)).thenReturn(task);
     }
 
     @Override
@@ -196,6 +377,10 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public Mono<Task> applyStatusUpdate(Task task, TaskStatusUpdateEvent event) {
+        return sequenced(task, () -> doApplyStatusUpdate(task, event));
+    }
+
+    private Mono<Task> doApplyStatusUpdate(Task task, TaskStatusUpdateEvent event) {
         log.info("apply task {} updated with status event {}", task.getId(), event);
 
         TaskStatus taskStatus = event.getStatus();
@@ -214,8 +399,8 @@ public class InMemoryTaskManager implements TaskManager {
             log.warn("Received TaskStatusUpdateEvent for task {} but status is null", task.getId());
         }
 
-        taskStore.save(task);
-        return Mono.just(task);
+        releaseTerminal(task);
+        return spillHistory(task).then(taskStore.save(task)).thenReturn(task);
     }
 
     /**
@@ -226,60 +411,124 @@ public class InMemoryTaskManager implements TaskManager {
      * @return Updated task
      */
     public Mono<Task> applyArtifactUpdate(Task task, TaskArtifactUpdateEvent event) {
-        log.info("apply task {} updated with artifact event {}", task.getId(), event);
-
-        List<Artifact> artifacts = task.getArtifacts();
+        return sequenced(task, () -> doApplyArtifactUpdate(task, event));
+    }
 
-        // Initialize artifacts list if it doesn't exist
-        if (artifacts == null) {
-            artifacts = new LinkedList<>();
-            task.setArtifacts(artifacts);
-        }
+    private Mono<Task> doApplyArtifactUpdate(Task task, TaskArtifactUpdateEvent event) {
+        log.info("apply task {} updated with artifact event {}", task.getId(), event);
 
+        ArtifactAccumulator accumulator = accumulator(task);
         Artifact newArtifactData = event.getArtifact();
         String artifactId = newArtifactData.getArtifactId();
         boolean appendParts = event.getAppend() != null ? event.getAppend() : false;
 
-        // Find existing artifact with the same ID
-        Artifact existingArtifact = null;
-        int existingArtifactIndex = -1;
-        for (int i = 0; i < artifacts.size(); i++) {
-            Artifact art = artifacts.get(i);
-            if (art.getArtifactId() != null && art.getArtifactId().equals(artifactId)) {
-                existingArtifact = art;
-                existingArtifactIndex = i;
-                break;
-            }
-        }
-
         if (!appendParts) {
             // This represents the first chunk for this artifact ID.
-            if (existingArtifactIndex != -1) {
-                // Replace the existing artifact entirely with the new data
+            if (accumulator.put(newArtifactData)) {
                 log.debug("Replacing artifact at id {} for task {}", artifactId, task.getId());
-                artifacts.set(existingArtifactIndex, newArtifactData);
             } else {
-                // Add the new artifact since no artifact with this ID exists yet
                 log.debug("Adding new artifact with id {} for task {}", artifactId, task.getId());
-                artifacts.add(newArtifactData);
             }
-        } else if (existingArtifact != null) {
+        } else if (accumulator.append(newArtifactData)) {
             // Append new parts to the existing artifact's part list
             log.debug("Appending parts to artifact id {} for task {}", artifactId, task.getId());
-            if (existingArtifact.getParts() != null && newArtifactData.getParts() != null) {
-                List<Part> parts = new LinkedList<>(existingArtifact.getParts());
-                parts.addAll(newArtifactData.getParts());
-                existingArtifact.setParts(parts);
-            }
         } else {
             // We received a chunk to append, but we don't have an existing artifact.
             // we will ignore this chunk
             log.warn("Received append=true for nonexistent artifact id {} in task {}. Ignoring chunk.",
                     artifactId, task.getId());
         }
+        if (mergeTextParts && Boolean.TRUE.equals(event.getLastChunk())) {
+            accumulator.mergeTextParts(artifactId);
+        }
+
+        return taskStore.save(task).thenReturn(task);
+    }
+
+    /**
+     * Moves the oldest messages of the task history to the history store once the history
+     * exceeds {@code maxHistoryLength}, keeping three quarters of the limit so that the
+     * history is not rewritten on every message. The messages stay in the task if the
+     * history store fails. Must run on the sequencer of the task.
+     *
+     * @param task The updated task
+     * @return Mono completing once the messages have been moved
+     */
+    private Mono<Void> spillHistory(Task task) {
+        List<Message> history = task.getHistory();
+        if (maxHistoryLength == 0 || history == null || history.size() <= maxHistoryLength) {
+            return Mono.empty();
+        }
+        int spilled = history.size() - (maxHistoryLength - maxHistoryLength / 4);
+        List<Message> messages = new ArrayList<>(history.subList(0, spilled));
+        // the history store may write to disk
+        return Mono.<Void>fromRunnable(() -> historyStore.append(task.getId(), messages))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(done -> {
+                    history.subList(0, spilled).clear();
+                    log.debug("Moved {} messages of task {} to the history store", spilled, task.getId());
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to move the history of task {}: {}", task.getId(), e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Returns the artifact accumulator of a task, indexing its artifacts again if the task
+     * was reloaded or its artifact list replaced. Must run on the sequencer of the task.
+     *
+     * @param task The task being updated
+     * @return The artifact accumulator of the task
+     */
+    private ArtifactAccumulator accumulator(Task task) {
+        ArtifactAccumulator accumulator = artifactAccumulators.get(task.getId());
+        if (accumulator == null || !accumulator.isFor(task)) {
+            accumulator = new ArtifactAccumulator(task);
+            artifactAccumulators.put(task.getId(), accumulator);
+        }
+        return accumulator;
+    }
 
-        taskStore.save(task);
-        return Mono.just(task);
+    /**
+     * Drops the artifact accumulator of a task once it is terminal, no more chunks are
+     * expected, and stops tracking it in its context.
+     *
+     * @param task The updated task
+     */
+    private void releaseTerminal(Task task) {
+        if (task.getStatus() != null && task.getStatus().getState() != null
+                && task.getStatus().getState().isTerminal()) {
+            artifactAccumulators.remove(task.getId());
+            forgetContextTask(task);
+        }
+    }
+
+    /**
+     * Stops tracking a terminal task in the tasks of its context, when the store has no
+     * index. A new message for the task tracks it again.
+     *
+     * @param task The terminal task
+     */
+    private void forgetContextTask(Task task) {
+        if (taskIndex != null || task.getContextId() == null) {
+            return;
+        }
+        contextTaskIdMap.computeIfPresent(task.getContextId(), (contextId, taskIds) -> {
+            taskIds.remove(task.getId());
+            return taskIds.isEmpty() ? null : taskIds;
+        });
+    }
+
+    /**
+     * Runs an update of the task after all updates previously submitted for it.
+     *
+     * @param task   The task to update
+     * @param update The update to run
+     * @return Mono of the updated task, completing once the update has been saved
+     */
+    private Mono<Task> sequenced(Task task, Supplier<Mono<Task>> update) {
+        return Mono.fromFuture(sequencer.submitAsync(task.getId(), () -> update.get().toFuture()), true);
     }
 
     @Override
@@ -17,10 +17,13 @@
 package io.github.a2ap.core.server.impl;
 
 import io.github.a2ap.core.model.Task;
-import io.github.a2ap.core.server.TaskStore;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.server.IndexedTaskStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,6 +39,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - No persistence - data is lost when the application stops
  * - Suitable for development, testing, and single-instance deployments
  * - Fast in-memory access with O(1) lookup performance
+ * - Indexed by context ID, state and last save time
  * 
  * Limitations:
  * - Data is not persisted across application restarts
@@ -46,15 +50,20 @@ import java.util.concurrent.ConcurrentHashMap;
  * For production deployments requiring persistence, consider implementing
  * TaskStore with a database or distributed cache backend.
  */
-public class InMemoryTaskStore implements TaskStore {
+public class InMemoryTaskStore implements IndexedTaskStore {
 
     private static final Logger log = LoggerFactory.getLogger(InMemoryTaskStore.class);
 
     private final Map<String, Task> store = new ConcurrentHashMap<>();
 
+    private final TaskIndex index = new TaskIndex();
+
     @Override
     public void save(Task task) {
-        store.put(task.getId(), task);
+        store.compute(task.getId(), (id, previous) -> {
+            index.update(task, System.currentTimeMillis());
+            return task;
+        });
     }
 
     @Override
@@ -69,4 +78,28 @@ public class InMemoryTaskStore implements TaskStore {
 
         return store.get(taskId);
     }
+
+    @Override
+    public List<String> findTaskIdsByContextId(String contextId) {
+        return index.findByContextId(contextId);
+    }
+
+    @Override
+    public List<String> findTaskIdsByContextId(String contextId, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        return index.findByContextId(contextId, limit);
+    }
+
+    @Override
+    public List<String> findTaskIdsByState(TaskState state) {
+        return index.findByState(state);
+    }
+
+    @Override
+    public List<String> findTaskIdsUpdatedBetween(Instant from, Instant to) {
+        return index.findUpdatedBetween(from, to);
+    }
+
 }
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.server.TaskStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TaskStore that keeps tasks in a relational database through JDBC.
+ * <p>
+ * The schema is normalized so that updating a task does not rewrite it: a task row holds
+ * the context, status and metadata of a task, and the messages of its history, its
+ * artifacts and the parts of its artifacts are rows of their own, keyed by position. A
+ * save only writes what changed since the task was last saved or loaded by this store:
+ * the status is updated in place, and added messages, artifacts and parts are inserted in
+ * one batch per table, in one transaction. The whole task is only written again when a
+ * change cannot be expressed as an append, e.g. a shortened history. Status, messages,
+ * artifacts and parts are stored as JSON.
+ * <p>
+ * Connections are borrowed from the given {@link DataSource} for each save and load, so
+ * it should be a pooled data source, e.g. the one of a Spring Boot application. The
+ * tables are created by {@link #createSchema()}, or by a migration tool with the
+ * statements of {@link #SCHEMA}.
+ */
+public class JdbcTaskStore implements TaskStore {
+
+    /**
+     * The statements creating the tables of the store, in standard SQL.
+     */
+    public static final List<String> SCHEMA = List.of(
+        "CREATE TABLE IF NOT EXISTS a2a_task ("
+            + "id VARCHAR(255) NOT NULL, context_id VARCHAR(255), status TEXT, metadata TEXT, "
+            + "PRIMARY KEY (id))",
+        "CREATE TABLE IF NOT EXISTS a2a_task_message ("
+            + "task_id VARCHAR(255) NOT NULL, position INT NOT NULL, message TEXT NOT NULL, "
+            + "PRIMARY KEY (task_id, position))",
+        "CREATE TABLE IF NOT EXISTS a2a_task_artifact ("
+            + "task_id VARCHAR(255) NOT NULL, position INT NOT NULL, artifact TEXT NOT NULL, "
+            + "PRIMARY KEY (task_id, position))",
+        "CREATE TABLE IF NOT EXISTS a2a_task_artifact_part ("
+            + "task_id VARCHAR(255) NOT NULL, artifact_position INT NOT NULL, position INT NOT NULL, "
+            + "part TEXT NOT NULL, PRIMARY KEY (task_id, artifact_position, position))");
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcTaskStore.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // What this store last wrote or read of the tasks still running
+    private final Map<String, WrittenTask> written = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final AtomicLong fullWrites = new AtomicLong();
+
+    private final AtomicLong deltaWrites = new AtomicLong();
+
+    private final AtomicLong writtenRows = new AtomicLong();
+
+    /**
+     * Creates a store keeping tasks in the database of the given data source.
+     *
+     * @param dataSource The data source, preferably pooled.
+     */
+    public JdbcTaskStore(DataSource dataSource) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("dataSource must not be null");
+        }
+        this.dataSource = dataSource;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Creates the tables of the store if they do not exist.
+     *
+     * @throws IllegalStateException if the tables cannot be created
+     */
+    public void createSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : SCHEMA) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create the task store schema", e);
+        }
+    }
+
+    /**
+     * Saves a task, writing only what changed since this store last saved or loaded it.
+     *
+     * @param task The task to save.
+     * @throws IllegalStateException if the task cannot be written
+     */
+    @Override
+    public void save(Task task) {
+        ReentrantLock lock = lockOf(task.getId());
+        lock.lock();
+        try {
+            WrittenTask previous = written.get(task.getId());
+            WrittenTask.Changes changes = previous == null ? WrittenTask.Changes.FULL : previous.diff(task);
+            if (changes == null) {
+                return;
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    long rows = changes.isFull() ? writeFull(connection, task) : writeChanges(connection, task, changes);
+                    connection.commit();
+                    writtenRows.addAndGet(rows);
+                    (changes.isFull() ? fullWrites : deltaWrites).incrementAndGet();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+            track(task);
+        } catch (SQLException e) {
+            // the next save writes the whole task again
+            written.remove(task.getId());
+            throw new IllegalStateException("Failed to save task " + task.getId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task load(String taskId) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return null;
+        }
+        ReentrantLock lock = lockOf(taskId);
+        lock.lock();
+        try (Connection connection = dataSource.getConnection()) {
+            Task task = read(connection, taskId);
+            if (task == null) {
+                written.remove(taskId);
+            } else {
+                track(task);
+            }
+            return task;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load task " + taskId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of saves that wrote the whole task.
+     *
+     * @return the number of full writes
+     */
+    public long getFullWriteCount() {
+        return fullWrites.get();
+    }
+
+    /**
+     * Returns the number of saves that only wrote the changes of the task.
+     *
+     * @return the number of delta writes
+     */
+    public long getDeltaWriteCount() {
+        return deltaWrites.get();
+    }
+
+    /**
+     * Returns the number of rows inserted, updated or deleted by saves.
+     *
+     * @return the number of written rows
+     */
+    public long getWrittenRowCount() {
+        return writtenRows.get();
+    }
+
+    /**
+     * Remembers what was written of a task until it reaches a terminal state: a terminal
+     * task is rarely saved again, and is then written whole.
+     */
+    private void track(Task task) {
+        if (task.getStatus() != null && task.getStatus().getState() != null
+            && task.getStatus().getState().isTerminal()) {
+            written.remove(task.getId());
+        } else {
+            written.put(task.getId(), new WrittenTask(task));
+        }
+    }
+
+    private long writeFull(Connection connection, Task task) throws SQLException {
+        String id = task.getId();
+        long rows = 0;
+        try (PreparedStatement update = connection.prepareStatement(
+            "UPDATE a2a_task SET context_id = ?, status = ?, metadata = ? WHERE id = ?")) {
+            update.setString(1, task.getContextId());
+            update.setString(2, json(task.getStatus()));
+            update.setString(3, json(task.getMetadata()));
+            update.setString(4, id);
+            int updated = update.executeUpdate();
+            if (updated == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO a2a_task (id, context_id, status, metadata) VALUES (?, ?, ?, ?)")) {
+                    insert.setString(1, id);
+                    insert.setString(2, task.getContextId());
+                    insert.setString(3, json(task.getStatus()));
+                    insert.setString(4, json(task.getMetadata()));
+                    insert.executeUpdate();
+                }
+            } else {
+                rows += delete(connection, "DELETE FROM a2a_task_message WHERE task_id = ?", id);
+                rows += delete(connection, "DELETE FROM a2a_task_artifact WHERE task_id = ?", id);
+                rows += delete(connection, "DELETE FROM a2a_task_artifact_part WHERE task_id = ?", id);
+            }
+            rows++;
+        }
+        if (task.getHistory() != null) {
+            rows += insertMessages(connection, id, task.getHistory(), 0);
+        }
+        if (task.getArtifacts() != null && !task.getArtifacts().isEmpty()) {
+            try (PreparedStatement artifacts = connection.prepareStatement(
+                "INSERT INTO a2a_task_artifact (task_id, position, artifact) VALUES (?, ?, ?)");
+                 PreparedStatement parts = connection.prepareStatement(
+                     "INSERT INTO a2a_task_artifact_part (task_id, artifact_position, position, part) "
+                         + "VALUES (?, ?, ?, ?)")) {
+                int position = 0;
+                for (Artifact artifact : task.getArtifacts()) {
+                    addArtifact(artifacts, id, position, artifact);
+                    addParts(parts, id, position, artifact.getParts(), 0);
+                    position++;
+                }
+                rows += executeBatch(artifacts) + executeBatch(parts);
+            }
+        }
+        return rows;
+    }
+
+    private long writeChanges(Connection connection, Task task, WrittenTask.Changes changes) throws SQLException {
+        String id = task.getId();
+        long rows = 0;
+        if (changes.isStatusChanged()) {
+            try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE a2a_task SET status = ? WHERE id = ?")) {
+                update.setString(1, json(task.getStatus()));
+                update.setString(2, id);
+                rows += update.executeUpdate();
+            }
+        }
+        if (changes.getHistoryFrom() >= 0) {
+            List<Message> history = task.getHistory();
+            rows += insertMessages(connection, id, history.subList(changes.getHistoryFrom(), history.size()),
+                changes.getHistoryFrom());
+        }
+        if (!changes.getArtifacts().isEmpty()) {
+            List<Artifact> artifacts = new ArrayList<>(task.getArtifacts());
+            try (PreparedStatement deleteArtifact = connection.prepareStatement(
+                "DELETE FROM a2a_task_artifact WHERE task_id = ? AND position = ?");
+                 PreparedStatement deleteParts = connection.prepareStatement(
+                     "DELETE FROM a2a_task_artifact_part WHERE task_id = ? AND artifact_position = ?");
+                 PreparedStatement insertArtifact = connection.prepareStatement(
+                     "INSERT INTO a2a_task_artifact (task_id, position, artifact) VALUES (?, ?, ?)");
+                 PreparedStatement insertParts = connection.prepareStatement(
+                     "INSERT INTO a2a_task_artifact_part (task_id, artifact_position, position, part) "
+                         + "VALUES (?, ?, ?, ?)")) {
+                for (WrittenTask.ArtifactChange change : changes.getArtifacts()) {
+                    Artifact artifact = artifacts.get(change.getIndex());
+                    if (change.isReplaced()) {
+                        for (PreparedStatement delete : List.of(deleteArtifact, deleteParts)) {
+                            delete.setString(1, id);
+                            delete.setInt(2, change.getIndex());
+                            delete.addBatch();
+                        }
+                        addArtifact(insertArtifact, id, change.getIndex(), artifact);
+                        addParts(insertParts, id, change.getIndex(), artifact.getParts(), 0);
+                    } else {
+                        List<Part> parts = artifact.getParts();
+                        addParts(insertParts, id, change.getIndex(),
+                            parts.subList(change.getPartsFrom(), parts.size()), change.getPartsFrom());
+                    }
+                }
+                // deletes first, so a replaced artifact does not collide with its old rows
+                rows += executeBatch(deleteArtifact) + executeBatch(deleteParts);
+                rows += executeBatch(insertArtifact) + executeBatch(insertParts);
+            }
+        }
+        return rows;
+    }
+
+    private long insertMessages(Connection connection, String id, List<Message> messages, int from)
+        throws SQLException {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO a2a_task_message (task_id, position, message) VALUES (?, ?, ?)")) {
+            int position = from;
+            for (Message message : messages) {
+                insert.setString(1, id);
+                insert.setInt(2, position++);
+                insert.setString(3, json(message));
+                insert.addBatch();
+            }
+            return executeBatch(insert);
+        }
+    }
+
+    private void addArtifact(PreparedStatement insert, String id, int position, Artifact artifact)
+        throws SQLException {
+        // the parts are rows of their own
+        ObjectNode node = objectMapper.valueToTree(artifact);
+        node.remove("parts");
+        insert.setString(1, id);
+        insert.setInt(2, position);
+        insert.setString(3, json(node));
+        insert.addBatch();
+    }
+
+    private void addParts(PreparedStatement insert, String id, int artifactPosition, List<Part> parts, int from)
+        throws SQLException {
+        if (parts == null) {
+            return;
+        }
+        int position = from;
+        for (Part part : parts) {
+            insert.setString(1, id);
+            insert.setInt(2, artifactPosition);
+            insert.setInt(3, position++);
+            insert.setString(4, json(part));
+            insert.addBatch();
+        }
+    }
+
+    private long delete(Connection connection, String sql, String id) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(sql)) {
+            delete.setString(1, id);
+            return delete.executeUpdate();
+        }
+    }
+
+    private static long executeBatch(PreparedStatement statement) throws SQLException {
+        long rows = 0;
+        for (int count : statement.executeBatch()) {
+            // SUCCESS_NO_INFO is negative: the row was written but not counted
+            rows += count >= 0 ? count : 1;
+        }
+        return rows;
+    }
+
+    private Task read(Connection connection, String taskId) throws SQLException {
+        Task task;
+        try (PreparedStatement select = connection.prepareStatement(
+            "SELECT context_id, status, metadata FROM a2a_task WHERE id = ?")) {
+            select.setString(1, taskId);
+            try (ResultSet result = select.executeQuery()) {
+                if (!result.next()) {
+                    return null;
+                }
+                task = Task.builder()
+                    .id(taskId)
+                    .contextId(result.getString(1))
+                    .status(read(result.getString(2), TaskStatus.class))
+                    .metadata(readMap(result.getString(3)))
+                    .build();
+            }
+        }
+
+        List<Message> history = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+            "SELECT message FROM a2a_task_message WHERE task_id = ? ORDER BY position")) {
+            select.setString(1, taskId);
+            try (ResultSet result = select.executeQuery()) {
+                while (result.next()) {
+                    history.add(read(result.getString(1), Message.class));
+                }
+            }
+        }
+        task.setHistory(history);
+
+        List<Artifact> artifacts = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+            "SELECT artifact FROM a2a_task_artifact WHERE task_id = ? ORDER BY position")) {
+            select.setString(1, taskId);
+            try (ResultSet result = select.executeQuery()) {
+                while (result.next()) {
+                    Artifact artifact = read(result.getString(1), Artifact.class);
+                    artifact.setParts(new ArrayList<>());
+                    artifacts.add(artifact);
+                }
+            }
+        }
+        if (!artifacts.isEmpty()) {
+            try (PreparedStatement select = connection.prepareStatement(
+                "SELECT artifact_position, part FROM a2a_task_artifact_part WHERE task_id = ? "
+                    + "ORDER BY artifact_position, position")) {
+                select.setString(1, taskId);
+                try (ResultSet result = select.executeQuery()) {
+                    while (result.next()) {
+                        int position = result.getInt(1);
+                        if (position < artifacts.size()) {
+                            artifacts.get(position).getParts().add(read(result.getString(2), Part.class));
+                        }
+                    }
+                }
+            }
+        }
+        task.setArtifacts(artifacts);
+        return task;
+    }
+
+    private String json(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize " + type.getSimpleName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(String json) {
+        return read(json, Map.class);
+    }
+
+    private ReentrantLock lockOf(String taskId) {
+        return locks[Math.floorMod(taskId.hashCode(), LOCK_STRIPES)];
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.server.ReactiveTaskStore;
+import io.github.a2ap.core.server.TaskStore;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Adapts a blocking {@link TaskStore} to the {@link ReactiveTaskStore} interface.
+ * <p>
+ * Without a scheduler, the store is called on the subscribing thread, which suits stores
+ * that only touch memory such as {@link InMemoryTaskStore}. Stores doing I/O should be
+ * given a scheduler meant for blocking work, e.g. {@code Schedulers.boundedElastic()}, so
+ * they never run on an event loop thread.
+ */
+public class ReactiveTaskStoreAdapter implements ReactiveTaskStore {
+
+    private final TaskStore delegate;
+
+    private final Scheduler scheduler;
+
+    /**
+     * Creates an adapter calling the store on the subscribing thread.
+     *
+     * @param delegate The blocking store to adapt.
+     */
+    public ReactiveTaskStoreAdapter(TaskStore delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * Creates an adapter calling the store on the given scheduler.
+     *
+     * @param delegate  The blocking store to adapt.
+     * @param scheduler The scheduler to call the store on, null for the subscribing thread.
+     */
+    public ReactiveTaskStoreAdapter(TaskStore delegate, Scheduler scheduler) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<Void> save(Task task) {
+        return offload(Mono.fromRunnable(() -> delegate.save(task)));
+    }
+
+    @Override
+    public Mono<Task> load(String taskId) {
+        return offload(Mono.fromCallable(() -> delegate.load(taskId)));
+    }
+
+    /**
+     * Returns the adapted store.
+     *
+     * @return the blocking store
+     */
+    public TaskStore getDelegate() {
+        return delegate;
+    }
+
+    private <T> Mono<T> offload(Mono<T> call) {
+        return scheduler == null ? call : call.subscribeOn(scheduler);
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes of the tasks of an in-memory store, by context ID, state and last
+ * save time, for {@link io.github.a2ap.core.server.IndexedTaskStore} implementations.
+ * <p>
+ * The entries of a task are replaced atomically on each {@link #update(Task, long)}, and
+ * only the indexes whose key changed are touched, so a save costs a few hash operations
+ * plus a logarithmic update of the time index. Lookups are concurrent with updates and
+ * see each task either before or after an update.
+ */
+class TaskIndex {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> byContextId = new ConcurrentHashMap<>();
+
+    private final Map<TaskState, Set<String>> byState = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<Long, Set<String>> byUpdateTime = new ConcurrentSkipListMap<>();
+
+    /**
+     * Indexes a saved task.
+     *
+     * @param task      The saved task.
+     * @param updatedAt The time of the save, in epoch milliseconds.
+     */
+    void update(Task task, long updatedAt) {
+        String taskId = task.getId();
+        TaskState state = task.getStatus() == null ? null : task.getStatus().getState();
+        entries.compute(taskId, (id, previous) -> {
+            Entry next = new Entry(task.getContextId(), state, updatedAt);
+            if (previous == null || !Objects.equals(previous.contextId, next.contextId)) {
+                if (previous != null) {
+                    remove(byContextId, previous.contextId, id);
+                }
+                add(byContextId, next.contextId, id);
+            }
+            if (previous == null || previous.state != next.state) {
+                if (previous != null) {
+                    remove(byState, previous.state, id);
+                }
+                add(byState, next.state, id);
+            }
+            if (previous == null || previous.updatedAt != next.updatedAt) {
+                if (previous != null) {
+                    remove(byUpdateTime, previous.updatedAt, id);
+                }
+                add(byUpdateTime, next.updatedAt, id);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Removes a task from the indexes.
+     *
+     * @param taskId The ID of the task no longer stored.
+     */
+    void remove(String taskId) {
+        entries.computeIfPresent(taskId, (id, previous) -> {
+            remove(byContextId, previous.contextId, id);
+            remove(byState, previous.state, id);
+            remove(byUpdateTime, previous.updatedAt, id);
+            return null;
+        });
+    }
+
+    List<String> findByContextId(String contextId) {
+        return contextId == null ? List.of() : copy(byContextId.get(contextId));
+    }
+
+    /**
+     * Finds the tasks of a context, copying no more than the limit out of the index.
+     *
+     * @param contextId The ID of the context.
+     * @param limit     The maximum number of task IDs, 0 for no limit.
+     * @return the IDs of at most {@code limit} tasks of the context
+     */
+    List<String> findByContextId(String contextId, int limit) {
+        if (limit == 0) {
+            return findByContextId(contextId);
+        }
+        Set<String> ids = contextId == null ? null : byContextId.get(contextId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<String> taskIds = new ArrayList<>(Math.min(limit, ids.size()));
+        for (String id : ids) {
+            if (taskIds.size() == limit) {
+                break;
+            }
+            taskIds.add(id);
+        }
+        return taskIds;
+    }
+
+    List<String> findByState(TaskState state) {
+        return state == null ? List.of() : copy(byState.get(state));
+    }
+
+    List<String> findUpdatedBetween(Instant from, Instant to) {
+        List<String> taskIds = new ArrayList<>();
+        for (Set<String> ids : byUpdateTime.subMap(from.toEpochMilli(), true, to.toEpochMilli(), false).values()) {
+            taskIds.addAll(ids);
+        }
+        return taskIds;
+    }
+
+    private static List<String> copy(Set<String> ids) {
+        return ids == null ? List.of() : List.copyOf(ids);
+    }
+
+    private static <K> void add(Map<K, Set<String>> index, K key, String taskId) {
+        if (key == null) {
+            return;
+        }
+        index.compute(key, (k, ids) -> {
+            Set<String> next = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            next.add(taskId);
+            return next;
+        });
+    }
+
+    private static <K> void remove(Map<K, Set<String>> index, K key, String taskId) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(taskId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * The indexed keys of a task.
+     */
+    private static final class Entry {
+
+        private final String contextId;
+
+        private final TaskState state;
+
+        private final long updatedAt;
+
+        private Entry(String contextId, TaskState state, long updatedAt) {
+            this.contextId = contextId;
+            this.state = state;
+            this.updatedAt = updatedAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Copies a task so that a store can write it on another thread while the task manager
+ * keeps updating the original.
+ * <p>
+ * The task manager updates a task in place: it appends messages to the history, adds or
+ * replaces artifacts, appends parts to artifacts and replaces the status and metadata.
+ * The copy therefore gets its own history, artifact and part lists and its own metadata
+ * map; messages, parts and the status are shared, they are not changed once added.
+ */
+final class TaskSnapshot {
+
+    private TaskSnapshot() {
+    }
+
+    /**
+     * Returns a copy of the task that later updates of the task do not change.
+     *
+     * @param task The task to copy.
+     * @return the copy
+     */
+    static Task of(Task task) {
+        List<Artifact> artifacts = null;
+        if (task.getArtifacts() != null) {
+            artifacts = new ArrayList<>(task.getArtifacts().size());
+            for (Artifact artifact : task.getArtifacts()) {
+                artifacts.add(of(artifact));
+            }
+        }
+        return new Task(task.getId(), task.getContextId(), task.getStatus(), artifacts,
+            task.getHistory() == null ? null : new ArrayList<>(task.getHistory()),
+            task.getMetadata() == null ? null : new HashMap<>(task.getMetadata()));
+    }
+
+    /**
+     * Returns a copy of the artifact with its own part list.
+     *
+     * @param artifact The artifact to copy.
+     * @return the copy
+     */
+    static Artifact of(Artifact artifact) {
+        return new Artifact(artifact.getArtifactId(), artifact.getName(), artifact.getDescription(),
+            artifact.getParts() == null ? null : new ArrayList<>(artifact.getParts()),
+            artifact.getMetadata());
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Serializes updates per task without a global lock.
+ * <p>
+ * Every task has its own mailbox, a lock-free multi-producer queue. Updates submitted for
+ * the same task are run one at a time, in submission order, by a single draining thread:
+ * the submitter that finds the mailbox idle drains it, including updates other threads
+ * enqueue meanwhile, while the other submitters return right away. Updates for different
+ * tasks never wait for each other.
+ * <p>
+ * An update can also be asynchronous, e.g. when it saves the task to a store doing I/O:
+ * the next update of the task then runs once the previous one has completed, on the
+ * thread that completed it, without blocking a thread meanwhile.
+ * <p>
+ * Mailboxes are reference counted and removed once no update is pending for the task, so
+ * memory only grows with the number of tasks being updated concurrently.
+ */
+public class TaskUpdateSequencer {
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * Submits an update for a task.
+     *
+     * @param taskId The ID of the task the update applies to.
+     * @param update The update to run, after all updates previously submitted for the task.
+     * @param <T>    The result type of the update.
+     * @return A future completed with the update result once it has run.
+     */
+    public <T> CompletableFuture<T> submit(String taskId, Supplier<T> update) {
+        return submitAsync(taskId, () -> CompletableFuture.completedFuture(update.get()));
+    }
+
+    /**
+     * Submits an asynchronous update for a task. The next update of the task only runs once
+     * the stage returned by this one has completed.
+     *
+     * @param taskId The ID of the task the update applies to.
+     * @param update The update to run, after all updates previously submitted for the task.
+     * @param <T>    The result type of the update.
+     * @return A future completed with the update result once its stage has completed.
+     */
+    public <T> CompletableFuture<T> submitAsync(String taskId, Supplier<? extends CompletionStage<T>> update) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        // Pin the mailbox first, compute only locks the bin of this task id
+        Mailbox mailbox = mailboxes.compute(taskId, (id, existing) -> {
+            Mailbox pinned = existing == null ? new Mailbox() : existing;
+            pinned.pending++;
+            return pinned;
+        });
+        mailbox.queue.offer(() -> {
+            CompletableFuture<T> stage;
+            try {
+                stage = update.get().toCompletableFuture();
+            } catch (Throwable e) {
+                stage = CompletableFuture.failedFuture(e);
+            }
+            return stage.whenComplete((result, error) -> {
+                mailboxes.computeIfPresent(taskId, (id, existing) -> --existing.pending == 0 ? null : existing);
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            });
+        });
+        if (mailbox.wip.getAndIncrement() == 0) {
+            drain(mailbox);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the number of tasks with pending updates.
+     *
+     * @return the number of active mailboxes
+     */
+    int activeTasks() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Runs the pending updates of a task one at a time. An update that has not completed
+     * when it returns resumes the drain once it completes.
+     */
+    private static void drain(Mailbox mailbox) {
+        do {
+            CompletableFuture<?> stage = mailbox.queue.poll().get();
+            if (!stage.isDone()) {
+                stage.whenComplete((result, error) -> {
+                    if (mailbox.wip.decrementAndGet() != 0) {
+                        drain(mailbox);
+                    }
+                });
+                return;
+            }
+        } while (mailbox.wip.decrementAndGet() != 0);
+    }
+
+    /**
+     * Pending updates of a single task.
+     */
+    private static final class Mailbox {
+
+        private final Queue<Supplier<CompletableFuture<?>>> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // guarded by the map bin lock of the task id
+        private int pending;
+
+    }
+
+}
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.server.TaskStore;
+import io.github.a2ap.core.util.SizeEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TaskStore keeping recently used tasks on heap in front of a cold store, typically a
+ * {@link FileTaskStore} on disk.
+ * <p>
+ * Saves and loads are answered by the hot tier, which holds the task objects themselves,
+ * least recently used first. When the estimated size of the hot tier exceeds
+ * {@code maxHotBytes}, the least recently used tasks are demoted: they are dropped from
+ * the heap, whatever their state, since the cold store keeps them. A load missing the hot
+ * tier reads the task from the cold store and promotes it back to the hot tier.
+ * <p>
+ * Saves are written back to the cold store asynchronously, by a single background thread,
+ * every {@code writeBackInterval} and as soon as tasks are demoted. Until then the saved
+ * task stays reachable for loads, even once demoted, so heap usage is the hot tier plus
+ * the saves of at most one interval. Several saves of a task within an interval are
+ * written once. A failed write is retried on the next run.
+ * <p>
+ * The task manager keeps updating a task after saving it, so the cold store is written
+ * from a snapshot of the task, taken by the write-back thread when it writes the task
+ * rather than on every save. A snapshot may race with an update in progress; the update
+ * is followed by a save, which keeps the task pending and writes it again.
+ * <p>
+ * The task manager also saves the same task instance on every streamed event, so the
+ * size of a task is not estimated on every save either: it is estimated when the instance
+ * is first stored, again on its 2nd, 4th, 8th... save, and when it turns terminal. A
+ * growing task is thus accounted for with at most a few estimates of its whole size.
+ */
+public class TieredTaskStore implements TaskStore, AutoCloseable {
+
+    /**
+     * The default maximum estimated size of the tasks kept on heap.
+     */
+    public static final long DEFAULT_MAX_HOT_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * The default interval at which saves are written to the cold store.
+     */
+    public static final Duration DEFAULT_WRITE_BACK_INTERVAL = Duration.ofSeconds(1);
+
+    private static final Logger log = LoggerFactory.getLogger(TieredTaskStore.class);
+
+    private final TaskStore coldStore;
+
+    private final long maxHotBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Hot tasks, least recently used first, guarded by the lock
+    private final LinkedHashMap<String, Entry> hot = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Saves not yet written to the cold store
+    private final Map<String, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    private final Scheduler scheduler;
+
+    private final Disposable writeBackTimer;
+
+    private long hotBytes;
+
+    // Incremented on every demotion, guarded by the lock
+    private long demotions;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong promotions = new AtomicLong();
+
+    private final AtomicLong writes = new AtomicLong();
+
+    private final AtomicLong writeErrors = new AtomicLong();
+
+    /**
+     * Creates a store spilling tasks to a {@link FileTaskStore} in the given directory.
+     *
+     * @param directory   The directory of the cold tier, created if it does not exist.
+     * @param maxHotBytes The maximum estimated size of the tasks kept on heap.
+     */
+    public TieredTaskStore(Path directory, long maxHotBytes) {
+        this(new FileTaskStore(directory), maxHotBytes, DEFAULT_WRITE_BACK_INTERVAL);
+    }
+
+    /**
+     * Creates a store in front of the given cold store.
+     *
+     * @param coldStore         The store keeping every task, read on hot tier misses.
+     * @param maxHotBytes       The maximum estimated size of the tasks kept on heap.
+     * @param writeBackInterval The maximum time a save waits to be written to the cold
+     *                          store.
+     */
+    public TieredTaskStore(TaskStore coldStore, long maxHotBytes, Duration writeBackInterval) {
+        if (coldStore == null) {
+            throw new IllegalArgumentException("coldStore must not be null");
+        }
+        if (maxHotBytes <= 0) {
+            throw new IllegalArgumentException("maxHotBytes must be greater than 0");
+        }
+        if (writeBackInterval == null || writeBackInterval.isNegative() || writeBackInterval.isZero()) {
+            throw new IllegalArgumentException("writeBackInterval must be positive");
+        }
+        this.coldStore = coldStore;
+        this.maxHotBytes = maxHotBytes;
+        this.scheduler = Schedulers.newSingle("a2a-task-store-write-back", true);
+        long period = writeBackInterval.toMillis();
+        this.writeBackTimer = scheduler.schedulePeriodically(this::writeBack, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(Task task) {
+        TaskState state = task.getStatus() == null ? null : task.getStatus().getState();
+        boolean terminal = state != null && state.isTerminal();
+        PendingWrite write = new PendingWrite(task);
+        boolean demoted;
+        lock.lock();
+        try {
+            Entry previous = hot.get(task.getId());
+            Entry next;
+            if (previous != null && previous.task == task) {
+                int saves = previous.saves + 1;
+                boolean estimate = (saves & (saves - 1)) == 0 || (terminal && !previous.terminal);
+                next = new Entry(task, estimate ? SizeEstimator.estimate(task) : previous.size, saves, terminal);
+            } else {
+                next = new Entry(task, SizeEstimator.estimate(task), 1, terminal);
+            }
+            hot.put(task.getId(), next);
+            if (previous != null) {
+                hotBytes -= previous.size;
+            }
+            hotBytes += next.size;
+            pending.put(task.getId(), write);
+            demoted = demote();
+        } finally {
+            lock.unlock();
+        }
+        if (demoted) {
+            scheduleWriteBack();
+        }
+    }
+
+    @Override
+    public Task load(String taskId) {
+        if (taskId == null) {
+            log.warn("task Id is null.");
+            return null;
+        }
+        long demotionsBefore;
+        lock.lock();
+        try {
+            Entry entry = hot.get(taskId);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.task;
+            }
+            demotionsBefore = demotions;
+        } finally {
+            lock.unlock();
+        }
+        PendingWrite write = pending.get(taskId);
+        if (write != null) {
+            hits.incrementAndGet();
+            return write.task;
+        }
+        misses.incrementAndGet();
+        Task task = coldStore.load(taskId);
+        if (task == null) {
+            return null;
+        }
+        boolean demoted;
+        lock.lock();
+        try {
+            Entry entry = hot.get(taskId);
+            if (entry != null) {
+                // saved meanwhile
+                return entry.task;
+            }
+            if (demotions != demotionsBefore) {
+                // a newer version may have been saved and demoted while reading, do not promote
+                return task;
+            }
+            TaskState state = task.getStatus() == null ? null : task.getStatus().getState();
+            Entry promoted = new Entry(task, SizeEstimator.estimate(task), 1, state != null && state.isTerminal());
+            hot.put(taskId, promoted);
+            hotBytes += promoted.size;
+            promotions.incrementAndGet();
+            demoted = demote();
+        } finally {
+            lock.unlock();
+        }
+        if (demoted) {
+            scheduleWriteBack();
+        }
+        return task;
+    }
+
+    /**
+     * Writes all pending saves to the cold store.
+     *
+     * @throws RuntimeException if the cold store fails to save a task, the remaining saves
+     *                          stay pending
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            for (Map.Entry<String, PendingWrite> candidate : pending.entrySet()) {
+                write(candidate.getKey(), candidate.getValue());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the write-back thread, writes all pending saves to the cold store and closes
+     * the cold store if it is {@link AutoCloseable}.
+     *
+     * @throws Exception if the cold store fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        writeBackTimer.dispose();
+        try {
+            flush();
+        } finally {
+            scheduler.dispose();
+            if (coldStore instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tasks kept on heap.
+     *
+     * @return the number of hot tasks
+     */
+    public int getHotCount() {
+        lock.lock();
+        try {
+            return hot.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated size of the tasks kept on heap.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getHotBytes() {
+        lock.lock();
+        try {
+            return hotBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks with saves not yet written to the cold store.
+     *
+     * @return the number of pending tasks
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of loads answered from the heap.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of loads that read the cold store.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of tasks read from the cold store and kept on heap.
+     *
+     * @return the number of promotions
+     */
+    public long getPromotionCount() {
+        return promotions.get();
+    }
+
+    /**
+     * Returns the number of tasks dropped from the heap to stay within
+     * {@code maxHotBytes}.
+     *
+     * @return the number of demotions
+     */
+    public long getDemotionCount() {
+        lock.lock();
+        try {
+            return demotions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of writes performed on the cold store.
+     *
+     * @return the number of writes
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    /**
+     * Returns the number of writes that failed.
+     *
+     * @return the number of failed writes
+     */
+    public long getWriteErrorCount() {
+        return writeErrors.get();
+    }
+
+    /**
+     * Drops the least recently used tasks until the hot tier is within its limit, keeping
+     * at least the most recently used one. Called with the lock held.
+     *
+     * @return true if a task was demoted
+     */
+    private boolean demote() {
+        boolean demoted = false;
+        Iterator<Entry> eldest = hot.values().iterator();
+        while (hotBytes > maxHotBytes && hot.size() > 1) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            hotBytes -= entry.size;
+            demotions++;
+            demoted = true;
+        }
+        return demoted;
+    }
+
+    private void scheduleWriteBack() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.schedule(this::writeBack);
+            } catch (RuntimeException e) {
+                // closed, the pending saves are flushed by close()
+                writeScheduled.set(false);
+            }
+        }
+    }
+
+    private void writeBack() {
+        writeScheduled.set(false);
+        writeLock.lock();
+        try {
+            for (Map.Entry<String, PendingWrite> candidate : pending.entrySet()) {
+                try {
+                    write(candidate.getKey(), candidate.getValue());
+                } catch (ConcurrentModificationException e) {
+                    // the task was being updated while copied, it is retried on the next run
+                    log.debug("Task {} changed while written, retrying.", candidate.getKey());
+                } catch (RuntimeException e) {
+                    // keep the save pending, it is retried on the next run
+                    log.error("Failed to write task {} to {}: {}", candidate.getKey(),
+                        coldStore.getClass().getSimpleName(), e.getMessage(), e);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Snapshots a pending save and writes it to the cold store, called with the write lock
+     * held so writes of the same task never run concurrently. The save stays pending if the
+     * task was saved again meanwhile, its latest changes may not have been written.
+     */
+    private void write(String taskId, PendingWrite write) {
+        Task snapshot = TaskSnapshot.of(write.task);
+        try {
+            coldStore.save(snapshot);
+        } catch (RuntimeException e) {
+            writeErrors.incrementAndGet();
+            throw e;
+        }
+        writes.incrementAndGet();
+        pending.remove(taskId, write);
+    }
+
+    /**
+     * A task kept on heap, with the number of saves of the instance and whether it was
+     * terminal when last estimated. Guarded by the store lock.
+     */
+    private static final class Entry {
+
+        private final Task task;
+
+        private final long size;
+
+        private final int saves;
+
+        private final boolean terminal;
+
+        private Entry(Task task, long size, int saves, boolean terminal) {
+            this.task = task;
+            this.size = size;
+            this.saves = saves;
+            this.terminal = terminal;
+        }
+
+    }
+
+    /**
+     * A save not yet written to the cold store, one instance per save so that a newer save
+     * of the task is never mistaken for a written one.
+     */
+    private static final class PendingWrite {
+
+        private final Task task;
+
+        private PendingWrite(Task task) {
+            this.task = task;
+        }
+
+    }
+
+}
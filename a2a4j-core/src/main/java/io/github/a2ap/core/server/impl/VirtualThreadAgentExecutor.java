@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.RequestContext;
+import io.github.a2ap.core.server.AgentExecutor;
+import io.github.a2ap.core.server.EventQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AgentExecutor decorator for agents that call blocking APIs.
+ * <p>
+ * Both {@link #execute(RequestContext, EventQueue)} and {@link #cancel(String)} of the
+ * delegate are invoked and subscribed on a dedicated thread per call, so blocking inside
+ * the agent never holds one of Reactor's shared event loop threads. On Java 21 and later
+ * each call gets its own virtual thread; on older runtimes the decorator falls back to
+ * {@link Schedulers#boundedElastic()}.
+ * <p>
+ * Agents may publish to the {@link EventQueue} directly from these threads, the queue
+ * serializes concurrent emissions.
+ */
+public class VirtualThreadAgentExecutor implements AgentExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadAgentExecutor.class);
+
+    private static final Method VIRTUAL_THREAD_FACTORY_METHOD = findVirtualThreadFactoryMethod();
+
+    private final AgentExecutor delegate;
+
+    private final Scheduler scheduler;
+
+    /**
+     * Constructs a new VirtualThreadAgentExecutor running the delegate on virtual threads,
+     * or on the bounded elastic scheduler when virtual threads are not available.
+     *
+     * @param delegate The AgentExecutor running the agent logic.
+     */
+    public VirtualThreadAgentExecutor(AgentExecutor delegate) {
+        this(delegate, createScheduler());
+    }
+
+    /**
+     * Constructs a new VirtualThreadAgentExecutor running the delegate on the given scheduler.
+     *
+     * @param delegate  The AgentExecutor running the agent logic.
+     * @param scheduler The Scheduler to run the delegate on.
+     */
+    public VirtualThreadAgentExecutor(AgentExecutor delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<Void> execute(RequestContext context, EventQueue eventQueue) {
+        return Mono.defer(() -> delegate.execute(context, eventQueue)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> cancel(String taskId) {
+        return Mono.defer(() -> delegate.cancel(taskId)).subscribeOn(scheduler);
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     *
+     * @return true if virtual threads are available, false otherwise
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_THREAD_FACTORY_METHOD != null;
+    }
+
+    private static Scheduler createScheduler() {
+        if (VIRTUAL_THREAD_FACTORY_METHOD != null) {
+            try {
+                ExecutorService executorService = (ExecutorService) VIRTUAL_THREAD_FACTORY_METHOD.invoke(null);
+                log.info("Running agents on virtual threads.");
+                return Schedulers.fromExecutorService(executorService, "a2a-agent-virtual");
+            } catch (ReflectiveOperationException e) {
+                log.warn("Failed to create virtual thread executor: {}", e.getMessage(), e);
+            }
+        }
+        log.warn("Virtual threads are not available on Java {}, running agents on the bounded elastic scheduler.",
+            Runtime.version().feature());
+        return Schedulers.boundedElastic();
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively, as the
+     * project is compiled for Java 17.
+     *
+     * @return the factory method, or null if not supported
+     */
+    private static Method findVirtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
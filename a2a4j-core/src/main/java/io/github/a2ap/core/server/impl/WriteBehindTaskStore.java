@@ -0,0 +1,294 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.server.TaskStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TaskStore decorator that coalesces intermediate saves of a task.
+ * <p>
+ * A streaming task saves itself on every status and artifact event. This store keeps
+ * the latest version of a task in memory and writes it to the delegate store only:
+ * <ul>
+ * <li>when the task reaches a terminal state, or is waiting for input or authentication,
+ * right away</li>
+ * <li>when {@code maxPendingSaves} saves have been coalesced for the task</li>
+ * <li>when the first coalesced save is older than {@code flushInterval}</li>
+ * <li>on {@link #flush()} and {@link #close()}</li>
+ * </ul>
+ * Loads of a task with pending saves are answered from memory, so readers always see the
+ * latest version. Writes of the same task to the delegate never run concurrently.
+ * <p>
+ * The task manager keeps updating a task after saving it, so the delegate is written
+ * from a snapshot of the task, taken when the write happens rather than on every save.
+ * A snapshot taken by the flush timer may race with an update in progress; the update is
+ * followed by a save, which writes the task again. A delegate that writes only what
+ * changed since the previous save, such as {@link JdbcTaskStore}, sees a new task on
+ * every write and writes it in full.
+ */
+public class WriteBehindTaskStore implements TaskStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindTaskStore.class);
+
+    private final TaskStore delegate;
+
+    private final Duration flushInterval;
+
+    private final int maxPendingSaves;
+
+    private final Scheduler scheduler;
+
+    private final Disposable flushTimer;
+
+    private final Map<String, PendingSave> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong saves = new AtomicLong();
+
+    private final AtomicLong writes = new AtomicLong();
+
+    private final AtomicLong writeErrors = new AtomicLong();
+
+    private final AtomicLong maxFlushLagNanos = new AtomicLong();
+
+    /**
+     * Constructs a new WriteBehindTaskStore.
+     *
+     * @param delegate        The TaskStore the coalesced saves are written to.
+     * @param flushInterval   The maximum time a save stays pending.
+     * @param maxPendingSaves The maximum number of saves coalesced for a task.
+     */
+    public WriteBehindTaskStore(TaskStore delegate, Duration flushInterval, int maxPendingSaves) {
+        if (flushInterval == null || flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        if (maxPendingSaves <= 0) {
+            throw new IllegalArgumentException("maxPendingSaves must be greater than 0");
+        }
+        this.delegate = delegate;
+        this.flushInterval = flushInterval;
+        this.maxPendingSaves = maxPendingSaves;
+        this.scheduler = Schedulers.newSingle("a2a-task-store-write-behind", true);
+        long period = Math.max(1, flushInterval.toMillis() / 2);
+        this.flushTimer = scheduler.schedulePeriodically(this::flushExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(Task task) {
+        saves.incrementAndGet();
+        TaskState state = task.getStatus() == null ? null : task.getStatus().getState();
+        boolean flushNow = state != null && (state.isTerminal() || state.isInterrupted());
+        pending.compute(task.getId(), (id, entry) -> {
+            PendingSave next = entry == null ? new PendingSave(System.nanoTime()) : entry;
+            next.task = task;
+            next.count++;
+            if (flushNow || next.count >= maxPendingSaves) {
+                write(next);
+                return null;
+            }
+            return next;
+        });
+    }
+
+    @Override
+    public Task load(String taskId) {
+        if (taskId == null) {
+            return delegate.load(null);
+        }
+        PendingSave entry = pending.get(taskId);
+        if (entry != null) {
+            Task task = entry.task;
+            if (task != null) {
+                return task;
+            }
+        }
+        return delegate.load(taskId);
+    }
+
+    /**
+     * Writes all pending saves to the delegate store.
+     *
+     * @throws RuntimeException if the delegate fails to save a task, the remaining saves
+     *                          stay pending
+     */
+    public void flush() {
+        for (String taskId : pending.keySet()) {
+            pending.computeIfPresent(taskId, (id, entry) -> {
+                write(entry);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Stops the flush timer, writes all pending saves to the delegate store and closes the
+     * delegate if it is {@link AutoCloseable}.
+     *
+     * @throws Exception if the delegate fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        flushTimer.dispose();
+        try {
+            flush();
+        } finally {
+            scheduler.dispose();
+            if (delegate instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the store the coalesced saves are written to.
+     *
+     * @return the delegate store
+     */
+    public TaskStore getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the number of tasks with saves not yet written to the delegate.
+     *
+     * @return the number of pending tasks
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of saves requested.
+     *
+     * @return the number of saves
+     */
+    public long getSaveCount() {
+        return saves.get();
+    }
+
+    /**
+     * Returns the number of writes performed on the delegate store.
+     *
+     * @return the number of writes
+     */
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    /**
+     * Returns the number of writes that failed.
+     *
+     * @return the number of failed writes
+     */
+    public long getWriteErrorCount() {
+        return writeErrors.get();
+    }
+
+    /**
+     * Returns the longest time a save stayed pending before it was written.
+     *
+     * @return the maximum flush lag
+     */
+    public Duration getMaxFlushLag() {
+        return Duration.ofNanos(maxFlushLagNanos.get());
+    }
+
+    /**
+     * Returns how long the oldest pending save has been waiting.
+     *
+     * @return the current flush lag, zero if nothing is pending
+     */
+    public Duration getCurrentFlushLag() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (PendingSave entry : pending.values()) {
+            oldest = Math.min(oldest, entry.since);
+        }
+        return Duration.ofNanos(now - oldest);
+    }
+
+    private void flushExpired() {
+        long deadline = System.nanoTime() - flushInterval.toNanos();
+        for (Map.Entry<String, PendingSave> candidate : pending.entrySet()) {
+            if (candidate.getValue().since <= deadline) {
+                pending.computeIfPresent(candidate.getKey(), (id, entry) -> {
+                    try {
+                        write(entry);
+                        return null;
+                    } catch (ConcurrentModificationException e) {
+                        // the task was being updated while copied, it is retried on the next run
+                        log.debug("Task {} changed while written, retrying.", id);
+                        return entry;
+                    } catch (RuntimeException e) {
+                        // keep the save pending, it is retried on the next run
+                        log.error("Failed to write task {} to {}: {}", id, delegate.getClass().getSimpleName(),
+                            e.getMessage(), e);
+                        return entry;
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Snapshots a pending save and writes it to the delegate. Called within the map compute
+     * of the task id, so writes of the same task are serialized. If the write fails, the
+     * exception is rethrown and the save stays pending.
+     */
+    private void write(PendingSave entry) {
+        Task snapshot = TaskSnapshot.of(entry.task);
+        try {
+            delegate.save(snapshot);
+        } catch (RuntimeException e) {
+            writeErrors.incrementAndGet();
+            throw e;
+        }
+        writes.incrementAndGet();
+        maxFlushLagNanos.accumulateAndGet(System.nanoTime() - entry.since, Math::max);
+    }
+
+    /**
+     * Latest unsaved version of a task, returned to readers and written to the delegate.
+     */
+    private static final class PendingSave {
+
+        private final long since;
+
+        private volatile Task task;
+
+        private int count;
+
+        private PendingSave(long since) {
+            this.since = since;
+        }
+
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a task store wrote of a task: the identity of its fields and the sizes of its
+ * lists, used to write only what changed on the next save.
+ * <p>
+ * The task manager updates a task in place: it replaces the status, appends messages to
+ * the history, adds or replaces artifacts and appends parts to artifacts. Comparing the
+ * size and the last element of each list with the previous save is then enough to find
+ * what was added, without comparing the content of the task.
+ */
+final class WrittenTask {
+
+    private final Task task;
+
+    private final String contextId;
+
+    private final Map<String, Object> metadata;
+
+    private final TaskStatus status;
+
+    private final TaskState state;
+
+    private final int historySize;
+
+    private final Message lastMessage;
+
+    private final Artifact[] artifacts;
+
+    private final int[] partCounts;
+
+    private final Part[] lastParts;
+
+    WrittenTask(Task task) {
+        this.task = task;
+        this.contextId = task.getContextId();
+        this.metadata = task.getMetadata();
+        this.status = task.getStatus();
+        this.state = status == null ? null : status.getState();
+        List<Message> history = task.getHistory();
+        this.historySize = history == null ? 0 : history.size();
+        this.lastMessage = historySize == 0 ? null : history.get(historySize - 1);
+        List<Artifact> taskArtifacts = task.getArtifacts();
+        int count = taskArtifacts == null ? 0 : taskArtifacts.size();
+        this.artifacts = new Artifact[count];
+        this.partCounts = new int[count];
+        this.lastParts = new Part[count];
+        if (count > 0) {
+            int i = 0;
+            for (Artifact artifact : taskArtifacts) {
+                List<Part> parts = artifact.getParts();
+                artifacts[i] = artifact;
+                partCounts[i] = parts == null ? 0 : parts.size();
+                lastParts[i] = partCounts[i] == 0 ? null : parts.get(partCounts[i] - 1);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Returns the changes of the task since it was written.
+     *
+     * @param current The task being saved.
+     * @return the changes, {@link Changes#FULL} if they are not appends, null if nothing
+     *         changed
+     */
+    Changes diff(Task current) {
+        if (current != task || current.getContextId() != contextId || current.getMetadata() != metadata) {
+            return Changes.FULL;
+        }
+        TaskStatus currentStatus = current.getStatus();
+        boolean statusChanged = currentStatus != status
+            || (currentStatus != null && currentStatus.getState() != state);
+
+        List<Message> history = current.getHistory();
+        int size = history == null ? 0 : history.size();
+        if (size < historySize || (historySize > 0 && history.get(historySize - 1) != lastMessage)) {
+            return Changes.FULL;
+        }
+        int historyFrom = size > historySize ? historySize : -1;
+
+        List<Artifact> currentArtifacts = current.getArtifacts();
+        int count = currentArtifacts == null ? 0 : currentArtifacts.size();
+        if (count < artifacts.length) {
+            return Changes.FULL;
+        }
+        List<ArtifactChange> artifactChanges = Collections.emptyList();
+        if (count > 0) {
+            Iterator<Artifact> iterator = currentArtifacts.iterator();
+            for (int i = 0; i < count; i++) {
+                ArtifactChange change = diff(i, iterator.next());
+                if (change != null) {
+                    if (artifactChanges.isEmpty()) {
+                        artifactChanges = new ArrayList<>();
+                    }
+                    artifactChanges.add(change);
+                }
+            }
+        }
+        if (!statusChanged && historyFrom < 0 && artifactChanges.isEmpty()) {
+            return null;
+        }
+        return new Changes(false, statusChanged, historyFrom, artifactChanges);
+    }
+
+    private ArtifactChange diff(int index, Artifact artifact) {
+        if (index >= artifacts.length || artifact != artifacts[index]) {
+            return new ArtifactChange(index, -1);
+        }
+        List<Part> parts = artifact.getParts();
+        int size = parts == null ? 0 : parts.size();
+        int written = partCounts[index];
+        if (size < written || (written > 0 && parts.get(written - 1) != lastParts[index])) {
+            return new ArtifactChange(index, -1);
+        }
+        return size > written ? new ArtifactChange(index, written) : null;
+    }
+
+    /**
+     * The changes of a task since it was written.
+     */
+    static final class Changes {
+
+        /**
+         * Changes that are not appends: the whole task has to be written again.
+         */
+        static final Changes FULL = new Changes(true, false, -1, Collections.emptyList());
+
+        private final boolean full;
+
+        private final boolean statusChanged;
+
+        private final int historyFrom;
+
+        private final List<ArtifactChange> artifacts;
+
+        private Changes(boolean full, boolean statusChanged, int historyFrom, List<ArtifactChange> artifacts) {
+            this.full = full;
+            this.statusChanged = statusChanged;
+            this.historyFrom = historyFrom;
+            this.artifacts = artifacts;
+        }
+
+        boolean isFull() {
+            return full;
+        }
+
+        boolean isStatusChanged() {
+            return statusChanged;
+        }
+
+        /**
+         * Returns the position of the first message added to the history, -1 if none.
+         */
+        int getHistoryFrom() {
+            return historyFrom;
+        }
+
+        /**
+         * Returns the changed artifacts in the order of their positions.
+         */
+        List<ArtifactChange> getArtifacts() {
+            return artifacts;
+        }
+
+    }
+
+    /**
+     * A new or replaced artifact, or parts appended to an artifact.
+     */
+    static final class ArtifactChange {
+
+        private final int index;
+
+        private final int partsFrom;
+
+        private ArtifactChange(int index, int partsFrom) {
+            this.index = index;
+            this.partsFrom = partsFrom;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns whether the whole artifact has to be written, because it is new or was
+         * replaced.
+         */
+        boolean isReplaced() {
+            return partsFrom < 0;
+        }
+
+        /**
+         * Returns the position of the first part appended to the artifact, -1 if it was
+         * replaced.
+         */
+        int getPartsFrom() {
+            return partsFrom;
+        }
+
+    }
+
+}
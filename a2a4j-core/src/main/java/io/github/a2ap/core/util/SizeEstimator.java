@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.util;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.FilePart;
+import io.github.a2ap.core.model.FileWithBytes;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.SendStreamingMessageResponse;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TaskStatusUpdateEvent;
+import io.github.a2ap.core.model.TextPart;
+
+import java.util.List;
+
+/**
+ * Utility class estimating the memory held by tasks and events.
+ * 
+ * The estimate counts the text and inline file content of the parts, two bytes per
+ * character, plus a fixed overhead per object. It is meant to bound buffers and caches,
+ * not to measure the heap exactly.
+ */
+public final class SizeEstimator {
+
+    /**
+     * Rough overhead of an event, message, artifact or part.
+     */
+    public static final int OBJECT_OVERHEAD_BYTES = 256;
+
+    private SizeEstimator() {
+    }
+
+    /**
+     * Estimates the memory held by an event or a task.
+     *
+     * @param event The event.
+     * @return the estimated size in bytes
+     */
+    public static long estimate(SendStreamingMessageResponse event) {
+        long size = OBJECT_OVERHEAD_BYTES;
+        if (event instanceof Message message) {
+            size += estimate(message.getParts());
+        } else if (event instanceof TaskStatusUpdateEvent statusEvent) {
+            size += estimate(statusEvent.getStatus());
+        } else if (event instanceof TaskArtifactUpdateEvent artifactEvent) {
+            if (artifactEvent.getArtifact() != null) {
+                size += estimate(artifactEvent.getArtifact().getParts());
+            }
+        } else if (event instanceof Task task) {
+            size += estimate(task.getStatus());
+            if (task.getHistory() != null) {
+                for (Message message : task.getHistory()) {
+                    size += OBJECT_OVERHEAD_BYTES + estimate(message.getParts());
+                }
+            }
+            if (task.getArtifacts() != null) {
+                for (Artifact artifact : task.getArtifacts()) {
+                    size += OBJECT_OVERHEAD_BYTES + estimate(artifact.getParts());
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the memory held by a list of parts.
+     *
+     * @param parts The parts, may be null.
+     * @return the estimated size in bytes
+     */
+    public static long estimate(List<Part> parts) {
+        if (parts == null) {
+            return 0;
+        }
+        long size = 0;
+        for (Part part : parts) {
+            size += OBJECT_OVERHEAD_BYTES;
+            if (part instanceof TextPart textPart && textPart.getText() != null) {
+                size += 2L * textPart.getText().length();
+            } else if (part instanceof FilePart filePart && filePart.getFile() instanceof FileWithBytes file
+                && file.getBytes() != null) {
+                size += 2L * file.getBytes().length();
+            }
+        }
+        return size;
+    }
+
+    private static long estimate(TaskStatus status) {
+        if (status == null || status.getMessage() == null) {
+            return 0;
+        }
+        return estimate(status.getMessage().getParts());
+    }
+
+}
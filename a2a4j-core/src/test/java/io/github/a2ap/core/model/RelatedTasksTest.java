@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.model;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RelatedTasksTest {
+
+    @Test
+    void testLoadsTasksOnlyWhenRead() {
+        Map<String, Task> store = Map.of("t1", task("t1"), "t2", task("t2"), "t3", task("t3"));
+        List<String> loads = new ArrayList<>();
+        RelatedTasks relatedTasks = new RelatedTasks(List.of("t1", "t2", "gone", "t3"), id -> {
+            loads.add(id);
+            return store.get(id);
+        });
+
+        assertEquals(List.of("t1", "t2", "gone", "t3"), relatedTasks.getTaskIds());
+        assertTrue(relatedTasks.toString().contains("gone"));
+        assertTrue(loads.isEmpty());
+
+        assertEquals(List.of(store.get("t2")), relatedTasks.page(1, 2));
+        assertEquals(List.of("t2", "gone"), loads);
+        assertFalse(relatedTasks.isLoaded());
+
+        // the tasks no longer stored are left out
+        assertEquals(3, relatedTasks.size());
+        assertEquals("t3", relatedTasks.get(2).getId());
+        assertTrue(relatedTasks.isLoaded());
+        assertEquals(6, loads.size());
+    }
+
+    @Test
+    void testPagesWithoutBlocking() {
+        Map<String, Task> store = Map.of("t1", task("t1"), "t3", task("t3"));
+        RelatedTasks relatedTasks = RelatedTasks.ofAsync(List.of("t1", "gone", "t3"),
+            id -> Mono.justOrEmpty(store.get(id)));
+
+        StepVerifier.create(relatedTasks.pageAsync(1, 5))
+            .expectNext(store.get("t3"))
+            .verifyComplete();
+        StepVerifier.create(relatedTasks.pageAsync(3, 1)).verifyComplete();
+        assertEquals(List.of(store.get("t1"), store.get("t3")), relatedTasks);
+    }
+
+    @Test
+    void testRequestContextsCompareRelatedTasksWithoutLoadingThem() {
+        List<String> loads = new ArrayList<>();
+        RelatedTasks relatedTasks = new RelatedTasks(List.of("t1", "t2"), id -> {
+            loads.add(id);
+            return task(id);
+        });
+        RequestContext context = RequestContext.builder().taskId("t3").contextId("c1")
+            .relatedTasks(relatedTasks).build();
+        RequestContext same = RequestContext.builder().taskId("t3").contextId("c1")
+            .relatedTasks(new RelatedTasks(List.of("t1", "t2"), RelatedTasksTest::task)).build();
+        RequestContext other = RequestContext.builder().taskId("t3").contextId("c1")
+            .relatedTasks(new RelatedTasks(List.of("t1"), RelatedTasksTest::task)).build();
+
+        assertEquals(same, context);
+        assertEquals(same.hashCode(), context.hashCode());
+        assertNotEquals(other, context);
+        assertTrue(context.toString().contains("t2"));
+        assertTrue(loads.isEmpty());
+        assertFalse(relatedTasks.isLoaded());
+    }
+
+    @Test
+    void testRejectsBlockingReadsOnNonBlockingThreads() {
+        RelatedTasks relatedTasks = RelatedTasks.ofAsync(List.of("t1"),
+            id -> Mono.fromCallable(() -> task(id)).subscribeOn(Schedulers.boundedElastic()));
+
+        StepVerifier.create(Mono.fromCallable(relatedTasks::size).subscribeOn(Schedulers.parallel()))
+            .verifyError(IllegalStateException.class);
+        assertFalse(relatedTasks.isLoaded());
+        assertEquals(1, relatedTasks.size());
+    }
+
+    private static Task task(String id) {
+        return Task.builder().id(id).contextId("c1").build();
+    }
+
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.SendStreamingMessageResponse;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TaskStatusUpdateEvent;
+import io.github.a2ap.core.model.TextPart;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventQueueTest {
+
+    @Test
+    void testBuffersEventsUntilFirstSubscriber() {
+        EventQueue queue = new EventQueue(8, EventQueue.OverflowPolicy.BLOCK);
+        queue.enqueueEvent(status(TaskState.SUBMITTED, false));
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        queue.close();
+
+        StepVerifier.create(queue.asFlux())
+            .expectNextMatches(event -> state(event) == TaskState.SUBMITTED)
+            .expectNextMatches(event -> state(event) == TaskState.WORKING)
+            .verifyComplete();
+        assertEquals(0, queue.getSize());
+        assertEquals(2, queue.getHighWaterMark());
+    }
+
+    @Test
+    void testBlockWaitsForSlowSubscriber() throws Exception {
+        EventQueue queue = new EventQueue(4, EventQueue.OverflowPolicy.BLOCK);
+        CompletableFuture<List<SendStreamingMessageResponse>> received = queue.asFlux()
+            .publishOn(Schedulers.parallel(), 1)
+            .delayElements(Duration.ofMillis(1))
+            .collectList()
+            .toFuture();
+
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 100; i++) {
+                queue.enqueueEvent(artifact(String.valueOf(i), i > 0));
+            }
+            queue.close();
+        });
+
+        List<SendStreamingMessageResponse> events = received.get(10, TimeUnit.SECONDS);
+        assertEquals(100, events.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), text(events.get(i)));
+        }
+        assertTrue(queue.getHighWaterMark() <= 4);
+    }
+
+    @Test
+    void testBlockGivesUpAfterOfferTimeout() {
+        EventQueue queue = EventQueue.builder()
+            .capacity(2)
+            .overflowPolicy(EventQueue.OverflowPolicy.BLOCK)
+            .offerTimeout(Duration.ofMillis(50))
+            .build();
+        queue.enqueueEvent(status(TaskState.SUBMITTED, false));
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+
+        // nobody subscribed to make room, intermediate events do not wait forever
+        assertThrows(IllegalStateException.class, () -> queue.enqueueEvent(status(TaskState.WORKING, false)));
+        // the final event takes the reserved slot
+        queue.enqueueEvent(status(TaskState.COMPLETED, true));
+        queue.close();
+
+        StepVerifier.create(queue.asFlux())
+            .expectNextMatches(event -> state(event) == TaskState.SUBMITTED)
+            .expectNextMatches(event -> state(event) == TaskState.WORKING)
+            .expectNextMatches(event -> state(event) == TaskState.COMPLETED)
+            .verifyComplete();
+    }
+
+    @Test
+    void testDropOldestKeepsFinalEvents() {
+        EventQueue queue = new EventQueue(3, EventQueue.OverflowPolicy.DROP_OLDEST);
+        queue.enqueueEvent(status(TaskState.SUBMITTED, false));
+        queue.enqueueEvent(artifact("a", false));
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        queue.enqueueEvent(status(TaskState.COMPLETED, true));
+        queue.close();
+
+        StepVerifier.create(queue.asFlux())
+            .expectNextMatches(event -> "a".equals(text(event)))
+            .expectNextMatches(event -> state(event) == TaskState.WORKING)
+            .expectNextMatches(event -> state(event) == TaskState.COMPLETED)
+            .verifyComplete();
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(3, queue.getHighWaterMark());
+    }
+
+    @Test
+    void testCoalesceMergesArtifactChunks() {
+        EventQueue queue = new EventQueue(2, EventQueue.OverflowPolicy.COALESCE);
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        queue.enqueueEvent(artifact("a", false));
+        queue.enqueueEvent(artifact("b", true));
+        queue.enqueueEvent(artifact("c", true));
+        queue.close();
+
+        StepVerifier.create(queue.asFlux())
+            .expectNextMatches(event -> state(event) == TaskState.WORKING)
+            .expectNextMatches(event -> {
+                TaskArtifactUpdateEvent chunk = (TaskArtifactUpdateEvent) event;
+                return chunk.getArtifact().getParts().size() == 3 && !Boolean.TRUE.equals(chunk.getAppend());
+            })
+            .verifyComplete();
+        assertEquals(2, queue.getCoalescedCount());
+    }
+
+    @Test
+    void testFailFastRejectsIntermediateEventsOnly() throws Exception {
+        EventQueue queue = new EventQueue(1, EventQueue.OverflowPolicy.FAIL_FAST);
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+
+        assertThrows(IllegalStateException.class, () -> queue.enqueueEvent(status(TaskState.WORKING, false)));
+
+        // the first final event takes the reserved slot, the next one waits for room
+        queue.enqueueEvent(TaskArtifactUpdateEvent.builder()
+            .taskId("t1")
+            .artifact(Artifact.builder().artifactId("a1").parts(List.of(TextPart.builder().text("a").build())).build())
+            .isFinal(true)
+            .build());
+        CompletableFuture<Void> finalEvent = CompletableFuture.runAsync(() -> {
+            queue.enqueueEvent(status(TaskState.COMPLETED, true));
+            queue.close();
+        });
+        Thread.sleep(50);
+        assertFalse(finalEvent.isDone());
+
+        List<SendStreamingMessageResponse> events = queue.asFlux().collectList().block(Duration.ofSeconds(5));
+        finalEvent.get(5, TimeUnit.SECONDS);
+        assertNotNull(events);
+        assertEquals(3, events.size());
+        assertEquals(TaskState.COMPLETED, state(events.get(events.size() - 1)));
+    }
+
+    @Test
+    void testLateSubscriberReceivesReplayWindow() {
+        EventQueue queue = EventQueue.builder().capacity(8).replayEvents(2).build();
+        queue.asFlux().subscribe();
+        for (int i = 0; i < 5; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i), i > 0));
+        }
+
+        StepVerifier.create(queue.asFlux())
+            .then(() -> {
+                queue.enqueueEvent(artifact("5", true));
+                queue.close();
+            })
+            .expectNextMatches(event -> "3".equals(text(event)))
+            .expectNextMatches(event -> "4".equals(text(event)))
+            .expectNextMatches(event -> "5".equals(text(event)))
+            .verifyComplete();
+        assertEquals(2, queue.getReplayWindowSize());
+        assertEquals(2, queue.getSize());
+    }
+
+    @Test
+    void testReplayWindowIsBoundedBySize() {
+        EventQueue queue = EventQueue.builder().capacity(8).replayEvents(8).replayBytes(2000).build();
+        queue.asFlux().subscribe();
+        for (int i = 0; i < 8; i++) {
+            queue.enqueueEvent(artifact("x".repeat(200), i > 0));
+        }
+
+        assertEquals(2, queue.getReplayWindowSize());
+        StepVerifier.create(queue.tap().asFlux().take(2))
+            .expectNextCount(2)
+            .verifyComplete();
+    }
+
+    @Test
+    void testReplayWindowDoesNotHoldBackProducers() {
+        EventQueue queue = EventQueue.builder().capacity(4).replayEvents(4).build();
+        List<SendStreamingMessageResponse> received = new ArrayList<>();
+        queue.asFlux().take(1).subscribe(received::add);
+        for (int i = 0; i < 10; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i), i > 0));
+        }
+        queue.close();
+
+        assertEquals(1, received.size());
+        assertEquals(List.of("6", "7", "8", "9"),
+            queue.asFlux().map(EventQueueTest::text).collectList().block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testResumesAfterLastSequence() {
+        EventQueue queue = EventQueue.builder().capacity(8).replayEvents(4).build();
+        List<Long> sequences = new ArrayList<>();
+        queue.asSequencedFlux().subscribe(event -> sequences.add(event.getSequence()));
+        for (int i = 0; i < 6; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i), i > 0));
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), sequences);
+        assertEquals(6, queue.getLastSequence());
+
+        StepVerifier.create(queue.tap().asSequencedFlux(4))
+            .expectNextMatches(event -> event.getSequence() == 5 && "4".equals(text(event.getEvent())))
+            .expectNextMatches(event -> event.getSequence() == 6)
+            .then(() -> {
+                queue.enqueueEvent(artifact("6", true));
+                queue.close();
+            })
+            .expectNextMatches(event -> event.getSequence() == 7)
+            .verifyComplete();
+
+        // The events after the first one are no longer buffered
+        StepVerifier.create(queue.asSequencedFlux(1))
+            .expectNextMatches(event -> event.getSequence() == 4)
+            .expectNextCount(3)
+            .verifyComplete();
+        assertThrows(IllegalArgumentException.class, () -> queue.asSequencedFlux(-1));
+    }
+
+    @Test
+    void testRelayedEventsKeepTheirSequence() {
+        EventQueue queue = EventQueue.builder().capacity(8).replayEvents(8).build();
+        queue.asFlux().subscribe();
+        queue.enqueueEvent(new SequencedEvent(5, artifact("a", false)));
+        queue.enqueueEvent(new SequencedEvent(5, artifact("a", true)));
+        queue.enqueueEvent(new SequencedEvent(7, artifact("b", true)));
+        queue.enqueueEvent(artifact("c", true));
+        queue.close();
+
+        StepVerifier.create(queue.tap().asSequencedFlux(5))
+            .expectNextMatches(event -> event.getSequence() == 7 && "b".equals(text(event.getEvent())))
+            .expectNextMatches(event -> event.getSequence() == 8 && "c".equals(text(event.getEvent())))
+            .verifyComplete();
+        assertEquals(8, queue.getLastSequence());
+    }
+
+    @Test
+    void testTappedQueuesShareTheBuffer() {
+        EventQueue queue = new EventQueue(4, EventQueue.OverflowPolicy.BLOCK);
+        List<List<SendStreamingMessageResponse>> received = new ArrayList<>();
+        List<EventQueue> taps = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            List<SendStreamingMessageResponse> events = new ArrayList<>();
+            received.add(events);
+            EventQueue tap = queue.tap();
+            taps.add(tap);
+            tap.asFlux().subscribe(events::add);
+        }
+        queue.asFlux().subscribe();
+        assertEquals(101, queue.getSubscriberCount());
+
+        for (int i = 0; i < 10; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i), i > 0));
+        }
+        taps.get(0).close();
+        queue.enqueueEvent(status(TaskState.COMPLETED, true));
+        queue.close();
+
+        assertEquals(10, received.get(0).size());
+        for (int i = 1; i < received.size(); i++) {
+            assertEquals(11, received.get(i).size());
+            assertSame(received.get(1).get(0), received.get(i).get(0));
+        }
+        assertTrue(taps.get(1).isClosed());
+        assertEquals(0, queue.getSubscriberCount());
+        assertEquals(0, queue.getSize());
+        assertTrue(queue.getHighWaterMark() <= 4);
+    }
+
+    @Test
+    void testCancelledSubscriberReleasesTheBuffer() {
+        EventQueue queue = new EventQueue(2, EventQueue.OverflowPolicy.FAIL_FAST);
+        queue.asFlux().subscribe();
+        // subscribers of the queue itself hold the producer back
+        Disposable stalled = queue.asFlux().subscribe(event -> { }, error -> { }, () -> { },
+            subscription -> { });
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        assertThrows(IllegalStateException.class, () -> queue.enqueueEvent(status(TaskState.WORKING, false)));
+
+        stalled.dispose();
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        assertEquals(1, queue.getSubscriberCount());
+        assertEquals(0, queue.getSize());
+    }
+
+    @Test
+    void testCutsOffStalledTapSubscribers() {
+        EventQueue queue = EventQueue.builder().capacity(4).replayEvents(2).build();
+        List<SendStreamingMessageResponse> received = new ArrayList<>();
+        queue.asFlux().subscribe(received::add);
+        StalledSubscriber stalled = new StalledSubscriber();
+        queue.tap().asSequencedFlux().subscribe(stalled);
+        EventQueue unsubscribed = queue.tap();
+        List<SequencedEvent> live = new ArrayList<>();
+        queue.tap().asSequencedFlux().subscribe(live::add);
+
+        // neither the subscriber that never requests nor the unsubscribed tap hold the producer back
+        for (int i = 0; i < 10; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i), false));
+        }
+        queue.enqueueEvent(status(TaskState.COMPLETED, true));
+
+        assertEquals(11, received.size());
+        assertEquals(11, live.size());
+        assertTrue(stalled.completed);
+        assertEquals(1, queue.getLaggedCount());
+        assertEquals(2, queue.getSubscriberCount());
+
+        // the stalled subscriber resumes from the events still buffered
+        StepVerifier.create(queue.tap().asSequencedFlux(0))
+            .then(queue::close)
+            .expectNextMatches(event -> event.getSequence() == 10 && "9".equals(text(event.getEvent())))
+            .expectNextMatches(event -> state(event.getEvent()) == TaskState.COMPLETED)
+            .verifyComplete();
+        StepVerifier.create(unsubscribed.asSequencedFlux())
+            .expectNextMatches(event -> event.getSequence() == 10)
+            .expectNextCount(1)
+            .verifyComplete();
+    }
+
+    private static TaskStatusUpdateEvent status(TaskState state, boolean isFinal) {
+        return TaskStatusUpdateEvent.builder()
+            .taskId("t1")
+            .status(TaskStatus.builder().state(state).build())
+            .isFinal(isFinal)
+            .build();
+    }
+
+    private static TaskArtifactUpdateEvent artifact(String text, boolean append) {
+        return TaskArtifactUpdateEvent.builder()
+            .taskId("t1")
+            .artifact(Artifact.builder()
+                .artifactId("a1")
+                .parts(List.of(TextPart.builder().text(text).build()))
+                .build())
+            .append(append)
+            .build();
+    }
+
+    private static final class StalledSubscriber extends BaseSubscriber<SequencedEvent> {
+
+        private volatile boolean completed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // never requests anything
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+
+    }
+
+    private static TaskState state(SendStreamingMessageResponse event) {
+        return event instanceof TaskStatusUpdateEvent status ? status.getStatus().getState() : null;
+    }
+
+    private static String text(SendStreamingMessageResponse event) {
+        return event instanceof TaskArtifactUpdateEvent chunk
+            ? ((TextPart) chunk.getArtifact().getParts().get(0)).getText() : null;
+    }
+
+}
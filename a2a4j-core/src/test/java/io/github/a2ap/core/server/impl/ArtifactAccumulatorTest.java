@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.DataPart;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtifactAccumulatorTest {
+
+    @Test
+    void testAppendsChunksInPlace() {
+        Task task = task();
+        ArtifactAccumulator accumulator = new ArtifactAccumulator(task);
+        assertTrue(accumulator.isFor(task));
+
+        assertFalse(accumulator.put(artifact("a1", "first")));
+        assertFalse(accumulator.put(artifact("a2", "other")));
+        List<Part> parts = null;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(accumulator.append(artifact("a1", "chunk")));
+            if (parts == null) {
+                parts = task.getArtifacts().get(0).getParts();
+            }
+            // the part list is copied once, then appended in place
+            assertSame(parts, task.getArtifacts().get(0).getParts());
+        }
+        assertFalse(accumulator.append(artifact("missing", "chunk")));
+
+        assertEquals(10_001, task.getArtifacts().get(0).getParts().size());
+        assertEquals(2, task.getArtifacts().size());
+
+        // replacing keeps the position of the artifact
+        assertTrue(accumulator.put(artifact("a1", "replaced")));
+        assertEquals("a1", task.getArtifacts().get(0).getArtifactId());
+        assertEquals(1, task.getArtifacts().get(0).getParts().size());
+
+        task.setArtifacts(new LinkedList<>());
+        assertFalse(accumulator.isFor(task));
+    }
+
+    @Test
+    void testDoesNotChangeArtifactsOfEvents() {
+        Task task = task();
+        ArtifactAccumulator accumulator = new ArtifactAccumulator(task);
+        Artifact first = artifact("a1", "Hello");
+        accumulator.put(first);
+        accumulator.append(artifact("a1", ", "));
+        accumulator.append(artifact("a1", "world"));
+        accumulator.mergeTextParts("a1");
+
+        assertNotSame(first, task.getArtifacts().get(0));
+        assertEquals(List.of(new TextPart("Hello, world")), task.getArtifacts().get(0).getParts());
+        assertEquals(List.of(new TextPart("Hello")), first.getParts());
+    }
+
+    @Test
+    void testMergesAdjacentTextParts() {
+        Task task = task();
+        ArtifactAccumulator accumulator = new ArtifactAccumulator(task);
+        accumulator.put(artifact("a1", "Hello"));
+        accumulator.append(artifact("a1", ", "));
+        accumulator.append(Artifact.builder()
+            .artifactId("a1")
+            .parts(List.of(DataPart.builder().data(Map.of("k", "v")).build()))
+            .build());
+        accumulator.append(artifact("a1", "world"));
+        accumulator.append(artifact("a1", "!"));
+
+        accumulator.mergeTextParts("a1");
+
+        List<Part> parts = task.getArtifacts().get(0).getParts();
+        assertEquals(3, parts.size());
+        assertEquals("Hello, ", ((TextPart) parts.get(0)).getText());
+        assertTrue(parts.get(1) instanceof DataPart);
+        assertEquals("world!", ((TextPart) parts.get(2)).getText());
+    }
+
+    @Test
+    void testTaskManagerMergesOnLastChunk() {
+        InMemoryTaskManager taskManager = new InMemoryTaskManager(
+            new ReactiveTaskStoreAdapter(new InMemoryTaskStore()), 0, true);
+        Task task = task();
+        taskManager.applyArtifactUpdate(task, event(artifact("a1", "Hel"), false, false)).block();
+        taskManager.applyArtifactUpdate(task, event(artifact("a1", "lo"), true, false)).block();
+        assertEquals(2, task.getArtifacts().get(0).getParts().size());
+
+        taskManager.applyArtifactUpdate(task, event(artifact("a1", "!"), true, true)).block();
+
+        assertEquals(List.of(new TextPart("Hello!")), task.getArtifacts().get(0).getParts());
+    }
+
+    private static TaskArtifactUpdateEvent event(Artifact artifact, boolean append, boolean lastChunk) {
+        return TaskArtifactUpdateEvent.builder()
+            .taskId("t1")
+            .artifact(artifact)
+            .append(append)
+            .lastChunk(lastChunk)
+            .build();
+    }
+
+    private static Artifact artifact(String artifactId, String text) {
+        return Artifact.builder()
+            .artifactId(artifactId)
+            .parts(List.of(TextPart.builder().text(text).build()))
+            .build();
+    }
+
+    private static Task task() {
+        return Task.builder()
+            .id("t1")
+            .contextId("c1")
+            .status(TaskStatus.builder().state(TaskState.WORKING).build())
+            .artifacts(new LinkedList<>())
+            .build();
+    }
+
+}
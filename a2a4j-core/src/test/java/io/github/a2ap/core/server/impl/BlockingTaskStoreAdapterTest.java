@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.server.ReactiveTaskStore;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BlockingTaskStoreAdapterTest {
+
+    @Test
+    void testSavesAndLoadsThroughTheReactiveStore() {
+        InMemoryTaskStore backingStore = new InMemoryTaskStore();
+        ReactiveTaskStore reactiveStore = new ReactiveTaskStoreAdapter(backingStore, Schedulers.boundedElastic());
+        BlockingTaskStoreAdapter adapter = new BlockingTaskStoreAdapter(reactiveStore);
+        Task task = task("t1");
+
+        adapter.save(task);
+        assertSame(task, backingStore.load("t1"));
+        assertSame(task, adapter.load("t1"));
+        assertNull(adapter.load("unknown"));
+        assertSame(reactiveStore, adapter.getDelegate());
+    }
+
+    @Test
+    void testFailsWhenTheReactiveStoreTimesOut() {
+        ReactiveTaskStore stuckStore = new ReactiveTaskStore() {
+            @Override
+            public Mono<Void> save(Task task) {
+                return Mono.never();
+            }
+
+            @Override
+            public Mono<Task> load(String taskId) {
+                return Mono.never();
+            }
+        };
+        BlockingTaskStoreAdapter adapter = new BlockingTaskStoreAdapter(stuckStore, Duration.ofMillis(50));
+
+        assertThrows(IllegalStateException.class, () -> adapter.save(task("t1")));
+        assertThrows(IllegalStateException.class, () -> adapter.load("t1"));
+    }
+
+    @Test
+    void testRejectsCallsOnNonBlockingThreads() {
+        BlockingTaskStoreAdapter adapter = new BlockingTaskStoreAdapter(
+            new ReactiveTaskStoreAdapter(new InMemoryTaskStore(), Schedulers.boundedElastic()));
+
+        StepVerifier.create(Mono.fromCallable(() -> adapter.load("t1")).subscribeOn(Schedulers.parallel()))
+            .verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        ReactiveTaskStore reactiveStore = new ReactiveTaskStoreAdapter(new InMemoryTaskStore());
+
+        assertThrows(IllegalArgumentException.class, () -> new BlockingTaskStoreAdapter(null));
+        assertThrows(IllegalArgumentException.class, () -> new BlockingTaskStoreAdapter(reactiveStore, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new BlockingTaskStoreAdapter(reactiveStore, null));
+        assertEquals(Duration.ofSeconds(30), BlockingTaskStoreAdapter.DEFAULT_TIMEOUT);
+    }
+
+    private static Task task(String id) {
+        return Task.builder().id(id).contextId("c1").build();
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.a2ap.core.exception.A2AError;
+import io.github.a2ap.core.jsonrpc.JSONRPCError;
+import io.github.a2ap.core.jsonrpc.JSONRPCRequest;
+import io.github.a2ap.core.jsonrpc.JSONRPCResponse;
+import io.github.a2ap.core.model.AgentCard;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.MessageSendParams;
+import io.github.a2ap.core.model.RequestContext;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.server.AgentExecutor;
+import io.github.a2ap.core.server.EventQueue;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.a2ap.core.server.impl.DefaultA2AServerTest.awaitCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedAgentExecutorTest {
+
+    private final Map<String, Sinks.Empty<Void>> executions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger started = new AtomicInteger();
+
+    private final AgentExecutor blockingAgent = new AgentExecutor() {
+        @Override
+        public Mono<Void> execute(RequestContext context, EventQueue eventQueue) {
+            started.incrementAndGet();
+            Sinks.Empty<Void> done = Sinks.empty();
+            executions.put(context.getTaskId(), done);
+            return done.asMono();
+        }
+
+        @Override
+        public Mono<Void> cancel(String taskId) {
+            return Mono.empty();
+        }
+    };
+
+    @Test
+    void testLimitsConcurrencyAndRejectsWhenQueueIsFull() {
+        BoundedAgentExecutor executor = new BoundedAgentExecutor(blockingAgent, 2, 1, Duration.ofSeconds(5));
+
+        Disposable first = executor.execute(context("t1"), null).subscribe();
+        Disposable second = executor.execute(context("t2"), null).subscribe();
+        Disposable third = executor.execute(context("t3"), null).subscribe();
+
+        assertEquals(2, started.get());
+        assertEquals(2, executor.getRunning());
+        assertEquals(1, executor.getWaiting());
+
+        A2AError error = assertThrows(A2AError.class, () -> executor.execute(context("t4"), null).block());
+        assertEquals(A2AError.SERVER_OVERLOADED, error.getCode());
+        assertEquals("t4", error.getTaskId());
+
+        // finishing a running execution hands its slot to the waiting one
+        executions.get("t1").tryEmitEmpty();
+        assertEquals(3, started.get());
+        assertEquals(2, executor.getRunning());
+        assertEquals(0, executor.getWaiting());
+
+        executions.get("t2").tryEmitEmpty();
+        executions.get("t3").tryEmitEmpty();
+        assertEquals(0, executor.getRunning());
+        first.dispose();
+        second.dispose();
+        third.dispose();
+    }
+
+    @Test
+    void testRejectsAfterQueueTimeout() {
+        BoundedAgentExecutor executor = new BoundedAgentExecutor(blockingAgent, 1, 1, Duration.ofMillis(50));
+        executor.execute(context("t1"), null).subscribe();
+
+        A2AError error = assertThrows(A2AError.class,
+            () -> executor.execute(context("t2"), null).block(Duration.ofSeconds(5)));
+
+        assertEquals(A2AError.SERVER_OVERLOADED, error.getCode());
+        assertEquals(1, started.get());
+        assertEquals(0, executor.getWaiting());
+    }
+
+    @Test
+    void testCancelledWaitingExecutionLeavesQueue() {
+        BoundedAgentExecutor executor = new BoundedAgentExecutor(blockingAgent, 1, 1, Duration.ofSeconds(5));
+        executor.execute(context("t1"), null).subscribe();
+        Disposable waiting = executor.execute(context("t2"), null).subscribe();
+        assertEquals(1, executor.getWaiting());
+
+        waiting.dispose();
+        assertEquals(0, executor.getWaiting());
+
+        executions.get("t1").tryEmitEmpty();
+        assertEquals(1, started.get());
+        assertEquals(0, executor.getRunning());
+    }
+
+    @Test
+    void testOverloadIsReturnedAsJsonRpcError() {
+        Set<String> savedTaskIds = ConcurrentHashMap.newKeySet();
+        InMemoryTaskStore taskStore = new InMemoryTaskStore() {
+            @Override
+            public void save(Task task) {
+                savedTaskIds.add(task.getId());
+                super.save(task);
+            }
+        };
+        BoundedAgentExecutor executor = new BoundedAgentExecutor(blockingAgent, 1, 0, Duration.ofSeconds(5));
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore), executor,
+                new InMemoryQueueManager(), AgentCard.builder().name("test").build());
+        DefaultDispatcher dispatcher = new DefaultDispatcher(server, new ObjectMapper());
+
+        Disposable running = dispatcher.dispatchAsync(request("1")).subscribe();
+        awaitCondition(() -> started.get() == 1);
+        JSONRPCResponse response = dispatcher.dispatchAsync(request("2")).block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(JSONRPCError.SERVER_OVERLOADED, response.getError().getCode());
+        savedTaskIds.removeAll(executions.keySet());
+        assertEquals(1, savedTaskIds.size());
+        assertEquals(TaskState.FAILED, taskStore.load(savedTaskIds.iterator().next()).getStatus().getState());
+        running.dispose();
+    }
+
+    private static RequestContext context(String taskId) {
+        return RequestContext.builder().taskId(taskId).build();
+    }
+
+    private static JSONRPCRequest request(String id) {
+        MessageSendParams params = MessageSendParams.builder()
+                .message(Message.builder()
+                        .messageId("m" + id)
+                        .role("user")
+                        .parts(List.of(TextPart.builder().text("hello").build()))
+                        .build())
+                .build();
+        return JSONRPCRequest.builder().id(id).method("message/send").params(params).build();
+    }
+}
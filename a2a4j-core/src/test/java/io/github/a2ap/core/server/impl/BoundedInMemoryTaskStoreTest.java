@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.util.SizeEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedInMemoryTaskStoreTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsedTerminalTasks() {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(3, 0, Duration.ZERO);
+        store.save(task("running", TaskState.WORKING, 0));
+        store.save(task("t1", TaskState.COMPLETED, 0));
+        store.save(task("t2", TaskState.FAILED, 0));
+        assertNotNull(store.load("t1"));
+
+        store.save(task("t3", TaskState.CANCELED, 0));
+
+        assertNull(store.load("t2"));
+        assertNotNull(store.load("t1"));
+        assertNotNull(store.load("t3"));
+        assertNotNull(store.load("running"));
+        assertEquals(3, store.getSize());
+        assertEquals(1, store.getEvictedCount());
+    }
+
+    @Test
+    void testNeverEvictsRunningTasks() {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(2, 0, Duration.ZERO);
+        store.save(task("t1", TaskState.COMPLETED, 0));
+        store.save(task("t2", TaskState.WORKING, 0));
+        store.save(task("t3", TaskState.INPUT_REQUIRED, 0));
+        store.save(task("t4", TaskState.SUBMITTED, 0));
+
+        assertNull(store.load("t1"));
+        assertEquals(3, store.getSize());
+        assertEquals(1, store.getOverflowCount());
+
+        // a running task that completes becomes evictable
+        store.save(task("t2", TaskState.COMPLETED, 0));
+        assertNull(store.load("t2"));
+        assertEquals(2, store.getEvictedCount());
+    }
+
+    @Test
+    void testBoundsEstimatedSize() {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(0, 20_000, Duration.ZERO);
+        for (int i = 0; i < 10; i++) {
+            store.save(task("t" + i, TaskState.COMPLETED, 2_000));
+        }
+
+        assertEquals(4, store.getSize());
+        assertNotNull(store.load("t9"));
+        assertNull(store.load("t5"));
+        assertEquals(6, store.getEvictedCount());
+
+        // task, artifact and part overheads plus two bytes per character
+        assertEquals(4 * 4_768, store.getEstimatedBytes());
+        store.save(task("t9", TaskState.COMPLETED, 0));
+        assertEquals(3 * 4_768 + 768, store.getEstimatedBytes());
+    }
+
+    @Test
+    void testEstimatesRunningTaskOnceAndAgainWhenTerminal() {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(0, 0, Duration.ZERO);
+        Task task = task("t1", TaskState.WORKING, 0);
+        task.setArtifacts(new ArrayList<>(task.getArtifacts()));
+        store.save(task);
+        long stored = store.getEstimatedBytes();
+
+        task.getArtifacts().add(task("t2", TaskState.WORKING, 4_000).getArtifacts().get(0));
+        store.save(task);
+        assertEquals(stored, store.getEstimatedBytes());
+
+        task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+        store.save(task);
+        assertEquals(SizeEstimator.estimate(task), store.getEstimatedBytes());
+        assertTrue(store.getEstimatedBytes() > stored);
+    }
+
+    @Test
+    void testRemovesHistoriesOfEvictedTasks() {
+        InMemoryTaskHistoryStore historyStore = new InMemoryTaskHistoryStore();
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(1, 0, Duration.ZERO, historyStore);
+        List<Message> messages = List.of(Message.builder()
+            .messageId("m1")
+            .role("user")
+            .parts(List.of(TextPart.builder().text("hello").build()))
+            .build());
+        historyStore.append("t1", messages);
+        historyStore.append("t2", messages);
+        store.save(task("t1", TaskState.COMPLETED, 0));
+        store.save(task("t2", TaskState.COMPLETED, 0));
+
+        assertNull(store.load("t1"));
+        assertTrue(historyStore.load("t1", 0).isEmpty());
+        assertEquals(messages, historyStore.load("t2", 0));
+    }
+
+    @Test
+    void testExpiresIdleTerminalTasks() throws Exception {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(0, 0, Duration.ofMillis(50));
+        store.save(task("t1", TaskState.COMPLETED, 0));
+        store.save(task("running", TaskState.WORKING, 0));
+
+        Thread.sleep(100);
+        assertNull(store.load("t1"));
+        assertNotNull(store.load("running"));
+        assertEquals(1, store.getExpiredCount());
+        assertEquals(0, store.getEvictedCount());
+    }
+
+    @Test
+    void testIndexesFollowSavesAndEvictions() {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(2, 0, Duration.ZERO);
+        Instant before = Instant.now();
+        store.save(task("t1", TaskState.WORKING, 0));
+        store.save(task("t2", TaskState.WORKING, 0));
+        assertEquals(Set.of("t1", "t2"), Set.copyOf(store.findTaskIdsByContextId("c1")));
+        assertEquals(Set.of("t1", "t2"), Set.copyOf(store.findTaskIdsByState(TaskState.WORKING)));
+
+        store.save(task("t1", TaskState.COMPLETED, 0));
+        assertEquals(List.of("t2"), store.findTaskIdsByState(TaskState.WORKING));
+        assertEquals(List.of("t1"), store.findTaskIdsByState(TaskState.COMPLETED));
+        assertEquals(Set.of("t1", "t2"),
+            Set.copyOf(store.findTaskIdsUpdatedBetween(before, Instant.now().plusSeconds(1))));
+        assertTrue(store.findTaskIdsUpdatedBetween(before.minusSeconds(60), before).isEmpty());
+
+        // the evicted task leaves the indexes
+        store.save(task("t3", TaskState.WORKING, 0));
+        assertNull(store.load("t1"));
+        assertEquals(Set.of("t2", "t3"), Set.copyOf(store.findTaskIdsByContextId("c1")));
+        assertTrue(store.findTaskIdsByState(TaskState.COMPLETED).isEmpty());
+        assertTrue(store.findTaskIdsByContextId("other").isEmpty());
+    }
+
+    @Test
+    void testFindsTasksOfContextUpToLimit() {
+        BoundedInMemoryTaskStore store = new BoundedInMemoryTaskStore(0, 0, Duration.ZERO);
+        for (int i = 0; i < 5; i++) {
+            store.save(task("t" + i, TaskState.WORKING, 0));
+        }
+
+        List<String> taskIds = store.findTaskIdsByContextId("c1", 2);
+        assertEquals(2, taskIds.size());
+        assertTrue(Set.of("t0", "t1", "t2", "t3", "t4").containsAll(taskIds));
+        assertEquals(5, store.findTaskIdsByContextId("c1", 0).size());
+        assertEquals(5, store.findTaskIdsByContextId("c1", 10).size());
+        assertTrue(store.findTaskIdsByContextId("other", 2).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.findTaskIdsByContextId("c1", -1));
+    }
+
+    private static Task task(String id, TaskState state, int textLength) {
+        return Task.builder()
+            .id(id)
+            .contextId("c1")
+            .status(TaskStatus.builder().state(state).build())
+            .artifacts(List.of(Artifact.builder()
+                .artifactId("a1")
+                .parts(List.of(TextPart.builder().text("x".repeat(textLength)).build()))
+                .build()))
+            .build();
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TaskStatusUpdateEvent;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.server.EventBatch;
+import io.github.a2ap.core.server.EventBroker;
+import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.SequencedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static io.github.a2ap.core.server.impl.DefaultA2AServerTest.awaitCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BrokeredQueueManagerTest {
+
+    private final InMemoryEventBroker broker = new InMemoryEventBroker();
+
+    private final BrokeredQueueManager nodeA = new BrokeredQueueManager(
+        new InMemoryQueueManager(256, EventQueue.OverflowPolicy.BLOCK, 256, Long.MAX_VALUE), broker, 64,
+        Duration.ofSeconds(1));
+
+    private final BrokeredQueueManager nodeB = new BrokeredQueueManager(
+        new InMemoryQueueManager(256, EventQueue.OverflowPolicy.BLOCK, 256, Long.MAX_VALUE), broker);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void testTapOnAnotherNodeReceivesBatchedEvents() {
+        EventQueue queue = nodeA.create("t1");
+        queue.asFlux().subscribe();
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        awaitCondition(() -> broker.getPublishedEventCount() == 1);
+
+        EventQueue remote = nodeB.tap("t1");
+        assertNotNull(remote);
+        assertEquals(1, nodeB.getMirroredCount());
+        for (int i = 0; i < 128; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i)));
+        }
+        queue.enqueueEvent(status(TaskState.COMPLETED, true));
+
+        StepVerifier.create(remote.asSequencedFlux().map(SequencedEvent::getSequence))
+            .then(() -> nodeA.remove("t1"))
+            .expectNextSequence(List.of(1L, 2L, 3L))
+            .expectNextCount(126)
+            .expectNext(130L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+
+        // one timed batch for the first event, two full batches and the final one
+        assertTrue(broker.getPublishedBatchCount() <= 5, "batches: " + broker.getPublishedBatchCount());
+        awaitCondition(() -> nodeB.getMirroredCount() == 0 && nodeA.getForwardedCount() == 0);
+        assertNull(nodeB.get("t1"));
+        assertEquals(0, broker.getTopicCount());
+    }
+
+    @Test
+    void testRemoteTapsShareOneMirrorAndResume() {
+        EventQueue queue = nodeA.create("t1");
+        queue.asFlux().subscribe();
+        for (int i = 0; i < 10; i++) {
+            queue.enqueueEvent(artifact(String.valueOf(i)));
+        }
+        awaitCondition(() -> broker.getPublishedEventCount() == 10);
+
+        EventQueue first = nodeB.tap("t1");
+        StepVerifier.create(first.asFlux().take(10)).expectNextCount(10).verifyComplete();
+        EventQueue resumed = nodeB.tap("t1");
+        assertSame(nodeB.get("t1"), nodeB.get("t1"));
+        assertEquals(1, nodeB.getMirroredCount());
+
+        StepVerifier.create(resumed.asSequencedFlux(8).map(SequencedEvent::getSequence))
+            .then(() -> nodeA.remove("t1"))
+            .expectNext(9L, 10L)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testTapOfUnknownTaskCompletes() {
+        EventQueue remote = nodeB.tap("unknown");
+        StepVerifier.create(remote.asFlux()).expectComplete().verify(Duration.ofSeconds(5));
+        awaitCondition(() -> nodeB.get("unknown") == null && nodeB.getMirroredCount() == 0);
+    }
+
+    @Test
+    void testIdleMirrorIsClosed() throws Exception {
+        // a broker that cannot tell whether a task is known, e.g. plain pub/sub
+        EventBroker silentBroker = new EventBroker() {
+            @Override
+            public Mono<Void> publish(String taskId, EventBatch batch) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Flux<EventBatch> subscribe(String taskId) {
+                return Flux.never();
+            }
+        };
+        try (BrokeredQueueManager node = new BrokeredQueueManager(new InMemoryQueueManager(), silentBroker, 64,
+            Duration.ofSeconds(1), Duration.ofMillis(100))) {
+            EventQueue remote = node.tap("finished");
+            assertEquals(1, node.getMirroredCount());
+
+            StepVerifier.create(remote.asFlux()).expectComplete().verify(Duration.ofSeconds(5));
+            awaitCondition(() -> node.get("finished") == null && node.getMirroredCount() == 0);
+        }
+    }
+
+    @Test
+    void testLocalTaskReplacesMirror() {
+        EventQueue queue = nodeA.create("t1");
+        queue.asFlux().subscribe();
+        queue.enqueueEvent(status(TaskState.WORKING, false));
+        EventQueue remote = nodeB.tap("t1");
+
+        EventQueue taken = nodeB.create("t1");
+        assertTrue(remote.isClosed());
+        assertEquals(0, nodeB.getMirroredCount());
+        assertEquals(1, nodeB.getForwardedCount());
+        assertSame(taken, nodeB.get("t1"));
+    }
+
+    private static TaskStatusUpdateEvent status(TaskState state, boolean isFinal) {
+        return TaskStatusUpdateEvent.builder()
+            .taskId("t1")
+            .status(TaskStatus.builder().state(state).build())
+            .isFinal(isFinal)
+            .build();
+    }
+
+    private static TaskArtifactUpdateEvent artifact(String text) {
+        return TaskArtifactUpdateEvent.builder()
+            .taskId("t1")
+            .artifact(Artifact.builder()
+                .artifactId("a1")
+                .parts(List.of(TextPart.builder().text(text).build()))
+                .build())
+            .append(true)
+            .build();
+    }
+
+}
@@ -0,0 +1,626 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.a2ap.core.jsonrpc.JSONRPCError;
+import io.github.a2ap.core.jsonrpc.JSONRPCRequest;
+import io.github.a2ap.core.jsonrpc.JSONRPCResponse;
+import io.github.a2ap.core.model.AgentCard;
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.MessageSendConfiguration;
+import io.github.a2ap.core.model.MessageSendParams;
+import io.github.a2ap.core.model.PushNotificationConfig;
+import io.github.a2ap.core.model.RequestContext;
+import io.github.a2ap.core.model.SendStreamingMessageResponse;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TaskQueryParams;
+import io.github.a2ap.core.model.TaskResubscriptionParams;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TaskStatusUpdateEvent;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.server.AgentExecutor;
+import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.PushNotificationSender;
+import io.github.a2ap.core.server.SequencedEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultA2AServerTest {
+
+    private final InMemoryTaskStore taskStore = new InMemoryTaskStore();
+
+    private final InMemoryQueueManager queueManager = new InMemoryQueueManager();
+
+    @Test
+    void testHandleMessageAsyncAppliesAllEvents() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.delay(Duration.ofMillis(50))
+                .then(Mono.fromRunnable(() -> {
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, false));
+                    queue.enqueueEvent(artifactEvent(context, "hello"));
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                })));
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params()).block(Duration.ofSeconds(5)));
+
+        assertEquals(TaskState.COMPLETED, task.getStatus().getState());
+        assertEquals(1, task.getArtifacts().size());
+        assertEquals(TaskState.COMPLETED, taskStore.load(task.getId()).getStatus().getState());
+        awaitCondition(() -> queueManager.get(task.getId()) == null);
+    }
+
+    @Test
+    void testAgentEnqueuingBeyondCapacityWhileStartingDoesNotDeadlock() {
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore),
+                agentExecutor((context, queue) -> {
+                    // enqueued while execute() is called, before anything is returned
+                    for (int i = 0; i < 100; i++) {
+                        queue.enqueueEvent(statusEvent(context, TaskState.WORKING, false));
+                    }
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                    return Mono.empty();
+                }), InMemoryQueueManager.builder().capacity(16).build(), AgentCard.builder().name("test").build());
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params()).block(Duration.ofSeconds(5)));
+
+        assertEquals(TaskState.COMPLETED, task.getStatus().getState());
+    }
+
+    @Test
+    void testHandleMessageAsyncReturnsAgentMessage() {
+        Message reply = Message.builder()
+                .messageId("reply")
+                .role("agent")
+                .parts(List.of(TextPart.builder().text("hi").build()))
+                .build();
+        DefaultA2AServer server = newServer((context, queue) -> Mono.fromRunnable(() -> queue.enqueueEvent(reply)));
+
+        StepVerifier.create(server.handleMessageAsync(params()))
+                .expectNext(reply)
+                .verifyComplete();
+    }
+
+    @Test
+    void testNonBlockingMessageReturnsSubmittedTask() {
+        CountDownLatch release = new CountDownLatch(1);
+        DefaultA2AServer server = newServer((context, queue) -> Mono.fromRunnable(() -> {
+            queue.enqueueEvent(statusEvent(context, TaskState.WORKING, false));
+            awaitQuietly(release);
+            queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+            queue.close();
+        }));
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder().blocking(false).build());
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params).block(Duration.ofSeconds(5)));
+        assertEquals(TaskState.SUBMITTED, task.getStatus().getState());
+
+        release.countDown();
+        awaitCondition(() -> taskStore.load(task.getId()).getStatus().getState() == TaskState.COMPLETED);
+    }
+
+    @Test
+    void testNonBlockingMessageFailureMarksTaskFailed() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.error(new IllegalStateException("boom")));
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder().blocking(false).build());
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params).block(Duration.ofSeconds(5)));
+
+        awaitCondition(() -> taskStore.load(task.getId()).getStatus().getState() == TaskState.FAILED);
+        assertEquals("boom", taskStore.load(task.getId()).getStatus().getError());
+    }
+
+    @Test
+    void testHandleMessageStreamAppliesEventsInOrder() {
+        int chunks = 1000;
+        DefaultA2AServer server = newServer((context, queue) -> Flux.range(0, chunks)
+                .publishOn(Schedulers.parallel())
+                .doOnNext(i -> queue.enqueueEvent(artifactEvent(context, String.valueOf(i), i > 0)))
+                .doOnComplete(() -> {
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                })
+                .then());
+
+        List<SendStreamingMessageResponse> events = server.handleMessageStream(params())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(events);
+        assertEquals(chunks + 1, events.size());
+        for (int i = 0; i < chunks; i++) {
+            TaskArtifactUpdateEvent event = assertInstanceOf(TaskArtifactUpdateEvent.class, events.get(i));
+            assertEquals(String.valueOf(i), ((TextPart) event.getArtifact().getParts().get(0)).getText());
+        }
+        String taskId = ((TaskStatusUpdateEvent) events.get(chunks)).getTaskId();
+        Task task = taskStore.load(taskId);
+        assertEquals(TaskState.COMPLETED, task.getStatus().getState());
+        assertEquals(chunks, task.getArtifacts().get(0).getParts().size());
+    }
+
+    @Test
+    void testHistoryLengthLimitsReturnedHistory() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.fromRunnable(() -> {
+            for (int i = 0; i < 5; i++) {
+                queue.enqueueEvent(statusEvent(context, TaskState.WORKING, "step " + i));
+            }
+            queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+            queue.close();
+        }));
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder().historyLength(2).build());
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params).block(Duration.ofSeconds(5)));
+
+        assertEquals(List.of("step 3", "step 4"), texts(task.getHistory()));
+        assertEquals(5, taskStore.load(task.getId()).getHistory().size());
+
+        DefaultDispatcher dispatcher = new DefaultDispatcher(server, new ObjectMapper());
+        JSONRPCRequest request = JSONRPCRequest.builder()
+                .id("3")
+                .method("tasks/get")
+                .params(Map.of("id", task.getId(), "historyLength", 1))
+                .build();
+        Task queried = (Task) dispatcher.dispatch(request).getResult();
+
+        assertEquals(List.of("step 4"), texts(queried.getHistory()));
+        assertEquals(5, server.getTask(task.getId()).getHistory().size());
+    }
+
+    @Test
+    void testLongHistorySpillsToHistoryStore() {
+        InMemoryTaskHistoryStore historyStore = new InMemoryTaskHistoryStore();
+        InMemoryTaskManager taskManager = new InMemoryTaskManager(new ReactiveTaskStoreAdapter(taskStore), 0, false,
+                4, historyStore);
+        DefaultA2AServer server = new DefaultA2AServer(taskManager, agentExecutor((context, queue) ->
+                Mono.fromRunnable(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        queue.enqueueEvent(statusEvent(context, TaskState.WORKING, "step " + i));
+                    }
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                })), queueManager, AgentCard.builder().name("test").build());
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params()).block(Duration.ofSeconds(5)));
+
+        assertEquals(List.of("step 6", "step 7", "step 8", "step 9"), texts(taskStore.load(task.getId()).getHistory()));
+        assertEquals(6, historyStore.load(task.getId(), 0).size());
+
+        Task deeper = server.getTask(TaskQueryParams.builder().taskId(task.getId()).historyLength(6).build());
+        assertEquals(List.of("step 4", "step 5", "step 6", "step 7", "step 8", "step 9"), texts(deeper.getHistory()));
+        assertEquals(4, server.getTask(task.getId()).getHistory().size());
+    }
+
+    @Test
+    void testTaskUpdatesAreSentToPushNotificationUrl() {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        PushNotificationSender sender = (config, task) -> sent.add(config.getUrl() + " " + config.getAuthToken()
+                + " " + task.getStatus().getState());
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore),
+                agentExecutor((context, queue) -> Mono.fromRunnable(() -> {
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, false));
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                })), queueManager, AgentCard.builder().name("test").build(), Schedulers.boundedElastic(), sender);
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder()
+                .pushNotificationConfig(PushNotificationConfig.builder()
+                        .url("http://localhost/hook")
+                        .authToken("secret")
+                        .build())
+                .build());
+
+        server.handleMessageAsync(params).block(Duration.ofSeconds(5));
+        server.handleMessageAsync(params()).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("http://localhost/hook secret WORKING", "http://localhost/hook secret COMPLETED"), sent);
+    }
+
+    @Test
+    void testNegativeHistoryLengthIsRejected() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.empty());
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder().historyLength(-1).build());
+
+        StepVerifier.create(server.handleMessageAsync(params))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void testCancelTaskDisposesRunningExecution() {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<String> taskId = new AtomicReference<>();
+        AtomicBoolean agentCancelled = new AtomicBoolean();
+        DefaultA2AServer server = newServer((context, queue) -> Mono.<Void>never()
+                .doOnSubscribe(s -> {
+                    taskId.set(context.getTaskId());
+                    started.countDown();
+                })
+                .doOnCancel(() -> agentCancelled.set(true)));
+
+        Mono<List<SendStreamingMessageResponse>> events = server.handleMessageStream(params()).collectList().cache();
+        events.subscribe();
+        awaitQuietly(started);
+
+        Task task = server.cancelTask(taskId.get());
+
+        List<SendStreamingMessageResponse> received = events.block(Duration.ofSeconds(5));
+        assertNotNull(received);
+        TaskStatusUpdateEvent last = assertInstanceOf(TaskStatusUpdateEvent.class, received.get(received.size() - 1));
+        assertEquals(TaskState.CANCELED, last.getStatus().getState());
+        assertTrue(agentCancelled.get());
+        assertEquals(TaskState.CANCELED, task.getStatus().getState());
+        assertEquals(TaskState.CANCELED, taskStore.load(taskId.get()).getStatus().getState());
+        assertNull(queueManager.get(taskId.get()));
+    }
+
+    @Test
+    void testCancelRightAfterNonBlockingMessageStopsScheduledAgent() {
+        List<Runnable> scheduled = new CopyOnWriteArrayList<>();
+        AtomicBoolean started = new AtomicBoolean();
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore),
+                agentExecutor((context, queue) -> Mono.fromRunnable(() -> {
+                    started.set(true);
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                })), queueManager, AgentCard.builder().name("test").build(), Schedulers.fromExecutor(scheduled::add));
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder().blocking(false).build());
+
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params).block(Duration.ofSeconds(5)));
+        Task cancelled = server.cancelTaskAsync(task.getId()).block(Duration.ofSeconds(5));
+        assertNotNull(cancelled);
+        scheduled.forEach(Runnable::run);
+
+        assertFalse(started.get());
+        assertEquals(TaskState.CANCELED, taskStore.load(task.getId()).getStatus().getState());
+        assertNull(queueManager.get(task.getId()));
+    }
+
+    @Test
+    void testCancelTaskReleasesExecutionSlot() {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<String> taskId = new AtomicReference<>();
+        BoundedAgentExecutor bounded = new BoundedAgentExecutor(agentExecutor((context, queue) -> {
+            if (taskId.compareAndSet(null, context.getTaskId())) {
+                started.countDown();
+                return Mono.never();
+            }
+            return Mono.fromRunnable(() -> {
+                queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                queue.close();
+            });
+        }), 1, 0, Duration.ofSeconds(5));
+        DefaultA2AServer server = newServer(bounded);
+        MessageSendParams nonBlocking = params();
+        nonBlocking.setConfiguration(MessageSendConfiguration.builder().blocking(false).build());
+
+        server.handleMessageAsync(nonBlocking).block(Duration.ofSeconds(5));
+        awaitQuietly(started);
+        assertEquals(1, bounded.getRunning());
+
+        server.cancelTask(taskId.get());
+
+        assertEquals(0, bounded.getRunning());
+        Task next = assertInstanceOf(Task.class, server.handleMessageAsync(params()).block(Duration.ofSeconds(5)));
+        assertEquals(TaskState.COMPLETED, next.getStatus().getState());
+    }
+
+    @Test
+    void testResubscribeReplaysRecentEvents() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> taskId = new AtomicReference<>();
+        CountDownLatch working = new CountDownLatch(1);
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore),
+                agentExecutor((context, queue) -> Mono.fromRunnable(() -> {
+                    taskId.set(context.getTaskId());
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, false));
+                    working.countDown();
+                    awaitQuietly(release);
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                }).subscribeOn(Schedulers.boundedElastic()).then()),
+                new InMemoryQueueManager(16, EventQueue.OverflowPolicy.BLOCK, 16, Long.MAX_VALUE),
+                AgentCard.builder().name("test").build());
+        server.handleMessageStream(params()).subscribe();
+        awaitQuietly(working);
+
+        StepVerifier.create(server.subscribeToTaskUpdates(taskId.get()))
+                .expectNextMatches(event -> event instanceof TaskStatusUpdateEvent status
+                        && status.getStatus().getState() == TaskState.WORKING)
+                .then(release::countDown)
+                .expectNextMatches(event -> event instanceof TaskStatusUpdateEvent status
+                        && status.getStatus().getState() == TaskState.COMPLETED)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testDisconnectedStreamKeepsTaskRunningAndResumes() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> taskId = new AtomicReference<>();
+        AtomicBoolean agentCancelled = new AtomicBoolean();
+        InMemoryQueueManager queues = new InMemoryQueueManager(16, EventQueue.OverflowPolicy.COALESCE, 16,
+                Long.MAX_VALUE);
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore),
+                agentExecutor((context, queue) -> Mono.fromRunnable(() -> {
+                    taskId.set(context.getTaskId());
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, "a"));
+                    awaitQuietly(release);
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, "b"));
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                }).subscribeOn(Schedulers.boundedElastic()).then().doOnCancel(() -> agentCancelled.set(true))),
+                queues, AgentCard.builder().name("test").build());
+
+        // the client disconnects after the first event
+        SequencedEvent first = server.handleSequencedMessageStream(params()).blockFirst(Duration.ofSeconds(5));
+        assertNotNull(first);
+        awaitCondition(() -> taskStore.load(taskId.get()).getStatus().getState() == TaskState.WORKING);
+        assertFalse(agentCancelled.get());
+
+        StepVerifier.create(server.subscribeToSequencedTaskUpdates(
+                        new TaskResubscriptionParams(taskId.get(), first.getSequence(), null)))
+                .then(release::countDown)
+                .expectNextMatches(event -> event.getSequence() == first.getSequence() + 1
+                        && ((TaskStatusUpdateEvent) event.getEvent()).getStatus().getMessage().getMessageId()
+                                .equals("b"))
+                .expectNextMatches(event -> ((TaskStatusUpdateEvent) event.getEvent()).getStatus().getState()
+                        == TaskState.COMPLETED)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        awaitCondition(() -> taskStore.load(taskId.get()).getStatus().getState() == TaskState.COMPLETED);
+        awaitCondition(() -> queues.get(taskId.get()) == null);
+    }
+
+    @Test
+    void testResubscribeResumesAfterLastEventId() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> taskId = new AtomicReference<>();
+        CountDownLatch working = new CountDownLatch(1);
+        DefaultA2AServer server = new DefaultA2AServer(new InMemoryTaskManager(taskStore),
+                agentExecutor((context, queue) -> Mono.fromRunnable(() -> {
+                    taskId.set(context.getTaskId());
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, "a"));
+                    queue.enqueueEvent(statusEvent(context, TaskState.WORKING, "b"));
+                    working.countDown();
+                    awaitQuietly(release);
+                    queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+                    queue.close();
+                }).subscribeOn(Schedulers.boundedElastic()).then()),
+                new InMemoryQueueManager(16, EventQueue.OverflowPolicy.BLOCK, 16, Long.MAX_VALUE),
+                AgentCard.builder().name("test").build());
+        DefaultDispatcher dispatcher = new DefaultDispatcher(server, new ObjectMapper());
+        List<Long> streamedIds = new CopyOnWriteArrayList<>();
+        dispatcher.dispatchStream(JSONRPCRequest.builder().id("1").method("message/stream").params(params()).build())
+                .subscribe(response -> streamedIds.add(response.getEventId()));
+        awaitQuietly(working);
+        awaitCondition(() -> streamedIds.size() == 2);
+        assertEquals(List.of(1L, 2L), streamedIds);
+
+        JSONRPCRequest resubscribe = JSONRPCRequest.builder()
+                .id("2")
+                .method("tasks/resubscribe")
+                .params(Map.of("id", taskId.get(), "lastEventId", 1))
+                .build();
+        StepVerifier.create(dispatcher.dispatchStream(resubscribe))
+                .expectNextMatches(response -> response.getEventId() == 2
+                        && ((TaskStatusUpdateEvent) response.getResult()).getStatus().getMessage().getMessageId()
+                                .equals("b"))
+                .then(release::countDown)
+                .expectNextMatches(response -> response.getEventId() == 3
+                        && ((TaskStatusUpdateEvent) response.getResult()).getStatus().getState()
+                                == TaskState.COMPLETED)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testHandleMessageAsyncRejectsEmptyMessage() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.empty());
+
+        StepVerifier.create(server.handleMessageAsync(new MessageSendParams()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void testDispatchAsyncMessageSend() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.fromRunnable(() -> {
+            queue.enqueueEvent(statusEvent(context, TaskState.COMPLETED, true));
+            queue.close();
+        }));
+        DefaultDispatcher dispatcher = new DefaultDispatcher(server, new ObjectMapper());
+
+        JSONRPCRequest request = JSONRPCRequest.builder().id("1").method("message/send").params(params()).build();
+        JSONRPCResponse response = dispatcher.dispatchAsync(request).block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals("1", response.getId());
+        assertNull(response.getError());
+        assertEquals(TaskState.COMPLETED, ((Task) response.getResult()).getStatus().getState());
+    }
+
+    @Test
+    void testDispatchAsyncGetAndCancelOnNonBlockingThread() {
+        DefaultA2AServer server = newServer((context, queue) -> Mono.never());
+        DefaultDispatcher dispatcher = new DefaultDispatcher(server, new ObjectMapper());
+        MessageSendParams params = params();
+        params.setConfiguration(MessageSendConfiguration.builder().blocking(false).build());
+        Task task = assertInstanceOf(Task.class, server.handleMessageAsync(params).block(Duration.ofSeconds(5)));
+
+        JSONRPCResponse get = dispatchOnParallel(dispatcher, "tasks/get", Map.of("id", task.getId()));
+        assertNull(get.getError());
+        assertEquals(task.getId(), ((Task) get.getResult()).getId());
+
+        JSONRPCResponse missing = dispatchOnParallel(dispatcher, "tasks/get", Map.of("id", "missing"));
+        assertNull(missing.getError());
+        assertNull(missing.getResult());
+
+        JSONRPCResponse cancel = dispatchOnParallel(dispatcher, "tasks/cancel", Map.of("id", task.getId()));
+        assertNull(cancel.getError());
+        assertEquals(TaskState.CANCELED, ((Task) cancel.getResult()).getStatus().getState());
+    }
+
+    @Test
+    void testDispatchAsyncInvalidParams() {
+        DefaultDispatcher dispatcher = new DefaultDispatcher(newServer((context, queue) -> Mono.empty()),
+                new ObjectMapper());
+
+        JSONRPCRequest request = JSONRPCRequest.builder()
+                .id("2")
+                .method("message/send")
+                .params(new MessageSendParams())
+                .build();
+        JSONRPCResponse response = dispatcher.dispatchAsync(request).block(Duration.ofSeconds(5));
+
+        assertNotNull(response);
+        assertEquals(JSONRPCError.INVALID_PARAMS, response.getError().getCode());
+    }
+
+    private static JSONRPCResponse dispatchOnParallel(DefaultDispatcher dispatcher, String method, Object params) {
+        JSONRPCRequest request = JSONRPCRequest.builder().id("1").method(method).params(params).build();
+        // blocking calls are rejected on the parallel scheduler
+        return Mono.defer(() -> dispatcher.dispatchAsync(request))
+                .subscribeOn(Schedulers.parallel())
+                .block(Duration.ofSeconds(5));
+    }
+
+    private DefaultA2AServer newServer(BiFunction<RequestContext, EventQueue, Mono<Void>> execute) {
+        return newServer(agentExecutor(execute));
+    }
+
+    private DefaultA2AServer newServer(AgentExecutor agentExecutor) {
+        return new DefaultA2AServer(new InMemoryTaskManager(taskStore), agentExecutor, queueManager,
+                AgentCard.builder().name("test").build());
+    }
+
+    private static AgentExecutor agentExecutor(BiFunction<RequestContext, EventQueue, Mono<Void>> execute) {
+        return new AgentExecutor() {
+            @Override
+            public Mono<Void> execute(RequestContext context, EventQueue eventQueue) {
+                return execute.apply(context, eventQueue);
+            }
+
+            @Override
+            public Mono<Void> cancel(String taskId) {
+                return Mono.empty();
+            }
+        };
+    }
+
+    static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MessageSendParams params() {
+        return MessageSendParams.builder()
+                .message(Message.builder()
+                        .messageId("m1")
+                        .role("user")
+                        .parts(List.of(TextPart.builder().text("hello").build()))
+                        .build())
+                .build();
+    }
+
+    private static TaskStatusUpdateEvent statusEvent(RequestContext context, TaskState state, boolean isFinal) {
+        return TaskStatusUpdateEvent.builder()
+                .taskId(context.getTaskId())
+                .contextId(context.getContextId())
+                .status(TaskStatus.builder().state(state).build())
+                .isFinal(isFinal)
+                .build();
+    }
+
+    private static TaskStatusUpdateEvent statusEvent(RequestContext context, TaskState state, String text) {
+        return TaskStatusUpdateEvent.builder()
+                .taskId(context.getTaskId())
+                .contextId(context.getContextId())
+                .status(TaskStatus.builder()
+                        .state(state)
+                        .message(Message.builder()
+                                .messageId(text)
+                                .role("agent")
+                                .parts(List.of(TextPart.builder().text(text).build()))
+                                .build())
+                        .build())
+                .isFinal(false)
+                .build();
+    }
+
+    private static List<String> texts(List<Message> history) {
+        return history.stream().map(message -> ((TextPart) message.getParts().get(0)).getText()).toList();
+    }
+
+    private static TaskArtifactUpdateEvent artifactEvent(RequestContext context, String text) {
+        return artifactEvent(context, text, false);
+    }
+
+    private static TaskArtifactUpdateEvent artifactEvent(RequestContext context, String text, boolean append) {
+        return TaskArtifactUpdateEvent.builder()
+                .taskId(context.getTaskId())
+                .contextId(context.getContextId())
+                .artifact(Artifact.builder()
+                        .artifactId("a1")
+                        .parts(List.of(TextPart.builder().text(text).build()))
+                        .build())
+                .append(append)
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLogTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecoversChangesAfterRestart() throws Exception {
+        Task task = task("t1");
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            store.save(task);
+            long fullBytes = store.getAppendedBytes();
+
+            // the same changes as the task manager applies while an agent runs
+            task.setStatus(TaskStatus.builder().state(TaskState.WORKING).build());
+            task.getHistory().add(message("working"));
+            store.save(task);
+            assertTrue(store.getAppendedBytes() - fullBytes < fullBytes, "changes are smaller than the task");
+            Artifact artifact = task.getArtifacts().get(0);
+            List<Part> parts = new ArrayList<>(artifact.getParts());
+            parts.add(TextPart.builder().text("world").build());
+            artifact.setParts(parts);
+            task.getArtifacts().add(Artifact.builder().artifactId("a2").parts(List.of(text("second"))).build());
+            store.save(task);
+            store.save(task);
+
+            assertEquals(3, store.getAppendCount());
+        }
+
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            assertEquals(1, store.getRecoveredTaskCount());
+            assertEquals(task, store.load("t1"));
+            assertNull(store.load("t2"));
+        }
+    }
+
+    @Test
+    void testRecoversFromSnapshotAfterCompaction() throws Exception {
+        try (EventLogTaskStore store = new EventLogTaskStore(directory, 1024, 2)) {
+            for (int i = 0; i < 50; i++) {
+                Task task = task("t" + (i % 10));
+                task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+                store.save(task);
+            }
+            store.compact();
+
+            assertTrue(store.getCompactionCount() >= 1);
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.filter(path -> path.toString().endsWith(".snap")).count());
+            }
+            store.save(task("t10"));
+        }
+
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            assertEquals(11, store.getRecoveredTaskCount());
+            assertEquals(TaskState.COMPLETED, store.load("t3").getStatus().getState());
+            assertEquals(TaskState.SUBMITTED, store.load("t10").getStatus().getState());
+        }
+    }
+
+    @Test
+    void testIgnoresTornRecord() throws Exception {
+        Task task = task("t1");
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            store.save(task);
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        // a record header and half of its payload, as left by a crash during a save
+        Files.write(segment, new byte[] {0, 0, 0, 100, 1, 2, 3, 4, '{', '"'}, StandardOpenOption.APPEND);
+
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            assertEquals(task, store.load("t1"));
+            store.save(task("t2"));
+        }
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            assertEquals(2, store.getRecoveredTaskCount());
+        }
+    }
+
+    @Test
+    void testIndexesSavedAndRecoveredTasks() throws Exception {
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            store.save(task("t1"));
+            Task task = task("t2");
+            task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+            store.save(task);
+
+            assertEquals(Set.of("t1", "t2"), Set.copyOf(store.findTaskIdsByContextId("c1")));
+            assertEquals(List.of("t2"), store.findTaskIdsByState(TaskState.COMPLETED));
+        }
+
+        try (EventLogTaskStore store = new EventLogTaskStore(directory)) {
+            assertEquals(Set.of("t1", "t2"), Set.copyOf(store.findTaskIdsByContextId("c1")));
+            assertEquals(1, store.findTaskIdsByContextId("c1", 1).size());
+            assertEquals(List.of("t1"), store.findTaskIdsByState(TaskState.SUBMITTED));
+            assertEquals(2, store.findTaskIdsUpdatedBetween(Instant.EPOCH, Instant.now().plusSeconds(1)).size());
+        }
+    }
+
+    private static Task task(String id) {
+        List<Artifact> artifacts = new LinkedList<>();
+        artifacts.add(Artifact.builder().artifactId("a1").parts(List.of(text("hello"))).build());
+        List<Message> history = new LinkedList<>();
+        history.add(message("hello"));
+        return Task.builder()
+            .id(id)
+            .contextId("c1")
+            .status(TaskStatus.builder().state(TaskState.SUBMITTED).build())
+            .artifacts(artifacts)
+            .history(history)
+            .build();
+    }
+
+    private static Message message(String text) {
+        return Message.builder().role("user").parts(List.of(text(text))).build();
+    }
+
+    private static TextPart text(String text) {
+        return TextPart.builder().text(text).build();
+    }
+
+}
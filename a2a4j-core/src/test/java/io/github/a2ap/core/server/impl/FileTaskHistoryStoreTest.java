@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.TextPart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static io.github.a2ap.core.server.impl.InMemoryTaskHistoryStoreTest.ids;
+import static io.github.a2ap.core.server.impl.InMemoryTaskHistoryStoreTest.message;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTaskHistoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTripsMessagesAcrossRestart() {
+        FileTaskHistoryStore store = new FileTaskHistoryStore(directory);
+        Message message = Message.builder()
+            .messageId("m1")
+            .role("user")
+            .taskId("t1")
+            .contextId("c1")
+            .parts(List.of(new TextPart("line one\nline two")))
+            .build();
+        store.append("t1", List.of(message));
+        store.append("t1", List.of(message("m2")));
+
+        List<Message> loaded = new FileTaskHistoryStore(directory).load("t1", 0);
+        assertEquals(List.of("m1", "m2"), ids(loaded));
+        assertEquals(message, loaded.get(0));
+    }
+
+    @Test
+    void testLoadsMostRecentMessages() {
+        FileTaskHistoryStore store = new FileTaskHistoryStore(directory);
+        store.append("t1", List.of(message("m1"), message("m2"), message("m3")));
+        store.append("t/2", List.of(message("other")));
+
+        assertEquals(List.of("m2", "m3"), ids(store.load("t1", 2)));
+        assertEquals(List.of("m1", "m2", "m3"), ids(store.load("t1", 5)));
+        assertEquals(List.of("other"), ids(store.load("t/2", 0)));
+        assertTrue(store.load("unknown", 0).isEmpty());
+        assertTrue(store.load(null, 0).isEmpty());
+    }
+
+    @Test
+    void testRemovesHistoryFile() throws Exception {
+        FileTaskHistoryStore store = new FileTaskHistoryStore(directory);
+        store.append("t1", List.of(message("m1")));
+        assertEquals(1, historyFiles().size());
+
+        store.remove("t1");
+        store.remove("unknown");
+        assertTrue(historyFiles().isEmpty());
+        assertTrue(store.load("t1", 0).isEmpty());
+    }
+
+    @Test
+    void testFailsOnCorruptFile() throws Exception {
+        FileTaskHistoryStore store = new FileTaskHistoryStore(directory);
+        store.append("t1", List.of(message("m1")));
+        Files.writeString(historyFiles().get(0), "{\"messageId\":\"m2\",\"par", StandardOpenOption.APPEND);
+
+        UncheckedIOException error = assertThrows(UncheckedIOException.class, () -> store.load("t1", 0));
+        assertTrue(error.getMessage().contains("t1"));
+    }
+
+    private List<Path> historyFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+}
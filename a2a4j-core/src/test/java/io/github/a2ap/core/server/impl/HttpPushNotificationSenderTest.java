@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskPushNotificationConfig;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.util.JsonUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpPushNotificationSenderTest {
+
+    // Posts in flight over all receivers
+    private final AtomicInteger activeTotal = new AtomicInteger();
+
+    private final AtomicInteger maxActiveTotal = new AtomicInteger();
+
+    private final Receiver receiver = new Receiver();
+
+    @AfterEach
+    void tearDown() {
+        receiver.close();
+    }
+
+    @Test
+    void testCoalescesUpdatesWhilePostInFlight() {
+        Sinks.Empty<Void> release = Sinks.empty();
+        receiver.delay = release.asMono();
+        try (HttpPushNotificationSender sender = sender(8, 2, 3)) {
+            Task task = task("t1", TaskState.SUBMITTED);
+            sender.send(config("t1"), task);
+            awaitCondition(() -> receiver.bodies.size() == 1);
+
+            // the first post is in flight, only the latest of these updates is posted
+            task.setStatus(TaskStatus.builder().state(TaskState.WORKING).build());
+            sender.send(config("t1"), task);
+            sender.send(config("t1"), task);
+            task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+            sender.send(config("t1"), task);
+            receiver.delay = Mono.empty();
+            release.tryEmitEmpty();
+
+            awaitCondition(() -> sender.getSentCount() == 2 && sender.getPendingCount() == 0);
+            assertEquals(2, receiver.bodies.size());
+            assertEquals(TaskState.SUBMITTED, state(receiver.bodies.get(0)));
+            assertEquals(TaskState.COMPLETED, state(receiver.bodies.get(1)));
+            assertEquals(List.of("Bearer secret", "Bearer secret"), List.copyOf(receiver.authorizations));
+            assertEquals(2, sender.getCoalescedCount());
+        }
+    }
+
+    @Test
+    void testRetriesServerErrorsWithBackoff() {
+        receiver.statuses.add(503);
+        receiver.statuses.add(500);
+        try (HttpPushNotificationSender sender = sender(8, 2, 3)) {
+            sender.send(config("t1"), task("t1", TaskState.COMPLETED));
+
+            awaitCondition(() -> sender.getSentCount() == 1);
+            assertEquals(3, receiver.bodies.size());
+            assertEquals(2, sender.getRetryCount());
+            assertEquals(0, sender.getDeadLetterCount());
+            assertEquals(0, sender.getPendingCount());
+        }
+    }
+
+    @Test
+    void testDeadLettersRejectedAndExhaustedNotifications() {
+        receiver.statuses.add(400);
+        try (HttpPushNotificationSender sender = sender(8, 2, 3)) {
+            sender.send(config("t1"), task("t1", TaskState.COMPLETED));
+            awaitCondition(() -> sender.getDeadLetterCount() == 1);
+
+            receiver.statuses.add(500);
+            receiver.statuses.add(500);
+            receiver.statuses.add(500);
+            sender.send(config("t2"), task("t2", TaskState.COMPLETED));
+            awaitCondition(() -> sender.getDeadLetterCount() == 2);
+
+            sender.send(new TaskPushNotificationConfig("not a url", null, "t3"), task("t3", TaskState.COMPLETED));
+
+            List<HttpPushNotificationSender.DeadLetter> deadLetters = sender.getDeadLetters();
+            assertEquals(3, deadLetters.size());
+            assertEquals("t1", deadLetters.get(0).getTaskId());
+            assertEquals(1, deadLetters.get(0).getAttempts());
+            assertEquals("HTTP 400", deadLetters.get(0).getReason());
+            assertEquals("t2", deadLetters.get(1).getTaskId());
+            assertEquals(3, deadLetters.get(1).getAttempts());
+            assertEquals(TaskState.COMPLETED, state(deadLetters.get(1).getBody()));
+            assertEquals("t3", deadLetters.get(2).getTaskId());
+            assertEquals(0, deadLetters.get(2).getAttempts());
+            assertEquals(0, sender.getSentCount());
+            assertEquals(4, receiver.bodies.size());
+            awaitCondition(() -> sender.getPendingCount() == 0);
+        }
+    }
+
+    @Test
+    void testBoundsConcurrencyPerHostAndGlobally() {
+        receiver.delay = Mono.delay(Duration.ofMillis(50)).then();
+        try (Receiver other = new Receiver(); HttpPushNotificationSender sender = sender(3, 2, 1)) {
+            other.delay = receiver.delay;
+            for (int i = 0; i < 10; i++) {
+                sender.send(config("a" + i), task("a" + i, TaskState.COMPLETED));
+                sender.send(other.config("b" + i), task("b" + i, TaskState.COMPLETED));
+            }
+
+            awaitCondition(() -> sender.getSentCount() == 20);
+            assertEquals(10, receiver.bodies.size());
+            assertEquals(10, other.bodies.size());
+            assertTrue(receiver.maxActive.get() <= 2);
+            assertTrue(other.maxActive.get() <= 2);
+            assertTrue(maxActiveTotal.get() <= 3);
+            assertEquals(0, sender.getActiveCount());
+        }
+    }
+
+    private HttpPushNotificationSender sender(int maxConcurrency, int maxConcurrencyPerHost, int maxAttempts) {
+        return new HttpPushNotificationSender(HttpClient.create().responseTimeout(Duration.ofSeconds(5)),
+            maxConcurrency, maxConcurrencyPerHost, maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50), 10);
+    }
+
+    private TaskPushNotificationConfig config(String taskId) {
+        return receiver.config(taskId);
+    }
+
+    private static Task task(String id, TaskState state) {
+        return Task.builder()
+            .id(id)
+            .contextId("c1")
+            .status(TaskStatus.builder().state(state).build())
+            .build();
+    }
+
+    private static TaskState state(String body) {
+        return JsonUtil.fromJson(body, Task.class).getStatus().getState();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Stand-in webhook receiver, answering the queued statuses first and 200 afterwards.
+     */
+    private final class Receiver implements AutoCloseable {
+
+        private final List<String> bodies = new CopyOnWriteArrayList<>();
+
+        private final Queue<String> authorizations = new ConcurrentLinkedQueue<>();
+
+        private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        private volatile Mono<Void> delay = Mono.empty();
+
+        private final DisposableServer server;
+
+        private Receiver() {
+            server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> request.receive().aggregate().asString().defaultIfEmpty("")
+                    .flatMap(body -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        maxActiveTotal.accumulateAndGet(activeTotal.incrementAndGet(), Math::max);
+                        bodies.add(body);
+                        String authorization = request.requestHeaders().get("Authorization");
+                        if (authorization != null) {
+                            authorizations.add(authorization);
+                        }
+                        Integer status = statuses.poll();
+                        return delay.then(Mono.just(status == null ? 200 : status))
+                            .doOnTerminate(() -> {
+                                active.decrementAndGet();
+                                activeTotal.decrementAndGet();
+                            });
+                    })
+                    .flatMap(status -> Mono.from(response.status(status).send())))
+                .bindNow();
+        }
+
+        private TaskPushNotificationConfig config(String taskId) {
+            return new TaskPushNotificationConfig("http://127.0.0.1:" + server.port() + "/hook", "secret", taskId);
+        }
+
+        @Override
+        public void close() {
+            server.disposeNow();
+        }
+
+    }
+
+}
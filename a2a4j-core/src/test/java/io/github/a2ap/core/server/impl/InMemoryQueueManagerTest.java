@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.exception.A2AError;
+import io.github.a2ap.core.server.EventQueue;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+
+import static io.github.a2ap.core.server.impl.DefaultA2AServerTest.awaitCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryQueueManagerTest {
+
+    @Test
+    void testCreateReturnsTheOpenQueue() {
+        try (InMemoryQueueManager manager = new InMemoryQueueManager()) {
+            EventQueue queue = manager.create("t1");
+            assertSame(queue, manager.create("t1"));
+            assertSame(queue, manager.get("t1"));
+
+            queue.close();
+            EventQueue replacement = manager.create("t1");
+            assertNotSame(queue, replacement);
+            assertSame(replacement, manager.get("t1"));
+            assertEquals(1, manager.getLiveCount());
+            assertEquals(2, manager.getCreatedCount());
+
+            manager.remove("t1");
+            assertTrue(replacement.isClosed());
+            assertEquals(0, manager.getLiveCount());
+        }
+    }
+
+    @Test
+    void testReapsIdleQueuesAsLeaked() {
+        try (InMemoryQueueManager manager = InMemoryQueueManager.builder()
+            .idleTimeout(Duration.ofMillis(100))
+            .build()) {
+            EventQueue leaked = manager.create("leaked");
+            EventQueue closed = manager.create("closed");
+            closed.close();
+
+            awaitCondition(() -> manager.getReapedCount() == 2);
+            assertTrue(leaked.isClosed());
+            assertNull(manager.get("leaked"));
+            assertNull(manager.get("closed"));
+            assertEquals(1, manager.getLeakedCount());
+            assertEquals(0, manager.getLiveCount());
+        }
+    }
+
+    @Test
+    void testKeepsIdleQueuesWithSubscribers() throws InterruptedException {
+        try (InMemoryQueueManager manager = InMemoryQueueManager.builder()
+            .idleTimeout(Duration.ofMillis(100))
+            .build()) {
+            EventQueue queue = manager.create("t1");
+            Disposable subscriber = queue.asFlux().subscribe();
+
+            // a slow task whose stream is still followed
+            Thread.sleep(400);
+            assertSame(queue, manager.get("t1"));
+            assertEquals(0, manager.getReapedCount());
+
+            subscriber.dispose();
+            awaitCondition(() -> manager.getReapedCount() == 1);
+            assertTrue(queue.isClosed());
+            assertNull(manager.get("t1"));
+        }
+    }
+
+    @Test
+    void testReapsQueuesPastMaxAge() {
+        try (InMemoryQueueManager manager = InMemoryQueueManager.builder()
+            .idleTimeout(Duration.ofHours(1))
+            .maxAge(Duration.ofMillis(100))
+            .build()) {
+            EventQueue queue = manager.create("t1");
+            queue.asFlux().subscribe();
+
+            awaitCondition(queue::isClosed);
+            assertNull(manager.get("t1"));
+            assertEquals(1, manager.getLeakedCount());
+        }
+    }
+
+    @Test
+    void testRejectsQueuesBeyondTheCap() {
+        try (InMemoryQueueManager manager = InMemoryQueueManager.builder().maxQueues(2).build()) {
+            manager.create("t1");
+            manager.create("t2");
+            manager.create("t2");
+
+            A2AError error = assertThrows(A2AError.class, () -> manager.create("t3"));
+            assertEquals(A2AError.SERVER_OVERLOADED, error.getCode());
+            assertNull(manager.get("t3"));
+
+            manager.remove("t1");
+            manager.create("t3");
+            assertEquals(2, manager.getLiveCount());
+            assertEquals(3, manager.getCreatedCount());
+        }
+    }
+
+}
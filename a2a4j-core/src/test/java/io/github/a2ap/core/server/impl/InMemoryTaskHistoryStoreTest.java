@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.TextPart;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTaskHistoryStoreTest {
+
+    private final InMemoryTaskHistoryStore store = new InMemoryTaskHistoryStore();
+
+    @Test
+    void testLoadsMostRecentMessagesOldestFirst() {
+        store.append("t1", List.of(message("m1"), message("m2")));
+        store.append("t1", List.of(message("m3")));
+        store.append("t2", List.of(message("other")));
+
+        assertEquals(List.of("m1", "m2", "m3"), ids(store.load("t1", 0)));
+        assertEquals(List.of("m2", "m3"), ids(store.load("t1", 2)));
+        assertEquals(List.of("m1", "m2", "m3"), ids(store.load("t1", 10)));
+        assertEquals(List.of("other"), ids(store.load("t2", 0)));
+        assertTrue(store.load("unknown", 0).isEmpty());
+    }
+
+    @Test
+    void testLoadReturnsACopy() {
+        store.append("t1", List.of(message("m1")));
+
+        List<Message> loaded = store.load("t1", 0);
+        loaded.clear();
+        assertEquals(List.of("m1"), ids(store.load("t1", 0)));
+    }
+
+    @Test
+    void testRemovesHistoryOfTask() {
+        store.append("t1", List.of(message("m1")));
+        store.append("t2", List.of(message("m2")));
+
+        store.remove("t1");
+        store.remove("unknown");
+        assertTrue(store.load("t1", 0).isEmpty());
+        assertEquals(List.of("m2"), ids(store.load("t2", 0)));
+    }
+
+    static Message message(String messageId) {
+        return Message.builder()
+            .messageId(messageId)
+            .role("agent")
+            .parts(List.of(new TextPart("text of " + messageId)))
+            .build();
+    }
+
+    static List<String> ids(List<Message> messages) {
+        return messages.stream().map(Message::getMessageId).toList();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.MessageSendParams;
+import io.github.a2ap.core.model.RelatedTasks;
+import io.github.a2ap.core.model.RequestContext;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.server.TaskStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InMemoryTaskManagerTest {
+
+    @Test
+    void testFindsRelatedTasksWithIndexBehindWriteBehindStore() throws Exception {
+        BoundedInMemoryTaskStore indexedStore = new BoundedInMemoryTaskStore(3, 0, Duration.ZERO);
+        try (WriteBehindTaskStore store = new WriteBehindTaskStore(indexedStore, Duration.ofHours(1), 1)) {
+            InMemoryTaskManager manager = new InMemoryTaskManager(store);
+            for (String taskId : List.of("t1", "t2", "t3")) {
+                complete(manager, manager.loadOrCreateContext(params(taskId)).getTask());
+            }
+
+            // t1 is evicted by the store for room, and leaves its index
+            RequestContext context = manager.loadOrCreateContext(params("t4"));
+            assertNull(indexedStore.load("t1"));
+            assertEquals(Set.of("t2", "t3"), relatedTaskIds(context));
+        }
+    }
+
+    @Test
+    void testForgetsTerminalTasksOfContextWithoutIndex() {
+        InMemoryTaskStore backingStore = new InMemoryTaskStore();
+        TaskStore store = new TaskStore() {
+            @Override
+            public void save(Task task) {
+                backingStore.save(task);
+            }
+
+            @Override
+            public Task load(String taskId) {
+                return backingStore.load(taskId);
+            }
+        };
+        InMemoryTaskManager manager = new InMemoryTaskManager(store);
+
+        Task first = manager.loadOrCreateContext(params("t1")).getTask();
+        assertEquals(Set.of("t1"), relatedTaskIds(manager.loadOrCreateContext(params("t2"))));
+
+        complete(manager, first);
+        assertEquals(Set.of("t2"), relatedTaskIds(manager.loadOrCreateContext(params("t3"))));
+
+        // a new message for the terminal task tracks it again
+        assertEquals(Set.of("t2", "t3"), relatedTaskIds(manager.loadOrCreateContext(params("t1"))));
+        assertEquals(Set.of("t1", "t2"), relatedTaskIds(manager.loadOrCreateContext(params("t3"))));
+    }
+
+    private static void complete(InMemoryTaskManager manager, Task task) {
+        manager.applyTaskUpdate(task, TaskStatus.builder().state(TaskState.COMPLETED).build()).block();
+    }
+
+    private static Set<String> relatedTaskIds(RequestContext context) {
+        return Set.copyOf(((RelatedTasks) context.getRelatedTasks()).getTaskIds());
+    }
+
+    private static MessageSendParams params(String taskId) {
+        return MessageSendParams.builder()
+            .message(Message.builder()
+                .messageId("m-" + taskId)
+                .taskId(taskId)
+                .contextId("c1")
+                .role("user")
+                .parts(List.of(TextPart.builder().text("hello").build()))
+                .build())
+            .build();
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Part;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JdbcTaskStoreTest {
+
+    private JdbcDataSource dataSource;
+
+    private JdbcTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        store = new JdbcTaskStore(dataSource);
+        store.createSchema();
+        store.createSchema();
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        Task task = task("t1");
+        task.setMetadata(Map.of("key", "value"));
+        store.save(task);
+
+        assertEquals(task, new JdbcTaskStore(dataSource).load("t1"));
+        assertNull(store.load("missing"));
+        assertNull(store.load(null));
+    }
+
+    @Test
+    void testWritesOnlyAppendedRows() throws Exception {
+        Task task = task("t1");
+        store.save(task);
+        long rows = store.getWrittenRowCount();
+
+        // the same changes as the task manager applies while an agent runs
+        task.setStatus(TaskStatus.builder().state(TaskState.WORKING).build());
+        task.getHistory().add(message("working"));
+        Artifact artifact = task.getArtifacts().get(0);
+        List<Part> parts = new ArrayList<>(artifact.getParts());
+        parts.add(text("world"));
+        artifact.setParts(parts);
+        store.save(task);
+        store.save(task);
+
+        assertEquals(1, store.getFullWriteCount());
+        assertEquals(1, store.getDeltaWriteCount());
+        // status update, one message and one part
+        assertEquals(rows + 3, store.getWrittenRowCount());
+        assertEquals(2, count("a2a_task_message"));
+        assertEquals(2, count("a2a_task_artifact_part"));
+        assertEquals(task, new JdbcTaskStore(dataSource).load("t1"));
+    }
+
+    @Test
+    void testReplacesArtifactsAndRewritesShortenedHistory() {
+        Task task = task("t1");
+        store.save(task);
+
+        task.getArtifacts().set(0, Artifact.builder().artifactId("a1").parts(List.of(text("replaced"))).build());
+        task.getArtifacts().add(Artifact.builder().artifactId("a2").parts(List.of(text("a"), text("b"))).build());
+        store.save(task);
+        assertEquals(task, new JdbcTaskStore(dataSource).load("t1"));
+
+        task.setHistory(new LinkedList<>());
+        store.save(task);
+        assertEquals(2, store.getFullWriteCount());
+        assertEquals(task, new JdbcTaskStore(dataSource).load("t1"));
+    }
+
+    @Test
+    void testContinuesWithDeltasAfterLoad() {
+        store.save(task("t1"));
+
+        JdbcTaskStore other = new JdbcTaskStore(dataSource);
+        Task task = other.load("t1");
+        task.getHistory().add(message("again"));
+        task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+        other.save(task);
+
+        assertEquals(0, other.getFullWriteCount());
+        assertEquals(1, other.getDeltaWriteCount());
+        assertEquals(task, store.load("t1"));
+    }
+
+    private long count(String table) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static Task task(String id) {
+        List<Artifact> artifacts = new LinkedList<>();
+        artifacts.add(Artifact.builder().artifactId("a1").parts(List.of(text("hello"))).build());
+        List<Message> history = new LinkedList<>();
+        history.add(message("hello"));
+        return Task.builder()
+            .id(id)
+            .contextId("c1")
+            .status(TaskStatus.builder().state(TaskState.SUBMITTED).build())
+            .artifacts(artifacts)
+            .history(history)
+            .build();
+    }
+
+    private static Message message(String text) {
+        return Message.builder().role("user").parts(List.of(text(text))).build();
+    }
+
+    private static TextPart text(String text) {
+        return TextPart.builder().text(text).build();
+    }
+
+}
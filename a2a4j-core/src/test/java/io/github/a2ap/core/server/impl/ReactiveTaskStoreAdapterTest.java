@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.server.TaskStore;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveTaskStoreAdapterTest {
+
+    private final InMemoryTaskStore backingStore = new InMemoryTaskStore();
+
+    @Test
+    void testSavesAndLoadsThroughTheStore() {
+        ReactiveTaskStoreAdapter adapter = new ReactiveTaskStoreAdapter(backingStore);
+        Task task = task("t1");
+
+        StepVerifier.create(adapter.save(task)).verifyComplete();
+        assertSame(task, backingStore.load("t1"));
+        StepVerifier.create(adapter.load("t1")).expectNext(task).verifyComplete();
+        StepVerifier.create(adapter.load("unknown")).verifyComplete();
+        assertSame(backingStore, adapter.getDelegate());
+    }
+
+    @Test
+    void testCallsTheStoreOnlyOnSubscription() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        ReactiveTaskStoreAdapter adapter = new ReactiveTaskStoreAdapter(recordingStore(calls));
+
+        adapter.save(task("t1"));
+        adapter.load("t1");
+        assertTrue(calls.isEmpty());
+
+        adapter.load("t1").block();
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void testCallsTheStoreOnTheScheduler() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        Scheduler scheduler = Schedulers.newSingle("task-store");
+        try {
+            ReactiveTaskStoreAdapter adapter = new ReactiveTaskStoreAdapter(recordingStore(calls), scheduler);
+
+            StepVerifier.create(adapter.save(task("t1")).then(adapter.load("t1")))
+                .expectNextCount(1)
+                .verifyComplete();
+            assertEquals(2, calls.size());
+            assertTrue(calls.stream().allMatch(thread -> thread.startsWith("task-store")));
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void testRejectsNullDelegate() {
+        assertThrows(IllegalArgumentException.class, () -> new ReactiveTaskStoreAdapter(null));
+    }
+
+    /**
+     * Returns a store recording the name of the thread of each call.
+     */
+    private TaskStore recordingStore(List<String> calls) {
+        return new TaskStore() {
+            @Override
+            public void save(Task task) {
+                calls.add(Thread.currentThread().getName());
+                backingStore.save(task);
+            }
+
+            @Override
+            public Task load(String taskId) {
+                calls.add(Thread.currentThread().getName());
+                return backingStore.load(taskId);
+            }
+        };
+    }
+
+    private static Task task(String id) {
+        return Task.builder().id(id).contextId("c1").build();
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.MessageSendParams;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskArtifactUpdateEvent;
+import io.github.a2ap.core.model.TextPart;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskUpdateSequencerTest {
+
+    private static final int THREADS = 8;
+
+    private static final int UPDATES_PER_THREAD = 5000;
+
+    @Test
+    void testUpdatesOfSameTaskAreSerializedInOrder() throws Exception {
+        TaskUpdateSequencer sequencer = new TaskUpdateSequencer();
+        // deliberately not thread safe, the sequencer must prevent lost updates
+        int[] counter = new int[1];
+        List<List<Integer>> seenPerThread = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            seenPerThread.add(new ArrayList<>());
+        }
+
+        runConcurrently(thread -> {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                int value = i;
+                futures.add(sequencer.submit("task", () -> {
+                    counter[0]++;
+                    seenPerThread.get(thread).add(value);
+                    return value;
+                }));
+            }
+            futures.forEach(CompletableFuture::join);
+        });
+
+        assertEquals(THREADS * UPDATES_PER_THREAD, counter[0]);
+        for (List<Integer> seen : seenPerThread) {
+            assertEquals(UPDATES_PER_THREAD, seen.size());
+            for (int i = 0; i < seen.size(); i++) {
+                assertEquals(i, seen.get(i));
+            }
+        }
+        assertEquals(0, sequencer.activeTasks());
+    }
+
+    @Test
+    void testFailedUpdateDoesNotBlockFollowingUpdates() {
+        TaskUpdateSequencer sequencer = new TaskUpdateSequencer();
+
+        CompletableFuture<Object> failed = sequencer.submit("task", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> next = sequencer.submit("task", () -> "ok");
+
+        assertThrows(Exception.class, failed::join);
+        assertEquals("ok", next.join());
+        assertEquals(0, sequencer.activeTasks());
+    }
+
+    @Test
+    void testAsyncUpdateHoldsFollowingUpdatesUntilCompleted() {
+        TaskUpdateSequencer sequencer = new TaskUpdateSequencer();
+        CompletableFuture<String> save = new CompletableFuture<>();
+        List<String> applied = new ArrayList<>();
+
+        CompletableFuture<String> first = sequencer.submitAsync("task", () -> {
+            applied.add("first");
+            return save;
+        });
+        CompletableFuture<String> second = sequencer.submit("task", () -> {
+            applied.add("second");
+            return "second";
+        });
+
+        // the submitter is not blocked while the first update is pending
+        assertEquals(List.of("first"), applied);
+        assertFalse(second.isDone());
+
+        save.complete("first");
+        assertEquals("first", first.join());
+        assertEquals("second", second.join());
+        assertEquals(List.of("first", "second"), applied);
+        assertEquals(0, sequencer.activeTasks());
+    }
+
+    @Test
+    void testConcurrentArtifactAppendsOnReactiveStoreAreNotLost() throws Exception {
+        InMemoryTaskStore store = new InMemoryTaskStore();
+        InMemoryTaskManager taskManager = new InMemoryTaskManager(
+            new ReactiveTaskStoreAdapter(store, Schedulers.boundedElastic()));
+        Task task = taskManager.loadOrCreateContextAsync(params(null)).block().getTask();
+        taskManager.applyArtifactUpdate(task, artifactEvent(task, false)).block();
+
+        runConcurrently(thread -> {
+            Mono<Task> last = Mono.empty();
+            for (int i = 0; i < UPDATES_PER_THREAD / 10; i++) {
+                last = taskManager.applyArtifactUpdate(task, artifactEvent(task, true));
+            }
+            last.block();
+        });
+
+        assertEquals(1 + THREADS * (UPDATES_PER_THREAD / 10), task.getArtifacts().get(0).getParts().size());
+        assertSame(task, taskManager.getTaskAsync(task.getId()).block());
+    }
+
+    @Test
+    void testConcurrentArtifactAppendsAreNotLost() throws Exception {
+        InMemoryTaskManager taskManager = new InMemoryTaskManager(new InMemoryTaskStore());
+        Task task = taskManager.loadOrCreateContext(params(null)).getTask();
+        taskManager.applyArtifactUpdate(task, artifactEvent(task, false)).block();
+
+        runConcurrently(thread -> {
+            Mono<Task> last = Mono.empty();
+            for (int i = 0; i < UPDATES_PER_THREAD / 10; i++) {
+                last = taskManager.applyArtifactUpdate(task, artifactEvent(task, true));
+            }
+            // updates of a task complete in submission order
+            last.block();
+        });
+
+        assertEquals(1 + THREADS * (UPDATES_PER_THREAD / 10), task.getArtifacts().get(0).getParts().size());
+    }
+
+    @Test
+    void testConcurrentMessagesShareOneTask() throws Exception {
+        InMemoryTaskManager taskManager = new InMemoryTaskManager(new InMemoryTaskStore());
+        Task[] tasks = new Task[THREADS];
+
+        runConcurrently(thread -> tasks[thread] = taskManager.loadOrCreateContext(params("shared")).getTask());
+
+        for (Task task : tasks) {
+            assertSame(tasks[0], task);
+        }
+    }
+
+    private static void runConcurrently(ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    body.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static MessageSendParams params(String taskId) {
+        return MessageSendParams.builder()
+            .message(Message.builder()
+                .messageId("m1")
+                .taskId(taskId)
+                .role("user")
+                .parts(List.of(TextPart.builder().text("hello").build()))
+                .build())
+            .build();
+    }
+
+    private static TaskArtifactUpdateEvent artifactEvent(Task task, boolean append) {
+        return TaskArtifactUpdateEvent.builder()
+            .taskId(task.getId())
+            .artifact(Artifact.builder()
+                .artifactId("a1")
+                .parts(List.of(TextPart.builder().text("chunk").build()))
+                .build())
+            .append(append)
+            .build();
+    }
+
+    @FunctionalInterface
+    private interface ThreadBody {
+
+        void run(int thread) throws Exception;
+
+    }
+
+}
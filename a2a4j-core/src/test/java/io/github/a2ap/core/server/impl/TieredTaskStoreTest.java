@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Artifact;
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.server.TaskStore;
+import io.github.a2ap.core.util.SizeEstimator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFileTaskStoreRoundTrip() {
+        FileTaskStore store = new FileTaskStore(directory);
+        Task task = task("t1");
+        store.save(task);
+        task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+        store.save(task);
+
+        Task loaded = store.load("t1");
+        assertEquals(task, loaded);
+        assertNotSame(task, loaded);
+        assertNull(store.load("t2"));
+    }
+
+    @Test
+    void testHeapStaysWithinLimitAndColdTasksArePromoted() throws Exception {
+        long taskBytes = SizeEstimator.estimate(task(id(0)));
+        try (TieredTaskStore store = new TieredTaskStore(new FileTaskStore(directory), 10 * taskBytes,
+            Duration.ofHours(1))) {
+            for (int i = 0; i < 100; i++) {
+                store.save(task(id(i)));
+                assertTrue(store.getHotBytes() <= 10 * taskBytes);
+            }
+            assertEquals(10, store.getHotCount());
+            assertEquals(90, store.getDemotionCount());
+
+            store.flush();
+            assertEquals(0, store.getPendingCount());
+            assertEquals(100, store.getWriteCount());
+
+            // recent tasks are served from the heap, old ones read from disk and promoted
+            Task recent = store.load(id(99));
+            assertSame(recent, store.load(id(99)));
+            Task old = store.load(id(0));
+            assertEquals(task(id(0)), old);
+            assertSame(old, store.load(id(0)));
+            assertEquals(1, store.getMissCount());
+            assertEquals(1, store.getPromotionCount());
+            assertEquals(10, store.getHotCount());
+            assertNull(store.load("missing"));
+        }
+    }
+
+    @Test
+    void testDemotedTaskIsReadableBeforeWriteBack() throws Exception {
+        long taskBytes = SizeEstimator.estimate(task("t0"));
+        InMemoryTaskStore coldStore = new InMemoryTaskStore();
+        try (TieredTaskStore store = new TieredTaskStore(coldStore, taskBytes, Duration.ofHours(1))) {
+            Task first = task("t1");
+            store.save(first);
+            first.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+            store.save(first);
+            store.save(task("t2"));
+            assertEquals(1, store.getHotCount());
+
+            // the demotion triggers a write-back, until then the save is served from memory
+            assertEquals(first, store.load("t1"));
+            waitUntilWritten(store);
+            assertEquals(TaskState.COMPLETED, coldStore.load("t1").getStatus().getState());
+        }
+        assertEquals("t2", coldStore.load("t2").getId());
+    }
+
+    @Test
+    void testFailedWriteStaysPending() throws Exception {
+        FailingTaskStore coldStore = new FailingTaskStore();
+        try (TieredTaskStore store = new TieredTaskStore(coldStore, 1024 * 1024, Duration.ofHours(1))) {
+            store.save(task("t1"));
+            coldStore.failing = true;
+            assertThrows(RuntimeException.class, store::flush);
+            assertEquals(1, store.getPendingCount());
+            assertEquals(1, store.getWriteErrorCount());
+
+            coldStore.failing = false;
+            store.flush();
+            assertEquals(0, store.getPendingCount());
+            assertEquals("t1", coldStore.load("t1").getId());
+        }
+    }
+
+    @Test
+    void testWritesSnapshotTakenOnWrite() throws Exception {
+        InMemoryTaskStore coldStore = new InMemoryTaskStore();
+        try (TieredTaskStore store = new TieredTaskStore(coldStore, 1024 * 1024, Duration.ofHours(1))) {
+            Task task = task("t1");
+            store.save(task);
+            task.getHistory().add(message("t1-m2"));
+            store.save(task);
+            store.flush();
+
+            // the written task no longer follows the updates of the task
+            task.getHistory().add(message("t1-m3"));
+            task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+            Task written = coldStore.load("t1");
+            assertNotSame(task, written);
+            assertEquals(TaskState.WORKING, written.getStatus().getState());
+            assertEquals(2, written.getHistory().size());
+            assertSame(task, store.load("t1"));
+        }
+    }
+
+    @Test
+    void testEstimatesGrowingTaskOnSampledSaves() throws Exception {
+        try (TieredTaskStore store = new TieredTaskStore(new InMemoryTaskStore(), 1024 * 1024,
+            Duration.ofHours(1))) {
+            Task task = task("t1");
+            store.save(task);
+            long initial = store.getHotBytes();
+
+            // the 2nd save of the instance is estimated again, the 3rd is not
+            task.getHistory().add(message("t1-m2"));
+            store.save(task);
+            long second = store.getHotBytes();
+            assertTrue(second > initial);
+            task.getHistory().add(message("t1-m3"));
+            store.save(task);
+            assertEquals(second, store.getHotBytes());
+
+            // nor is it until the 4th save, or once it turns terminal
+            task.getHistory().add(message("t1-m4"));
+            store.save(task);
+            long fourth = store.getHotBytes();
+            assertTrue(fourth > second);
+            task.getHistory().add(message("t1-m5"));
+            task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+            store.save(task);
+            assertTrue(store.getHotBytes() > fourth);
+        }
+    }
+
+    private static void waitUntilWritten(TieredTaskStore store) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (store.getPendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, store.getPendingCount());
+    }
+
+    private static String id(int i) {
+        return String.format("t%03d", i);
+    }
+
+    private static Message message(String messageId) {
+        return Message.builder()
+            .messageId(messageId)
+            .role("agent")
+            .parts(List.of(TextPart.builder().text("later").build()))
+            .build();
+    }
+
+    private static Task task(String id) {
+        LinkedList<Message> history = new LinkedList<>();
+        history.add(Message.builder()
+            .messageId(id + "-m1")
+            .role("user")
+            .parts(List.of(TextPart.builder().text("hello " + id).build()))
+            .build());
+        LinkedList<Artifact> artifacts = new LinkedList<>();
+        artifacts.add(Artifact.builder()
+            .artifactId("a1")
+            .parts(List.of(TextPart.builder().text("answer").build()))
+            .build());
+        return Task.builder()
+            .id(id)
+            .contextId("c1")
+            .status(TaskStatus.builder().state(TaskState.WORKING).build())
+            .history(history)
+            .artifacts(artifacts)
+            .build();
+    }
+
+    private static final class FailingTaskStore implements TaskStore {
+
+        private final InMemoryTaskStore delegate = new InMemoryTaskStore();
+
+        private volatile boolean failing;
+
+        @Override
+        public void save(Task task) {
+            if (failing) {
+                throw new IllegalStateException("cold store down");
+            }
+            delegate.save(task);
+        }
+
+        @Override
+        public Task load(String taskId) {
+            return delegate.load(taskId);
+        }
+
+    }
+
+}
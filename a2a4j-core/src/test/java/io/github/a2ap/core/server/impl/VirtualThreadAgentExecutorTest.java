@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.RequestContext;
+import io.github.a2ap.core.model.SendStreamingMessageResponse;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TaskStatusUpdateEvent;
+import io.github.a2ap.core.server.AgentExecutor;
+import io.github.a2ap.core.server.EventQueue;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadAgentExecutorTest {
+
+    @Test
+    void testExecuteRunsOffCallerThread() {
+        AtomicReference<Thread> executeThread = new AtomicReference<>();
+        AgentExecutor blockingAgent = new AgentExecutor() {
+            @Override
+            public Mono<Void> execute(RequestContext context, EventQueue eventQueue) {
+                executeThread.set(Thread.currentThread());
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<Void> cancel(String taskId) {
+                return Mono.empty();
+            }
+        };
+
+        new VirtualThreadAgentExecutor(blockingAgent).execute(new RequestContext(), new EventQueue())
+            .block(Duration.ofSeconds(5));
+
+        assertNotNull(executeThread.get());
+        assertNotEquals(Thread.currentThread(), executeThread.get());
+    }
+
+    @Test
+    void testConcurrentEmittersDoNotDropEvents() throws InterruptedException {
+        int emitters = 8;
+        int eventsPerEmitter = 2000;
+        EventQueue eventQueue = EventQueue.builder().overflowPolicy(EventQueue.OverflowPolicy.BLOCK).build();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(emitters);
+        AgentExecutor blockingAgent = new AgentExecutor() {
+            @Override
+            public Mono<Void> execute(RequestContext context, EventQueue queue) {
+                return Mono.fromRunnable(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (int i = 0; i < eventsPerEmitter; i++) {
+                        queue.enqueueEvent(TaskStatusUpdateEvent.builder()
+                            .taskId(context.getTaskId())
+                            .status(TaskStatus.builder().state(TaskState.WORKING).build())
+                            .build());
+                    }
+                    done.countDown();
+                });
+            }
+
+            @Override
+            public Mono<Void> cancel(String taskId) {
+                return Mono.empty();
+            }
+        };
+        VirtualThreadAgentExecutor executor = new VirtualThreadAgentExecutor(blockingAgent);
+
+        Mono<List<SendStreamingMessageResponse>> received = eventQueue.asFlux().collectList().cache();
+        received.subscribe();
+        Flux.range(0, emitters)
+            .flatMap(i -> executor.execute(RequestContext.builder().taskId("t" + i).build(), eventQueue))
+            .subscribe();
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        eventQueue.close();
+
+        List<SendStreamingMessageResponse> events = received.block(Duration.ofSeconds(10));
+        assertNotNull(events);
+        assertEquals(emitters * eventsPerEmitter, events.size());
+    }
+
+}
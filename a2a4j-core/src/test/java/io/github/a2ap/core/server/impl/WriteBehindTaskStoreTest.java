@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.a2ap.core.server.impl;
+
+import io.github.a2ap.core.model.Message;
+import io.github.a2ap.core.model.Task;
+import io.github.a2ap.core.model.TaskState;
+import io.github.a2ap.core.model.TaskStatus;
+import io.github.a2ap.core.model.TextPart;
+import io.github.a2ap.core.server.TaskStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.a2ap.core.server.impl.DefaultA2AServerTest.awaitCondition;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WriteBehindTaskStoreTest {
+
+    private final InMemoryTaskStore backingStore = new InMemoryTaskStore();
+
+    private final AtomicInteger writes = new AtomicInteger();
+
+    private final TaskStore countingStore = new TaskStore() {
+        @Override
+        public void save(Task task) {
+            writes.incrementAndGet();
+            backingStore.save(task);
+        }
+
+        @Override
+        public Task load(String taskId) {
+            return backingStore.load(taskId);
+        }
+    };
+
+    @Test
+    void testCoalescesIntermediateSavesAndFlushesTerminalState() throws Exception {
+        try (WriteBehindTaskStore store = new WriteBehindTaskStore(countingStore, Duration.ofHours(1), 1000)) {
+            Task task = task(TaskState.WORKING);
+            for (int i = 0; i < 500; i++) {
+                store.save(task);
+            }
+
+            assertEquals(0, writes.get());
+            assertNull(backingStore.load("t1"));
+            assertSame(task, store.load("t1"));
+            assertEquals(1, store.getPendingCount());
+
+            task.setStatus(TaskStatus.builder().state(TaskState.COMPLETED).build());
+            store.save(task);
+
+            assertEquals(1, writes.get());
+            assertEquals(0, store.getPendingCount());
+            assertEquals(TaskState.COMPLETED, backingStore.load("t1").getStatus().getState());
+            assertEquals(501, store.getSaveCount());
+            assertEquals(1, store.getWriteCount());
+        }
+    }
+
+    @Test
+    void testFlushesAfterMaxPendingSaves() throws Exception {
+        try (WriteBehindTaskStore store = new WriteBehindTaskStore(countingStore, Duration.ofHours(1), 10)) {
+            Task task = task(TaskState.WORKING);
+            for (int i = 0; i < 25; i++) {
+                store.save(task);
+            }
+
+            assertEquals(2, writes.get());
+            assertEquals(1, store.getPendingCount());
+        }
+        assertEquals(3, writes.get());
+    }
+
+    @Test
+    void testFlushesAfterInterval() throws Exception {
+        try (WriteBehindTaskStore store = new WriteBehindTaskStore(countingStore, Duration.ofMillis(50), 1000)) {
+            store.save(task(TaskState.WORKING));
+
+            awaitCondition(() -> writes.get() == 1);
+            assertEquals(0, store.getPendingCount());
+        }
+    }
+
+    @Test
+    void testFailedWriteKeepsSavePending() throws Exception {
+        TaskStore failingStore = new TaskStore() {
+            @Override
+            public void save(Task task) {
+                throw new IllegalStateException("store down");
+            }
+
+            @Override
+            public Task load(String taskId) {
+                return null;
+            }
+        };
+        WriteBehindTaskStore store = new WriteBehindTaskStore(failingStore, Duration.ofHours(1), 1000);
+        Task task = task(TaskState.WORKING);
+        store.save(task);
+
+        assertThrows(IllegalStateException.class, store::flush);
+        assertEquals(1, store.getPendingCount());
+        assertEquals(1, store.getWriteErrorCount());
+        assertSame(task, store.load("t1"));
+        assertThrows(IllegalStateException.class, store::close);
+    }
+
+    @Test
+    void testWritesSnapshotTakenOnWrite() throws Exception {
+        try (WriteBehindTaskStore store = new WriteBehindTaskStore(countingStore, Duration.ofHours(1), 1000)) {
+            Task task = task(TaskState.WORKING);
+            task.setHistory(new ArrayList<>(List.of(message("m1"))));
+            store.save(task);
+            task.getHistory().add(message("m2"));
+            store.save(task);
+            assertSame(task, store.load("t1"));
+            store.flush();
+
+            // the written task no longer follows the updates of the task
+            task.getHistory().add(message("m3"));
+            task.setStatus(TaskStatus.builder().state(TaskState.INPUT_REQUIRED).build());
+            Task written = backingStore.load("t1");
+            assertNotSame(task, written);
+            assertEquals(TaskState.WORKING, written.getStatus().getState());
+            assertEquals(2, written.getHistory().size());
+            assertEquals(1, writes.get());
+        }
+    }
+
+    private static Message message(String messageId) {
+        return Message.builder()
+            .messageId(messageId)
+            .role("agent")
+            .parts(List.of(new TextPart("text")))
+            .build();
+    }
+
+    private static Task task(TaskState state) {
+        return Task.builder()
+            .id("t1")
+            .contextId("c1")
+            .status(TaskStatus.builder().state(state).build())
+            .build();
+    }
+
+}
@@ -33,8 +33,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Spring Boot REST Controller that implements the A2A protocol endpoints.
@@ -172,8 +175,9 @@ public class A2AServerController {
      * Handles synchronous A2A JSON-RPC requests.
      *
      * <p>
-     * This endpoint processes JSON-RPC 2.0 requests and returns immediate responses. It
-     * supports all standard A2A methods such as:
+     * This endpoint processes JSON-RPC 2.0 requests and returns a single response once the
+     * request has been handled. The request thread is released while the agent is running.
+     * It supports all standard A2A methods such as:
      * <ul>
      * <li>{@code message/send} - Send a message and create a task</li>
      * <li>{@code tasks/get} - Get task status</li>
@@ -205,11 +209,11 @@ public class A2AServerController {
      * </pre>
      *
      * @param request the JSON-RPC request
-     * @return ResponseEntity containing the JSON-RPC response
+     * @return Mono of the ResponseEntity containing the JSON-RPC response
      */
     @PostMapping(value = "/a2a/server", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<JSONRPCResponse> handleA2ARequestTask(@RequestBody JSONRPCRequest request) {
-        return ResponseEntity.ok(a2aDispatch.dispatch(request));
+    public Mono<ResponseEntity<JSONRPCResponse>> handleA2ARequestTask(@RequestBody JSONRPCRequest request) {
+        return a2aDispatch.dispatchAsync(request).map(ResponseEntity::ok);
     }
 
     /**
@@ -256,22 +260,42 @@ public class A2AServerController {
      *
      * <p>
      * <strong>Example response stream:</strong> <pre>
+     * id: 1
      * event: task-update
      * data: {"jsonrpc":"2.0","result":{"taskId":"abc123","status":"WORKING"},"id":"1"}
      *
+     * id: 2
      * event: task-update
      * data: {"jsonrpc":"2.0","result":{"taskId":"abc123","artifact":{"type":"text","content":"Hello!"}},"id":"1"}
      *
+     * id: 3
      * event: task-update
      * data: {"jsonrpc":"2.0","result":{"taskId":"abc123","status":"COMPLETED"},"id":"1"}
      * </pre>
      *
-     * @param request the JSON-RPC request
+     * <p>
+     * The id of every event is its sequence number in the task stream. A client that lost
+     * the stream resumes it with a tasks/resubscribe request carrying the last id it
+     * received, in the {@code Last-Event-ID} header or the {@code lastEventId} param.
+     *
+     * @param request     the JSON-RPC request
+     * @param lastEventId the id of the last event received before reconnecting, if any
      * @return Flux of ServerSentEvent containing JSON-RPC responses
      */
     @PostMapping(value = "/a2a/server", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<JSONRPCResponse>> handleA2ARequestTaskSubscribe(@RequestBody JSONRPCRequest request) {
-        return a2aDispatch.dispatchStream(request).map(event -> ServerSentEvent.<JSONRPCResponse>builder().data(event).event("task-update").build());
+    public Flux<ServerSentEvent<JSONRPCResponse>> handleA2ARequestTaskSubscribe(@RequestBody JSONRPCRequest request,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        if (lastEventId != null && "tasks/resubscribe".equals(request.getMethod())
+                && request.getParams() instanceof Map<?, ?> params && !params.containsKey("lastEventId")) {
+            Map<Object, Object> resumeParams = new LinkedHashMap<>(params);
+            resumeParams.put("lastEventId", lastEventId);
+            request.setParams(resumeParams);
+        }
+        return a2aDispatch.dispatchStream(request).map(event -> ServerSentEvent.<JSONRPCResponse>builder()
+                .id(event.getEventId() == null ? null : String.valueOf(event.getEventId()))
+                .data(event)
+                .event("task-update")
+                .build());
     }
 
 }
@@ -26,22 +26,45 @@ import io.github.a2ap.core.model.RequestContext;
 import io.github.a2ap.core.server.A2AServer;
 import io.github.a2ap.core.server.AgentExecutor;
 import io.github.a2ap.core.server.Dispatcher;
+import io.github.a2ap.core.server.EventBroker;
 import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.PushNotificationSender;
 import io.github.a2ap.core.server.QueueManager;
+import io.github.a2ap.core.server.ReactiveTaskStore;
+import io.github.a2ap.core.server.TaskHistoryStore;
+import io.github.a2ap.core.server.impl.BoundedAgentExecutor;
+import io.github.a2ap.core.server.impl.BoundedInMemoryTaskStore;
+import io.github.a2ap.core.server.impl.BrokeredQueueManager;
 import io.github.a2ap.core.server.impl.DefaultA2AServer;
 import io.github.a2ap.core.server.impl.DefaultDispatcher;
+import io.github.a2ap.core.server.impl.EventLogTaskStore;
+import io.github.a2ap.core.server.impl.FileTaskHistoryStore;
+import io.github.a2ap.core.server.impl.HttpPushNotificationSender;
 import io.github.a2ap.core.server.impl.InMemoryQueueManager;
+import io.github.a2ap.core.server.impl.InMemoryTaskHistoryStore;
 import io.github.a2ap.core.server.TaskManager;
 import io.github.a2ap.core.server.TaskStore;
 import io.github.a2ap.core.server.impl.InMemoryTaskManager;
 import io.github.a2ap.core.server.impl.InMemoryTaskStore;
+import io.github.a2ap.core.server.impl.ReactiveTaskStoreAdapter;
+import io.github.a2ap.core.server.impl.TieredTaskStore;
+import io.github.a2ap.core.server.impl.VirtualThreadAgentExecutor;
+import io.github.a2ap.core.server.impl.WriteBehindTaskStore;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -79,40 +102,155 @@ public class A2AServerAutoConfiguration {
     /**
      * Creates a default in-memory queue manager for managing task event queues. This
      * implementation stores queues in memory and is suitable for development and
-     * single-instance deployments.
+     * single-instance deployments. Queue capacity, overflow policy, replay window and
+     * the reaping of idle queues are taken from {@code a2a.server.event-queue}.
+     * <p>
+     * If an {@link EventBroker} bean is defined, the queues are shared with the other
+     * nodes of the cluster through it, so that a task can be followed from any node.
      *
-     * @return A new InMemoryQueueManager instance
+     * @param a2aServerProperties The A2A server configuration properties
+     * @param eventBroker         The broker relaying events between nodes, if any
+     * @return A new InMemoryQueueManager instance, wrapped in a BrokeredQueueManager if a
+     * broker is defined
      */
     @Bean
     @ConditionalOnMissingBean
-    public QueueManager queueManager() {
-        return new InMemoryQueueManager();
+    public QueueManager queueManager(A2AServerProperties a2aServerProperties,
+            ObjectProvider<EventBroker> eventBroker) {
+        A2AServerProperties.EventQueue eventQueue = a2aServerProperties.getEventQueue();
+        InMemoryQueueManager queueManager = InMemoryQueueManager.builder()
+            .capacity(eventQueue.getCapacity())
+            .overflowPolicy(eventQueue.getOverflowPolicy())
+            .offerTimeout(eventQueue.getOfferTimeout())
+            // the window never holds more than the buffer, e.g. with a capacity below the default window
+            .replayEvents(Math.min(eventQueue.getReplayEvents(), eventQueue.getCapacity()))
+            .replayBytes(eventQueue.getReplayBytes().toBytes())
+            .idleTimeout(eventQueue.getIdleTimeout())
+            .maxAge(eventQueue.getMaxAge())
+            .maxQueues(eventQueue.getMaxQueues())
+            .build();
+        EventBroker broker = eventBroker.getIfAvailable();
+        if (broker == null) {
+            return queueManager;
+        }
+        return new BrokeredQueueManager(queueManager, broker, eventQueue.getBrokerMaxBatchSize(),
+            eventQueue.getBrokerMaxBatchDelay(), eventQueue.getBrokerMirrorIdleTimeout());
     }
 
     /**
      * Creates a default in-memory task store for persisting task data. This
      * implementation stores tasks in memory and is suitable for development and testing.
      * For production use, consider providing a persistent implementation.
+     * <p>
+     * The store keeps every task unless bounds are set in {@code a2a.server.task-store},
+     * it then evicts terminal tasks within them. When
+     * {@code a2a.server.task-store.directory} is set, tasks are kept durably in an
+     * {@link EventLogTaskStore} in that directory instead. When
+     * {@code a2a.server.task-store.spill-directory} is set, the tasks within
+     * {@code max-size} are kept on heap and all tasks on disk in a {@link TieredTaskStore}.
+     *
+     * A {@link BoundedInMemoryTaskStore} also removes the moved out histories of the tasks
+     * it evicts from the task history store.
+     *
+     * @param a2aServerProperties The A2A server configuration properties
+     * @param taskHistoryStore    The store of the older messages of task histories
+     * @return A new EventLogTaskStore if a directory is set, TieredTaskStore if a spill
+     *         directory is set, BoundedInMemoryTaskStore if bounds are set, or an
+     *         InMemoryTaskStore
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TaskStore taskStore(A2AServerProperties a2aServerProperties, TaskHistoryStore taskHistoryStore) {
+        A2AServerProperties.TaskStore bounds = a2aServerProperties.getTaskStore();
+        if (bounds.getDirectory() != null && !bounds.getDirectory().isBlank()) {
+            return new EventLogTaskStore(Path.of(bounds.getDirectory()), bounds.getSegmentSize().toBytes(),
+                bounds.getCompactionSegments());
+        }
+        if (bounds.getSpillDirectory() != null && !bounds.getSpillDirectory().isBlank()) {
+            long maxHotBytes = bounds.getMaxSize().toBytes();
+            return new TieredTaskStore(Path.of(bounds.getSpillDirectory()),
+                maxHotBytes == 0 ? TieredTaskStore.DEFAULT_MAX_HOT_BYTES : maxHotBytes);
+        }
+        if (bounds.getMaxTasks() == 0 && bounds.getMaxSize().toBytes() == 0 && bounds.getTerminalTtl().isZero()) {
+            return new InMemoryTaskStore();
+        }
+        return new BoundedInMemoryTaskStore(bounds.getMaxTasks(), bounds.getMaxSize().toBytes(),
+            bounds.getTerminalTtl(), taskHistoryStore);
+    }
+
+    /**
+     * Creates a default store for the older messages of task histories, used when
+     * {@code a2a.server.task-store.max-history-length} is set. The messages are kept in a
+     * {@link FileTaskHistoryStore} in {@code a2a.server.task-store.history-directory} if
+     * set, or in an {@link InMemoryTaskHistoryStore} otherwise.
      *
-     * @return A new InMemoryTaskStore instance
+     * @param a2aServerProperties The A2A server configuration properties
+     * @return A new FileTaskHistoryStore if a history directory is set, or an
+     *         InMemoryTaskHistoryStore
      */
     @Bean
     @ConditionalOnMissingBean
-    public TaskStore taskStore() {
-        return new InMemoryTaskStore();
+    public TaskHistoryStore taskHistoryStore(A2AServerProperties a2aServerProperties) {
+        String directory = a2aServerProperties.getTaskStore().getHistoryDirectory();
+        if (directory != null && !directory.isBlank()) {
+            return new FileTaskHistoryStore(Path.of(directory));
+        }
+        return new InMemoryTaskHistoryStore();
+    }
+
+    /**
+     * Wraps the task store in a {@link WriteBehindTaskStore} when
+     * {@code a2a.server.write-behind.enabled} is set, so that intermediate saves of
+     * streaming tasks are coalesced. This applies to the default store as well as to a
+     * user-provided {@link TaskStore} bean.
+     *
+     * @param environment The environment to bind the write-behind properties from
+     * @return A BeanPostProcessor wrapping TaskStore beans
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "a2a.server.write-behind", name = "enabled", havingValue = "true")
+    public static BeanPostProcessor writeBehindTaskStorePostProcessor(Environment environment) {
+        A2AServerProperties.WriteBehind writeBehind = Binder.get(environment)
+                .bind("a2a.server.write-behind", A2AServerProperties.WriteBehind.class)
+                .orElseGet(A2AServerProperties.WriteBehind::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof TaskStore taskStore && !(bean instanceof WriteBehindTaskStore)) {
+                    return new WriteBehindTaskStore(taskStore, writeBehind.getFlushInterval(),
+                            writeBehind.getMaxPendingSaves());
+                }
+                return bean;
+            }
+        };
     }
 
     /**
      * Creates a default task manager for handling task lifecycle operations. The task
-     * manager uses the provided task store for persistence.
+     * manager uses a user-provided {@link ReactiveTaskStore} for persistence if there is
+     * one, the task store otherwise.
+     * <p>
+     * Agents get at most {@code a2a.server.task-store.max-related-tasks} related tasks per
+     * request, and streamed text parts are merged when
+     * {@code a2a.server.task-store.merge-text-parts} is set. When
+     * {@code a2a.server.task-store.max-history-length} is set, the older messages of task
+     * histories are moved to the {@link TaskHistoryStore} bean.
      *
-     * @param taskStore The task store to use for task persistence
+     * @param taskStore           The task store to use for task persistence
+     * @param reactiveTaskStore   The optional non-blocking task store, preferred when present
+     * @param taskHistoryStore    The store of the older messages of task histories
+     * @param a2aServerProperties The A2A server configuration properties
      * @return A new InMemoryTaskManager instance
      */
     @Bean
     @ConditionalOnMissingBean
-    public TaskManager taskManager(TaskStore taskStore) {
-        return new InMemoryTaskManager(taskStore);
+    public TaskManager taskManager(TaskStore taskStore, ObjectProvider<ReactiveTaskStore> reactiveTaskStore,
+            TaskHistoryStore taskHistoryStore, A2AServerProperties a2aServerProperties) {
+        ReactiveTaskStore reactive = reactiveTaskStore.getIfAvailable(() -> new ReactiveTaskStoreAdapter(taskStore));
+        A2AServerProperties.TaskStore settings = a2aServerProperties.getTaskStore();
+        int maxHistoryLength = settings.getMaxHistoryLength();
+        return new InMemoryTaskManager(reactive, settings.getMaxRelatedTasks(), settings.isMergeTextParts(),
+                maxHistoryLength, maxHistoryLength == 0 ? null : taskHistoryStore);
     }
 
     /**
@@ -262,21 +400,62 @@ public class A2AServerAutoConfiguration {
         return builder.build();
     }
 
+    /**
+     * Creates the sender delivering task updates to the URLs registered in push
+     * notification configs, when {@code a2a.server.capabilities.push-notifications} is
+     * enabled. Concurrency, retries and dead-lettering are taken from
+     * {@code a2a.server.push-notification}.
+     *
+     * @param a2aServerProperties The A2A server configuration properties
+     * @return A new HttpPushNotificationSender instance
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "a2a.server.capabilities", name = "push-notifications", havingValue = "true")
+    public PushNotificationSender pushNotificationSender(A2AServerProperties a2aServerProperties) {
+        A2AServerProperties.PushNotification pushNotification = a2aServerProperties.getPushNotification();
+        return new HttpPushNotificationSender(HttpClient.create().responseTimeout(pushNotification.getResponseTimeout()),
+                pushNotification.getMaxConcurrency(), pushNotification.getMaxConcurrencyPerHost(),
+                pushNotification.getMaxAttempts(), pushNotification.getInitialBackoff(),
+                pushNotification.getMaxBackoff(), pushNotification.getMaxDeadLetters());
+    }
+
     /**
      * Creates the main A2A server implementation. This server orchestrates all the
      * components to provide complete A2A protocol support.
      *
-     * @param taskManager   The task manager for handling task operations
-     * @param agentExecutor The agent executor containing the core logic
-     * @param queueManager  The queue manager for event handling
-     * @param agentCard     The agent card with server metadata
+     * <p>
+     * When {@code a2a.server.execution.virtual-threads} is enabled, the agent executor is
+     * wrapped in a {@link VirtualThreadAgentExecutor} so that blocking agents run on a
+     * virtual thread per task. When {@code a2a.server.execution.max-concurrency} is set,
+     * it is wrapped in a {@link BoundedAgentExecutor} so that executions beyond the
+     * configured limits are rejected with a server overloaded error. Task updates are
+     * delivered to push notification URLs through the {@link PushNotificationSender} bean,
+     * if there is one.
+     *
+     * @param taskManager            The task manager for handling task operations
+     * @param agentExecutor          The agent executor containing the core logic
+     * @param queueManager           The queue manager for event handling
+     * @param agentCard              The agent card with server metadata
+     * @param pushNotificationSender The optional sender of push notifications
+     * @param a2aServerProperties    The configuration properties for the A2A server
      * @return A new DefaultA2AServer instance
      */
     @Bean
     @ConditionalOnMissingBean
     public A2AServer a2AServer(TaskManager taskManager, AgentExecutor agentExecutor, QueueManager queueManager,
-                               AgentCard agentCard) {
-        return new DefaultA2AServer(taskManager, agentExecutor, queueManager, agentCard);
+                               AgentCard agentCard, ObjectProvider<PushNotificationSender> pushNotificationSender,
+                               A2AServerProperties a2aServerProperties) {
+        A2AServerProperties.Execution execution = a2aServerProperties.getExecution();
+        if (execution != null && execution.isVirtualThreads()) {
+            agentExecutor = new VirtualThreadAgentExecutor(agentExecutor);
+        }
+        if (execution != null && execution.getMaxConcurrency() > 0) {
+            agentExecutor = new BoundedAgentExecutor(agentExecutor, execution.getMaxConcurrency(),
+                    execution.getQueueCapacity(), execution.getQueueTimeout());
+        }
+        return new DefaultA2AServer(taskManager, agentExecutor, queueManager, agentCard, Schedulers.boundedElastic(),
+                pushNotificationSender.getIfAvailable());
     }
 
 }
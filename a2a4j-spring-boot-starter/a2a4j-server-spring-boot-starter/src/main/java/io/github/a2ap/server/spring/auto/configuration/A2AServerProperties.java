@@ -18,12 +18,15 @@ package io.github.a2ap.server.spring.auto.configuration;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.github.a2ap.core.server.impl.HttpPushNotificationSender;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Configuration properties for A2A Server.
@@ -44,6 +47,20 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  *       streaming: true
  *       push-notifications: false
  *       state-transition-history: true
+ *     execution:
+ *       max-concurrency: 16
+ *       queue-capacity: 64
+ *       queue-timeout: 30s
+ *       virtual-threads: false
+ *     write-behind:
+ *       enabled: true
+ *       flush-interval: 1s
+ *       max-pending-saves: 100
+ *     event-queue:
+ *       capacity: 1024
+ *       overflow-policy: block
+ *       replay-events: 64
+ *       replay-bytes: 1MB
  * </pre>
  *
  * @see io.github.a2ap.core.model.AgentCard
@@ -135,6 +152,31 @@ public class A2AServerProperties implements Serializable {
      */
     private boolean supportsAuthenticatedExtendedCard = false;
 
+    /**
+     * Agent execution limits configuration.
+     */
+    private Execution execution = new Execution();
+
+    /**
+     * Bounds of the default in-memory task store.
+     */
+    private TaskStore taskStore = new TaskStore();
+
+    /**
+     * Write-behind configuration of the task store.
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * Task event queue configuration.
+     */
+    private EventQueue eventQueue = new EventQueue();
+
+    /**
+     * Push notification delivery configuration.
+     */
+    private PushNotification pushNotification = new PushNotification();
+
     /**
      * Returns whether the A2A server is enabled.
      *
@@ -341,6 +383,1030 @@ public class A2AServerProperties implements Serializable {
         this.capabilities = capabilities;
     }
 
+    /**
+     * Returns the agent execution limits configuration.
+     *
+     * @return the execution configuration
+     */
+    public Execution getExecution() {
+        return execution;
+    }
+
+    /**
+     * Sets the agent execution limits configuration.
+     *
+     * @param execution the execution configuration to set
+     */
+    public void setExecution(Execution execution) {
+        this.execution = execution;
+    }
+
+    /**
+     * Returns the bounds of the default in-memory task store.
+     *
+     * @return the task store configuration
+     */
+    public TaskStore getTaskStore() {
+        return taskStore;
+    }
+
+    /**
+     * Sets the bounds of the default in-memory task store.
+     *
+     * @param taskStore the task store configuration to set
+     */
+    public void setTaskStore(TaskStore taskStore) {
+        this.taskStore = taskStore;
+    }
+
+    /**
+     * Returns the write-behind configuration of the task store.
+     *
+     * @return the write-behind configuration
+     */
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Sets the write-behind configuration of the task store.
+     *
+     * @param writeBehind the write-behind configuration to set
+     */
+    public void setWriteBehind(WriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Returns the task event queue configuration.
+     *
+     * @return the event queue configuration
+     */
+    public EventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    /**
+     * Sets the task event queue configuration.
+     *
+     * @param eventQueue the event queue configuration to set
+     */
+    public void setEventQueue(EventQueue eventQueue) {
+        this.eventQueue = eventQueue;
+    }
+
+    /**
+     * Returns the push notification delivery configuration.
+     *
+     * @return the push notification configuration
+     */
+    public PushNotification getPushNotification() {
+        return pushNotification;
+    }
+
+    /**
+     * Sets the push notification delivery configuration.
+     *
+     * @param pushNotification the push notification configuration to set
+     */
+    public void setPushNotification(PushNotification pushNotification) {
+        this.pushNotification = pushNotification;
+    }
+
+    /**
+     * Configuration for agent execution limits.
+     * <p>
+     * When {@code maxConcurrency} is greater than 0, at most that many agent executions
+     * run at the same time. Further requests wait in a queue of {@code queueCapacity}
+     * entries for up to {@code queueTimeout}, and are rejected with a server overloaded
+     * error once the queue is full or the timeout has elapsed.
+     * <p>
+     * When {@code virtualThreads} is enabled, agents are executed on a virtual thread per
+     * task, which suits agents calling blocking APIs.
+     */
+    public static class Execution implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Maximum number of concurrent agent executions, 0 or less for no limit.
+         */
+        private int maxConcurrency = 0;
+
+        /**
+         * Maximum number of executions waiting for a free execution slot.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum time an execution waits for a free execution slot.
+         */
+        private Duration queueTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Whether to run agent executions on virtual threads, falls back to the bounded
+         * elastic scheduler on Java versions without virtual threads.
+         */
+        private boolean virtualThreads = false;
+
+        /**
+         * Returns the maximum number of concurrent agent executions.
+         *
+         * @return the maximum number of concurrent executions, 0 or less for no limit
+         */
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        /**
+         * Sets the maximum number of concurrent agent executions.
+         *
+         * @param maxConcurrency the maximum number of concurrent executions, 0 or less for
+         *                       no limit
+         */
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        /**
+         * Returns the maximum number of executions waiting for a free slot.
+         *
+         * @return the wait queue capacity
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the maximum number of executions waiting for a free slot.
+         *
+         * @param queueCapacity the wait queue capacity
+         */
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * Returns the maximum time an execution waits for a free slot.
+         *
+         * @return the wait queue timeout
+         */
+        public Duration getQueueTimeout() {
+            return queueTimeout;
+        }
+
+        /**
+         * Sets the maximum time an execution waits for a free slot.
+         *
+         * @param queueTimeout the wait queue timeout
+         */
+        public void setQueueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+        }
+
+        /**
+         * Returns whether agent executions run on virtual threads.
+         *
+         * @return true if agent executions run on virtual threads, false otherwise
+         */
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        /**
+         * Sets whether agent executions run on virtual threads.
+         *
+         * @param virtualThreads true to run agent executions on virtual threads, false to
+         *                       run them on the calling thread
+         */
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+    }
+
+    /**
+     * Configuration of the default task store.
+     * <p>
+     * By default every task is kept in memory. Bounds are opt-in: when any of
+     * {@code maxTasks}, {@code maxSize} or {@code terminalTtl} is set, terminal tasks are
+     * evicted least recently used first once the store holds more than {@code maxTasks}
+     * tasks or {@code maxSize}, and after {@code terminalTtl} without a save or load.
+     * Running tasks are never evicted.
+     * <p>
+     * When {@code directory} is set, tasks are instead kept durably in an append-only log
+     * in that directory, and the bounds do not apply.
+     */
+    public static class TaskStore implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Maximum number of tasks stored, 0 for no limit.
+         */
+        private int maxTasks;
+
+        /**
+         * Maximum estimated size of the stored tasks, 0 for no limit. With a spill
+         * directory, the maximum size of the tasks kept on heap, 0 for 256MB.
+         */
+        private DataSize maxSize = DataSize.ofBytes(0);
+
+        /**
+         * How long a terminal task is kept after its last save or load, 0 to keep it until
+         * it is evicted for room.
+         */
+        private Duration terminalTtl = Duration.ZERO;
+
+        /**
+         * Directory of the append-only task log, unset to keep tasks in memory only.
+         */
+        private String directory;
+
+        /**
+         * Size at which a segment of the task log is sealed.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Number of sealed segments of the task log that triggers a compaction.
+         */
+        private int compactionSegments = 4;
+
+        /**
+         * Directory of the on-disk tier tasks are spilled to, unset to keep tasks in memory
+         * only.
+         */
+        private String spillDirectory;
+
+        /**
+         * Maximum number of messages kept in the history of a task, older messages are
+         * moved to the history store; 0 for no limit.
+         */
+        private int maxHistoryLength = 0;
+
+        /**
+         * Directory the older messages of task histories are moved to, unset to keep them in
+         * memory.
+         */
+        private String historyDirectory;
+
+        /**
+         * Maximum number of related tasks of the same context given to an agent per
+         * request, 0 for no limit.
+         */
+        private int maxRelatedTasks = 0;
+
+        /**
+         * Whether to merge the adjacent text parts of a streamed artifact into one part once
+         * its last chunk is received.
+         */
+        private boolean mergeTextParts = false;
+
+        /**
+         * Returns the maximum number of tasks stored.
+         *
+         * @return the maximum number of tasks, 0 for no limit
+         */
+        public int getMaxTasks() {
+            return maxTasks;
+        }
+
+        /**
+         * Sets the maximum number of tasks stored.
+         *
+         * @param maxTasks the maximum number of tasks, 0 for no limit
+         */
+        public void setMaxTasks(int maxTasks) {
+            this.maxTasks = maxTasks;
+        }
+
+        /**
+         * Returns the maximum estimated size of the stored tasks.
+         *
+         * @return the maximum size, 0 for no limit
+         */
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         * Sets the maximum estimated size of the stored tasks.
+         *
+         * @param maxSize the maximum size, 0 for no limit
+         */
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * Returns how long a terminal task is kept after its last save or load.
+         *
+         * @return the time to live, zero if terminal tasks only expire for room
+         */
+        public Duration getTerminalTtl() {
+            return terminalTtl;
+        }
+
+        /**
+         * Sets how long a terminal task is kept after its last save or load.
+         *
+         * @param terminalTtl the time to live, zero to only evict terminal tasks for room
+         */
+        public void setTerminalTtl(Duration terminalTtl) {
+            this.terminalTtl = terminalTtl;
+        }
+
+        /**
+         * Returns the directory of the append-only task log.
+         *
+         * @return the directory, null to keep tasks in memory only
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets the directory of the append-only task log.
+         *
+         * @param directory the directory, null to keep tasks in memory only
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Returns the size at which a segment of the task log is sealed.
+         *
+         * @return the segment size
+         */
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        /**
+         * Sets the size at which a segment of the task log is sealed.
+         *
+         * @param segmentSize the segment size
+         */
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        /**
+         * Returns the number of sealed segments that triggers a compaction of the task log.
+         *
+         * @return the number of segments
+         */
+        public int getCompactionSegments() {
+            return compactionSegments;
+        }
+
+        /**
+         * Sets the number of sealed segments that triggers a compaction of the task log.
+         *
+         * @param compactionSegments the number of segments
+         */
+        public void setCompactionSegments(int compactionSegments) {
+            this.compactionSegments = compactionSegments;
+        }
+
+        /**
+         * Returns the directory of the on-disk tier tasks are spilled to.
+         *
+         * @return the directory, null to keep tasks in memory only
+         */
+        public String getSpillDirectory() {
+            return spillDirectory;
+        }
+
+        /**
+         * Sets the directory of the on-disk tier tasks are spilled to.
+         *
+         * @param spillDirectory the directory, null to keep tasks in memory only
+         */
+        public void setSpillDirectory(String spillDirectory) {
+            this.spillDirectory = spillDirectory;
+        }
+
+        /**
+         * Returns the maximum number of messages kept in the history of a task.
+         *
+         * @return the maximum number of messages, 0 for no limit
+         */
+        public int getMaxHistoryLength() {
+            return maxHistoryLength;
+        }
+
+        /**
+         * Sets the maximum number of messages kept in the history of a task.
+         *
+         * @param maxHistoryLength the maximum number of messages, 0 for no limit
+         */
+        public void setMaxHistoryLength(int maxHistoryLength) {
+            this.maxHistoryLength = maxHistoryLength;
+        }
+
+        /**
+         * Returns the directory the older messages of task histories are moved to.
+         *
+         * @return the directory, null to keep them in memory
+         */
+        public String getHistoryDirectory() {
+            return historyDirectory;
+        }
+
+        /**
+         * Sets the directory the older messages of task histories are moved to.
+         *
+         * @param historyDirectory the directory, null to keep them in memory
+         */
+        public void setHistoryDirectory(String historyDirectory) {
+            this.historyDirectory = historyDirectory;
+        }
+
+        /**
+         * Returns the maximum number of related tasks given to an agent per request.
+         *
+         * @return the maximum number of related tasks, 0 for no limit
+         */
+        public int getMaxRelatedTasks() {
+            return maxRelatedTasks;
+        }
+
+        /**
+         * Sets the maximum number of related tasks given to an agent per request.
+         *
+         * @param maxRelatedTasks the maximum number of related tasks, 0 for no limit
+         */
+        public void setMaxRelatedTasks(int maxRelatedTasks) {
+            this.maxRelatedTasks = maxRelatedTasks;
+        }
+
+        /**
+         * Returns whether the text parts of a streamed artifact are merged on its last chunk.
+         *
+         * @return true if the text parts are merged
+         */
+        public boolean isMergeTextParts() {
+            return mergeTextParts;
+        }
+
+        /**
+         * Sets whether the text parts of a streamed artifact are merged on its last chunk.
+         *
+         * @param mergeTextParts true to merge the text parts
+         */
+        public void setMergeTextParts(boolean mergeTextParts) {
+            this.mergeTextParts = mergeTextParts;
+        }
+
+    }
+
+    /**
+     * Configuration for coalescing task store saves.
+     * <p>
+     * When enabled, the task store is wrapped so that intermediate saves of a task are
+     * written at most every {@code flushInterval} or every {@code maxPendingSaves} saves.
+     * Terminal states, and tasks waiting for input or authentication, are written right
+     * away.
+     */
+    public static class WriteBehind implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Whether intermediate task store saves are coalesced.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum time a save stays pending before it is written.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of saves coalesced for a task before it is written.
+         */
+        private int maxPendingSaves = 100;
+
+        /**
+         * Returns whether intermediate task store saves are coalesced.
+         *
+         * @return true if write-behind is enabled, false otherwise
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether intermediate task store saves are coalesced.
+         *
+         * @param enabled true to enable write-behind, false to disable
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the maximum time a save stays pending.
+         *
+         * @return the flush interval
+         */
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        /**
+         * Sets the maximum time a save stays pending.
+         *
+         * @param flushInterval the flush interval
+         */
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        /**
+         * Returns the maximum number of saves coalesced for a task.
+         *
+         * @return the maximum number of pending saves
+         */
+        public int getMaxPendingSaves() {
+            return maxPendingSaves;
+        }
+
+        /**
+         * Sets the maximum number of saves coalesced for a task.
+         *
+         * @param maxPendingSaves the maximum number of pending saves
+         */
+        public void setMaxPendingSaves(int maxPendingSaves) {
+            this.maxPendingSaves = maxPendingSaves;
+        }
+
+    }
+
+    /**
+     * Configuration for the event queues between agents and their subscribers.
+     * <p>
+     * Each queue buffers at most {@code capacity} events for its slowest subscriber. The
+     * {@code overflowPolicy} decides what happens to new events once the buffer is full.
+     * Subscribers of tapped queues, e.g. of tasks/resubscribe, falling a full buffer behind
+     * are cut off and may resume after their last event. A producer waiting for room
+     * otherwise gives up after {@code offerTimeout}, the event is then rejected, unless it
+     * is a final event, which may take a slot reserved for it.
+     * <p>
+     * When {@code replayEvents} is greater than 0, each queue keeps its most recent events,
+     * up to {@code replayEvents} events and {@code replayBytes}, and replays them to
+     * subscribers attaching late, e.g. on tasks/resubscribe. Streams are resumed from the
+     * window as well, so it should hold the events a client may miss while reconnecting.
+     */
+    public static class EventQueue implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Maximum number of events buffered per task.
+         */
+        private int capacity = io.github.a2ap.core.server.EventQueue.DEFAULT_CAPACITY;
+
+        /**
+         * What to do with new events while the buffer is full.
+         */
+        private io.github.a2ap.core.server.EventQueue.OverflowPolicy overflowPolicy =
+            io.github.a2ap.core.server.EventQueue.OverflowPolicy.COALESCE;
+
+        /**
+         * Maximum time a producer waits for room in a full buffer before the event is
+         * rejected.
+         */
+        private Duration offerTimeout = io.github.a2ap.core.server.EventQueue.DEFAULT_OFFER_TIMEOUT;
+
+        /**
+         * Maximum number of recent events replayed to late subscribers, 0 to disable replay,
+         * capped at the capacity. A client resuming a stream after the last event it received only gets the missed
+         * events still in the window.
+         */
+        private int replayEvents = 64;
+
+        /**
+         * Maximum estimated size of the events replayed to late subscribers.
+         */
+        private DataSize replayBytes = DataSize.ofMegabytes(1);
+
+        /**
+         * How long a queue without subscribers may go without a new event or subscriber
+         * change before it is reaped, 0 to never reap idle queues.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(30);
+
+        /**
+         * How long a queue may live before it is reaped, 0 for no limit.
+         */
+        private Duration maxAge = Duration.ZERO;
+
+        /**
+         * Maximum number of live queues, 0 for no limit.
+         */
+        private int maxQueues = 10000;
+
+        /**
+         * Maximum number of events published to the event broker in one batch.
+         */
+        private int brokerMaxBatchSize = io.github.a2ap.core.server.impl.BrokeredQueueManager.DEFAULT_MAX_BATCH_SIZE;
+
+        /**
+         * Maximum time an event waits for its batch to the event broker to fill up.
+         */
+        private Duration brokerMaxBatchDelay = io.github.a2ap.core.server.impl.BrokeredQueueManager.DEFAULT_MAX_BATCH_DELAY;
+
+        /**
+         * Time after which the local mirror of a task of another node is closed when no
+         * events of the task were received from the event broker.
+         */
+        private Duration brokerMirrorIdleTimeout =
+            io.github.a2ap.core.server.impl.BrokeredQueueManager.DEFAULT_MIRROR_IDLE_TIMEOUT;
+
+        /**
+         * Returns the maximum number of events buffered per task.
+         *
+         * @return the queue capacity
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Sets the maximum number of events buffered per task.
+         *
+         * @param capacity the queue capacity
+         */
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Returns what happens to new events while the buffer is full.
+         *
+         * @return the overflow policy
+         */
+        public io.github.a2ap.core.server.EventQueue.OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        /**
+         * Sets what happens to new events while the buffer is full.
+         *
+         * @param overflowPolicy the overflow policy
+         */
+        public void setOverflowPolicy(io.github.a2ap.core.server.EventQueue.OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        /**
+         * Returns the maximum time a producer waits for room in a full buffer.
+         *
+         * @return the offer timeout
+         */
+        public Duration getOfferTimeout() {
+            return offerTimeout;
+        }
+
+        /**
+         * Sets the maximum time a producer waits for room in a full buffer.
+         *
+         * @param offerTimeout the offer timeout
+         */
+        public void setOfferTimeout(Duration offerTimeout) {
+            this.offerTimeout = offerTimeout;
+        }
+
+        /**
+         * Returns the maximum number of recent events replayed to late subscribers.
+         *
+         * @return the replay window length, 0 if replay is disabled
+         */
+        public int getReplayEvents() {
+            return replayEvents;
+        }
+
+        /**
+         * Sets the maximum number of recent events replayed to late subscribers.
+         *
+         * @param replayEvents the replay window length, 0 to disable replay
+         */
+        public void setReplayEvents(int replayEvents) {
+            this.replayEvents = replayEvents;
+        }
+
+        /**
+         * Returns the maximum estimated size of the events replayed to late subscribers.
+         *
+         * @return the replay window size
+         */
+        public DataSize getReplayBytes() {
+            return replayBytes;
+        }
+
+        /**
+         * Sets the maximum estimated size of the events replayed to late subscribers.
+         *
+         * @param replayBytes the replay window size
+         */
+        public void setReplayBytes(DataSize replayBytes) {
+            this.replayBytes = replayBytes;
+        }
+
+        /**
+         * Returns how long a queue may stay idle before it is reaped.
+         *
+         * @return the idle timeout, zero if idle queues are never reaped
+         */
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        /**
+         * Sets how long a queue may stay idle before it is reaped.
+         *
+         * @param idleTimeout the idle timeout, zero to never reap idle queues
+         */
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        /**
+         * Returns how long a queue may live before it is reaped.
+         *
+         * @return the maximum age, zero for no limit
+         */
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        /**
+         * Sets how long a queue may live before it is reaped.
+         *
+         * @param maxAge the maximum age, zero for no limit
+         */
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        /**
+         * Returns the maximum number of live queues.
+         *
+         * @return the maximum number of queues, 0 for no limit
+         */
+        public int getMaxQueues() {
+            return maxQueues;
+        }
+
+        /**
+         * Sets the maximum number of live queues.
+         *
+         * @param maxQueues the maximum number of queues, 0 for no limit
+         */
+        public void setMaxQueues(int maxQueues) {
+            this.maxQueues = maxQueues;
+        }
+
+        /**
+         * Returns the maximum number of events published to the event broker in one batch.
+         *
+         * @return the maximum batch size
+         */
+        public int getBrokerMaxBatchSize() {
+            return brokerMaxBatchSize;
+        }
+
+        /**
+         * Sets the maximum number of events published to the event broker in one batch.
+         *
+         * @param brokerMaxBatchSize the maximum batch size
+         */
+        public void setBrokerMaxBatchSize(int brokerMaxBatchSize) {
+            this.brokerMaxBatchSize = brokerMaxBatchSize;
+        }
+
+        /**
+         * Returns the maximum time an event waits for its batch to the event broker to fill up.
+         *
+         * @return the maximum batch delay
+         */
+        public Duration getBrokerMaxBatchDelay() {
+            return brokerMaxBatchDelay;
+        }
+
+        /**
+         * Sets the maximum time an event waits for its batch to the event broker to fill up.
+         *
+         * @param brokerMaxBatchDelay the maximum batch delay
+         */
+        public void setBrokerMaxBatchDelay(Duration brokerMaxBatchDelay) {
+            this.brokerMaxBatchDelay = brokerMaxBatchDelay;
+        }
+
+        /**
+         * Returns the time after which the mirror of a task of another node is closed when
+         * no events of the task were received.
+         *
+         * @return the mirror idle timeout
+         */
+        public Duration getBrokerMirrorIdleTimeout() {
+            return brokerMirrorIdleTimeout;
+        }
+
+        /**
+         * Sets the time after which the mirror of a task of another node is closed when no
+         * events of the task were received.
+         *
+         * @param brokerMirrorIdleTimeout the mirror idle timeout
+         */
+        public void setBrokerMirrorIdleTimeout(Duration brokerMirrorIdleTimeout) {
+            this.brokerMirrorIdleTimeout = brokerMirrorIdleTimeout;
+        }
+
+    }
+
+    /**
+     * Configuration for the delivery of push notifications.
+     * <p>
+     * Task updates are posted to the URL of the push notification config of the task, at
+     * most {@code maxConcurrency} at the same time and {@code maxConcurrencyPerHost} to the
+     * same host. Intermediate updates of a task are coalesced while a post is in flight.
+     * Failed posts are retried with an exponential backoff from {@code initialBackoff} up
+     * to {@code maxBackoff}, at most {@code maxAttempts} attempts, before the notification
+     * is dead-lettered.
+     */
+    public static class PushNotification implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Maximum number of notifications posted at the same time.
+         */
+        private int maxConcurrency = HttpPushNotificationSender.DEFAULT_MAX_CONCURRENCY;
+
+        /**
+         * Maximum number of notifications posted to the same host at the same time.
+         */
+        private int maxConcurrencyPerHost = HttpPushNotificationSender.DEFAULT_MAX_CONCURRENCY_PER_HOST;
+
+        /**
+         * Maximum number of attempts to post a notification.
+         */
+        private int maxAttempts = HttpPushNotificationSender.DEFAULT_MAX_ATTEMPTS;
+
+        /**
+         * Backoff before the first retry, doubled on every further retry.
+         */
+        private Duration initialBackoff = HttpPushNotificationSender.DEFAULT_INITIAL_BACKOFF;
+
+        /**
+         * Maximum backoff between two attempts.
+         */
+        private Duration maxBackoff = HttpPushNotificationSender.DEFAULT_MAX_BACKOFF;
+
+        /**
+         * Maximum time to wait for the response of a receiver.
+         */
+        private Duration responseTimeout = HttpPushNotificationSender.DEFAULT_RESPONSE_TIMEOUT;
+
+        /**
+         * Maximum number of dead-lettered notifications kept.
+         */
+        private int maxDeadLetters = HttpPushNotificationSender.DEFAULT_MAX_DEAD_LETTERS;
+
+        /**
+         * Returns the maximum number of notifications posted at the same time.
+         *
+         * @return the maximum concurrency
+         */
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        /**
+         * Sets the maximum number of notifications posted at the same time.
+         *
+         * @param maxConcurrency the maximum concurrency
+         */
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        /**
+         * Returns the maximum number of notifications posted to the same host at the same
+         * time.
+         *
+         * @return the maximum concurrency per host
+         */
+        public int getMaxConcurrencyPerHost() {
+            return maxConcurrencyPerHost;
+        }
+
+        /**
+         * Sets the maximum number of notifications posted to the same host at the same time.
+         *
+         * @param maxConcurrencyPerHost the maximum concurrency per host
+         */
+        public void setMaxConcurrencyPerHost(int maxConcurrencyPerHost) {
+            this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        }
+
+        /**
+         * Returns the maximum number of attempts to post a notification.
+         *
+         * @return the maximum number of attempts
+         */
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        /**
+         * Sets the maximum number of attempts to post a notification.
+         *
+         * @param maxAttempts the maximum number of attempts
+         */
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        /**
+         * Returns the backoff before the first retry.
+         *
+         * @return the initial backoff
+         */
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        /**
+         * Sets the backoff before the first retry.
+         *
+         * @param initialBackoff the initial backoff
+         */
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        /**
+         * Returns the maximum backoff between two attempts.
+         *
+         * @return the maximum backoff
+         */
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        /**
+         * Sets the maximum backoff between two attempts.
+         *
+         * @param maxBackoff the maximum backoff
+         */
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * Returns the maximum time to wait for the response of a receiver.
+         *
+         * @return the response timeout
+         */
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        /**
+         * Sets the maximum time to wait for the response of a receiver.
+         *
+         * @param responseTimeout the response timeout
+         */
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        /**
+         * Returns the maximum number of dead-lettered notifications kept.
+         *
+         * @return the maximum number of dead letters
+         */
+        public int getMaxDeadLetters() {
+            return maxDeadLetters;
+        }
+
+        /**
+         * Sets the maximum number of dead-lettered notifications kept.
+         *
+         * @param maxDeadLetters the maximum number of dead letters
+         */
+        public void setMaxDeadLetters(int maxDeadLetters) {
+            this.maxDeadLetters = maxDeadLetters;
+        }
+
+    }
+
     /**
      * Configuration for agent capabilities.
      * <p>
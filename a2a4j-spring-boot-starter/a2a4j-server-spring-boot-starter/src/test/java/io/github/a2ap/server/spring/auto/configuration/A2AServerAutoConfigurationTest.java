@@ -16,9 +16,30 @@
 
 package io.github.a2ap.server.spring.auto.configuration;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.github.a2ap.core.exception.A2AError;
+import io.github.a2ap.core.server.A2AServer;
+import io.github.a2ap.core.server.EventBroker;
+import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.QueueManager;
+import io.github.a2ap.core.server.TaskManager;
+import io.github.a2ap.core.server.TaskStore;
+import io.github.a2ap.core.server.impl.BoundedInMemoryTaskStore;
+import io.github.a2ap.core.server.impl.BrokeredQueueManager;
+import io.github.a2ap.core.server.impl.EventLogTaskStore;
+import io.github.a2ap.core.server.impl.InMemoryEventBroker;
+import io.github.a2ap.core.server.impl.InMemoryTaskStore;
+import io.github.a2ap.core.server.impl.TieredTaskStore;
+import io.github.a2ap.core.server.impl.WriteBehindTaskStore;
+import java.nio.file.Path;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
 /**
@@ -47,6 +68,96 @@ class A2AServerAutoConfigurationTest {
         });
     }
 
+    @Test
+    void testExecutionLimits() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class)
+                .withPropertyValues("a2a.server.execution.max-concurrency=4",
+                        "a2a.server.execution.queue-capacity=8",
+                        "a2a.server.execution.queue-timeout=5s",
+                        "a2a.server.execution.virtual-threads=true");
+
+        contextRunner.run(context -> {
+            A2AServerProperties.Execution execution = context.getBean(A2AServerProperties.class).getExecution();
+            assertEquals(4, execution.getMaxConcurrency());
+            assertEquals(8, execution.getQueueCapacity());
+            assertEquals(Duration.ofSeconds(5), execution.getQueueTimeout());
+            assertTrue(execution.isVirtualThreads());
+            assertNotNull(context.getBean(A2AServer.class));
+        });
+    }
+
+    @Test
+    void testTaskStoreBounds() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class);
+
+        contextRunner.run(context -> assertInstanceOf(InMemoryTaskStore.class, context.getBean(TaskStore.class)));
+        contextRunner.withPropertyValues("a2a.server.task-store.max-tasks=10000")
+                .run(context -> assertInstanceOf(BoundedInMemoryTaskStore.class,
+                        context.getBean(TaskStore.class)));
+    }
+
+    @Test
+    void testEventLogTaskStore(@TempDir Path directory) {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class)
+                .withPropertyValues("a2a.server.task-store.directory=" + directory,
+                        "a2a.server.task-store.segment-size=1MB");
+
+        contextRunner.run(context -> assertInstanceOf(EventLogTaskStore.class, context.getBean(TaskStore.class)));
+    }
+
+    @Test
+    void testTieredTaskStore(@TempDir Path directory) {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class)
+                .withPropertyValues("a2a.server.task-store.spill-directory=" + directory,
+                        "a2a.server.task-store.max-size=16MB");
+
+        contextRunner.run(context -> assertInstanceOf(TieredTaskStore.class, context.getBean(TaskStore.class)));
+    }
+
+    @Test
+    void testWriteBehindTaskStore() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class)
+                .withPropertyValues("a2a.server.write-behind.enabled=true",
+                        "a2a.server.write-behind.max-pending-saves=10");
+
+        contextRunner.run(context -> {
+            assertInstanceOf(WriteBehindTaskStore.class, context.getBean(TaskStore.class));
+            assertNotNull(context.getBean(TaskManager.class));
+        });
+    }
+
+    @Test
+    void testEventQueueSettings() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class)
+                .withPropertyValues("a2a.server.event-queue.capacity=16",
+                        "a2a.server.event-queue.overflow-policy=drop-oldest",
+                        "a2a.server.event-queue.max-queues=1");
+
+        contextRunner.run(context -> {
+            QueueManager queueManager = context.getBean(QueueManager.class);
+            EventQueue queue = queueManager.create("task-1");
+            assertEquals(16, queue.getCapacity());
+            assertEquals(EventQueue.OverflowPolicy.DROP_OLDEST, queue.getOverflowPolicy());
+            assertThrows(A2AError.class, () -> queueManager.create("task-2"));
+        });
+    }
+
+    @Test
+    void testEventBrokerSharesQueues() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withUserConfiguration(A2AServerAutoConfiguration.class)
+                .withBean(EventBroker.class, InMemoryEventBroker::new);
+
+        contextRunner.run(context -> assertInstanceOf(BrokeredQueueManager.class,
+                context.getBean(QueueManager.class)));
+    }
+
     @Test
     void testConstructor() {
         A2AServerAutoConfiguration config = new A2AServerAutoConfiguration();
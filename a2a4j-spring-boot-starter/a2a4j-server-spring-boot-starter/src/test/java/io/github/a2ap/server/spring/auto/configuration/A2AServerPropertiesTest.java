@@ -17,10 +17,16 @@
 package io.github.a2ap.server.spring.auto.configuration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.github.a2ap.core.server.EventQueue;
+import io.github.a2ap.core.server.impl.BrokeredQueueManager;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Unit tests for {@link A2AServerProperties}.
@@ -61,4 +67,48 @@ class A2AServerPropertiesTest {
         assertTrue(capabilities.isStreaming());
         assertTrue(capabilities.isStateTransitionHistory());
     }
+
+    @Test
+    void testExecution() {
+        A2AServerProperties properties = new A2AServerProperties();
+        A2AServerProperties.Execution execution = properties.getExecution();
+
+        assertNotNull(execution);
+        assertEquals(0, execution.getMaxConcurrency());
+        assertFalse(execution.isVirtualThreads());
+    }
+
+    @Test
+    void testTaskStore() {
+        A2AServerProperties.TaskStore taskStore = new A2AServerProperties().getTaskStore();
+
+        assertEquals(0, taskStore.getMaxTasks());
+        assertEquals(DataSize.ofBytes(0), taskStore.getMaxSize());
+        assertEquals(Duration.ZERO, taskStore.getTerminalTtl());
+        assertNull(taskStore.getDirectory());
+        assertEquals(DataSize.ofMegabytes(64), taskStore.getSegmentSize());
+        assertEquals(4, taskStore.getCompactionSegments());
+        assertNull(taskStore.getSpillDirectory());
+        assertEquals(0, taskStore.getMaxHistoryLength());
+        assertNull(taskStore.getHistoryDirectory());
+        assertEquals(0, taskStore.getMaxRelatedTasks());
+        assertFalse(taskStore.isMergeTextParts());
+    }
+
+    @Test
+    void testEventQueue() {
+        A2AServerProperties properties = new A2AServerProperties();
+        A2AServerProperties.EventQueue eventQueue = properties.getEventQueue();
+
+        assertNotNull(eventQueue);
+        assertEquals(EventQueue.DEFAULT_CAPACITY, eventQueue.getCapacity());
+        assertEquals(EventQueue.OverflowPolicy.COALESCE, eventQueue.getOverflowPolicy());
+        assertEquals(EventQueue.DEFAULT_OFFER_TIMEOUT, eventQueue.getOfferTimeout());
+        assertEquals(64, eventQueue.getReplayEvents());
+        assertEquals(DataSize.ofMegabytes(1), eventQueue.getReplayBytes());
+        assertEquals(Duration.ofMinutes(30), eventQueue.getIdleTimeout());
+        assertEquals(Duration.ZERO, eventQueue.getMaxAge());
+        assertEquals(10000, eventQueue.getMaxQueues());
+        assertEquals(BrokeredQueueManager.DEFAULT_MIRROR_IDLE_TIMEOUT, eventQueue.getBrokerMirrorIdleTimeout());
+    }
 } 